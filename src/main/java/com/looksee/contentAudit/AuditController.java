@@ -18,10 +18,20 @@ package com.looksee.contentAudit;
 // [START cloudrun_pubsub_handler]
 // [START run_pubsub_handler]
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +44,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -45,8 +56,21 @@ import com.looksee.contentAudit.models.ObjectAltTextAudit;
 import com.looksee.contentAudit.models.ParagraphingAudit;
 import com.looksee.contentAudit.models.ReadabilityAudit;
 import com.looksee.contentAudit.models.SVGAltTextAudit;
+import com.looksee.contentAudit.services.AuditPipeline;
+import com.looksee.contentAudit.services.AuditWriter;
+import com.looksee.contentAudit.services.BulkheadFullException;
+import com.looksee.contentAudit.services.Bulkheads;
+import com.looksee.contentAudit.services.ElementProjectionLoader;
+import com.looksee.contentAudit.services.InFlightAuditRegistry;
+import com.looksee.contentAudit.services.MemoryAdmissionController;
+import com.looksee.contentAudit.services.MessageBatcher;
+import com.looksee.contentAudit.services.MissingRecordCache;
+import com.looksee.contentAudit.services.PageAuditLoader;
+import com.looksee.contentAudit.services.PipelineStageFullException;
+import com.looksee.contentAudit.services.ScheduledRetry;
 import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
 import com.looksee.mapper.Body;
+import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
@@ -55,8 +79,6 @@ import com.looksee.models.enums.AuditLevel;
 import com.looksee.models.enums.AuditName;
 import com.looksee.models.message.AuditProgressUpdate;
 import com.looksee.models.message.PageAuditMessage;
-import com.looksee.services.AuditRecordService;
-import com.looksee.services.PageStateService;
 
 /**
  * API controller that performs a content audit.
@@ -66,18 +88,34 @@ import com.looksee.services.PageStateService;
  *   <li>All {@code @Autowired} dependencies must be non-null after Spring initialization</li>
  *   <li>The controller only processes valid Pub/Sub push payloads with base64-encoded {@link PageAuditMessage} JSON</li>
  *   <li>Invalid or malformed messages are acknowledged with HTTP 200 to prevent Pub/Sub redelivery of poison messages</li>
+ *   <li>Audits run only while holding a {@link MemoryAdmissionController} permit for their estimated cost</li>
+ *   <li>Page audit ids recently found to have no audit record or page state are acknowledged without a database lookup</li>
+ *   <li>At most one delivery of a page audit id is audited at a time; concurrent deliveries join it through the {@link InFlightAuditRegistry}</li>
+ *   <li>Audit results and the completion update are persisted through the {@link AuditWriter}, behind the response when write-behind is enabled</li>
+ *   <li>Database lookups and publishes run within their dependency's {@link Bulkheads bulkhead}</li>
+ *   <li>When the {@link AuditPipeline} is enabled, loading, auditing, persisting and publishing run in its stages,
+ *       and request threads are released while a message is in the pipeline</li>
+ *   <li>When the {@link MessageBatcher} and the {@link AuditPipeline} are enabled, messages of the same domain
+ *       audit record that arrive together are handled as a batch: their elements are loaded with one query and their results written in one
+ *       transaction, while each message is still answered on its own</li>
  * </ul>
  */
 @RestController
 public class AuditController {
 	private static Logger log = LoggerFactory.getLogger(AuditController.class);
 
-	@Autowired
-	private AuditRecordService audit_record_service;
-	
-	@Autowired
-	private PageStateService page_state_service;
-	
+	/**
+	 * Tag names of the elements the alt-text audits run by this controller evaluate.
+	 */
+	private static final Set<String> ALT_TEXT_TAG_NAMES = Stream.of(ImageAltTextAudit.TAG_NAMES,
+																	AppletAltTextAudit.TAG_NAMES,
+																	CanvasAltTextAudit.TAG_NAMES,
+																	IframeAltTextAudit.TAG_NAMES,
+																	ObjectAltTextAudit.TAG_NAMES,
+																	SVGAltTextAudit.TAG_NAMES)
+																.flatMap(Set::stream)
+																.collect(Collectors.toUnmodifiableSet());
+
 	@Autowired
 	private ImageAltTextAudit image_alt_text_auditor;
 
@@ -104,6 +142,47 @@ public class AuditController {
 
 	@Autowired
 	private PubSubAuditUpdatePublisherImpl audit_update_topic;
+
+	@Autowired
+	private ElementProjectionLoader element_loader;
+
+	@Autowired
+	private MemoryAdmissionController admission_controller;
+
+	@Autowired
+	private InFlightAuditRegistry in_flight_registry;
+
+	@Autowired
+	private MissingRecordCache missing_record_cache;
+
+	@Autowired
+	private AuditWriter audit_writer;
+
+	@Autowired
+	private Bulkheads bulkheads;
+
+	@Autowired
+	private AuditPipeline pipeline;
+
+	@Autowired
+	private ScheduledRetry retry;
+
+	@Autowired
+	private MessageBatcher batcher;
+
+	@Autowired
+	private PageAuditLoader page_audit_loader;
+
+	/**
+	 * Warns when batching is enabled without the pipeline, since batches are
+	 * only formed when both are.
+	 */
+	@PostConstruct
+	public void warnIfBatchingIsIgnored() {
+		if(batcher.isEnabled() && !pipeline.isEnabled()) {
+			log.warn("audit.batching.enabled=true has no effect unless audit.pipeline.enabled=true; messages are handled one at a time");
+		}
+	}
 	
 	/**
 	 * Receives a message from Pub/Sub and performs a content audit on the page.
@@ -117,95 +196,733 @@ public class AuditController {
 	 *
 	 * <p><strong>Postconditions:</strong></p>
 	 * <ul>
-	 *   <li>Returns a non-null {@link ResponseEntity} with HTTP 200 for valid or gracefully-handled invalid messages</li>
+	 *   <li>Returns a future that never completes exceptionally, of a non-null {@link ResponseEntity} with HTTP 200
+	 *       for valid or gracefully-handled invalid messages</li>
+	 *   <li>Returns HTTP 503 without running any audit when the page does not fit the heap budget in time, so that Pub/Sub redelivers it</li>
+	 *   <li>Returns HTTP 503 without running any audit when write-behind is enabled and its queue is full</li>
+	 *   <li>Returns HTTP 503 when a dependency's bulkhead stays full, so that Pub/Sub redelivers the message</li>
+	 *   <li>Returns HTTP 503 when a pipeline stage's queue is full, so that Pub/Sub redelivers the message</li>
+	 *   <li>When batching and the pipeline are enabled, a message with a {@code domainAuditRecordId} is answered once the batch
+	 *       it joined is handled, with the outcome of its own audit</li>
+	 *   <li>A delivery whose page audit id is already being audited does not run any audit; it waits for that
+	 *       audit and returns HTTP 200 if it succeeded, HTTP 503 otherwise</li>
 	 *   <li>Returns HTTP 500 only for unexpected internal errors during audit execution</li>
-	 *   <li>On success, all applicable audits (alt text, readability, paragraphing) are persisted and linked to the audit record</li>
-	 *   <li>An {@link AuditProgressUpdate} message is published to notify downstream systems of completion</li>
+	 *   <li>On success, all applicable audits (alt text, readability, paragraphing) are persisted and linked to the audit record,
+	 *       or, with write-behind enabled, logged to be persisted</li>
+	 *   <li>An {@link AuditProgressUpdate} message is published to notify downstream systems of completion, after the
+	 *       audits are persisted</li>
 	 * </ul>
 	 *
 	 * @param body the body of the message containing the audit record and page state
-	 * @return ResponseEntity containing the result of the audit
+	 * @return future ResponseEntity containing the result of the audit, already complete unless the pipeline is enabled
+	 *         or the message joined another message's batch
 	 */
 	@RequestMapping(value = "/", method = RequestMethod.POST)
-	public ResponseEntity<String> receiveMessage(@RequestBody Body body) {
+	public CompletableFuture<ResponseEntity<String>> receiveMessage(@RequestBody Body body) {
 		if (body == null || body.getMessage() == null || body.getMessage().getData() == null) {
 			log.warn("invalid pubsub payload received");
-			return acknowledgeInvalidMessage("Invalid pubsub payload");
+			return CompletableFuture.completedFuture(acknowledgeInvalidMessage("Invalid pubsub payload"));
 		}
 
 		Body.Message message = body.getMessage();
 		String data = message.getData();
 		if (data.isBlank()) {
 			log.warn("received empty pubsub payload data");
-			return acknowledgeInvalidMessage("Empty pubsub payload data");
+			return CompletableFuture.completedFuture(acknowledgeInvalidMessage("Empty pubsub payload data"));
 		}
 
 		PageAuditMessage audit_record_msg;
+		long domain_audit_record_id;
 		try {
 			String target = new String(Base64.getDecoder().decode(data), StandardCharsets.UTF_8);
 			ObjectMapper input_mapper = new ObjectMapper();
-			audit_record_msg = input_mapper.readValue(target, PageAuditMessage.class);
+			JsonNode payload = input_mapper.readTree(target);
+			audit_record_msg = input_mapper.treeToValue(payload, PageAuditMessage.class);
+			if(audit_record_msg == null) {
+				throw new IllegalArgumentException("payload is not a page audit message");
+			}
+			domain_audit_record_id = batcher.isEnabled() && pipeline.isEnabled() ? payload.path("domainAuditRecordId").asLong(0) : 0;
 		} catch (IllegalArgumentException | JsonProcessingException e) {
 			log.warn("invalid pubsub message format", e);
-			return acknowledgeInvalidMessage("Invalid pubsub message format");
+			return CompletableFuture.completedFuture(acknowledgeInvalidMessage("Invalid pubsub message format"));
 		}
 
 		if (audit_record_msg.getPageAuditId() <= 0) {
 			log.warn("invalid pageAuditId in pubsub message: {}", audit_record_msg.getPageAuditId());
-			return acknowledgeInvalidMessage("Invalid pageAuditId");
+			return CompletableFuture.completedFuture(acknowledgeInvalidMessage("Invalid pageAuditId"));
+		}
+
+		if(missing_record_cache.isKnownMissing(audit_record_msg.getPageAuditId())) {
+			log.debug("audit record or page state recently missing for page audit id {}", audit_record_msg.getPageAuditId());
+			return CompletableFuture.completedFuture(acknowledgeInvalidMessage("Audit record or page state not found"));
 		}
-		
+
+		InFlightAuditRegistry.Flight flight = in_flight_registry.join(audit_record_msg.getPageAuditId());
+		if(!flight.isLeader()) {
+			return followInFlightAudit(audit_record_msg, flight);
+		}
+
+		CompletableFuture<ResponseEntity<String>> response;
 		try {
-			Optional<AuditRecord> audit_record_optional = audit_record_service.findById(audit_record_msg.getPageAuditId());
-			if (audit_record_optional.isEmpty()) {
-				log.warn("audit record not found for page audit id {}", audit_record_msg.getPageAuditId());
-				return acknowledgeInvalidMessage("Audit record not found");
+			if(domain_audit_record_id > 0) {
+				response = auditPageInBatch(audit_record_msg, domain_audit_record_id);
+			}
+			else {
+				response = pipeline.isEnabled() ? auditPageInStages(audit_record_msg) : CompletableFuture.completedFuture(auditPage(audit_record_msg));
+			}
+		} catch (RuntimeException e) {
+			flight.close();
+			throw e;
+		}
+		return response.whenComplete((result, e) -> {
+			try (flight) {
+				flight.complete(e == null && result.getStatusCode().is2xxSuccessful());
 			}
+		});
+	}
 
-			AuditRecord audit_record = audit_record_optional.get();
-			PageState page = page_state_service.findByAuditRecordId(audit_record_msg.getPageAuditId());
-			if (page == null) {
-				log.warn("page state not found for page audit id {}", audit_record_msg.getPageAuditId());
-				return acknowledgeInvalidMessage("Page state not found");
+	/**
+	 * Answers with the outcome of the audit already in flight for the
+	 * message's page audit id once it completes, without auditing the page
+	 * again or holding the request thread while it runs.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit_record_msg} must not be null</li>
+	 *   <li>{@code flight} must not be null and must follow another delivery</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The returned future completes with HTTP 200 if the leading delivery succeeded, HTTP 503 so that Pub/Sub redelivers the message otherwise</li>
+	 * </ul>
+	 *
+	 * @param audit_record_msg the duplicate message, must not be null
+	 * @param flight the duplicate's part in the audit in flight, must not be null
+	 * @return a future of the ResponseEntity mirroring the leading delivery's outcome
+	 */
+	private CompletableFuture<ResponseEntity<String>> followInFlightAudit(PageAuditMessage audit_record_msg, InFlightAuditRegistry.Flight flight) {
+		return flight.completion().thenApply(outcome -> {
+			log.info("duplicate delivery joined content audit in flight pageAuditId={} outcome={}", audit_record_msg.getPageAuditId(), outcome);
+			if(outcome == InFlightAuditRegistry.Outcome.SUCCEEDED) {
+				return new ResponseEntity<String>("Content audit completed by a concurrent delivery", HttpStatus.OK);
 			}
-			page.setElements(page_state_service.getElementStates(page.getId()));
-			log.warn("evaluating "+page.getElements().size()+" element state for content audit with page ID :: "+page.getId());
-			Set<Audit> audits = audit_record_service.getAllAudits(audit_record.getId());
+			return new ResponseEntity<String>("Content audit deferred: concurrent delivery did not complete", HttpStatus.SERVICE_UNAVAILABLE);
+		});
+	}
+
+	/**
+	 * Loads the page of a validated message, runs its audits within the heap
+	 * budget, persists them and publishes the completion update, all on the
+	 * calling thread.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit_record_msg} must not be null and must have a positive {@code pageAuditId}</li>
+	 *   <li>The caller leads the execution of the message's page audit id</li>
+	 * </ul>
+	 *
+	 * @param audit_record_msg the message to handle, must not be null
+	 * @return ResponseEntity containing the result of the audit
+	 */
+	private ResponseEntity<String> auditPage(PageAuditMessage audit_record_msg) {
+		if(!audit_writer.hasCapacity()) {
+			log.warn("content audit deferred pageAuditId={} pendingPages={}", audit_record_msg.getPageAuditId(), audit_writer.getPendingPages());
+			return new ResponseEntity<String>("Content audit deferred: write-behind queue full", HttpStatus.SERVICE_UNAVAILABLE);
+		}
+
+		PageAudit page_audit = new PageAudit(audit_record_msg);
+		try {
+			load(page_audit);
+			if(page_audit.response == null) {
+				audit(page_audit);
+				if(page_audit.paragraphing != null) {
+					//without the pipeline, the request thread waits once for the page's segmentations
+					page_audit.paragraphing.whenSegmented().get();
+				}
+				scoreParagraphs(page_audit);
+				persist(page_audit);
+			}
+			if(page_audit.response == null) {
+				publish(page_audit);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return failed(page_audit, e);
+		} catch (Exception e) {
+			return failed(page_audit, e);
+		} finally {
+			page_audit.close();
+		}
+		return page_audit.response;
+	}
 
-			if(!auditAlreadyExists(audits, AuditName.ALT_TEXT)) {
-				Audit img_alt_text_audit = image_alt_text_auditor.execute(page, audit_record, null);
-				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), img_alt_text_audit.getId());
+	/**
+	 * Handles a validated message like {@link #auditPage(PageAuditMessage)},
+	 * but runs each step in its {@link AuditPipeline} stage, so that the
+	 * calling thread is released while the message waits for or runs in a stage.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit_record_msg} must not be null and must have a positive {@code pageAuditId}</li>
+	 *   <li>The caller leads the execution of the message's page audit id</li>
+	 *   <li>The pipeline is enabled</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The returned future never completes exceptionally</li>
+	 *   <li>Returns HTTP 503 when a stage's queue is full, so that Pub/Sub redelivers the message</li>
+	 * </ul>
+	 *
+	 * @param audit_record_msg the message to handle, must not be null
+	 * @return future ResponseEntity containing the result of the audit
+	 */
+	private CompletableFuture<ResponseEntity<String>> auditPageInStages(PageAuditMessage audit_record_msg) {
+		if(!audit_writer.hasCapacity()) {
+			log.warn("content audit deferred pageAuditId={} pendingPages={}", audit_record_msg.getPageAuditId(), audit_writer.getPendingPages());
+			return CompletableFuture.completedFuture(new ResponseEntity<String>("Content audit deferred: write-behind queue full", HttpStatus.SERVICE_UNAVAILABLE));
+		}
 
-				Audit applet_alt_text_audit = appletAllAltTextAudit.execute(page, audit_record, null);
-				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), applet_alt_text_audit.getId());
+		PageAudit page_audit = new PageAudit(audit_record_msg);
+		return inStage(AuditPipeline.Stage.LOAD, page_audit, this::load)
+				.thenCompose(ignored -> auditInStage(page_audit))
+				.thenCompose(ignored -> inStage(AuditPipeline.Stage.PERSIST, page_audit, this::persist))
+				.handle((ignored, e) -> {
+					page_audit.close();
+					if(e != null) {
+						page_audit.response = failed(page_audit, e);
+					}
+					return page_audit;
+				})
+				.thenCompose(ignored -> inStage(AuditPipeline.Stage.PUBLISH, page_audit, this::publish))
+				.handle((ignored, e) -> e == null ? page_audit.response : failed(page_audit, e));
+	}
 
-				Audit canvas_alt_text_audit = canvasAltTextAudit.execute(page, audit_record, null);
-				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), canvas_alt_text_audit.getId());
+	/**
+	 * Handles a validated message together with the other messages of its
+	 * domain audit record that arrive within the batching window. The batcher
+	 * closes the batch when its window ends or it is full and hands it to the
+	 * pipeline's stages; every message of the batch, the one that opened it
+	 * included, returns right away and is answered once its audit is done.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit_record_msg} must not be null and must have a positive {@code pageAuditId}</li>
+	 *   <li>The caller leads the execution of the message's page audit id</li>
+	 *   <li>Batching and the pipeline are enabled</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The returned future never completes exceptionally and completes with this message's own outcome</li>
+	 * </ul>
+	 *
+	 * @param audit_record_msg the message to handle, must not be null
+	 * @param domain_audit_record_id the domain audit record the message belongs to
+	 * @return future ResponseEntity containing the result of the audit
+	 */
+	private CompletableFuture<ResponseEntity<String>> auditPageInBatch(PageAuditMessage audit_record_msg, long domain_audit_record_id) {
+		if(!audit_writer.hasCapacity()) {
+			log.warn("content audit deferred pageAuditId={} pendingPages={}", audit_record_msg.getPageAuditId(), audit_writer.getPendingPages());
+			return CompletableFuture.completedFuture(new ResponseEntity<String>("Content audit deferred: write-behind queue full", HttpStatus.SERVICE_UNAVAILABLE));
+		}
+
+		PageAudit page_audit = new PageAudit(audit_record_msg, true);
+		batcher.join(domain_audit_record_id, page_audit, group -> auditBatch(domain_audit_record_id, group));
+		return page_audit.answered;
+	}
 
-				Audit iframe_alt_text_audit = iframeAltTextAudit.execute(page, audit_record, null);
-				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), iframe_alt_text_audit.getId());
+	/**
+	 * Hands a closed batch to the pipeline's stages. Runs on the batcher's
+	 * thread, so it only submits the batch's first stage; a batch the
+	 * pipeline does not accept answers each of its messages with the failure.
+	 *
+	 * @param domain_audit_record_id the domain audit record the batch belongs to
+	 * @param group the batch's messages, must not be null
+	 */
+	private void auditBatch(long domain_audit_record_id, List<PageAudit> group) {
+		log.debug("content audit batch closed domainAuditRecordId={} size={}", domain_audit_record_id, group.size());
+		try {
+			auditGroup(group);
+		} catch (RuntimeException e) {
+			for(PageAudit page_audit : group) {
+				page_audit.close();
+				page_audit.answered.complete(failed(page_audit, e));
+			}
+		}
+	}
 
-				Audit object_alt_text_audit = objectAltTextAudit.execute(page, audit_record, null);
-				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), object_alt_text_audit.getId());
+	/**
+	 * Loads, audits, persists and publishes a batch of messages. Records are
+	 * looked up with one query, elements with one query per set of tags,
+	 * audits run per message and the results are written in one transaction. Every
+	 * message is answered with its own outcome, and a message that fails does
+	 * not fail the others.
+	 *
+	 * @param group the batch's messages, must not be null
+	 */
+	private void auditGroup(List<PageAudit> group) {
+		inStage(AuditPipeline.Stage.LOAD, () -> loadGroup(group))
+			.thenCompose(ignored -> CompletableFuture.allOf(group.stream()
+				.map(page_audit -> auditInStage(page_audit)
+					.exceptionally(e -> {
+						page_audit.response = failed(page_audit, e);
+						return page_audit;
+					}))
+				.toArray(CompletableFuture[]::new)))
+			.thenCompose(ignored -> inStage(AuditPipeline.Stage.PERSIST, () -> persistGroup(group)))
+			.whenComplete((ignored, e) -> {
+				for(PageAudit page_audit : group) {
+					page_audit.close();
+					if(e != null && page_audit.response == null) {
+						page_audit.response = failed(page_audit, e);
+					}
+					inStage(AuditPipeline.Stage.PUBLISH, page_audit, this::publish)
+						.handle((published, publish_e) -> publish_e == null ? page_audit.response : failed(page_audit, publish_e))
+						.thenAccept(page_audit.answered::complete);
+				}
+			});
+	}
 
-				Audit svg_alt_text_audit = svgAltTextAudit.execute(page, audit_record, null);
-				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), svg_alt_text_audit.getId());
+	/**
+	 * Runs a step of a page's audit in a pipeline stage, or on the calling
+	 * thread when the pipeline is disabled, unless an earlier step already
+	 * decided the response.
+	 */
+	private CompletableFuture<PageAudit> inStage(AuditPipeline.Stage stage, PageAudit page_audit, Step step) {
+		if(page_audit.response != null) {
+			return CompletableFuture.completedFuture(page_audit);
+		}
+		if(!pipeline.isEnabled()) {
+			try {
+				step.run(page_audit);
+				return CompletableFuture.completedFuture(page_audit);
+			} catch (Exception e) {
+				if(e instanceof InterruptedException) {
+					Thread.currentThread().interrupt();
+				}
+				return CompletableFuture.failedFuture(e);
 			}
+		}
+		return submit(stage, () -> {
+			step.run(page_audit);
+			return page_audit;
+		});
+	}
 
-			if(!auditAlreadyExists(audits, AuditName.READING_COMPLEXITY)) {
-				Audit readability_audit = readability_auditor.execute(page, audit_record, null);
-				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), readability_audit.getId());
+	/**
+	 * Runs a step of a batch in a pipeline stage, or on the calling thread
+	 * when the pipeline is disabled.
+	 */
+	private CompletableFuture<Void> inStage(AuditPipeline.Stage stage, Runnable step) {
+		if(!pipeline.isEnabled()) {
+			try {
+				step.run();
+				return CompletableFuture.completedFuture(null);
+			} catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
 			}
+		}
+		return submit(stage, () -> {
+			step.run();
+			return null;
+		});
+	}
 
-			if(!auditAlreadyExists(audits, AuditName.PARAGRAPHING)) {
-				Audit paragraph_audit = paragraph_auditor.execute(page, audit_record, null);
-				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), paragraph_audit.getId());
+	/**
+	 * Submits a task to a pipeline stage. A task of a stage that calls Neo4j
+	 * or Pub/Sub and fails transiently is submitted again after a scheduled
+	 * {@link ScheduledRetry} delay, so no stage thread or bulkhead permit is
+	 * held while it waits. Audit stage tasks are not retried.
+	 */
+	private <T> CompletableFuture<T> submit(AuditPipeline.Stage stage, Callable<T> task) {
+		if(stage == AuditPipeline.Stage.AUDIT) {
+			return pipeline.submit(stage, task);
+		}
+		return retry.call(stage.getTag(), () -> pipeline.submit(stage, task));
+	}
+
+	/**
+	 * Runs a page's audits in the audit stage. The paragraphing audit is
+	 * scored in the audit stage again once its paragraphs are segmented, so
+	 * no audit thread waits for Cloud NLP meanwhile.
+	 */
+	private CompletableFuture<PageAudit> auditInStage(PageAudit page_audit) {
+		return inStage(AuditPipeline.Stage.AUDIT, page_audit, this::audit)
+				.thenCompose(ignored -> page_audit.paragraphing == null
+						? CompletableFuture.completedFuture(page_audit)
+						: page_audit.paragraphing.whenSegmented().thenApply(segmented -> page_audit))
+				.thenCompose(ignored -> inStage(AuditPipeline.Stage.AUDIT, page_audit, this::scoreParagraphs));
+	}
+
+	/**
+	 * Looks up the audit record, page state and existing audits of a page,
+	 * loads the elements the pending audits read and admits the page within
+	 * the heap budget. Sets the response when the page is not to be audited.
+	 *
+	 * @param page_audit the page's audit, must not be null
+	 * @throws InterruptedException if interrupted while waiting for heap budget or a bulkhead
+	 * @throws Exception if a lookup fails
+	 */
+	private void load(PageAudit page_audit) throws Exception {
+		lookUp(List.of(page_audit));
+		if(page_audit.response != null) {
+			return;
+		}
+
+		PageState page = page_audit.page;
+		List<ElementState> elements = bulkheads.execute(Bulkheads.Dependency.NEO4J,
+														() -> textAuditsPending(page_audit.audit_names)
+																? element_loader.loadElements(page.getId())
+																: element_loader.loadElements(page.getId(), ALT_TEXT_TAG_NAMES));
+		admit(page_audit, elements);
+	}
+
+	/**
+	 * Loads a batch like {@link #load(PageAudit)} loads each of its messages,
+	 * but with one lookup query and one element query per set of tags for the
+	 * whole batch, and admits the batch's pages within the heap budget at
+	 * once. A message whose records are missing gets its response; the others
+	 * go on. A failed query fails the step, which is then retried for the
+	 * messages without a response.
+	 *
+	 * @param group the batch's messages, must not be null
+	 * @throws CompletionException if a query fails
+	 */
+	private void loadGroup(List<PageAudit> group) {
+		List<PageAudit> found = new ArrayList<>(group.size());
+		for(PageAudit page_audit : group) {
+			if(page_audit.response == null) {
+				found.add(page_audit);
 			}
+		}
+		try {
+			lookUp(found);
 		} catch (Exception e) {
-			log.error("exception caught during content audit", e);
-			return new ResponseEntity<String>("Error performing content audit", HttpStatus.INTERNAL_SERVER_ERROR);
+			if(e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			throw new CompletionException(e);
 		}
+		found.removeIf(page_audit -> page_audit.response != null);
 
+		List<Long> all_elements = new ArrayList<>();
+		List<Long> alt_text_elements = new ArrayList<>();
+		for(PageAudit page_audit : found) {
+			(textAuditsPending(page_audit.audit_names) ? all_elements : alt_text_elements).add(page_audit.page.getId());
+		}
+		Map<Long, List<ElementState>> elements = new HashMap<>();
+		try {
+			if(!all_elements.isEmpty()) {
+				elements.putAll(bulkheads.execute(Bulkheads.Dependency.NEO4J,
+												() -> element_loader.loadElementsOfPages(all_elements, null)));
+			}
+			if(!alt_text_elements.isEmpty()) {
+				elements.putAll(bulkheads.execute(Bulkheads.Dependency.NEO4J,
+												() -> element_loader.loadElementsOfPages(alt_text_elements, ALT_TEXT_TAG_NAMES)));
+			}
+		} catch (Exception e) {
+			if(e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			throw new CompletionException(e);
+		}
+
+		admitGroup(found, elements);
+	}
+
+	/**
+	 * Sets the loaded elements of a batch's looked-up pages and admits the
+	 * pages within the heap budget together, so that a page never waits for
+	 * budget held by the pages ahead of it in the same batch, which are only
+	 * released once the batch is audited. Sets every page's response when
+	 * the batch does not fit in time.
+	 *
+	 * @param found the batch's looked-up pages, must not be null
+	 * @param elements the elements the pending audits read, by page state id, must not be null
+	 */
+	private void admitGroup(List<PageAudit> found, Map<Long, List<ElementState>> elements) {
+		if(found.isEmpty()) {
+			return;
+		}
+		List<Long> costs = new ArrayList<>(found.size());
+		for(PageAudit page_audit : found) {
+			List<ElementState> page_elements = elements.get(page_audit.page.getId());
+			page_audit.page.setElements(page_elements);
+			costs.add(admission_controller.estimateCost(page_elements));
+		}
+
+		List<MemoryAdmissionController.Permit> permits;
+		try {
+			permits = admission_controller.admitAll(costs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for(PageAudit page_audit : found) {
+				page_audit.response = failed(page_audit, e);
+			}
+			return;
+		}
+		if(permits == null) {
+			log.warn("content audit batch deferred size={} estimatedBytes={} inFlightBytes={}",
+					found.size(), costs.stream().mapToLong(Long::longValue).sum(), admission_controller.getInFlightBytes());
+			for(PageAudit page_audit : found) {
+				page_audit.page = null;
+				page_audit.response = new ResponseEntity<String>("Content audit deferred: heap budget exhausted", HttpStatus.SERVICE_UNAVAILABLE);
+			}
+			return;
+		}
+		for(int idx = 0; idx < found.size(); idx++) {
+			found.get(idx).permit = permits.get(idx);
+		}
+	}
+
+	/**
+	 * Looks up the audit records, page states and existing audits of pages
+	 * with one query. Sets the response of each page whose audit record or
+	 * page state is missing.
+	 *
+	 * @param page_audits the pages' audits, must not be null
+	 * @throws InterruptedException if interrupted while waiting for a bulkhead
+	 * @throws Exception if the lookup fails
+	 */
+	private void lookUp(List<PageAudit> page_audits) throws Exception {
+		List<Long> page_audit_ids = new ArrayList<>(page_audits.size());
+		for(PageAudit page_audit : page_audits) {
+			page_audit_ids.add(page_audit.message.getPageAuditId());
+		}
+		Map<Long, PageAuditLoader.PageAuditRecords> found = bulkheads.execute(Bulkheads.Dependency.NEO4J,
+																			() -> page_audit_loader.loadAll(page_audit_ids));
+
+		for(PageAudit page_audit : page_audits) {
+			long page_audit_id = page_audit.message.getPageAuditId();
+			PageAuditLoader.PageAuditRecords records = found.get(page_audit_id);
+			if (records == null) {
+				log.warn("audit record not found for page audit id {}", page_audit_id);
+				missing_record_cache.recordMissing(page_audit_id);
+				page_audit.response = acknowledgeInvalidMessage("Audit record not found");
+				continue;
+			}
+			if (records.getPage() == null) {
+				log.warn("page state not found for page audit id {}", page_audit_id);
+				missing_record_cache.recordMissing(page_audit_id);
+				page_audit.response = acknowledgeInvalidMessage("Page state not found");
+				continue;
+			}
+			missing_record_cache.invalidate(page_audit_id);
+
+			page_audit.audit_record = records.getAuditRecord();
+			page_audit.page = records.getPage();
+			page_audit.audit_names = records.getAuditNames();
+		}
+	}
+
+	/**
+	 * Sets the loaded elements of a looked-up page and admits the page within
+	 * the heap budget. Sets the response when the page does not fit in time.
+	 *
+	 * @param page_audit the looked-up page's audit, must not be null
+	 * @param elements the elements the pending audits read, must not be null
+	 * @throws InterruptedException if interrupted while waiting for heap budget
+	 */
+	private void admit(PageAudit page_audit, List<ElementState> elements) throws InterruptedException {
+		long page_audit_id = page_audit.message.getPageAuditId();
+		PageState page = page_audit.page;
+		page.setElements(elements);
+
+		long cost = admission_controller.estimateCost(elements);
+		MemoryAdmissionController.Permit permit = admission_controller.admit(cost);
+		if (permit == null) {
+			log.warn("content audit deferred pageAuditId={} elementCount={} estimatedBytes={} inFlightBytes={}",
+					page_audit_id, elements.size(), cost, admission_controller.getInFlightBytes());
+			page_audit.page = null;
+			page_audit.response = new ResponseEntity<String>("Content audit deferred: heap budget exhausted", HttpStatus.SERVICE_UNAVAILABLE);
+			return;
+		}
+		log.debug("content audit started pageAuditId={} pageId={} elementCount={} estimatedBytes={}", page_audit_id, page.getId(), elements.size(), cost);
+		page_audit.permit = permit;
+	}
+
+	/**
+	 * Runs the pending audits of a loaded page. Their writes are recorded on
+	 * the page's {@link AuditWriter.Page} when the pipeline is enabled or
+	 * write-behind is on, and made immediately otherwise. A pending
+	 * paragraphing audit is only started, and is completed by
+	 * {@link #scoreParagraphs(PageAudit)}. Releases the page's elements
+	 * afterwards, and its heap budget unless paragraphing is pending.
+	 *
+	 * @param page_audit the loaded page's audit, must not be null
+	 * @throws Exception if an audit fails
+	 */
+	private void audit(PageAudit page_audit) throws Exception {
+		page_audit.page_writes = audit_writer.openPage(page_audit.message.getPageAuditId(), pipeline.isEnabled() || page_audit.batched);
+		try {
+			page_audit.paragraphing = runAudits(page_audit.audit_record, page_audit.page, page_audit.audit_names, page_audit.page_writes);
+		} finally {
+			page_audit.page_writes.unbind();
+			page_audit.page = null;
+		}
+		if(page_audit.paragraphing == null) {
+			page_audit.permit.close();
+			page_audit.permit = null;
+		}
+	}
+
+	/**
+	 * Scores the paragraphing audit of an audited page, once its paragraphs
+	 * are segmented, and records it on the page's {@link AuditWriter.Page}.
+	 * Releases the page's heap budget afterwards.
+	 *
+	 * @param page_audit the audited page's audit, must not be null
+	 */
+	private void scoreParagraphs(PageAudit page_audit) {
+		if(page_audit.paragraphing == null) {
+			return;
+		}
+		page_audit.page_writes.bind();
+		try {
+			page_audit.page_writes.addAudit(page_audit.paragraphing.score());
+		} finally {
+			page_audit.page_writes.unbind();
+			page_audit.paragraphing = null;
+			page_audit.permit.close();
+			page_audit.permit = null;
+		}
+	}
+
+	/**
+	 * Writes the recorded audit results of a page, or logs them to be
+	 * written behind, in which case the response is set and no completion
+	 * update is published now.
+	 *
+	 * @param page_audit the audited page's audit, must not be null
+	 * @throws Exception if the results cannot be written or logged
+	 */
+	private void persist(PageAudit page_audit) throws Exception {
+		if(page_audit.page_writes.isWrittenBehind()) {
+			page_audit.page_writes.complete(auditUpdateJson(page_audit.message));
+			page_audit.response = new ResponseEntity<String>("Successfully completed content audit; results are being written", HttpStatus.OK);
+		}
+		else if(page_audit.page_writes.isDeferred()) {
+			page_audit.page_writes.write();
+		}
+	}
+
+	/**
+	 * Persists the audited pages of a batch like {@link #persist(PageAudit)},
+	 * but writes the recorded pages in one transaction. If that fails, the
+	 * pages are written one at a time, so that only the failing ones fail.
+	 *
+	 * @param group the batch's messages, must not be null
+	 */
+	private void persistGroup(List<PageAudit> group) {
+		List<PageAudit> recorded = new ArrayList<>(group.size());
+		for(PageAudit page_audit : group) {
+			if(page_audit.response != null) {
+				continue;
+			}
+			if(page_audit.page_writes.isWrittenBehind()) {
+				try {
+					persist(page_audit);
+				} catch (Exception e) {
+					page_audit.response = failed(page_audit, e);
+				}
+			}
+			else {
+				recorded.add(page_audit);
+			}
+		}
+		if(recorded.isEmpty()) {
+			return;
+		}
+
+		try {
+			audit_writer.writeAll(recorded.stream().map(page_audit -> page_audit.page_writes).collect(Collectors.toList()));
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for(PageAudit page_audit : recorded) {
+				page_audit.response = failed(page_audit, e);
+			}
+			return;
+		} catch (Exception e) {
+			log.warn("writing a batch of {} audited pages failed; writing them one at a time", recorded.size(), e);
+		}
+
+		for(PageAudit page_audit : recorded) {
+			try {
+				persist(page_audit);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				page_audit.response = failed(page_audit, e);
+			} catch (Exception e) {
+				page_audit.response = failed(page_audit, e);
+			}
+		}
+	}
+
+	/**
+	 * Publishes the completion update of a persisted page and sets the response.
+	 *
+	 * @param page_audit the persisted page's audit, must not be null
+	 * @throws BulkheadFullException if the Pub/Sub bulkhead stays full
+	 * @throws Exception if the update cannot be published
+	 */
+	private void publish(PageAudit page_audit) throws Exception {
+		String audit_update_json = auditUpdateJson(page_audit.message);
+		try {
+			bulkheads.execute(Bulkheads.Dependency.PUBSUB, () -> {
+				audit_update_topic.publish(audit_update_json);
+				return null;
+			});
+		} catch (BulkheadFullException e) {
+			log.warn("audit progress update deferred pageAuditId={}", page_audit.message.getPageAuditId());
+			throw e;
+		} catch (Exception e) {
+			log.error("failed to publish audit progress update", e);
+			throw e;
+		}
+
+		page_audit.response = new ResponseEntity<String>("Successfully completed content audit", HttpStatus.OK);
+	}
+
+	/**
+	 * Answers a message whose audit failed before its completion update was
+	 * published. Full bulkheads and pipeline stages and interruptions defer
+	 * the message with HTTP 503; other failures are internal errors.
+	 *
+	 * @param page_audit the failed page's audit, must not be null
+	 * @param failure the failure, possibly wrapped in a {@link CompletionException}
+	 * @return the response
+	 */
+	private ResponseEntity<String> failed(PageAudit page_audit, Throwable failure) {
+		Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+		long page_audit_id = page_audit.message.getPageAuditId();
+		if(cause instanceof InterruptedException) {
+			log.warn("interrupted while waiting for heap budget or a bulkhead pageAuditId={}", page_audit_id);
+			return new ResponseEntity<String>("Content audit deferred: interrupted", HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		if(cause instanceof BulkheadFullException) {
+			log.warn("content audit deferred pageAuditId={} dependency={}", page_audit_id, ((BulkheadFullException) cause).getDependency().getTag());
+			return new ResponseEntity<String>("Content audit deferred: " + cause.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		if(cause instanceof PipelineStageFullException) {
+			log.warn("content audit deferred pageAuditId={} stage={}", page_audit_id, ((PipelineStageFullException) cause).getStage().getTag());
+			return new ResponseEntity<String>("Content audit deferred: " + cause.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		log.error("exception caught during content audit", cause);
+		return new ResponseEntity<String>("Error performing content audit", HttpStatus.INTERNAL_SERVER_ERROR);
+	}
+
+	/**
+	 * Builds the {@link AuditProgressUpdate} announcing that the content audit
+	 * of the message's page is complete.
+	 *
+	 * @param audit_record_msg the message being handled, must not be null
+	 * @return the update as JSON
+	 * @throws JsonProcessingException if the update cannot be serialized
+	 */
+	private String auditUpdateJson(PageAuditMessage audit_record_msg) throws JsonProcessingException {
 		JsonMapper mapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
 		AuditProgressUpdate audit_update = new AuditProgressUpdate(audit_record_msg.getAccountId(),
 												1.0, 
@@ -213,22 +930,77 @@ public class AuditController {
 														AuditCategory.CONTENT,
 														AuditLevel.PAGE,
 														audit_record_msg.getPageAuditId());
+		return mapper.writeValueAsString(audit_update);
+	}
+	
+	/**
+	 * Runs every content audit the audit record does not already have and
+	 * links the new audits to it through {@code page_writes}, except the
+	 * paragraphing audit, which is only started so that it can be scored
+	 * once Cloud NLP has segmented its paragraphs.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit_record}, {@code page}, {@code audit_names} and {@code page_writes} must not be null</li>
+	 *   <li>{@code page} must have its elements loaded; only elements with {@link #ALT_TEXT_TAG_NAMES} tags
+	 *       are needed when no text audit is pending</li>
+	 * </ul>
+	 *
+	 * @param audit_record the page audit record, must not be null
+	 * @param page the page to audit, must not be null
+	 * @param audit_names the names of the audits the audit record already has, must not be null
+	 * @param page_writes the audit writer page open for the audit record, must not be null
+	 * @return the started paragraphing audit, or null if the record already has one
+	 * @throws Exception if an audit fails
+	 */
+	private ParagraphingAudit.Segmentation runAudits(AuditRecord audit_record, PageState page, Set<AuditName> audit_names, AuditWriter.Page page_writes) throws Exception {
+		ParagraphingAudit.Segmentation paragraphing = null;
+		if(!auditAlreadyExists(audit_names, AuditName.PARAGRAPHING)) {
+			//paragraphs are segmented by Cloud NLP while the other audits run
+			paragraphing = paragraph_auditor.begin(page, audit_record);
+		}
 
-		try {
-			String audit_record_json = mapper.writeValueAsString(audit_update);
-			audit_update_topic.publish(audit_record_json);
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			log.error("interrupted while publishing audit progress update", e);
-			return new ResponseEntity<String>("Error publishing audit progress", HttpStatus.INTERNAL_SERVER_ERROR);
-		} catch (JsonProcessingException | java.util.concurrent.ExecutionException e) {
-			log.error("failed to publish audit progress update", e);
-			return new ResponseEntity<String>("Error publishing audit progress", HttpStatus.INTERNAL_SERVER_ERROR);
+		if(!auditAlreadyExists(audit_names, AuditName.ALT_TEXT)) {
+			Audit img_alt_text_audit = image_alt_text_auditor.execute(page, audit_record, null);
+			page_writes.addAudit(img_alt_text_audit);
+
+			Audit applet_alt_text_audit = appletAllAltTextAudit.execute(page, audit_record, null);
+			page_writes.addAudit(applet_alt_text_audit);
+
+			Audit canvas_alt_text_audit = canvasAltTextAudit.execute(page, audit_record, null);
+			page_writes.addAudit(canvas_alt_text_audit);
+
+			Audit iframe_alt_text_audit = iframeAltTextAudit.execute(page, audit_record, null);
+			page_writes.addAudit(iframe_alt_text_audit);
+
+			Audit object_alt_text_audit = objectAltTextAudit.execute(page, audit_record, null);
+			page_writes.addAudit(object_alt_text_audit);
+
+			Audit svg_alt_text_audit = svgAltTextAudit.execute(page, audit_record, null);
+			page_writes.addAudit(svg_alt_text_audit);
+		}
+
+		if(!auditAlreadyExists(audit_names, AuditName.READING_COMPLEXITY)) {
+			Audit readability_audit = readability_auditor.execute(page, audit_record, null);
+			page_writes.addAudit(readability_audit);
 		}
 
-		return new ResponseEntity<String>("Successfully completed content audit", HttpStatus.OK);
+		return paragraphing;
 	}
-	
+
+	/**
+	 * Returns whether a readability or paragraphing audit still has to run.
+	 * Those audits read every text element of the page, while the alt-text
+	 * audits only read elements with {@link #ALT_TEXT_TAG_NAMES} tags.
+	 *
+	 * @param audits the audits the audit record already has, must not be null
+	 * @return {@code true} if the page's elements must all be loaded
+	 */
+	private boolean textAuditsPending(Set<AuditName> audit_names) {
+		return !auditAlreadyExists(audit_names, AuditName.READING_COMPLEXITY)
+				|| !auditAlreadyExists(audit_names, AuditName.PARAGRAPHING);
+	}
+
 	/**
 	 * Acknowledges an invalid Pub/Sub message by returning HTTP 200 to prevent redelivery.
 	 *
@@ -252,35 +1024,80 @@ public class AuditController {
 	}
 
 	/**
-	 * Checks if any of the provided {@link Audit audits} have a name that matches
-	 * the provided {@linkplain AuditName}.
+	 * Checks if the audit record already has an {@link Audit} with the provided
+	 * {@linkplain AuditName}.
 	 *
 	 * <p><strong>Preconditions:</strong></p>
 	 * <ul>
-	 *   <li>{@code audits} must not be null</li>
+	 *   <li>{@code audit_names} must not be null</li>
 	 *   <li>{@code audit_name} must not be null</li>
 	 * </ul>
 	 *
 	 * <p><strong>Postconditions:</strong></p>
 	 * <ul>
-	 *   <li>Returns {@code true} if any audit in the set has a matching name, {@code false} otherwise</li>
+	 *   <li>Returns {@code true} if the set holds the name, {@code false} otherwise</li>
 	 *   <li>The input set is not modified</li>
 	 * </ul>
 	 *
-	 * @param audits the set of existing audits to search, must not be null
+	 * @param audit_names the names of the existing audits, must not be null
 	 * @param audit_name the audit name to search for, must not be null
 	 * @return {@code true} if a matching audit exists, {@code false} otherwise
-	 * @throws NullPointerException if {@code audits} or {@code audit_name} is null
+	 * @throws NullPointerException if {@code audit_names} or {@code audit_name} is null
 	 */
-	private boolean auditAlreadyExists(Set<Audit> audits, AuditName audit_name) {
-		Objects.requireNonNull(audits, "audits must not be null");
+	private boolean auditAlreadyExists(Set<AuditName> audit_names, AuditName audit_name) {
+		Objects.requireNonNull(audit_names, "audit_names must not be null");
 		Objects.requireNonNull(audit_name, "audit_name must not be null");
-		
-		for(Audit audit : audits) {
-			if(audit_name.equals(audit.getName())) {
-				return true;
+
+		return audit_names.contains(audit_name);
+	}
+
+	/**
+	 * A step of a page's audit.
+	 */
+	@FunctionalInterface
+	private interface Step {
+		void run(PageAudit page_audit) throws Exception;
+	}
+
+	/**
+	 * The state of one message's audit as it passes through
+	 * {@link #load}, {@link #audit}, {@link #persist} and {@link #publish}.
+	 * A step that decides the response sets it, and later steps are skipped.
+	 * Only one step works on it at a time. A batched message's response is
+	 * also completed on {@code answered} once its batch has been handled.
+	 */
+	private static final class PageAudit implements AutoCloseable {
+		private final PageAuditMessage message;
+		private final boolean batched;
+		private final CompletableFuture<ResponseEntity<String>> answered = new CompletableFuture<>();
+		private AuditRecord audit_record;
+		private PageState page;
+		private Set<AuditName> audit_names;
+		private MemoryAdmissionController.Permit permit;
+		private AuditWriter.Page page_writes;
+		private ParagraphingAudit.Segmentation paragraphing;
+		private ResponseEntity<String> response;
+
+		private PageAudit(PageAuditMessage message) {
+			this(message, false);
+		}
+
+		private PageAudit(PageAuditMessage message, boolean batched) {
+			this.message = message;
+			this.batched = batched;
+		}
+
+		/**
+		 * Releases the page's heap budget and closes its audit writer page.
+		 */
+		@Override
+		public void close() {
+			if(permit != null) {
+				permit.close();
+			}
+			if(page_writes != null) {
+				page_writes.close();
 			}
 		}
-		return false;
 	}
 }
@@ -0,0 +1,30 @@
+package com.looksee.contentAudit;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the thread pools used by audits for CPU-bound work.
+ *
+ * <p>The compute pool is shared by all audits so that a text-heavy page can use
+ * every core without each audit creating its own threads. A configured
+ * parallelism of {@code 0} or less uses the number of available processors.</p>
+ */
+@Configuration
+public class AuditExecutorConfig {
+
+	/**
+	 * Creates the fork-join pool used for CPU-bound audit work.
+	 *
+	 * @param parallelism the pool parallelism, or {@code 0} or less to use all available processors
+	 * @return the shared compute pool
+	 */
+	@Bean(name = "auditComputePool", destroyMethod = "shutdown")
+	public ForkJoinPool auditComputePool(@Value("${audit.compute.parallelism:0}") int parallelism) {
+		int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		return new ForkJoinPool(size);
+	}
+}
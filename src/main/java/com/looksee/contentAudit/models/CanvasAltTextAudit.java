@@ -2,16 +2,23 @@ package com.looksee.contentAudit.models;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.contentAudit.models.messages.IssueTemplates;
+import com.looksee.contentAudit.services.AuditWriter;
+import com.looksee.contentAudit.services.ElementFingerprintStore;
+import com.looksee.contentAudit.services.FragmentParseService;
+import com.looksee.contentAudit.services.PassingMessageAggregator;
+import com.looksee.contentAudit.utils.IssueKeys;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
@@ -24,9 +31,6 @@ import com.looksee.models.enums.AuditCategory;
 import com.looksee.models.enums.AuditLevel;
 import com.looksee.models.enums.AuditName;
 import com.looksee.models.enums.AuditSubcategory;
-import com.looksee.models.enums.Priority;
-import com.looksee.services.AuditService;
-import com.looksee.services.UXIssueMessageService;
 
 import lombok.NoArgsConstructor;
 
@@ -49,11 +53,22 @@ import lombok.NoArgsConstructor;
 @Component
 @NoArgsConstructor
 public class CanvasAltTextAudit implements IExecutablePageStateAudit {
+	/**
+	 * Tag names of the elements this audit evaluates.
+	 */
+	public static final Set<String> TAG_NAMES = Set.of("video", "audio");
+
 	@Autowired
-	private AuditService audit_service;
-	
+	private AuditWriter audit_writer;
+
+	@Autowired
+	private ElementFingerprintStore fingerprint_store;
+
+	@Autowired
+	private PassingMessageAggregator passing_aggregator;
+
 	@Autowired
-	private UXIssueMessageService issue_message_service;
+	private FragmentParseService parse_service;
 	
 	/**
 	 * Executes an accessibility audit on video and audio elements to ensure WCAG 2.1 compliance.
@@ -62,7 +77,7 @@ public class CanvasAltTextAudit implements IExecutablePageStateAudit {
 	 * <ul>
 	 *   <li>{@code page_state} must not be null</li>
 	 *   <li>{@code page_state.getElements()} must return a valid collection of ElementState objects</li>
-	 *   <li>{@code audit_service} and {@code issue_message_service} must be properly injected</li>
+	 *   <li>{@code audit_writer} must be properly injected</li>
 	 * </ul>
 	 * 
 	 * <p><strong>Postconditions:</strong></p>
@@ -84,11 +99,13 @@ public class CanvasAltTextAudit implements IExecutablePageStateAudit {
 	 * <p><strong>Behavior:</strong></p>
 	 * <ul>
 	 *   <li>Filters page elements to find only video and audio elements</li>
-	 *   <li>For each video/audio element, parses its HTML content using Jsoup</li>
+	 *   <li>For each video/audio element, parses its HTML content with the {@link FragmentParseService}, in parallel chunks on pages with many such elements</li>
 	 *   <li>Checks for presence of &lt;track&gt; elements (for captions/subtitles)</li>
 	 *   <li>Checks for presence of &lt;a&gt; elements (potential transcript links)</li>
 	 *   <li>Creates violation issues for elements missing track elements or transcript links</li>
 	 *   <li>Creates compliance issues for elements with proper accessibility features</li>
+	 *   <li>When incremental re-audits are enabled, reuses the issue messages of elements unchanged since the previous audit of the same URL</li>
+	 *   <li>When passing-message aggregation is enabled, counts compliant results per tag and saves one summary message per tag instead of one message per element</li>
 	 *   <li>Calculates overall accessibility score based on compliance rate</li>
 	 *   <li>Persists all audit data and issue messages to the database</li>
 	 * </ul>
@@ -106,10 +123,6 @@ public class CanvasAltTextAudit implements IExecutablePageStateAudit {
 		
 		Set<UXIssueMessage> issue_messages = new HashSet<>();
 
-		Set<String> labels = new HashSet<>();
-		labels.add("alt_text");
-		labels.add("wcag");
-		
 		// tags not covered = figure
 		List<ElementState> element_states = new ArrayList<>();
 		for(ElementState element : page_state.getElements()) {
@@ -121,99 +134,87 @@ public class CanvasAltTextAudit implements IExecutablePageStateAudit {
 			}
 		}
 		
-		String why_it_matters = "Ensuring video and audio elements have <track> elements and transcript links ensures that all users can access the content, including those with hearing impairments.";
-		String ada_compliance = "Your website does not meet the level A ADA compliance requirement for" +
-				" 'Alt' text within video/audio elements.";
+		ElementFingerprintStore.Run incremental_run = fingerprint_store.begin(page_state.getUrl(), CanvasAltTextAudit.class.getSimpleName());
+		PassingMessageAggregator.Tally passing_tally = passing_aggregator.begin();
+		IssueKeys issue_keys = IssueKeys.forAudit(audit_record.getId(), CanvasAltTextAudit.class);
+
+		List<ElementState> pending_elements = new ArrayList<>();
+		List<Long> pending_fingerprints = new ArrayList<>();
+		List<UXIssueMessage> carried_links = new ArrayList<>();
+		List<Long> carried_element_ids = new ArrayList<>();
+		for(ElementState av_element : element_states) {
+			long fingerprint = incremental_run.fingerprint(av_element);
+			Map<String, UXIssueMessage> carried_messages = incremental_run.carryForward(fingerprint);
+			if(carried_messages != null) {
+				for(Map.Entry<String, UXIssueMessage> carried : carried_messages.entrySet()) {
+					UXIssueMessage carried_copy = audit_writer.carryForward(carried.getValue(), issue_keys.of(av_element.getKey(), carried.getKey()));
+					carried_links.add(carried_copy);
+					carried_element_ids.add(av_element.getId());
+					issue_messages.add(carried_copy);
+				}
+				continue;
+			}
+			pending_elements.add(av_element);
+			pending_fingerprints.add(fingerprint);
+		}
+
+		//carried-forward results of all unchanged elements are linked in one write
+		audit_writer.addElements(carried_links, carried_element_ids);
+
+		//parse the fragments of the elements to evaluate in parallel, then score them in element order
+		List<Document> jsoup_docs = parse_service.parseBodyFragments(pending_elements, ElementState::getAllText, page_state.getUrl(), CanvasAltTextAudit.class.getSimpleName());
 
 		//score each video/audio element
-		for(ElementState av_element : element_states) {
-			Document jsoup_doc = Jsoup.parseBodyFragment(av_element.getAllText(), page_state.getUrl());
+		for(int idx = 0; idx < pending_elements.size(); idx++) {
+			ElementState av_element = pending_elements.get(idx);
+			long fingerprint = pending_fingerprints.get(idx);
+			Map<String, UXIssueMessage> element_messages = new LinkedHashMap<>();
+			int counted_before = passing_tally.getCount();
+			Document jsoup_doc = jsoup_docs.get(idx);
 			Element track_element = jsoup_doc.getElementsByTag("track").first();
 			Element link_element = jsoup_doc.getElementsByTag("a").first();
 
 			if(track_element == null || (track_element.hasAttr("src") && track_element.attr("src").isEmpty())){
-				String title = av_element.getName()+" does not have track element defined";
-				String description = av_element.getName()+" does not have track element defined";
-				
-				ElementStateIssueMessage issue_message = new ElementStateIssueMessage(
-					Priority.HIGH,
-					description,
-					av_element.getName()+" tag should have a <track> element defined within the "+av_element.getName()+" tag",
-					null,
-					AuditCategory.CONTENT,
-					labels,
-					ada_compliance,
-					title,
-					0,
-					1);
-
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), av_element.getId());
-				issue_messages.add(issue_message);
+				ElementStateIssueMessage issue_message = IssueTemplates.MEDIA_TRACK_MISSING.forTag(av_element.getName()).toIssueMessage();
+
+				issue_message = (ElementStateIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(av_element.getKey(), IssueTemplates.MEDIA_TRACK_MISSING.getId()));
+				audit_writer.addElement(issue_message, av_element.getId());
+				element_messages.put(IssueTemplates.MEDIA_TRACK_MISSING.getId(), issue_message);
 			}
-			else{
-				String title = av_element.getName()+" has track included!";
-				String description = "Well done! This "+av_element.getName()+" is considered accessible according to WCAG 2.1 section 1.1.1";
-				
-				ElementStateIssueMessage issue_message = new ElementStateIssueMessage(
-																Priority.NONE,
-																description,
-																"",
-																null,
-																AuditCategory.CONTENT,
-																labels,
-																ada_compliance,
-																title,
-																1,
-																1);
-
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), av_element.getId());
-				issue_messages.add(issue_message);
+			else if(!passing_tally.add(IssueTemplates.MEDIA_TRACK_PRESENT, av_element.getName())) {
+				ElementStateIssueMessage issue_message = IssueTemplates.MEDIA_TRACK_PRESENT.forTag(av_element.getName()).toIssueMessage();
+
+				issue_message = (ElementStateIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(av_element.getKey(), IssueTemplates.MEDIA_TRACK_PRESENT.getId()));
+				audit_writer.addElement(issue_message, av_element.getId());
+				element_messages.put(IssueTemplates.MEDIA_TRACK_PRESENT.getId(), issue_message);
 			}
 
 			if(link_element == null || link_element.text().isEmpty()){
-				String title = av_element.getName()+ " does not have link to transcript.";
-				String description = av_element.getName()+" does not have link to transcript";
-				
-				ElementStateIssueMessage issue_message = new ElementStateIssueMessage(
-					Priority.HIGH,
-					description,
-					av_element.getName()+" tag should have a link to transcript for accessibility",
-					null,
-					AuditCategory.CONTENT,
-					labels,
-					ada_compliance,
-					title,
-					0,
-					1);
-
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), av_element.getId());
-				issue_messages.add(issue_message);
+				ElementStateIssueMessage issue_message = IssueTemplates.MEDIA_TRANSCRIPT_MISSING.forTag(av_element.getName()).toIssueMessage();
+
+				issue_message = (ElementStateIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(av_element.getKey(), IssueTemplates.MEDIA_TRANSCRIPT_MISSING.getId()));
+				audit_writer.addElement(issue_message, av_element.getId());
+				element_messages.put(IssueTemplates.MEDIA_TRANSCRIPT_MISSING.getId(), issue_message);
+			}
+			else if(!passing_tally.add(IssueTemplates.MEDIA_TRANSCRIPT_PRESENT, av_element.getName())) {
+				ElementStateIssueMessage issue_message = IssueTemplates.MEDIA_TRANSCRIPT_PRESENT.forTag(av_element.getName()).toIssueMessage();
+
+				issue_message = (ElementStateIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(av_element.getKey(), IssueTemplates.MEDIA_TRANSCRIPT_PRESENT.getId()));
+				audit_writer.addElement(issue_message, av_element.getId());
+				element_messages.put(IssueTemplates.MEDIA_TRANSCRIPT_PRESENT.getId(), issue_message);
 			}
-			else{
-				String title = av_element.getName()+" has link to transcript!";
-				String description = "Well done! This " + av_element.getName() + " is considered accessible according to WCAG 2.1 section 1.1.1";
-				
-				ElementStateIssueMessage issue_message = new ElementStateIssueMessage(
-																Priority.NONE,
-																description,
-																"",
-																null,
-																AuditCategory.CONTENT,
-																labels,
-																ada_compliance,
-																title,
-																1,
-																1);
-
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), av_element.getId());
-				issue_messages.add(issue_message);
+
+			issue_messages.addAll(element_messages.values());
+			//counted passing results have no message to carry forward, so such elements are re-evaluated next time
+			if(passing_tally.getCount() == counted_before) {
+				incremental_run.record(fingerprint, element_messages);
 			}
 		}
 		
+		for(Map.Entry<String, UXIssueMessage> summary : passing_tally.toIssueMessagesByRule().entrySet()) {
+			issue_messages.add(audit_writer.upsert(summary.getValue(), issue_keys.of(null, summary.getKey())));
+		}
+
 		int points_earned = 0;
 		int max_points = 0;
 		for(UXIssueMessage issue_msg : issue_messages) {
@@ -234,12 +235,13 @@ public class CanvasAltTextAudit implements IExecutablePageStateAudit {
 								 AuditLevel.PAGE,
 								 max_points,
 								 page_state.getUrl(),
-								 why_it_matters,
+								 IssueTemplates.MEDIA_ALT_TEXT_WHY_IT_MATTERS,
 								 description,
 								 true);
 
-		audit = audit_service.save(audit);
-		audit_service.addAllIssues(audit.getId(), issue_messages);
+		audit = audit_writer.upsert(audit, issue_keys.auditKey());
+		audit_writer.addAllIssues(audit, issue_messages);
+		incremental_run.commit();
 
 		// Postcondition: audit must be non-null and persisted
 		assert audit != null : "audit must not be null after save";
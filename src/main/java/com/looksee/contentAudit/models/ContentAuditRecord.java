@@ -0,0 +1,35 @@
+package com.looksee.contentAudit.models;
+
+import com.looksee.models.audit.AuditRecord;
+
+/**
+ * Read-only {@link AuditRecord} that holds only the fields the content audits
+ * read: id and target user education.
+ *
+ * <p>Audits only key and link their results by the record's id and never
+ * save the record, so a partial entity is safe to hand them.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>Fields never change after construction</li>
+ * </ul>
+ */
+public final class ContentAuditRecord extends AuditRecord {
+	private final Long id;
+	private final String target_user_education;
+
+	public ContentAuditRecord(Long id, String target_user_education) {
+		this.id = id;
+		this.target_user_education = target_user_education;
+	}
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public String getTargetUserEducation() {
+		return target_user_education;
+	}
+}
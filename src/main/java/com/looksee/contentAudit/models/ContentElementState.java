@@ -0,0 +1,81 @@
+package com.looksee.contentAudit.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.looksee.models.ElementState;
+
+/**
+ * Read-only {@link ElementState} that holds only the fields the content audits
+ * read: id, name, key, xpath, owned text, all text and outer HTML. Attributes,
+ * rendered CSS and screenshot metadata are never loaded.
+ *
+ * <p>Audits only link issue messages to elements by id and never save
+ * elements, so a partial entity is safe to hand them. Results logged for
+ * write-behind are read back through the JSON creator.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>Fields never change after construction</li>
+ * </ul>
+ */
+public final class ContentElementState extends ElementState {
+	private final Long id;
+	private final String name;
+	private final String key;
+	private final String xpath;
+	private final String owned_text;
+	private final String all_text;
+	private final String outer_html;
+
+	@JsonCreator
+	public ContentElementState(@JsonProperty("id") Long id,
+								@JsonProperty("name") String name,
+								@JsonProperty("key") String key,
+								@JsonProperty("xpath") String xpath,
+								@JsonProperty("ownedText") String owned_text,
+								@JsonProperty("allText") String all_text,
+								@JsonProperty("outerHtml") String outer_html) {
+		this.id = id;
+		this.name = name;
+		this.key = key;
+		this.xpath = xpath;
+		this.owned_text = owned_text;
+		this.all_text = all_text;
+		this.outer_html = outer_html;
+	}
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getKey() {
+		return key;
+	}
+
+	@Override
+	public String getXpath() {
+		return xpath;
+	}
+
+	@Override
+	public String getOwnedText() {
+		return owned_text;
+	}
+
+	@Override
+	public String getAllText() {
+		return all_text;
+	}
+
+	@Override
+	public String getOuterHtml() {
+		return outer_html;
+	}
+}
@@ -0,0 +1,48 @@
+package com.looksee.contentAudit.models;
+
+import java.util.List;
+
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+
+/**
+ * {@link PageState} that holds only the fields the content audits read: id,
+ * URL and the elements loaded for the audits.
+ *
+ * <p>Audits never save the page, so a partial entity is safe to hand them.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>Id and URL never change after construction</li>
+ * </ul>
+ */
+public final class ContentPageState extends PageState {
+	private final Long id;
+	private final String url;
+	private List<ElementState> elements;
+
+	public ContentPageState(Long id, String url) {
+		this.id = id;
+		this.url = url;
+	}
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public String getUrl() {
+		return url;
+	}
+
+	@Override
+	public List<ElementState> getElements() {
+		return elements;
+	}
+
+	@Override
+	public void setElements(List<ElementState> elements) {
+		this.elements = elements;
+	}
+}
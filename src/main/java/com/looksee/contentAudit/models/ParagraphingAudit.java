@@ -1,9 +1,13 @@
 package com.looksee.contentAudit.models;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +15,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.google.cloud.language.v1.Sentence;
-import com.looksee.gcp.CloudNLPUtils;
+import com.looksee.contentAudit.models.enums.Language;
+import com.looksee.contentAudit.models.messages.IssueTemplates;
+import com.looksee.contentAudit.services.AuditWriter;
+import com.looksee.contentAudit.services.ElementFingerprintStore;
+import com.looksee.contentAudit.services.LanguageDetector;
+import com.looksee.contentAudit.services.PassingMessageAggregator;
+import com.looksee.contentAudit.services.SentenceSegmentationPipeline;
+import com.looksee.contentAudit.utils.IssueKeys;
+import com.looksee.contentAudit.utils.LogSampler;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
@@ -26,8 +38,6 @@ import com.looksee.models.enums.AuditLevel;
 import com.looksee.models.enums.AuditName;
 import com.looksee.models.enums.AuditSubcategory;
 import com.looksee.models.enums.Priority;
-import com.looksee.services.AuditService;
-import com.looksee.services.UXIssueMessageService;
 import com.looksee.utils.BrowserUtils;
 
 import lombok.NoArgsConstructor;
@@ -51,12 +61,23 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class ParagraphingAudit implements IExecutablePageStateAudit {
 	private static Logger log = LoggerFactory.getLogger(ParagraphingAudit.class);
+	private static final LogSampler paragraph_log_sampler = new LogSampler(100);
+	private static final String SENTENCE_TOO_LONG_RULE = "paragraphing.sentence-length.long";
 	
 	@Autowired
-	private AuditService audit_service;
-	
+	private AuditWriter audit_writer;
+
+	@Autowired
+	private ElementFingerprintStore fingerprint_store;
+
+	@Autowired
+	private PassingMessageAggregator passing_aggregator;
+
 	@Autowired
-	private UXIssueMessageService issue_message_service;
+	private SentenceSegmentationPipeline segmentation_pipeline;
+
+	@Autowired
+	private LanguageDetector language_detector;
 	
 	/**
 	 * Executes a paragraphing audit on a web page to assess sentence length
@@ -77,9 +98,12 @@ public class ParagraphingAudit implements IExecutablePageStateAudit {
 	 *   <li>For each text element, extracts owned text content and splits into paragraphs by newline characters</li>
 	 *   <li>Filters out paragraphs with fewer than 3 words</li>
 	 *   <li>Adds periods to paragraphs that don't contain sentence-ending punctuation</li>
-	 *   <li>Uses Google Cloud NLP (CloudNLPUtils.extractSentences()) to parse paragraphs into individual sentences</li>
-	 *   <li>Evaluates each sentence against the 25-word maximum length standard used in EU and US governmental documentation</li>
+	 *   <li>Uses Google Cloud NLP to parse paragraphs into individual sentences; requests for all paragraphs are sent concurrently through the rate-limited SentenceSegmentationPipeline, and the calling thread waits once for all of them, then scores them in their original order. Callers that must not wait use {@link #begin(PageState, AuditRecord)} instead</li>
+	 *   <li>Detects the language of each text block once with the {@link LanguageDetector}</li>
+	 *   <li>Evaluates each sentence against the language's maximum sentence length: the 25-word standard used in EU and US governmental documentation for English, and the limits of {@link Language#getMaxSentenceWords()} for other languages</li>
 	 *   <li>Creates SentenceIssueMessage objects for sentences that exceed the limit or meet the standard</li>
+	 *   <li>When incremental re-audits are enabled, reuses the issue messages of elements unchanged since the previous audit of the same URL</li>
+	 *   <li>When passing-message aggregation is enabled, counts sentences of acceptable length per tag and saves one summary message per tag instead of one message per sentence</li>
 	 *   <li>Calculates overall score based on points earned vs maximum possible points</li>
 	 * </ul>
 	 * 
@@ -87,15 +111,15 @@ public class ParagraphingAudit implements IExecutablePageStateAudit {
 	 * <ul>
 	 *   <li>Returns a non-null Audit object with CONTENT category, WRITTEN_CONTENT subcategory, and PARAGRAPHING audit name</li>
 	 *   <li>The audit contains calculated points earned and maximum points based on sentence length compliance</li>
-	 *   <li>All SentenceIssueMessage objects are persisted to the database via UXIssueMessageService</li>
-	 *   <li>The audit is saved to the database via AuditService</li>
+	 *   <li>All SentenceIssueMessage objects are persisted to the database via AuditWriter</li>
+	 *   <li>The audit is saved to the database via AuditWriter</li>
 	 *   <li>All issue messages are associated with the audit record</li>
 	 * </ul>
 	 * 
 	 * <p><strong>Scoring:</strong></p>
 	 * <ul>
-	 *   <li>Sentences with 25 words or fewer: 1 point earned, 1 point maximum</li>
-	 *   <li>Sentences with more than 25 words: 0 points earned, 1 point maximum</li>
+	 *   <li>Sentences within the language's limit (25 words for English): 1 point earned, 1 point maximum</li>
+	 *   <li>Sentences over the language's limit: 0 points earned, 1 point maximum</li>
 	 *   <li>Overall score is the sum of all sentence scores across all text elements</li>
 	 * </ul>
 	 * 
@@ -104,87 +128,238 @@ public class ParagraphingAudit implements IExecutablePageStateAudit {
 	 * @param design_system The design system context (unused in this implementation)
 	 * @return A completed Audit object with paragraphing compliance results
 	 * @throws NullPointerException if {@code page_state} is null
-	 * @throws RuntimeException if CloudNLPUtils.extractSentences() fails for any paragraph
 	 */
 	@Override
 	public Audit execute(PageState page_state,
 						AuditRecord audit_record,
 						DesignSystem design_system) {
+		Segmentation segmentation = begin(page_state, audit_record);
+		//this interface is synchronous: wait once for all of the page's paragraphs
+		segmentation.whenSegmented().join();
+		return segmentation.score();
+	}
+
+	/**
+	 * Starts a paragraphing audit of a page without waiting for Cloud NLP.
+	 * Carries forward the results of elements unchanged since the previous
+	 * audit and sends the paragraphs of the other elements for segmentation.
+	 * The audit is completed by {@link Segmentation#score()} once
+	 * {@link Segmentation#whenSegmented()} completes, on the thread the caller
+	 * chooses, so no thread waits for the segmentation requests.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code page_state} must not be null</li>
+	 * </ul>
+	 *
+	 * @param page_state The page state containing elements to audit, must not be null
+	 * @param audit_record The audit record for tracking this audit execution
+	 * @return the started audit, to be scored once its paragraphs are segmented
+	 * @throws NullPointerException if {@code page_state} is null
+	 */
+	public Segmentation begin(PageState page_state, AuditRecord audit_record) {
 		// Preconditions
 		Objects.requireNonNull(page_state, "page_state must not be null");
 
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
-		
+		Segmentation segmentation = new Segmentation(page_state.getUrl(),
+													fingerprint_store.begin(page_state.getUrl(), ParagraphingAudit.class.getSimpleName()),
+													IssueKeys.forAudit(audit_record.getId(), ParagraphingAudit.class));
+
 		List<ElementState> element_list = BrowserUtils.getTextElements(page_state.getElements());
-		
 		for(ElementState element : element_list) {
-			String text_block = element.getOwnedText();
-			if(text_block == null || text_block.isBlank()) {
+			String owned_text = element.getOwnedText();
+			if(owned_text == null || owned_text.isBlank()) {
 				continue;
 			}
 			
-			//    parse text block into paragraph chunks(multiple paragraphs can exist in a text block)
-			String[] paragraphs = text_block.split("\n");
-			for(String paragraph : paragraphs) {
-				paragraph = paragraph.trim();
-				if(paragraph.isEmpty() || paragraph.split("\\s+").length < 3) {
-					continue;
-				}
-				else if(!paragraph.contains(".")) {
-					paragraph = paragraph + ".";
+			long fingerprint = segmentation.incremental_run.fingerprint(element);
+			Map<String, UXIssueMessage> carried_messages = segmentation.incremental_run.carryForward(fingerprint);
+			if(carried_messages != null) {
+				for(Map.Entry<String, UXIssueMessage> carried : carried_messages.entrySet()) {
+					segmentation.issue_messages.add(audit_writer.carryForward(carried.getValue(), segmentation.issue_keys.of(element.getKey(), carried.getKey())));
 				}
-				try {
-					List<Sentence> sentences = CloudNLPUtils.extractSentences(paragraph);
-					Score score = calculateSentenceScore(sentences, element);
+				continue;
+			}
 
-					issue_messages.addAll(score.getIssueMessages());
-				} catch (Exception e) {
-					log.warn("error getting sentences from text :: {}", paragraph, e);
-				}
+			List<String> element_paragraphs = splitParagraphs(owned_text);
+			segmentation.pending_elements.add(element);
+			segmentation.pending_fingerprints.add(fingerprint);
+			segmentation.element_languages.add(language_detector.detect(owned_text));
+			segmentation.paragraph_counts.add(element_paragraphs.size());
+			segmentation.paragraphs.addAll(element_paragraphs);
+		}
 
-			}
-			// validate that spacing between paragraphs is at least 2x the font size within the paragraphs
+		//segment all paragraphs concurrently; a failed paragraph leaves its element incomplete
+		List<CompletableFuture<List<Sentence>>> requests = segmentation_pipeline.submit(segmentation.paragraphs);
+		for(int paragraph_idx = 0; paragraph_idx < requests.size(); paragraph_idx++) {
+			String paragraph = segmentation.paragraphs.get(paragraph_idx);
+			segmentation.segmented_paragraphs.add(requests.get(paragraph_idx).exceptionally(e -> {
+				log.warn("error getting sentences from text :: {}", paragraph, e);
+				return null;
+			}));
 		}
-		
-		String why_it_matters = "The way users experience content has changed in the mobile phone era." + 
-				" Attention spans are shorter, and users skim through most information." + 
-				" Presenting information in small, easy to digest chunks makes their" + 
-				" experience easy and convenient. ";
+		segmentation.segmented = CompletableFuture.allOf(segmentation.segmented_paragraphs.toArray(new CompletableFuture[0]));
+		return segmentation;
+	}
 
+	/**
+	 * A paragraphing audit whose paragraphs are being segmented. Scored once,
+	 * after {@link #whenSegmented()} completes, on a thread that has the
+	 * page's {@link AuditWriter.Page} bound when its writes are recorded.
+	 */
+	public class Segmentation {
+		private final String page_url;
+		private final ElementFingerprintStore.Run incremental_run;
+		private final PassingMessageAggregator.Tally passing_tally = passing_aggregator.begin();
+		private final IssueKeys issue_keys;
+		private final Set<UXIssueMessage> issue_messages = new HashSet<>();
+		private final List<ElementState> pending_elements = new ArrayList<>();
+		private final List<Long> pending_fingerprints = new ArrayList<>();
+		private final List<Integer> paragraph_counts = new ArrayList<>();
+		private final List<Language> element_languages = new ArrayList<>();
+		private final List<String> paragraphs = new ArrayList<>();
+		private final List<CompletableFuture<List<Sentence>>> segmented_paragraphs = new ArrayList<>();
+		private CompletableFuture<Void> segmented;
 
-		int points_earned = 0;
-		int max_points = 0;
-		for(UXIssueMessage issue_msg : issue_messages) {
-			points_earned += issue_msg.getPoints();
-			max_points += issue_msg.getMaxPoints();
+		private Segmentation(String page_url, ElementFingerprintStore.Run incremental_run, IssueKeys issue_keys) {
+			this.page_url = page_url;
+			this.incremental_run = incremental_run;
+			this.issue_keys = issue_keys;
 		}
 
-		// Invariant: points earned cannot exceed max points
-		assert points_earned <= max_points : "points_earned (" + points_earned + ") exceeds max_points (" + max_points + ")";
+		/**
+		 * @return a future completed once every paragraph is segmented or has failed; never completes exceptionally
+		 */
+		public CompletableFuture<Void> whenSegmented() {
+			return segmented;
+		}
 
-		String description = "";
+		/**
+		 * Scores the segmented paragraphs in their original order, saves the
+		 * issue messages and the audit, and returns the audit.
+		 *
+		 * <p><strong>Preconditions:</strong></p>
+		 * <ul>
+		 *   <li>{@link #whenSegmented()} has completed</li>
+		 * </ul>
+		 *
+		 * <p><strong>Postconditions:</strong></p>
+		 * <ul>
+		 *   <li>Returns a non-null Audit object with CONTENT category, WRITTEN_CONTENT subcategory, and PARAGRAPHING audit name</li>
+		 *   <li>The audit and its issue messages are saved via AuditWriter and associated with each other</li>
+		 * </ul>
+		 *
+		 * @return the completed audit
+		 * @throws IllegalStateException if paragraphs are still being segmented
+		 */
+		public Audit score() {
+			if(!segmented.isDone()) {
+				throw new IllegalStateException("paragraphs are still being segmented");
+			}
 
-		Audit audit = new Audit(AuditCategory.CONTENT,
-							AuditSubcategory.WRITTEN_CONTENT,
-							AuditName.PARAGRAPHING,
-							points_earned,
-							null,
-							AuditLevel.PAGE,
-							max_points,
-							page_state.getUrl(),
-							why_it_matters,
-							description,
-							false);
+			int paragraph_idx = 0;
+			for(int idx = 0; idx < pending_elements.size(); idx++) {
+				ElementState element = pending_elements.get(idx);
+				Language language = element_languages.get(idx);
+				Map<String, UXIssueMessage> element_messages = new LinkedHashMap<>();
+				boolean element_complete = true;
+				int counted_before = passing_tally.getCount();
 
-		audit = audit_service.save(audit);
-		audit_service.addAllIssues(audit.getId(), issue_messages);
+				for(int count = 0; count < paragraph_counts.get(idx); count++, paragraph_idx++) {
+					List<Sentence> sentences = segmented_paragraphs.get(paragraph_idx).getNow(null);
+					if(sentences == null) {
+						element_complete = false;
+						continue;
+					}
+					try {
+						if(log.isDebugEnabled() && paragraph_log_sampler.sample()) {
+							log.debug("paragraph segmented elementId={} paragraphLength={} sentenceCount={}", element.getId(), paragraphs.get(paragraph_idx).length(), sentences.size());
+						}
+						calculateSentenceScore(sentences, element, passing_tally, language, issue_keys, count, element_messages);
+					} catch (Exception e) {
+						log.warn("error scoring sentences from text :: {}", paragraphs.get(paragraph_idx), e);
+						element_complete = false;
+					}
+				}
 
-		// Postcondition: audit must be non-null and persisted
-		assert audit != null : "audit must not be null after save";
+				issue_messages.addAll(element_messages.values());
+				//counted passing results have no message to carry forward, so such elements are re-evaluated next time
+				if(element_complete && passing_tally.getCount() == counted_before) {
+					incremental_run.record(pending_fingerprints.get(idx), element_messages);
+				}
+				// validate that spacing between paragraphs is at least 2x the font size within the paragraphs
+			}
 
-		return audit;
+			for(Map.Entry<String, UXIssueMessage> summary : passing_tally.toIssueMessagesByRule().entrySet()) {
+				issue_messages.add(audit_writer.upsert(summary.getValue(), issue_keys.of(null, summary.getKey())));
+			}
+			
+			int points_earned = 0;
+			int max_points = 0;
+			for(UXIssueMessage issue_msg : issue_messages) {
+				points_earned += issue_msg.getPoints();
+				max_points += issue_msg.getMaxPoints();
+			}
+
+			// Invariant: points earned cannot exceed max points
+			assert points_earned <= max_points : "points_earned (" + points_earned + ") exceeds max_points (" + max_points + ")";
+
+			String description = "";
+
+			Audit audit = new Audit(AuditCategory.CONTENT,
+								AuditSubcategory.WRITTEN_CONTENT,
+								AuditName.PARAGRAPHING,
+								points_earned,
+								null,
+								AuditLevel.PAGE,
+								max_points,
+								page_url,
+								IssueTemplates.PARAGRAPHING_WHY_IT_MATTERS,
+								description,
+								false);
+
+			audit = audit_writer.upsert(audit, issue_keys.auditKey());
+			audit_writer.addAllIssues(audit, issue_messages);
+			incremental_run.commit();
+
+			// Postcondition: audit must be non-null and persisted
+			assert audit != null : "audit must not be null after save";
+
+			return audit;
+		}
 	}
 
+	/**
+	 * Splits a text block into the paragraphs that should be segmented into sentences.
+	 * Paragraphs are separated by newlines; paragraphs with fewer than 3 words are
+	 * skipped and a period is appended to paragraphs without one.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code text_block} must not be null</li>
+	 * </ul>
+	 *
+	 * @param text_block the owned text of an element, must not be null
+	 * @return the paragraphs of the text block, in order
+	 * @throws NullPointerException if {@code text_block} is null
+	 */
+	static List<String> splitParagraphs(String text_block) {
+		Objects.requireNonNull(text_block, "text_block must not be null");
+
+		List<String> paragraphs = new ArrayList<>();
+		//    parse text block into paragraph chunks(multiple paragraphs can exist in a text block)
+		for(String paragraph : text_block.split("\n")) {
+			paragraph = paragraph.trim();
+			if(paragraph.isEmpty() || paragraph.split("\\s+").length < 3) {
+				continue;
+			}
+			else if(!paragraph.contains(".")) {
+				paragraph = paragraph + ".";
+			}
+			paragraphs.add(paragraph);
+		}
+		return paragraphs;
+	}
 
 	/**
 	 * Reviews list of sentences and gives a score based on how many of those
@@ -211,27 +386,74 @@ public class ParagraphingAudit implements IExecutablePageStateAudit {
 	 * @throws NullPointerException if {@code sentences} or {@code element} is null
 	 */
 	public Score calculateSentenceScore(List<Sentence> sentences, ElementState element) {
+		return calculateSentenceScore(sentences, element, IssueKeys.unique(ParagraphingAudit.class));
+	}
+
+	/**
+	 * Scores sentences like {@link #calculateSentenceScore(List, ElementState)}, keying
+	 * each message with {@code issue_keys}, so that scoring the same sentences again
+	 * for the same page audit record upserts the same messages.
+	 *
+	 * @param sentences The list of sentences to evaluate, must not be null
+	 * @param element The element containing the sentences, must not be null
+	 * @param issue_keys The issue keys of this audit execution, must not be null
+	 * @return A non-null Score with points earned, max points, and associated issue messages
+	 * @throws NullPointerException if {@code sentences}, {@code element} or {@code issue_keys} is null
+	 */
+	public Score calculateSentenceScore(List<Sentence> sentences, ElementState element, IssueKeys issue_keys) {
+		return calculateSentenceScore(sentences, element, null, Language.ENGLISH, issue_keys, 0, null);
+	}
+
+	/**
+	 * Scores sentences like {@link #calculateSentenceScore(List, ElementState, IssueKeys)},
+	 * against the sentence length limit of the text's language instead of the English one,
+	 * and counts sentences of acceptable length in {@code passing_tally} instead of
+	 * persisting a message for each when aggregation is enabled. Counted sentences
+	 * still contribute to the returned score's points.
+	 *
+	 * <p>Each message is keyed by the element, {@code paragraph} and the sentence's
+	 * position in {@code sentences}, so scoring the same paragraph again upserts the
+	 * same messages.</p>
+	 *
+	 * @param sentences The list of sentences to evaluate, must not be null
+	 * @param element The element containing the sentences, must not be null
+	 * @param passing_tally The tally of passing results of this audit execution (may be null to itemize every sentence)
+	 * @param language The language of the sentences, must not be null
+	 * @param issue_keys The issue keys of this audit execution, must not be null
+	 * @param paragraph The index of the sentences' paragraph within the element
+	 * @param messages_by_rule receives each persisted message by the rule id it is keyed with (may be null)
+	 * @return A non-null Score with points earned, max points, and the persisted issue messages
+	 * @throws NullPointerException if {@code sentences}, {@code element}, {@code language} or {@code issue_keys} is null
+	 */
+	Score calculateSentenceScore(List<Sentence> sentences,
+								ElementState element,
+								PassingMessageAggregator.Tally passing_tally,
+								Language language,
+								IssueKeys issue_keys,
+								int paragraph,
+								Map<String, UXIssueMessage> messages_by_rule) {
 		Objects.requireNonNull(sentences, "sentences must not be null");
 		Objects.requireNonNull(element, "element must not be null");
+		Objects.requireNonNull(language, "language must not be null");
+		Objects.requireNonNull(issue_keys, "issue_keys must not be null");
+		int max_sentence_words = language.getMaxSentenceWords();
+		String standard = language == Language.ENGLISH
+							? "which is the standard for governmental documentation in the European Union(EU) and the United States(US)"
+							: "which is the recommended maximum for text in this language";
 		int points_earned = 0;
 		int max_points = 0;
 		Set<UXIssueMessage> issue_messages = new HashSet<>();
-		Set<String> labels = new HashSet<>();
-		labels.add("written content");
-		labels.add("paragraphs");
-		labels.add("readability");
-		
-		String ada_compliance = "There are no ADA compliance requirements for this category.";
-		
-		for(Sentence sentence : sentences) {
+		for(int sentence_idx = 0; sentence_idx < sentences.size(); sentence_idx++) {
+			Sentence sentence = sentences.get(sentence_idx);
+			String position = "." + paragraph + "." + sentence_idx;
 			String sentenceText = sentence != null && sentence.getText() != null ? sentence.getText().getContent() : null;
 			String[] words = sentenceText == null || sentenceText.isBlank() ? new String[0] : sentenceText.trim().split("\\s+");
 			
-			if(words.length > 25) {
+			if(words.length > max_sentence_words) {
 
-				String recommendation = "Try reducing the size of the sentence or breaking it up into multiple sentences";
-				String title = "Sentence is too long";
-				String description = "The sentence  \"" + sentence.getText().getContent() + "\" has more than 25 words which can make it difficult for users to understand";
+				String recommendation = IssueTemplates.SENTENCE_TOO_LONG_RECOMMENDATION;
+				String title = IssueTemplates.SENTENCE_TOO_LONG_TITLE;
+				String description = "The sentence  \"" + sentence.getText().getContent() + "\" has more than " + max_sentence_words + " words which can make it difficult for users to understand";
 
 				SentenceIssueMessage issue_message = new SentenceIssueMessage(
 																Priority.MEDIUM,
@@ -239,24 +461,31 @@ public class ParagraphingAudit implements IExecutablePageStateAudit {
 																recommendation,
 																element,
 																AuditCategory.CONTENT,
-																labels,
-																ada_compliance,
+																IssueTemplates.PARAGRAPHING_LABELS,
+																IssueTemplates.PARAGRAPHING_ADA_COMPLIANCE,
 																title,
 																0,
 																1,
 																words.length);
 				
-				issue_message = (SentenceIssueMessage) issue_message_service.save(issue_message);
+				String rule_id = SENTENCE_TOO_LONG_RULE + position;
+				issue_message = (SentenceIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(element.getKey(), rule_id));
 				issue_messages.add(issue_message);
+				if(messages_by_rule != null) {
+					messages_by_rule.put(rule_id, issue_message);
+				}
 
 				max_points += 1;
 			}
 			else {
 				points_earned += 1;
 				max_points += 1;
+				if(passing_tally != null && passing_tally.add(IssueTemplates.SENTENCE_LENGTH_OK, element.getName())) {
+					continue;
+				}
 				String recommendation = "";
-				String title = "Sentence meets EU and US governmental standards for sentence length";
-				String description = "The sentence  \"" + sentence.getText().getContent() + "\" has less than 25 words which is the standard for governmental documentation in the European Union(EU) and the United States(US)";
+				String title = IssueTemplates.SENTENCE_LENGTH_OK_TITLE;
+				String description = "The sentence  \"" + sentence.getText().getContent() + "\" has less than " + max_sentence_words + " words " + standard;
 
 				SentenceIssueMessage issue_message = new SentenceIssueMessage(
 																Priority.NONE,
@@ -264,15 +493,19 @@ public class ParagraphingAudit implements IExecutablePageStateAudit {
 																recommendation,
 																element,
 																AuditCategory.CONTENT,
-																labels,
-																ada_compliance,
+																IssueTemplates.PARAGRAPHING_LABELS,
+																IssueTemplates.PARAGRAPHING_ADA_COMPLIANCE,
 																title,
 																1,
 																1,
 																words.length);
 
-				issue_message = (SentenceIssueMessage) issue_message_service.save(issue_message);
+				String rule_id = IssueTemplates.SENTENCE_LENGTH_OK.getId() + position;
+				issue_message = (SentenceIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(element.getKey(), rule_id));
 				issue_messages.add(issue_message);
+				if(messages_by_rule != null) {
+					messages_by_rule.put(rule_id, issue_message);
+				}
 			}
 		}
 
@@ -1,16 +1,35 @@
 package com.looksee.contentAudit.models;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.looksee.contentAudit.models.enums.EducationLevel;
+import com.looksee.contentAudit.models.enums.Language;
+import com.looksee.contentAudit.models.messages.IssueTemplates;
+import com.looksee.contentAudit.services.AuditWriter;
+import com.looksee.contentAudit.services.ElementFingerprintStore;
+import com.looksee.contentAudit.services.LanguageDetector;
+import com.looksee.contentAudit.services.PassingMessageAggregator;
+import com.looksee.contentAudit.services.ReadabilityScoringTable;
+import com.looksee.contentAudit.utils.IssueKeys;
+import com.looksee.contentAudit.utils.LogSampler;
+import com.looksee.contentAudit.utils.ReadabilityRollup;
+import com.looksee.contentAudit.utils.TextStatistics;
+import com.looksee.contentAudit.utils.XPathIndex;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
@@ -25,8 +44,6 @@ import com.looksee.models.enums.AuditLevel;
 import com.looksee.models.enums.AuditName;
 import com.looksee.models.enums.AuditSubcategory;
 import com.looksee.models.enums.Priority;
-import com.looksee.services.AuditService;
-import com.looksee.services.UXIssueMessageService;
 import com.looksee.utils.ContentUtils;
 
 import io.whelk.flesch.kincaid.ReadabilityCalculator;
@@ -55,12 +72,31 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class ReadabilityAudit implements IExecutablePageStateAudit {
 	private static Logger log = LoggerFactory.getLogger(ReadabilityAudit.class);
+	private static final LogSampler element_log_sampler = new LogSampler(100);
+	private static final String READABILITY_HARD_RULE = "readability.hard";
+	private static final String READABILITY_SECTION_RULE = "readability.section";
 	
 	@Autowired
-	private AuditService audit_service;
-	
+	private AuditWriter audit_writer;
+
+	@Autowired
+	private ElementFingerprintStore fingerprint_store;
+
 	@Autowired
-	private UXIssueMessageService issue_message_service;
+	private PassingMessageAggregator passing_aggregator;
+
+	@Autowired
+	@Qualifier("auditComputePool")
+	private ForkJoinPool compute_pool;
+
+	@Autowired
+	private ReadabilityScoringTable scoring_table;
+
+	@Autowired
+	private LanguageDetector language_detector;
+
+	@Value("${audit.readability.section-issues-only:false}")
+	private boolean section_issues_only;
 	
 	/**
 	 * Executes a readability audit on a web page to assess text complexity and compliance with WCAG AAA standards.
@@ -71,18 +107,22 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 	 *   <li>{@code page_state.getElements()} must contain valid ElementState objects</li>
 	 *   <li>{@code audit_record} must be a valid audit record for tracking</li>
 	 *   <li>{@code design_system} must be provided (though unused in this implementation)</li>
-	 *   <li>{@code audit_service} and {@code issue_message_service} must be properly injected</li>
+	 *   <li>{@code audit_writer} must be properly injected</li>
 	 * </ul>
 	 * 
 	 * <p><strong>Process:</strong></p>
 	 * <ul>
 	 *   <li>Filters page elements to identify meaningful text content by excluding buttons, links, empty text, and text with 3 or fewer words</li>
-	 *   <li>Removes duplicate text content by identifying elements whose text is contained within other elements</li>
-	 *   <li>For each qualifying text element, calculates Flesch Reading Ease score using ReadabilityCalculator.calculateReadingEase()</li>
+	 *   <li>Removes duplicate text content by identifying elements whose text is contained within other elements; subtree checks use an {@link XPathIndex} built once from the page's elements</li>
+	 *   <li>For each qualifying text element, detects its language with the {@link LanguageDetector}, then calculates the Flesch Reading Ease score using ReadabilityCalculator.calculateReadingEase() for English, or the language's own formula (Amstad for German, Fern&aacute;ndez-Huerta for Spanish, Kandel-Moles for French); elements are scored concurrently on the shared compute pool</li>
 	 *   <li>Determines reading difficulty rating and grade level using ContentUtils helper methods</li>
-	 *   <li>Assigns points based on reading ease score and target user education level using getPointsForEducationLevel()</li>
+	 *   <li>Resolves the target user education level once, then assigns points from the configured {@link ReadabilityScoringTable} based on reading ease score and that level</li>
 	 *   <li>Boosts points to maximum (4) for text elements with fewer than 10 words</li>
-	 *   <li>Creates ReadingComplexityIssueMessage objects for both problematic and compliant text elements</li>
+	 *   <li>Creates ReadingComplexityIssueMessage objects for both problematic and compliant text elements, persisting them sequentially in element order</li>
+	 *   <li>When incremental re-audits are enabled, reuses the issue messages of elements unchanged since the previous audit of the same URL</li>
+	 *   <li>When passing-message aggregation is enabled, counts easy-to-read elements per tag and saves one summary message per tag instead of one message per element; counted elements are re-evaluated on the next audit</li>
+	 *   <li>Adds the sentence, word and syllable counts of each scored element to a {@link ReadabilityRollup}, which reports the reading ease of each heading-delimited section and of the whole page in the audit description; sections are delimited over the page's elements in document order, as recovered from their xpaths</li>
+	 *   <li>When {@code audit.readability.section-issues-only} is enabled, saves one message per section, scored from the section's reading ease and linked to its heading, instead of one message per element; incremental re-audits are not used in this mode</li>
 	 *   <li>Calculates overall score based on points earned vs maximum possible points (4 points per text element)</li>
 	 * </ul>
 	 * 
@@ -90,8 +130,8 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 	 * <ul>
 	 *   <li>Returns a non-null Audit object with CONTENT category, WRITTEN_CONTENT subcategory, and READING_COMPLEXITY audit name</li>
 	 *   <li>The audit contains calculated points earned and maximum points based on readability compliance</li>
-	 *   <li>All ReadingComplexityIssueMessage objects are persisted to the database via UXIssueMessageService</li>
-	 *   <li>The audit is saved to the database via AuditService</li>
+	 *   <li>All ReadingComplexityIssueMessage objects are persisted to the database via AuditWriter</li>
+	 *   <li>The audit is saved to the database via AuditWriter</li>
 	 *   <li>All issue messages are associated with their respective text elements</li>
 	 *   <li>Issue messages contain appropriate priority levels (LOW for problematic text, NONE for compliant text)</li>
 	 * </ul>
@@ -100,7 +140,7 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 	 * <ul>
 	 *   <li>Each text element contributes up to 4 points maximum</li>
 	 *   <li>Text with fewer than 10 words automatically receives 4 points</li>
-	 *   <li>Points are assigned based on Flesch Reading Ease score ranges and target user education level</li>
+	 *   <li>Points are assigned based on Flesch Reading Ease score ranges and target user education level; the defaults below can be changed through {@code audit.readability.*} properties</li>
 	 *   <li>Reading ease scores 90+: 3-4 points depending on education level</li>
 	 *   <li>Reading ease scores 80-89: 4 points for most education levels</li>
 	 *   <li>Reading ease scores 70-79: 3-4 points depending on education level</li>
@@ -132,142 +172,138 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 		
 		Set<UXIssueMessage> issue_messages = new HashSet<>();
 		
-		//filter elements that aren't text elements
-		//get all element states
-		//filter any element state whose text exists within another element
-		List<ElementState> og_text_elements = new ArrayList<>();
-		
-		String ada_compliance = "Text content shouldn't require a reading ability more advanced than the lower"
-				+ " secondary education level (grades 5 through 8 ) after removal of proper names and titles.";
-		
-		Set<String> labels = new HashSet<>();
-		labels.add("written content");
-		labels.add("readability");
-		labels.add("wcag");
-
 		try{
-			for(ElementState element: page_state.getElements()) {
-				if(element.getName().contentEquals("button")
-						|| element.getName().contentEquals("a")
-						|| element.getOwnedText() == null
-						|| element.getOwnedText().isBlank()
-						|| element.getAllText() == null
-						|| element.getAllText().isBlank()
-						|| countWords(element.getAllText()) <= 3
-				) {
+			List<ElementState> page_elements = page_state.getElements();
+			XPathIndex xpath_index = XPathIndex.of(page_elements.stream().map(ElementState::getXpath).collect(Collectors.toList()));
+			List<ElementState> og_text_elements = selectTextElements(page_elements, xpath_index);
+			log.debug("readability candidates selected url={} elementCount={} candidateCount={}", page_state.getUrl(), page_elements.size(), og_text_elements.size());
+			//element queries return no particular order, so sections are delimited over the elements in document order
+			List<ElementState> ordered_elements = new ArrayList<>(page_elements.size());
+			for(int idx : xpath_index.documentOrder()) {
+				ordered_elements.add(page_elements.get(idx));
+			}
+			ReadabilityRollup rollup = ReadabilityRollup.of(ordered_elements);
+			
+			ElementFingerprintStore.Run incremental_run = fingerprint_store.begin(page_state.getUrl(),
+																				ReadabilityAudit.class.getSimpleName(),
+																				audit_record.getTargetUserEducation());
+			PassingMessageAggregator.Tally passing_tally = passing_aggregator.begin();
+			IssueKeys issue_keys = IssueKeys.forAudit(audit_record.getId(), ReadabilityAudit.class);
+			List<ElementState> pending_elements = new ArrayList<>();
+			List<Long> pending_fingerprints = new ArrayList<>();
+			List<UXIssueMessage> carried_links = new ArrayList<>();
+			List<Long> carried_element_ids = new ArrayList<>();
+			for(ElementState element : og_text_elements) {
+				if(section_issues_only) {
+					pending_elements.add(element);
+					pending_fingerprints.add(0L);
 					continue;
 				}
-				boolean is_child_text = false;
-				for(ElementState element2: page_state.getElements()) {
-					if(element2.getKey().contentEquals(element.getKey())) {
-						continue;
-					}
-					if(element2.getOwnedText() != null
-							&& !element2.getOwnedText().isBlank()
-							&& element2.getAllText() != null
-							&& element.getAllText() != null
-							&& element2.getAllText().contains(element.getAllText())
-							&& !element2.getAllText().contentEquals(element.getAllText())
-					) {
-						is_child_text = true;
-						break;
-					}
-					else if(element2.getAllText() != null
-							&& element.getAllText() != null
-							&& element2.getAllText().contentEquals(element.getAllText())
-							&& !xpathContains(element2.getXpath(), element.getXpath())
-					) {
-						is_child_text = true;
-						break;
-					}
-				}
-				
-				if(!is_child_text) {
-					if(countWords(element.getAllText()) > 3){
-						og_text_elements.add(element);
+				long fingerprint = incremental_run.fingerprint(element);
+				Map<String, UXIssueMessage> carried_messages = incremental_run.carryForward(fingerprint);
+				if(carried_messages != null) {
+					Language language = language_detector.detect(element.getAllText());
+					rollup.add(element, TextStatistics.of(element.getAllText(), language), language);
+					for(Map.Entry<String, UXIssueMessage> carried : carried_messages.entrySet()) {
+						UXIssueMessage carried_copy = audit_writer.carryForward(carried.getValue(), issue_keys.of(element.getKey(), carried.getKey()));
+						carried_links.add(carried_copy);
+						carried_element_ids.add(element.getId());
+						issue_messages.add(carried_copy);
 					}
+					continue;
 				}
+				pending_elements.add(element);
+				pending_fingerprints.add(fingerprint);
 			}
-			log.warn("elemens with text content found = "+og_text_elements);
-			
-			for(ElementState element : og_text_elements) {
-				log.warn("Calculating readability of text : "+element.getAllText());
+			//carried-forward results of all unchanged elements are linked in one write
+			audit_writer.addElements(carried_links, carried_element_ids);
+
+			//score elements concurrently, then build and persist messages in element order
+			List<ElementReadability> readability_scores = scoreElements(pending_elements, audit_record.getTargetUserEducation());
+
+			for(int idx = 0; idx < pending_elements.size(); idx++) {
+				ElementState element = pending_elements.get(idx);
+				long fingerprint = pending_fingerprints.get(idx);
+				ElementReadability readability = readability_scores.get(idx);
+				if(readability == null) {
+					continue;
+				}
+				rollup.add(element, readability.statistics, readability.language);
+				if(section_issues_only) {
+					continue;
+				}
+
 				try {
-					double ease_of_reading_score = ReadabilityCalculator.calculateReadingEase(element.getAllText());
-					String difficulty_string = ContentUtils.getReadingDifficultyRatingByEducationLevel(ease_of_reading_score, audit_record.getTargetUserEducation());
-					String grade_level = ContentUtils.getReadingGradeLevel(ease_of_reading_score);
-					
-					if("unknown".contentEquals(difficulty_string)) {
+					if("unknown".contentEquals(readability.difficulty)) {
+						incremental_run.record(fingerprint, Collections.emptyMap());
 						continue;
 					}
 		
-					int element_points = getPointsForEducationLevel(ease_of_reading_score, audit_record.getTargetUserEducation());
-		
-					if(countWords(element.getAllText()) < 10) {
-						element_points = 4;
-					}
+					int element_points = readability.points;
 					
 					if(element_points < 4) {
-						String title = "Content is written at " + grade_level + " reading level";
-						String description = generateIssueDescription(element, difficulty_string, audit_record.getTargetUserEducation());
-						String recommendation = "Reduce the length of your sentences by breaking longer sentences into 2 or more shorter sentences. You can also use simpler words. Words that contain many syllables can also be difficult to understand.";
+						String title = "Content is written at " + readability.grade_level + " reading level";
+						String description = generateIssueDescription(element, readability.difficulty, audit_record.getTargetUserEducation());
+						String recommendation = IssueTemplates.READABILITY_RECOMMENDATION;
 						
 						ReadingComplexityIssueMessage issue_message = new ReadingComplexityIssueMessage(Priority.LOW, 
 																									description,
 																									recommendation,
 																									null,
 																									AuditCategory.CONTENT,
-																									labels,
-																									ada_compliance,
+																									IssueTemplates.READABILITY_LABELS,
+																									IssueTemplates.READABILITY_ADA_COMPLIANCE,
 																									title,
 																									element_points,
 																									4,
-																									ease_of_reading_score);
+																									readability.ease_of_reading_score);
 						
-						issue_message = (ReadingComplexityIssueMessage) issue_message_service.save(issue_message);
-						issue_message_service.addElement(issue_message.getId(), element.getId());
+						issue_message = (ReadingComplexityIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(element.getKey(), READABILITY_HARD_RULE));
+						audit_writer.addElement(issue_message, element.getId());
 						issue_messages.add(issue_message);
+						incremental_run.record(fingerprint, Map.of(READABILITY_HARD_RULE, issue_message));
 					}
-					else {
+					else if(!passing_tally.add(IssueTemplates.READABILITY_EASY_TO_READ, element.getName())) {
 						String recommendation = "";
 						String description = "";
-						if(countWords(element.getAllText()) < 10) {
-							element_points = 4;
-							description = "Content is short enough to be easily understood by all users";
+						if(readability.word_count < 10) {
+							description = IssueTemplates.READABILITY_SHORT_CONTENT_DESCRIPTION;
 						}
 						else {
-							description = generateIssueDescription(element, difficulty_string, audit_record.getTargetUserEducation());
+							description = generateIssueDescription(element, readability.difficulty, audit_record.getTargetUserEducation());
 						}
-						String title = "Content is easy to read";
+						String title = IssueTemplates.READABILITY_EASY_TITLE;
 						
 						ReadingComplexityIssueMessage issue_message = new ReadingComplexityIssueMessage(Priority.NONE, 
 																									description,
 																									recommendation,
 																									null,
 																									AuditCategory.CONTENT,
-																									labels,
-																									ada_compliance,
+																									IssueTemplates.READABILITY_LABELS,
+																									IssueTemplates.READABILITY_ADA_COMPLIANCE,
 																									title,
 																									element_points,
 																									4,
-																									ease_of_reading_score);
+																									readability.ease_of_reading_score);
 						
-						issue_message = (ReadingComplexityIssueMessage) issue_message_service.save(issue_message);
-						issue_message_service.addElement(issue_message.getId(), element.getId());
+						issue_message = (ReadingComplexityIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(element.getKey(), IssueTemplates.READABILITY_EASY_TO_READ.getId()));
+						audit_writer.addElement(issue_message, element.getId());
 						issue_messages.add(issue_message);
+						incremental_run.record(fingerprint, Map.of(IssueTemplates.READABILITY_EASY_TO_READ.getId(), issue_message));
 					}
 				} catch(Exception e) {
 					log.warn("error calculating readability for element {}", element.getId(), e);
 				}
 			}
 
-			String why_it_matters = "For people with reading disabilities(including the most highly educated), it is important"
-					+ "to accomodate these users by providing text that is simpler to read."
-					+ "Beyond accessibility, the way users experience content online has changed." +
-					" Attention spans are shorter, and users skim through most information." +
-					" Presenting information in small, easy to digest chunks makes their" +
-					" experience easy and convenient.";
-			
+			if(section_issues_only) {
+				issue_messages.addAll(saveSectionMessages(rollup, audit_record.getTargetUserEducation(), issue_keys));
+			}
+
+			for(Map.Entry<String, UXIssueMessage> summary : passing_tally.toIssueMessagesByRule().entrySet()) {
+				issue_messages.add(audit_writer.upsert(summary.getValue(), issue_keys.of(null, summary.getKey())));
+			}
+
 			int points_earned = 0;
 			int max_points = 0;
 			for(UXIssueMessage issue_msg : issue_messages) {
@@ -278,7 +314,10 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 			// Invariant: points earned cannot exceed max points
 			assert points_earned <= max_points : "points_earned (" + points_earned + ") exceeds max_points (" + max_points + ")";
 
-			String description = "";
+			TextStatistics page_statistics = rollup.getPageStatistics();
+			log.debug("readability rollup url={} sections={} words={} pageReadingEase={}", page_state.getUrl(), rollup.getSections().size(), page_statistics.getWords(), rollup.getPageReadingEase());
+
+			String description = describePage(rollup);
 			Audit audit = new Audit(AuditCategory.CONTENT,
 									AuditSubcategory.WRITTEN_CONTENT,
 									AuditName.READING_COMPLEXITY,
@@ -287,11 +326,14 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 									AuditLevel.PAGE,
 									max_points,
 									page_state.getUrl(),
-									why_it_matters,
+									IssueTemplates.READABILITY_WHY_IT_MATTERS,
 									description,
 									false);
 
-			Audit saved_audit = audit_service.save(audit);
+			Audit saved_audit = audit_writer.upsert(audit, issue_keys.auditKey());
+			if(!section_issues_only) {
+				incremental_run.commit();
+			}
 
 			// Postcondition: audit must be non-null and persisted
 			assert saved_audit != null : "audit must not be null after save";
@@ -304,6 +346,257 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 		}
 	}
 
+	/**
+	 * Selects the elements whose text should be scored: elements other than
+	 * buttons and links that have owned text and more than 3 words of text,
+	 * excluding elements whose text is part of another element's text.
+	 *
+	 * <p>Text lengths are read once per element, so that most pairs of the
+	 * pairwise containment scan are rejected by comparing lengths. Whether an
+	 * element with equal text lies in this element's subtree is answered by an
+	 * {@link XPathIndex}, by location step, so that siblings such as
+	 * {@code div[1]} and {@code div[10]} are never mistaken for ancestor and
+	 * descendant.</p>
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code elements} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns the selected elements in page order</li>
+	 * </ul>
+	 *
+	 * @param elements the page's elements, must not be null
+	 * @return the elements to score
+	 * @throws NullPointerException if {@code elements} is null
+	 */
+	static List<ElementState> selectTextElements(List<ElementState> elements) {
+		Objects.requireNonNull(elements, "elements must not be null");
+		return selectTextElements(elements, XPathIndex.of(elements.stream().map(ElementState::getXpath).collect(Collectors.toList())));
+	}
+
+	private static List<ElementState> selectTextElements(List<ElementState> elements, XPathIndex xpath_index) {
+		int size = elements.size();
+		int[] all_lengths = new int[size];
+		boolean[] has_owned_text = new boolean[size];
+		for(int idx = 0; idx < size; idx++) {
+			ElementState element = elements.get(idx);
+			String all_text = element.getAllText();
+			all_lengths[idx] = all_text == null ? -1 : all_text.length();
+			has_owned_text[idx] = element.getOwnedText() != null && !element.getOwnedText().isBlank();
+		}
+
+		List<ElementState> text_elements = new ArrayList<>();
+		for(int idx = 0; idx < size; idx++) {
+			ElementState element = elements.get(idx);
+			String all_text = element.getAllText();
+			if(element.getName().contentEquals("button")
+					|| element.getName().contentEquals("a")
+					|| !has_owned_text[idx]
+					|| all_text == null
+					|| all_text.isBlank()
+					|| all_text.trim().split("\\s+").length <= 3
+			) {
+				continue;
+			}
+
+			boolean is_child_text = false;
+			for(int other = 0; other < size; other++) {
+				if(other == idx || all_lengths[other] < all_lengths[idx]) {
+					continue;
+				}
+				ElementState other_element = elements.get(other);
+				//a longer text that contains this one, or an equal text outside this element's subtree
+				boolean contains_text = all_lengths[other] > all_lengths[idx]
+											? has_owned_text[other] && other_element.getAllText().contains(all_text)
+											: other_element.getAllText().equals(all_text) && !xpath_index.isAncestorOrSelf(idx, other);
+				if(contains_text && !other_element.getKey().contentEquals(element.getKey())) {
+					is_child_text = true;
+					break;
+				}
+			}
+
+			if(!is_child_text) {
+				text_elements.add(element);
+			}
+		}
+		return text_elements;
+	}
+
+	/**
+	 * Computes the readability metrics of each element on the shared compute pool.
+	 * Elements are scored concurrently; the result list preserves element order so
+	 * that message construction and persistence stay deterministic. The target user
+	 * education is resolved to an {@link EducationLevel} once for all elements.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code elements} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns a list with the same size as {@code elements}, where entry {@code i} holds
+	 *       the metrics of element {@code i}, or {@code null} if they could not be calculated</li>
+	 * </ul>
+	 *
+	 * @param elements the text elements to score, must not be null
+	 * @param target_user_education the target user education level (may be null)
+	 * @return the readability metrics of each element, in element order
+	 * @throws NullPointerException if {@code elements} is null
+	 */
+	List<ElementReadability> scoreElements(List<ElementState> elements, String target_user_education) {
+		Objects.requireNonNull(elements, "elements must not be null");
+		if(elements.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		EducationLevel education_level = EducationLevel.fromTargetUserEducation(target_user_education);
+		List<ElementReadability> scores = compute_pool.submit(() -> elements.parallelStream()
+					.map(element -> measureReadability(element, target_user_education, education_level))
+					.collect(Collectors.toList()))
+				.join();
+
+		// Postcondition: one result per element, in element order
+		assert scores.size() == elements.size() : "scores size (" + scores.size() + ") differs from elements size (" + elements.size() + ")";
+
+		return scores;
+	}
+
+	/**
+	 * Computes the readability metrics of a single element. Safe to call concurrently.
+	 *
+	 * @param element the element to measure, must not be null
+	 * @param target_user_education the target user education level (may be null)
+	 * @param education_level the resolved target user education level, must not be null
+	 * @return the element's readability metrics, or {@code null} if they could not be calculated
+	 */
+	private ElementReadability measureReadability(ElementState element, String target_user_education, EducationLevel education_level) {
+		try {
+			String text = element.getAllText();
+			if(log.isDebugEnabled() && element_log_sampler.sample()) {
+				log.debug("calculating readability elementId={} textLength={}", element.getId(), text.length());
+			}
+			Language language = language_detector.detect(text);
+			TextStatistics statistics = TextStatistics.of(text, language);
+			double ease_of_reading_score = language == Language.ENGLISH
+												? ReadabilityCalculator.calculateReadingEase(text)
+												: statistics.readingEase(language);
+			String difficulty_string = ContentUtils.getReadingDifficultyRatingByEducationLevel(ease_of_reading_score, target_user_education);
+			String grade_level = ContentUtils.getReadingGradeLevel(ease_of_reading_score);
+			int word_count = countWords(text);
+
+			int element_points = getPointsForEducationLevel(ease_of_reading_score, education_level);
+			if(word_count < 10) {
+				element_points = 4;
+			}
+
+			return new ElementReadability(ease_of_reading_score, difficulty_string, grade_level, word_count, element_points, statistics, language);
+		} catch(Exception e) {
+			log.warn("error calculating readability for element {}", element.getId(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Saves one issue message per section of the page that has scored text,
+	 * linked to the section's heading, or to its first scored element for text
+	 * before the first heading.
+	 *
+	 * <p>Points come from the scoring table for the section's reading ease, the
+	 * same way elements are scored; sections with fewer than 10 words earn the
+	 * maximum of 4.</p>
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code rollup} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns one persisted message per section with scored text, in page order</li>
+	 * </ul>
+	 *
+	 * @param rollup the page's readability rollup, must not be null
+	 * @param target_user_education the target user education level (may be null)
+	 * @param issue_keys the issue keys of this audit execution, must not be null
+	 * @return the persisted section messages
+	 * @throws NullPointerException if {@code rollup} or {@code issue_keys} is null
+	 */
+	private List<UXIssueMessage> saveSectionMessages(ReadabilityRollup rollup, String target_user_education, IssueKeys issue_keys) {
+		Objects.requireNonNull(rollup, "rollup must not be null");
+		Objects.requireNonNull(issue_keys, "issue_keys must not be null");
+		EducationLevel education_level = EducationLevel.fromTargetUserEducation(target_user_education);
+
+		List<UXIssueMessage> section_messages = new ArrayList<>();
+		for(ReadabilityRollup.Section section : rollup.getSections()) {
+			double ease_of_reading_score = section.getReadingEase();
+			int points = getPointsForEducationLevel(ease_of_reading_score, education_level);
+			if(section.getStatistics().getWords() < 10) {
+				points = 4;
+			}
+
+			String difficulty = ContentUtils.getReadingDifficultyRatingByEducationLevel(ease_of_reading_score, target_user_education);
+			String section_name = section.getHeading() == null ? "The introduction" : "The section \"" + section.getHeading().getAllText() + "\"";
+			String description = section_name + " is " + difficulty + " to read for " + getConsumerType(target_user_education) + ".";
+
+			ReadingComplexityIssueMessage issue_message;
+			if(points < 4) {
+				issue_message = new ReadingComplexityIssueMessage(Priority.LOW,
+																description,
+																IssueTemplates.READABILITY_RECOMMENDATION,
+																null,
+																AuditCategory.CONTENT,
+																IssueTemplates.READABILITY_LABELS,
+																IssueTemplates.READABILITY_ADA_COMPLIANCE,
+																"Section is written at " + ContentUtils.getReadingGradeLevel(ease_of_reading_score) + " reading level",
+																points,
+																4,
+																ease_of_reading_score);
+			}
+			else {
+				issue_message = new ReadingComplexityIssueMessage(Priority.NONE,
+																description,
+																"",
+																null,
+																AuditCategory.CONTENT,
+																IssueTemplates.READABILITY_LABELS,
+																IssueTemplates.READABILITY_ADA_COMPLIANCE,
+																IssueTemplates.READABILITY_EASY_TITLE,
+																points,
+																4,
+																ease_of_reading_score);
+			}
+
+			ElementState anchor = section.getHeading() != null ? section.getHeading() : section.getFirstElement();
+			issue_message = (ReadingComplexityIssueMessage) audit_writer.upsert(issue_message, issue_keys.of(anchor.getKey(), READABILITY_SECTION_RULE));
+			audit_writer.addElement(issue_message, anchor.getId());
+			section_messages.add(issue_message);
+		}
+		return section_messages;
+	}
+
+	/**
+	 * Describes the page's overall reading ease for the audit description.
+	 *
+	 * @param rollup the page's readability rollup, must not be null
+	 * @return the description, or an empty string if no text was scored
+	 */
+	static String describePage(ReadabilityRollup rollup) {
+		TextStatistics page_statistics = rollup.getPageStatistics();
+		if(page_statistics.getWords() == 0) {
+			return "";
+		}
+		return String.format("Page reading ease %.1f (%s, %s) across %d words in %d sections.",
+								rollup.getPageReadingEase(),
+								ContentUtils.getReadingGradeLevel(rollup.getPageReadingEase()),
+								rollup.getPageLanguage().getCode(),
+								page_statistics.getWords(),
+								rollup.getSections().size());
+	}
+
 	/**
 	 * Generates a description of the issue based on the element, difficulty string,
 	 * and target user education.
@@ -360,138 +653,26 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 	}
 
 	/**
-	 * Calculates the points for a given ease of reading score and target user education.
+	 * Calculates the points for a given ease of reading score and target user education level
+	 * by looking them up in the scoring table.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code education_level} must not be null</li>
+	 * </ul>
 	 *
 	 * <p><strong>Postconditions:</strong></p>
 	 * <ul>
 	 *   <li>Returns a value between 0 and 4, inclusive</li>
-	 *   <li>Higher ease of reading scores yield higher point values</li>
-	 *   <li>Higher target education levels yield higher point values for the same reading ease score</li>
 	 * </ul>
 	 *
 	 * @param ease_of_reading_score The Flesch Reading Ease score (0-100 scale)
-	 * @param target_user_education The target user education level (may be null; null treated as general audience)
+	 * @param education_level The resolved target user education level, must not be null
 	 * @return The points earned, between 0 and 4 inclusive.
+	 * @throws NullPointerException if {@code education_level} is null
 	 */
-	private int getPointsForEducationLevel(double ease_of_reading_score, String target_user_education) {
-		int element_points = 0;
-				
-		if(ease_of_reading_score >= 90 ) {
-			if(target_user_education == null) {
-				element_points = 4;
-			}
-			else if("HS".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else if("College".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else if("Advanced".contentEquals(target_user_education)) {
-				element_points = 3;
-			}
-			else {
-				element_points = 4;
-			}
-		}
-		else if(ease_of_reading_score < 90 && ease_of_reading_score >= 80 ) {
-			if(target_user_education == null) {
-				element_points = 4;
-			}
-			else if("HS".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else if("College".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else if("Advanced".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else {
-				element_points = 4;
-			}
-		}
-		else if(ease_of_reading_score < 80 && ease_of_reading_score >= 70) {
-			if(target_user_education == null) {
-				element_points = 4;
-			}
-			else if("HS".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else if("College".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else if("Advanced".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else {
-				element_points = 3;
-			}
-		}
-		else if(ease_of_reading_score < 70 && ease_of_reading_score >= 60) {
-			if(target_user_education == null) {
-				element_points = 3;
-			}
-			else if("HS".contentEquals(target_user_education)) {
-				element_points = 3;
-			}
-			else if("College".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else if("Advanced".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else {
-				element_points = 2;
-			}
-		}
-		else if(ease_of_reading_score < 60 && ease_of_reading_score >= 50) {
-			if(target_user_education == null) {
-				element_points = 2;
-			}
-			else if("HS".contentEquals(target_user_education)) {
-				element_points = 2;
-			}
-			else if("College".contentEquals(target_user_education)) {
-				element_points = 3;
-			}
-			else if("Advanced".contentEquals(target_user_education)) {
-				element_points = 4;
-			}
-			else {
-				element_points = 1;
-			}
-		}
-		else if(ease_of_reading_score < 50 && ease_of_reading_score >= 30) {
-			if(target_user_education == null) {
-				element_points = 1;
-			}
-			else if("HS".contentEquals(target_user_education)) {
-				element_points = 1;
-			}
-			else if("College".contentEquals(target_user_education)) {
-				element_points = 2;
-			}
-			else if("Advanced".contentEquals(target_user_education)) {
-				element_points = 3;
-			}
-			else {
-				element_points = 0;
-			}
-		}
-		else if(ease_of_reading_score < 30) {
-			if(target_user_education == null) {
-				element_points = 0;
-			}
-			else if("College".contentEquals(target_user_education)) {
-				element_points = 1;
-			}
-			else if("Advanced".contentEquals(target_user_education)) {
-				element_points = 2;
-			}
-			else {
-				element_points = 0;
-			}
-		}
+	private int getPointsForEducationLevel(double ease_of_reading_score, EducationLevel education_level) {
+		int element_points = scoring_table.getPoints(education_level, ease_of_reading_score);
 
 		// Postcondition: points must be in valid range [0, 4]
 		assert element_points >= 0 && element_points <= 4 : "element_points (" + element_points + ") out of valid range [0, 4]";
@@ -508,14 +689,6 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 		return text.trim().split("\\s+").length;
 	}
 
-	private static boolean xpathContains(String parentXpath, String childXpath) {
-		if (parentXpath == null || childXpath == null) {
-			return false;
-		}
-
-		return parentXpath.contains(childXpath);
-	}
-
 	/**
 	 * Calculates the score for a sentence based on the number of words in the sentence.
 	 *
@@ -573,4 +746,27 @@ public class ReadabilityAudit implements IExecutablePageStateAudit {
 
 		return new Score(0, 1, new HashSet<>());
 	}
+
+	/**
+	 * Readability metrics computed for a single text element.
+	 */
+	static final class ElementReadability {
+		final double ease_of_reading_score;
+		final String difficulty;
+		final String grade_level;
+		final int word_count;
+		final int points;
+		final TextStatistics statistics;
+		final Language language;
+
+		ElementReadability(double ease_of_reading_score, String difficulty, String grade_level, int word_count, int points, TextStatistics statistics, Language language) {
+			this.ease_of_reading_score = ease_of_reading_score;
+			this.difficulty = difficulty;
+			this.grade_level = grade_level;
+			this.word_count = word_count;
+			this.points = points;
+			this.statistics = statistics;
+			this.language = language;
+		}
+	}
 }
@@ -0,0 +1,45 @@
+package com.looksee.contentAudit.models.enums;
+
+/**
+ * Target audience education level of an audit record, used to pick the row of
+ * the readability scoring table.
+ *
+ * <p>{@link #GENERAL} is used when the audit record has no target education,
+ * and {@link #OTHER} when it names a level this service does not recognize.</p>
+ */
+public enum EducationLevel {
+	GENERAL,
+	HS,
+	COLLEGE,
+	ADVANCED,
+	OTHER;
+
+	/**
+	 * Resolves the education level of an audit record's target user education.
+	 * Matching is exact and case-sensitive, as the audit record values are.
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns a non-null education level</li>
+	 *   <li>Returns {@link #GENERAL} if {@code target_user_education} is null</li>
+	 * </ul>
+	 *
+	 * @param target_user_education the audit record's target user education (may be null)
+	 * @return the matching education level
+	 */
+	public static EducationLevel fromTargetUserEducation(String target_user_education) {
+		if(target_user_education == null) {
+			return GENERAL;
+		}
+		switch(target_user_education) {
+			case "HS":
+				return HS;
+			case "College":
+				return COLLEGE;
+			case "Advanced":
+				return ADVANCED;
+			default:
+				return OTHER;
+		}
+	}
+}
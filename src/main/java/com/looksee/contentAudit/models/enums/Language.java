@@ -0,0 +1,175 @@
+package com.looksee.contentAudit.models.enums;
+
+/**
+ * Languages whose text the content audits can score, each with its own
+ * syllable counter, reading ease formula and sentence length limit.
+ *
+ * <p>Every formula returns a score on the Flesch scale, where higher is easier
+ * and 60-70 is plain language, so the same readability scoring table applies
+ * to all of them:</p>
+ * <ul>
+ *   <li>{@link #ENGLISH}: Flesch, {@code 206.835 - 1.015 * ASL - 84.6 * ASW}</li>
+ *   <li>{@link #GERMAN}: Amstad, {@code 180 - ASL - 58.5 * ASW}</li>
+ *   <li>{@link #SPANISH}: Fern&aacute;ndez-Huerta, {@code 206.84 - 0.60 * P - 1.02 * F}, where {@code P}
+ *       and {@code F} are syllables and sentences per 100 words</li>
+ *   <li>{@link #FRENCH}: Kandel-Moles, {@code 207 - 1.015 * ASL - 73.6 * ASW}</li>
+ * </ul>
+ * <p>{@code ASL} is the average sentence length in words and {@code ASW} the
+ * average number of syllables per word.</p>
+ */
+public enum Language {
+	ENGLISH("en", "aeiouy", 25) {
+		@Override
+		public double readingEase(long sentences, long words, long syllables) {
+			return 206.835 - 1.015 * ((double) words / sentences) - 84.6 * ((double) syllables / words);
+		}
+
+		@Override
+		public int countSyllables(CharSequence text, int start, int end) {
+			int syllables = countVowelGroups(text, start, end);
+			//silent final e, as in "make", but not "le" as in "table"
+			if(end - start > 2
+					&& Character.toLowerCase(text.charAt(end - 1)) == 'e'
+					&& !isVowel(text.charAt(end - 2))
+					&& !(Character.toLowerCase(text.charAt(end - 2)) == 'l' && !isVowel(text.charAt(end - 3)))) {
+				syllables--;
+			}
+			return Math.max(1, syllables);
+		}
+	},
+	GERMAN("de", "aeiouy\u00e4\u00f6\u00fc", 20) {
+		@Override
+		public double readingEase(long sentences, long words, long syllables) {
+			return 180 - ((double) words / sentences) - 58.5 * ((double) syllables / words);
+		}
+	},
+	SPANISH("es", "aeiou\u00e1\u00e9\u00ed\u00f3\u00fa\u00fc", 28) {
+		@Override
+		public double readingEase(long sentences, long words, long syllables) {
+			return 206.84 - 0.60 * (100.0 * syllables / words) - 1.02 * (100.0 * sentences / words);
+		}
+
+		@Override
+		public int countSyllables(CharSequence text, int start, int end) {
+			int syllables = 0;
+			char previous = 0;
+			for(int idx = start; idx < end; idx++) {
+				char c = Character.toLowerCase(text.charAt(idx));
+				if(isVowel(c) && (!isVowel(previous) || isHiatus(previous, c))) {
+					syllables++;
+				}
+				previous = c;
+			}
+			return Math.max(1, syllables);
+		}
+	},
+	FRENCH("fr", "aeiouy\u00e0\u00e2\u00e4\u00e9\u00e8\u00ea\u00eb\u00ee\u00ef\u00f4\u00f6\u00f9\u00fb\u00fc\u0153\u00e6", 28) {
+		@Override
+		public double readingEase(long sentences, long words, long syllables) {
+			return 207 - 1.015 * ((double) words / sentences) - 73.6 * ((double) syllables / words);
+		}
+
+		@Override
+		public int countSyllables(CharSequence text, int start, int end) {
+			int syllables = countVowelGroups(text, start, end);
+			//mute final e and es, as in "table" and "tables"
+			int last = end - 1;
+			if(end - start > 2 && Character.toLowerCase(text.charAt(last)) == 's') {
+				last--;
+			}
+			if(last - start > 1
+					&& Character.toLowerCase(text.charAt(last)) == 'e'
+					&& !isVowel(text.charAt(last - 1))) {
+				syllables--;
+			}
+			return Math.max(1, syllables);
+		}
+	};
+
+	private final String code;
+	private final String vowels;
+	private final int max_sentence_words;
+
+	Language(String code, String vowels, int max_sentence_words) {
+		this.code = code;
+		this.vowels = vowels;
+		this.max_sentence_words = max_sentence_words;
+	}
+
+	/**
+	 * Returns the ISO 639-1 code of the language.
+	 */
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * Returns the longest sentence, in words, that is still easy to follow.
+	 * English uses the 25-word limit of EU and US government writing guidance.
+	 * German sentences pack more into compound words, so the limit is lower;
+	 * Spanish and French need about 10% more words than English for the same
+	 * content, so the limit is higher.
+	 */
+	public int getMaxSentenceWords() {
+		return max_sentence_words;
+	}
+
+	/**
+	 * Computes the language's reading ease score from text counts.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code sentences} and {@code words} must be positive</li>
+	 * </ul>
+	 *
+	 * @param sentences number of sentences
+	 * @param words number of words
+	 * @param syllables number of syllables
+	 * @return the score on the Flesch scale
+	 */
+	public abstract double readingEase(long sentences, long words, long syllables);
+
+	/**
+	 * Estimates the syllables of the word {@code text[start, end)} by counting
+	 * groups of vowels, with at least one per word.
+	 *
+	 * @param text the text containing the word, must not be null
+	 * @param start index of the word's first character
+	 * @param end index after the word's last character
+	 * @return the estimated number of syllables, at least 1
+	 */
+	public int countSyllables(CharSequence text, int start, int end) {
+		return Math.max(1, countVowelGroups(text, start, end));
+	}
+
+	int countVowelGroups(CharSequence text, int start, int end) {
+		int groups = 0;
+		boolean previous_vowel = false;
+		for(int idx = start; idx < end; idx++) {
+			boolean vowel = isVowel(text.charAt(idx));
+			if(vowel && !previous_vowel) {
+				groups++;
+			}
+			previous_vowel = vowel;
+		}
+		return groups;
+	}
+
+	boolean isVowel(char c) {
+		return c != 0 && vowels.indexOf(Character.toLowerCase(c)) >= 0;
+	}
+
+	/**
+	 * Whether two adjacent Spanish vowels belong to different syllables: two
+	 * strong vowels, or a stressed weak vowel next to any vowel.
+	 */
+	private static boolean isHiatus(char first, char second) {
+		return (isStrongSpanishVowel(first) && isStrongSpanishVowel(second))
+				|| first == '\u00ed' || first == '\u00fa'
+				|| second == '\u00ed' || second == '\u00fa';
+	}
+
+	private static boolean isStrongSpanishVowel(char c) {
+		return "aeo\u00e1\u00e9\u00f3".indexOf(c) >= 0;
+	}
+}
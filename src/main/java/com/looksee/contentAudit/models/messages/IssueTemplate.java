@@ -0,0 +1,221 @@
+package com.looksee.contentAudit.models.messages;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.looksee.models.audit.messages.ElementStateIssueMessage;
+import com.looksee.models.enums.AuditCategory;
+import com.looksee.models.enums.Priority;
+
+/**
+ * Immutable, shared content of an element issue message: priority, title,
+ * description, recommendation, labels, WCAG compliance text and points.
+ *
+ * <p>Templates are created once in {@link IssueTemplates} and referenced by id.
+ * Every message built from a template shares the template's strings and label
+ * set instead of rebuilding them per element.</p>
+ *
+ * <p>The title, description and recommendation may contain a {@value #TAG_PLACEHOLDER}
+ * placeholder for the element's tag name. {@link #forTag(String)} resolves it once
+ * per tag name and caches the result, so the resolved strings are shared as well.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>All fields are non-null and never change</li>
+ *   <li>{@code labels} is unmodifiable</li>
+ *   <li>{@code 0 <= points <= max_points}</li>
+ * </ul>
+ */
+public final class IssueTemplate {
+	public static final String TAG_PLACEHOLDER = "{tag}";
+
+	private final String id;
+	private final Priority priority;
+	private final String title;
+	private final String description;
+	private final String recommendation;
+	private final Set<String> labels;
+	private final String wcag_compliance;
+	private final int points;
+	private final int max_points;
+	private final ConcurrentMap<String, IssueTemplate> tag_variants = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a template.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>All object arguments must not be null</li>
+	 *   <li>{@code 0 <= points <= max_points}</li>
+	 * </ul>
+	 *
+	 * @param id stable identifier of the template, must not be null
+	 * @param priority priority of messages built from the template, must not be null
+	 * @param title message title, must not be null
+	 * @param description message description, must not be null
+	 * @param recommendation message recommendation, must not be null
+	 * @param labels message labels, must not be null; copied into an unmodifiable set
+	 * @param wcag_compliance WCAG compliance text, must not be null
+	 * @param points points earned by the element
+	 * @param max_points maximum points for the element
+	 * @throws NullPointerException if any object argument is null
+	 * @throws IllegalArgumentException if the points are out of range
+	 */
+	public IssueTemplate(String id,
+						Priority priority,
+						String title,
+						String description,
+						String recommendation,
+						Set<String> labels,
+						String wcag_compliance,
+						int points,
+						int max_points) {
+		this.id = Objects.requireNonNull(id, "id must not be null");
+		this.priority = Objects.requireNonNull(priority, "priority must not be null");
+		this.title = Objects.requireNonNull(title, "title must not be null");
+		this.description = Objects.requireNonNull(description, "description must not be null");
+		this.recommendation = Objects.requireNonNull(recommendation, "recommendation must not be null");
+		this.labels = Set.copyOf(Objects.requireNonNull(labels, "labels must not be null"));
+		this.wcag_compliance = Objects.requireNonNull(wcag_compliance, "wcag_compliance must not be null");
+		if(points < 0 || points > max_points) {
+			throw new IllegalArgumentException("points must be between 0 and max_points (" + max_points + "), got: " + points);
+		}
+		this.points = points;
+		this.max_points = max_points;
+	}
+
+	/**
+	 * Returns this template with {@value #TAG_PLACEHOLDER} replaced by {@code tag}.
+	 * The resolved template is cached, so repeated calls for the same tag return
+	 * the same instance.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code tag} must not be null</li>
+	 * </ul>
+	 *
+	 * @param tag the element tag name, must not be null
+	 * @return the template resolved for {@code tag}
+	 * @throws NullPointerException if {@code tag} is null
+	 */
+	public IssueTemplate forTag(String tag) {
+		Objects.requireNonNull(tag, "tag must not be null");
+		return tag_variants.computeIfAbsent(tag, name -> new IssueTemplate(id,
+																		priority,
+																		title.replace(TAG_PLACEHOLDER, name),
+																		description.replace(TAG_PLACEHOLDER, name),
+																		recommendation.replace(TAG_PLACEHOLDER, name),
+																		labels,
+																		wcag_compliance,
+																		points,
+																		max_points));
+	}
+
+	/**
+	 * Builds a new, unsaved element issue message from this template.
+	 *
+	 * @return a new message sharing this template's strings and labels
+	 */
+	public ElementStateIssueMessage toIssueMessage() {
+		return toIssueMessage(title);
+	}
+
+	/**
+	 * Builds a new, unsaved element issue message from this template with an
+	 * element-specific title.
+	 *
+	 * @param title the message title, must not be null
+	 * @return a new message sharing this template's other strings and labels
+	 * @throws NullPointerException if {@code title} is null
+	 */
+	public ElementStateIssueMessage toIssueMessage(String title) {
+		Objects.requireNonNull(title, "title must not be null");
+		return new ElementStateIssueMessage(priority,
+											description,
+											recommendation,
+											null,
+											AuditCategory.CONTENT,
+											labels,
+											wcag_compliance,
+											title,
+											points,
+											max_points);
+	}
+
+	/**
+	 * Builds a new, unsaved message that stands for {@code count} passing results
+	 * of this template on elements with the given tag.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code tag} must not be null</li>
+	 *   <li>{@code count} must be positive</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The message's points and max points are this template's, multiplied by {@code count}</li>
+	 * </ul>
+	 *
+	 * @param tag the tag name of the counted elements, must not be null
+	 * @param count the number of counted results, must be positive
+	 * @return a new summary message
+	 * @throws NullPointerException if {@code tag} is null
+	 * @throws IllegalArgumentException if {@code count} is not positive
+	 */
+	public ElementStateIssueMessage toSummaryIssueMessage(String tag, int count) {
+		Objects.requireNonNull(tag, "tag must not be null");
+		if(count <= 0) {
+			throw new IllegalArgumentException("count must be positive, got: " + count);
+		}
+		String summary_title = title.trim() + " (" + count + " <" + tag + "> " + (count == 1 ? "element" : "elements") + ")";
+		return new ElementStateIssueMessage(priority,
+											description,
+											recommendation,
+											null,
+											AuditCategory.CONTENT,
+											labels,
+											wcag_compliance,
+											summary_title,
+											points * count,
+											max_points * count);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public Priority getPriority() {
+		return priority;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public String getRecommendation() {
+		return recommendation;
+	}
+
+	public Set<String> getLabels() {
+		return labels;
+	}
+
+	public String getWcagCompliance() {
+		return wcag_compliance;
+	}
+
+	public int getPoints() {
+		return points;
+	}
+
+	public int getMaxPoints() {
+		return max_points;
+	}
+}
@@ -0,0 +1,257 @@
+package com.looksee.contentAudit.models.messages;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.looksee.models.enums.Priority;
+
+/**
+ * Registry of the shared labels, texts and {@link IssueTemplate}s used by the
+ * content audits.
+ *
+ * <p>Everything here is created once per JVM and is immutable, so audits can
+ * reference the same instances for every element instead of rebuilding label
+ * sets and message strings per call. Templates are also registered by id, so
+ * an issue can be traced back to the template it was built from.</p>
+ */
+public final class IssueTemplates {
+
+	public static final Set<String> ALT_TEXT_LABELS = Set.of("alt_text", "wcag");
+	public static final Set<String> READABILITY_LABELS = Set.of("written content", "readability", "wcag");
+	public static final Set<String> PARAGRAPHING_LABELS = Set.of("written content", "paragraphs", "readability");
+
+	private static final String ADA_LEVEL_A_PREFIX = "Your website does not meet the level A ADA compliance requirement for";
+
+	// Image, area, input and embed alt text
+	public static final String IMAGE_ALT_TEXT_WHY_IT_MATTERS = "Alt-text helps with both SEO and accessibility. Search engines use alt-text"
+			+ " to help determine how usable and your site is as a way of ranking your site.";
+	public static final String IMAGE_ALT_TEXT_ADA_COMPLIANCE = ADA_LEVEL_A_PREFIX + " 'Alt' text for images present on the website.";
+
+	public static final IssueTemplate IMAGE_ALT_TEXT_EMPTY = new IssueTemplate("alt-text.image.empty",
+			Priority.HIGH,
+			"Alternative text value is empty",
+			"Alternative text value is empty",
+			IssueTemplate.TAG_PLACEHOLDER + " tag should have alternative text defined",
+			ALT_TEXT_LABELS, IMAGE_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate IMAGE_ALT_TEXT_PRESENT = new IssueTemplate("alt-text.image.present",
+			Priority.NONE,
+			"Image has alt text value set!",
+			"Well done! By providing an alternative text value, you are providing a more inclusive experience",
+			"",
+			ALT_TEXT_LABELS, IMAGE_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+	public static final IssueTemplate IMAGE_ALT_TEXT_MISSING = new IssueTemplate("alt-text.image.missing",
+			Priority.HIGH,
+			"Images without alternative text attribute",
+			"Images without alternative text attribute",
+			IssueTemplate.TAG_PLACEHOLDER + " tag should have 'alt' text attribute defined",
+			ALT_TEXT_LABELS, IMAGE_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+
+	// Applet alt text
+	public static final String APPLET_ALT_TEXT_WHY_IT_MATTERS = "Ensuring applet elements have alt tags helps with both SEO and accessibility for users with screen readers.";
+	public static final String APPLET_ALT_TEXT_ADA_COMPLIANCE = ADA_LEVEL_A_PREFIX + " 'Alt' text on applet elements present on the website.";
+
+	public static final IssueTemplate APPLET_ALT_TEXT_MISSING = new IssueTemplate("alt-text.applet.missing",
+			Priority.HIGH,
+			"Applet tag does not have <alt> tag defined",
+			"Applet <alt> html tag is missing",
+			IssueTemplate.TAG_PLACEHOLDER + " tag should have <alt> tag defined within the applet",
+			ALT_TEXT_LABELS, APPLET_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate APPLET_ALT_TEXT_PRESENT = new IssueTemplate("alt-text.applet.present",
+			Priority.NONE,
+			"Applet has alt tag included!",
+			"Well done! By providing an alt tag for the applet",
+			"",
+			ALT_TEXT_LABELS, APPLET_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+
+	// Video and audio tracks and transcripts
+	public static final String MEDIA_ALT_TEXT_WHY_IT_MATTERS = "Ensuring video and audio elements have <track> elements and transcript links ensures that all users can access the content, including those with hearing impairments.";
+	public static final String MEDIA_ALT_TEXT_ADA_COMPLIANCE = ADA_LEVEL_A_PREFIX + " 'Alt' text within video/audio elements.";
+
+	public static final IssueTemplate MEDIA_TRACK_MISSING = new IssueTemplate("alt-text.media.track.missing",
+			Priority.HIGH,
+			IssueTemplate.TAG_PLACEHOLDER + " does not have track element defined",
+			IssueTemplate.TAG_PLACEHOLDER + " does not have track element defined",
+			IssueTemplate.TAG_PLACEHOLDER + " tag should have a <track> element defined within the " + IssueTemplate.TAG_PLACEHOLDER + " tag",
+			ALT_TEXT_LABELS, MEDIA_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate MEDIA_TRACK_PRESENT = new IssueTemplate("alt-text.media.track.present",
+			Priority.NONE,
+			IssueTemplate.TAG_PLACEHOLDER + " has track included!",
+			"Well done! This " + IssueTemplate.TAG_PLACEHOLDER + " is considered accessible according to WCAG 2.1 section 1.1.1",
+			"",
+			ALT_TEXT_LABELS, MEDIA_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+	public static final IssueTemplate MEDIA_TRANSCRIPT_MISSING = new IssueTemplate("alt-text.media.transcript.missing",
+			Priority.HIGH,
+			IssueTemplate.TAG_PLACEHOLDER + " does not have link to transcript.",
+			IssueTemplate.TAG_PLACEHOLDER + " does not have link to transcript",
+			IssueTemplate.TAG_PLACEHOLDER + " tag should have a link to transcript for accessibility",
+			ALT_TEXT_LABELS, MEDIA_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate MEDIA_TRANSCRIPT_PRESENT = new IssueTemplate("alt-text.media.transcript.present",
+			Priority.NONE,
+			IssueTemplate.TAG_PLACEHOLDER + " has link to transcript!",
+			"Well done! This " + IssueTemplate.TAG_PLACEHOLDER + " is considered accessible according to WCAG 2.1 section 1.1.1",
+			"",
+			ALT_TEXT_LABELS, MEDIA_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+
+	// Figure captions
+	public static final String FIGURE_ALT_TEXT_WHY_IT_MATTERS = "Ensuring Figure elements have <figcaption> tag ensures that all users understand the purpose of figure elements on your site.";
+	public static final String FIGURE_ALT_TEXT_ADA_COMPLIANCE = ADA_LEVEL_A_PREFIX + " 'Alt' text within figure elements.";
+
+	public static final IssueTemplate FIGURE_CAPTION_MISSING = new IssueTemplate("alt-text.figure.caption.missing",
+			Priority.HIGH,
+			"figure does not have <figcaption> element",
+			"figure does not have <figcaption> element",
+			"figure tag should have a <figcaption> element defined within the SVG",
+			ALT_TEXT_LABELS, FIGURE_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate FIGURE_CAPTION_PRESENT = new IssueTemplate("alt-text.figure.caption.present",
+			Priority.NONE,
+			"figure has <figcaption> included!",
+			"Well done! This figure is considered accessible according to WCAG 2.1 section 1.1.1",
+			"",
+			ALT_TEXT_LABELS, FIGURE_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+
+	// Iframe titles
+	public static final String IFRAME_ALT_TEXT_WHY_IT_MATTERS = "Ensuring IFrames have title defined helps with both SEO and accessibility.";
+	public static final String IFRAME_ALT_TEXT_ADA_COMPLIANCE = ADA_LEVEL_A_PREFIX + " 'Alt' text on IFrames present on the website.";
+
+	public static final IssueTemplate IFRAME_TITLE_MISSING = new IssueTemplate("alt-text.iframe.title.missing",
+			Priority.HIGH,
+			"Iframe does not have title",
+			"Iframe does not have title",
+			IssueTemplate.TAG_PLACEHOLDER + " tag should have the title attribute defined",
+			ALT_TEXT_LABELS, IFRAME_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate IFRAME_TITLE_PRESENT = new IssueTemplate("alt-text.iframe.title.present",
+			Priority.NONE,
+			"Iframe has title included!",
+			"Well done! This Iframe is considered accessible according to WCAG 2.1 section 1.1.1",
+			"",
+			ALT_TEXT_LABELS, IFRAME_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+
+	// Object and canvas alternative text
+	public static final String OBJECT_ALT_TEXT_WHY_IT_MATTERS = "Giving names to input controls helps with both SEO and accessibility.";
+	public static final String OBJECT_ALT_TEXT_ADA_COMPLIANCE = ADA_LEVEL_A_PREFIX + " 'Alt' text on input controls present on the website.";
+
+	public static final IssueTemplate OBJECT_ALT_TEXT_MISSING = new IssueTemplate("alt-text.object.missing",
+			Priority.HIGH,
+			" tag does not have alt text or link defined",
+			" alternative text value is empty",
+			IssueTemplate.TAG_PLACEHOLDER + " element should have alternative text defined",
+			ALT_TEXT_LABELS, OBJECT_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate OBJECT_ALT_TEXT_PRESENT = new IssueTemplate("alt-text.object.present",
+			Priority.NONE,
+			" has alternative text or link included!",
+			"Well done! By providing an alternative text description or link, you are providing a more inclusive experience",
+			"",
+			ALT_TEXT_LABELS, OBJECT_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+
+	// SVG titles and descriptions
+	public static final String SVG_ALT_TEXT_WHY_IT_MATTERS = "Ensuring SVG elements have <title> and <desc> tags ensures that all users understand the purpose of SVG elements on your site.";
+	public static final String SVG_ALT_TEXT_ADA_COMPLIANCE = ADA_LEVEL_A_PREFIX + " 'Alt' text within SVG elements.";
+
+	public static final IssueTemplate SVG_TITLE_MISSING = new IssueTemplate("alt-text.svg.title.missing",
+			Priority.HIGH,
+			"SVG does not have title element",
+			"SVG does not have title element",
+			"SVG tag should have a <title> element defined within the SVG",
+			ALT_TEXT_LABELS, SVG_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate SVG_TITLE_PRESENT = new IssueTemplate("alt-text.svg.title.present",
+			Priority.NONE,
+			"SVG has title included!",
+			"Well done! This SVG is considered accessible according to WCAG 2.1 section 1.1.1",
+			"",
+			ALT_TEXT_LABELS, SVG_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+	public static final IssueTemplate SVG_DESCRIPTION_MISSING = new IssueTemplate("alt-text.svg.desc.missing",
+			Priority.HIGH,
+			"SVG does not have <desc> element",
+			"SVG does not have <desc> element",
+			"SVG tag should have a <desc> element defined within the SVG",
+			ALT_TEXT_LABELS, SVG_ALT_TEXT_ADA_COMPLIANCE, 0, 1);
+	public static final IssueTemplate SVG_DESCRIPTION_PRESENT = new IssueTemplate("alt-text.svg.desc.present",
+			Priority.NONE,
+			"SVG has description included!",
+			"Well done! This SVG is considered accessible according to WCAG 2.1 section 1.1.1",
+			"",
+			ALT_TEXT_LABELS, SVG_ALT_TEXT_ADA_COMPLIANCE, 1, 1);
+
+	// Readability
+	public static final String READABILITY_WHY_IT_MATTERS = "For people with reading disabilities(including the most highly educated), it is important"
+			+ "to accomodate these users by providing text that is simpler to read."
+			+ "Beyond accessibility, the way users experience content online has changed." +
+			" Attention spans are shorter, and users skim through most information." +
+			" Presenting information in small, easy to digest chunks makes their" +
+			" experience easy and convenient.";
+	public static final String READABILITY_ADA_COMPLIANCE = "Text content shouldn't require a reading ability more advanced than the lower"
+			+ " secondary education level (grades 5 through 8 ) after removal of proper names and titles.";
+	public static final String READABILITY_RECOMMENDATION = "Reduce the length of your sentences by breaking longer sentences into 2 or more shorter sentences. You can also use simpler words. Words that contain many syllables can also be difficult to understand.";
+	public static final String READABILITY_EASY_TITLE = "Content is easy to read";
+	public static final String READABILITY_SHORT_CONTENT_DESCRIPTION = "Content is short enough to be easily understood by all users";
+
+	public static final IssueTemplate READABILITY_EASY_TO_READ = new IssueTemplate("readability.easy",
+			Priority.NONE,
+			READABILITY_EASY_TITLE,
+			"Content is easy to read for its target audience",
+			"",
+			READABILITY_LABELS, READABILITY_ADA_COMPLIANCE, 4, 4);
+
+	// Paragraphing
+	public static final String PARAGRAPHING_WHY_IT_MATTERS = "The way users experience content has changed in the mobile phone era." +
+			" Attention spans are shorter, and users skim through most information." +
+			" Presenting information in small, easy to digest chunks makes their" +
+			" experience easy and convenient. ";
+	public static final String PARAGRAPHING_ADA_COMPLIANCE = "There are no ADA compliance requirements for this category.";
+	public static final String SENTENCE_TOO_LONG_TITLE = "Sentence is too long";
+	public static final String SENTENCE_TOO_LONG_RECOMMENDATION = "Try reducing the size of the sentence or breaking it up into multiple sentences";
+	public static final String SENTENCE_LENGTH_OK_TITLE = "Sentence meets EU and US governmental standards for sentence length";
+
+	public static final IssueTemplate SENTENCE_LENGTH_OK = new IssueTemplate("paragraphing.sentence-length.ok",
+			Priority.NONE,
+			SENTENCE_LENGTH_OK_TITLE,
+			"Sentences have less than 25 words which is the standard for governmental documentation in the European Union(EU) and the United States(US)",
+			"",
+			PARAGRAPHING_LABELS, PARAGRAPHING_ADA_COMPLIANCE, 1, 1);
+
+	private static final Map<String, IssueTemplate> TEMPLATES_BY_ID = register(
+			IMAGE_ALT_TEXT_EMPTY, IMAGE_ALT_TEXT_PRESENT, IMAGE_ALT_TEXT_MISSING,
+			APPLET_ALT_TEXT_MISSING, APPLET_ALT_TEXT_PRESENT,
+			MEDIA_TRACK_MISSING, MEDIA_TRACK_PRESENT, MEDIA_TRANSCRIPT_MISSING, MEDIA_TRANSCRIPT_PRESENT,
+			FIGURE_CAPTION_MISSING, FIGURE_CAPTION_PRESENT,
+			IFRAME_TITLE_MISSING, IFRAME_TITLE_PRESENT,
+			OBJECT_ALT_TEXT_MISSING, OBJECT_ALT_TEXT_PRESENT,
+			SVG_TITLE_MISSING, SVG_TITLE_PRESENT, SVG_DESCRIPTION_MISSING, SVG_DESCRIPTION_PRESENT,
+			READABILITY_EASY_TO_READ, SENTENCE_LENGTH_OK);
+
+	private IssueTemplates() {
+	}
+
+	/**
+	 * Looks up a template by id.
+	 *
+	 * @param id the template id (may be null)
+	 * @return the template with the given id, or {@code null} if there is none
+	 */
+	public static IssueTemplate byId(String id) {
+		return id == null ? null : TEMPLATES_BY_ID.get(id);
+	}
+
+	/**
+	 * Returns every registered template, keyed by id, in registration order.
+	 *
+	 * @return an unmodifiable view of the registered templates
+	 */
+	public static Map<String, IssueTemplate> all() {
+		return TEMPLATES_BY_ID;
+	}
+
+	private static Map<String, IssueTemplate> register(IssueTemplate... templates) {
+		Map<String, IssueTemplate> templates_by_id = new LinkedHashMap<>();
+		for(IssueTemplate template : templates) {
+			Objects.requireNonNull(template, "template must not be null");
+			if(templates_by_id.putIfAbsent(template.getId(), template) != null) {
+				throw new IllegalStateException("duplicate issue template id: " + template.getId());
+			}
+		}
+		return Collections.unmodifiableMap(templates_by_id);
+	}
+}
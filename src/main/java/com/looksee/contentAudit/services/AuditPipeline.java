@@ -0,0 +1,242 @@
+package com.looksee.contentAudit.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Stages that messages pass through when {@code audit.pipeline.enabled} is
+ * set: element loading, audit computation, persistence and publishing. Each
+ * stage has its own thread pool and a bounded queue of
+ * {@code audit.pipeline.queue-capacity} tasks, so threads waiting on Neo4j or
+ * Pub/Sub never hold the threads audits compute on. Work offered to a full
+ * stage fails with a {@link PipelineStageFullException}.
+ *
+ * <p>Publishes the {@code audit.pipeline.queue.depth} and
+ * {@code audit.pipeline.active} gauges and counts
+ * {@code audit.pipeline.rejected} tasks, all tagged by {@code stage}.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>At most {@code audit.pipeline.queue-capacity} tasks wait for a stage</li>
+ *   <li>When disabled, no stage has threads</li>
+ * </ul>
+ */
+@Component
+public class AuditPipeline implements AutoCloseable {
+
+	/**
+	 * Stages of the pipeline, in the order a message passes through them.
+	 */
+	public enum Stage {
+		LOAD("load"),
+		AUDIT("audit"),
+		PERSIST("persist"),
+		PUBLISH("publish");
+
+		private final String tag;
+
+		Stage(String tag) {
+			this.tag = tag;
+		}
+
+		/**
+		 * @return the value of the {@code stage} metric tag
+		 */
+		public String getTag() {
+			return tag;
+		}
+	}
+
+	private final boolean enabled;
+	private final Map<Stage, ThreadPoolExecutor> executors = new EnumMap<>(Stage.class);
+	private final Map<Stage, Counter> rejections = new EnumMap<>(Stage.class);
+
+	/**
+	 * Creates the pipeline.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code meter_registry} must not be null</li>
+	 *   <li>When enabled, thread counts and {@code queue_capacity} must be positive,
+	 *       except {@code audit_threads}, where 0 means one thread per processor</li>
+	 * </ul>
+	 *
+	 * @param meter_registry registry the pipeline meters are published to, must not be null
+	 * @param enabled whether messages are handled in stages
+	 * @param load_threads threads loading records and elements
+	 * @param audit_threads threads running audits, 0 for one per available processor
+	 * @param persist_threads threads writing audit results
+	 * @param publish_threads threads publishing completion updates
+	 * @param queue_capacity maximum number of tasks waiting for each stage
+	 * @throws NullPointerException if {@code meter_registry} is null
+	 * @throws IllegalArgumentException if enabled and a size is out of range
+	 */
+	@Autowired
+	public AuditPipeline(MeterRegistry meter_registry,
+						@Value("${audit.pipeline.enabled:false}") boolean enabled,
+						@Value("${audit.pipeline.load.threads:16}") int load_threads,
+						@Value("${audit.pipeline.audit.threads:0}") int audit_threads,
+						@Value("${audit.pipeline.persist.threads:16}") int persist_threads,
+						@Value("${audit.pipeline.publish.threads:8}") int publish_threads,
+						@Value("${audit.pipeline.queue-capacity:64}") int queue_capacity) {
+		Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		this.enabled = enabled;
+		if(!enabled) {
+			return;
+		}
+		if(queue_capacity <= 0) {
+			throw new IllegalArgumentException("queue_capacity must be positive, got: " + queue_capacity);
+		}
+
+		register(meter_registry, Stage.LOAD, load_threads, queue_capacity);
+		register(meter_registry, Stage.AUDIT, audit_threads == 0 ? Runtime.getRuntime().availableProcessors() : audit_threads, queue_capacity);
+		register(meter_registry, Stage.PERSIST, persist_threads, queue_capacity);
+		register(meter_registry, Stage.PUBLISH, publish_threads, queue_capacity);
+	}
+
+	private void register(MeterRegistry meter_registry, Stage stage, int threads, int queue_capacity) {
+		if(threads <= 0) {
+			throw new IllegalArgumentException(stage.getTag() + " threads must be positive, got: " + threads);
+		}
+		AtomicInteger thread_count = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+															new ArrayBlockingQueue<>(queue_capacity),
+															task -> {
+																Thread thread = new Thread(task, "audit-" + stage.getTag() + "-" + thread_count.incrementAndGet());
+																thread.setDaemon(true);
+																return thread;
+															});
+		executors.put(stage, executor);
+
+		Gauge.builder("audit.pipeline.queue.depth", executor, pool -> pool.getQueue().size())
+			.tag("stage", stage.getTag())
+			.description("Tasks waiting for the stage")
+			.register(meter_registry);
+		Gauge.builder("audit.pipeline.active", executor, ThreadPoolExecutor::getActiveCount)
+			.tag("stage", stage.getTag())
+			.description("Tasks the stage is running")
+			.register(meter_registry);
+		rejections.put(stage, Counter.builder("audit.pipeline.rejected")
+			.tag("stage", stage.getTag())
+			.description("Tasks that found the stage's queue full")
+			.register(meter_registry));
+	}
+
+	/**
+	 * @return {@code true} if messages are handled in stages
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param stage the stage, must not be null
+	 * @return the number of tasks waiting for the stage, 0 when disabled
+	 */
+	public int queueDepth(Stage stage) {
+		ThreadPoolExecutor executor = executors.get(stage);
+		return executor == null ? 0 : executor.getQueue().size();
+	}
+
+	/**
+	 * Queues a task for a stage.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>The pipeline must be enabled</li>
+	 *   <li>{@code stage} and {@code task} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The returned future completes with the task's result or exception, or
+	 *       exceptionally with a {@link PipelineStageFullException} if the stage's queue was full</li>
+	 * </ul>
+	 *
+	 * @param <T> the result type
+	 * @param stage the stage to run the task in, must not be null
+	 * @param task the task, must not be null
+	 * @return the task's future
+	 * @throws IllegalStateException if the pipeline is disabled
+	 */
+	public <T> CompletableFuture<T> submit(Stage stage, Callable<T> task) {
+		Objects.requireNonNull(stage, "stage must not be null");
+		Objects.requireNonNull(task, "task must not be null");
+		if(!enabled) {
+			throw new IllegalStateException("the audit pipeline is disabled");
+		}
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		try {
+			executors.get(stage).execute(new StageTask<>(stage, task, result));
+		} catch (RejectedExecutionException e) {
+			rejections.get(stage).increment();
+			result.completeExceptionally(new PipelineStageFullException(stage));
+		}
+		return result;
+	}
+
+	/**
+	 * Stops the stages' threads. Tasks still queued are not run; their
+	 * futures complete exceptionally with a {@link PipelineStageFullException},
+	 * so that their messages are answered with HTTP 503 and redelivered by
+	 * Pub/Sub rather than left waiting for the ack deadline.
+	 */
+	@Override
+	public void close() {
+		for(ThreadPoolExecutor executor : executors.values()) {
+			for(Runnable dropped : executor.shutdownNow()) {
+				((StageTask<?>) dropped).reject();
+			}
+		}
+	}
+
+	/**
+	 * A task queued for a stage, with the future its caller waits on.
+	 *
+	 * @param <T> the result type
+	 */
+	private static final class StageTask<T> implements Runnable {
+		private final Stage stage;
+		private final Callable<T> task;
+		private final CompletableFuture<T> result;
+
+		private StageTask(Stage stage, Callable<T> task, CompletableFuture<T> result) {
+			this.stage = stage;
+			this.task = task;
+			this.result = result;
+		}
+
+		@Override
+		public void run() {
+			try {
+				result.complete(task.call());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		}
+
+		/**
+		 * Fails the task's future because the pipeline closed before the task ran.
+		 */
+		private void reject() {
+			result.completeExceptionally(new PipelineStageFullException(stage, stage.getTag() + " stage closed"));
+		}
+	}
+}
@@ -0,0 +1,1208 @@
+package com.looksee.contentAudit.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.looksee.contentAudit.utils.Backoff;
+import com.looksee.contentAudit.utils.WriteAheadLog;
+import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.AuditService;
+import com.looksee.services.UXIssueMessageService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Persists what the content audits produce: issue messages, their element
+ * links, audits and their issues, the audits' link to the page audit record
+ * and the completion update.
+ *
+ * <p>Audits call the same operations they used to call on
+ * {@link AuditService} and {@link UXIssueMessageService}, in the same order,
+ * and the writer runs them through the {@link IssueMessageStore}, which
+ * upserts messages and audits by key and merges their links. Outside an open
+ * {@link Page}, or when write-behind is disabled, each operation runs
+ * immediately.</p>
+ *
+ * <p>With {@code audit.write-behind.enabled=true}, operations made on a
+ * thread while it has a {@link Page} open are recorded instead. Completing
+ * the page appends the recorded operations to a local {@link WriteAheadLog}
+ * and queues them, so the request can be answered without waiting for the
+ * database. A flusher thread takes up to {@code audit.write-behind.batch-size}
+ * pages at a time, runs each page's operations in order, and marks the pages
+ * it wrote done in the log with one forced write. A page that fails is not
+ * retried by the flusher: it is queued again after an exponential, jittered
+ * {@link Backoff} starting at {@code audit.write-behind.retry-delay-ms}, and
+ * the flusher moves on to the pages behind it. Pages still in the log when
+ * the service starts are replayed first; since the store upserts messages
+ * and audits and merges their links, replaying a page that was already
+ * partly written does not duplicate its results. Messages and audits are
+ * logged as JSON with their concrete types.</p>
+ *
+ * <p>A page that still fails after {@code audit.write-behind.max-attempts}
+ * attempts, and a logged page that can no longer be decoded on replay, is
+ * appended to the {@code audit.write-behind.dead-letter-file}, one JSON line
+ * per page, and marked done, so that one bad page does not hold back the
+ * pages behind it. Its completion update is not published.</p>
+ *
+ * <p>Messages are saved before they have an id while write-behind is on. The
+ * flusher copies each saved message's id onto the recorded message. Results
+ * carried forward by an incremental re-audit are saved as copies keyed for
+ * the current page audit record (see {@link #carryForward}), so they never
+ * refer to another page's messages.</p>
+ *
+ * <p>Database writes run within the {@link Bulkheads.Dependency#NEO4J}
+ * bulkhead and completion updates within the
+ * {@link Bulkheads.Dependency#PUBSUB} bulkhead, unless the writer was created
+ * {@link #inline}.</p>
+ *
+ * <p>{@link #writeAll(List)} writes the recorded pages of a batch of messages
+ * in one transaction, so the batch is committed at once.</p>
+ *
+ * <p>Publishes the {@code audit.write-behind.pending} gauge and counts
+ * {@code audit.write-behind.flushed} pages,
+ * {@code audit.write-behind.retries} and
+ * {@code audit.write-behind.dead-lettered} pages.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>A page's operations reach the database in the order they were made</li>
+ *   <li>Pages are first flushed in the order they were completed</li>
+ *   <li>A completed page stays in the log until all its operations succeeded or it is in the dead-letter file</li>
+ *   <li>{@code audit.write-behind.pending} counts the completed pages still in the log</li>
+ * </ul>
+ */
+@Component
+public class AuditWriter implements AutoCloseable {
+	private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+	private static final TypeReference<List<UXIssueMessage>> MESSAGE_LIST = new TypeReference<List<UXIssueMessage>>() {};
+	private static final TypeReference<List<Audit>> AUDIT_LIST = new TypeReference<List<Audit>>() {};
+	private static final long MAX_RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+
+	private final IssueMessageStore issue_message_store;
+	private final boolean inline;
+	private final PubSubAuditUpdatePublisherImpl audit_update_topic;
+	private final Bulkheads bulkheads;
+	private final ObjectProvider<PlatformTransactionManager> transaction_manager;
+	private final WriteAheadLog write_ahead_log;
+	private final Path dead_letter_file;
+	private final int batch_size;
+	private final int max_pending;
+	private final Backoff retry_backoff;
+	private final int max_attempts;
+
+	private final ObjectMapper mapper;
+	private final ThreadLocal<Page> current_page = new ThreadLocal<>();
+	private final BlockingQueue<Page> queue = new LinkedBlockingQueue<>();
+	private final AtomicInteger pending = new AtomicInteger();
+	private final Thread flusher;
+	private final ScheduledExecutorService retry_scheduler;
+	private final Counter flushed;
+	private final Counter retries;
+	private final Counter dead_lettered;
+
+	/**
+	 * Creates a writer.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code issue_message_store}, {@code audit_update_topic}, {@code bulkheads},
+	 *       {@code transaction_manager} and {@code meter_registry} must not be null</li>
+	 *   <li>{@code batch_size}, {@code max_pending} and {@code max_attempts} must
+	 *       be positive and {@code retry_delay_ms} must not be negative</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>When write-behind is enabled, pages left in the log are queued for flushing ahead of new ones,
+	 *       and those that cannot be decoded are moved to the dead-letter file</li>
+	 * </ul>
+	 *
+	 * @param issue_message_store upserts issue messages and audits by key and links them, must not be null
+	 * @param audit_update_topic publishes completion updates, must not be null
+	 * @param bulkheads bulkheads database writes and publishes run within, must not be null
+	 * @param transaction_manager provides the transactions batches of pages are written in, must not be null
+	 * @param meter_registry registry the write-behind meters are published to, must not be null
+	 * @param enabled whether pages are written behind
+	 * @param log_file path of the write-ahead log
+	 * @param batch_size maximum number of pages flushed per log commit, must be positive
+	 * @param max_pending number of queued pages at which {@link #hasCapacity()} turns false, must be positive
+	 * @param retry_delay_ms nominal delay before a failed page is flushed again, doubled for each further attempt
+	 * @param max_attempts number of failed attempts after which a page is moved to the dead-letter file, must be positive
+	 * @param dead_letter_file path of the file pages that cannot be written are appended to
+	 * @throws NullPointerException if a dependency or {@code meter_registry} is null
+	 * @throws IllegalArgumentException if a numeric argument is out of range
+	 * @throws IOException if the write-ahead log cannot be opened or replayed
+	 */
+	@Autowired
+	public AuditWriter(IssueMessageStore issue_message_store,
+						PubSubAuditUpdatePublisherImpl audit_update_topic,
+						Bulkheads bulkheads,
+						ObjectProvider<PlatformTransactionManager> transaction_manager,
+						MeterRegistry meter_registry,
+						@Value("${audit.write-behind.enabled:false}") boolean enabled,
+						@Value("${audit.write-behind.log-file:${java.io.tmpdir}/content-audit/write-behind.log}") String log_file,
+						@Value("${audit.write-behind.batch-size:32}") int batch_size,
+						@Value("${audit.write-behind.max-pending:1000}") int max_pending,
+						@Value("${audit.write-behind.retry-delay-ms:1000}") long retry_delay_ms,
+						@Value("${audit.write-behind.max-attempts:10}") int max_attempts,
+						@Value("${audit.write-behind.dead-letter-file:${java.io.tmpdir}/content-audit/write-behind.dead}") String dead_letter_file) throws IOException {
+		this.issue_message_store = Objects.requireNonNull(issue_message_store, "issue_message_store must not be null");
+		this.inline = false;
+		this.audit_update_topic = Objects.requireNonNull(audit_update_topic, "audit_update_topic must not be null");
+		this.bulkheads = Objects.requireNonNull(bulkheads, "bulkheads must not be null");
+		this.transaction_manager = Objects.requireNonNull(transaction_manager, "transaction_manager must not be null");
+		Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		if(batch_size <= 0 || max_pending <= 0 || max_attempts <= 0 || retry_delay_ms < 0) {
+			throw new IllegalArgumentException("batch_size, max_pending and max_attempts must be positive and retry_delay_ms must not be negative");
+		}
+		this.batch_size = batch_size;
+		this.max_pending = max_pending;
+		this.retry_backoff = Backoff.exponential(retry_delay_ms, Math.max(retry_delay_ms, MAX_RETRY_DELAY_MS));
+		this.max_attempts = max_attempts;
+		this.mapper = messageMapper();
+
+		this.flushed = Counter.builder("audit.write-behind.flushed")
+			.description("Pages of audit results written to the database")
+			.register(meter_registry);
+		this.retries = Counter.builder("audit.write-behind.retries")
+			.description("Failed attempts to write a page of audit results")
+			.register(meter_registry);
+		this.dead_lettered = Counter.builder("audit.write-behind.dead-lettered")
+			.description("Pages of audit results moved to the dead-letter file")
+			.register(meter_registry);
+		Gauge.builder("audit.write-behind.pending", pending, AtomicInteger::get)
+			.description("Pages of audit results waiting to be written")
+			.register(meter_registry);
+
+		if(!enabled) {
+			this.write_ahead_log = null;
+			this.dead_letter_file = null;
+			this.flusher = null;
+			this.retry_scheduler = null;
+			return;
+		}
+
+		this.write_ahead_log = WriteAheadLog.open(Paths.get(log_file));
+		this.dead_letter_file = Paths.get(dead_letter_file);
+		List<Long> undecodable = new ArrayList<>();
+		for(WriteAheadLog.Entry entry : write_ahead_log.recovered()) {
+			Page page;
+			try {
+				page = decode(entry.getPayload());
+			} catch (IOException | RuntimeException e) {
+				log.error("skipping logged page of audit results that cannot be decoded seq={}", entry.getSeq(), e);
+				if(deadLetter(entry.getPayload())) {
+					undecodable.add(entry.getSeq());
+				}
+				continue;
+			}
+			page.seq = entry.getSeq();
+			queue.add(page);
+			pending.incrementAndGet();
+		}
+		if(!undecodable.isEmpty()) {
+			write_ahead_log.markDone(undecodable);
+		}
+		if(!queue.isEmpty()) {
+			log.warn("replaying {} pages of audit results from {}", queue.size(), log_file);
+		}
+
+		this.retry_scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "audit-write-behind-retry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.flusher = new Thread(this::flushLoop, "audit-write-behind");
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	private AuditWriter(AuditService audit_service, UXIssueMessageService issue_message_service) {
+		this.issue_message_store = IssueMessageStore.saveOnly(issue_message_service, audit_service, null);
+		this.inline = true;
+		this.audit_update_topic = null;
+		this.bulkheads = null;
+		this.transaction_manager = null;
+		this.write_ahead_log = null;
+		this.dead_letter_file = null;
+		this.batch_size = 1;
+		this.max_pending = 1;
+		this.retry_backoff = null;
+		this.max_attempts = 1;
+		this.mapper = messageMapper();
+		this.flusher = null;
+		this.retry_scheduler = null;
+		this.flushed = null;
+		this.retries = null;
+		this.dead_lettered = null;
+	}
+
+	/**
+	 * Creates the mapper that logs messages and audits as JSON with their
+	 * concrete types, and copies carried-forward messages.
+	 */
+	private static ObjectMapper messageMapper() {
+		return JsonMapper.builder()
+							.addModule(new JavaTimeModule())
+							.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+																	.allowIfSubType("com.looksee.")
+																	.allowIfSubType("java.util.")
+																	.allowIfSubType("java.time.")
+																	.build())
+							.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+							.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+							.build();
+	}
+
+	/**
+	 * Creates a writer that runs every audit operation immediately and cannot
+	 * open pages, for callers that only run audits.
+	 *
+	 * @param audit_service saves audits, must not be null
+	 * @param issue_message_service saves issue messages, must not be null
+	 * @return the writer
+	 * @throws NullPointerException if a service is null
+	 */
+	public static AuditWriter inline(AuditService audit_service, UXIssueMessageService issue_message_service) {
+		return new AuditWriter(audit_service, issue_message_service);
+	}
+
+	/**
+	 * @return {@code true} if pages are written behind
+	 */
+	public boolean isWriteBehind() {
+		return write_ahead_log != null;
+	}
+
+	/**
+	 * @return the number of completed pages not yet written to the database
+	 */
+	public int getPendingPages() {
+		return pending.get();
+	}
+
+	/**
+	 * Returns whether another page may be written behind. Always
+	 * {@code true} when write-behind is disabled.
+	 */
+	public boolean hasCapacity() {
+		return !isWriteBehind() || pending.get() < max_pending;
+	}
+
+	/**
+	 * Opens a page on the calling thread. Until it is closed, the audit
+	 * operations the thread makes are recorded on the page when write-behind
+	 * is enabled.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>The calling thread must not have a page open</li>
+	 * </ul>
+	 *
+	 * @param page_audit_id the page audit record the audits belong to
+	 * @return the open page, to be closed by the caller
+	 * @throws IllegalStateException if the thread already has a page open, or the writer was created {@link #inline}
+	 */
+	public Page openPage(long page_audit_id) {
+		return openPage(page_audit_id, false);
+	}
+
+	/**
+	 * Opens a page on the calling thread like {@link #openPage(long)}, and
+	 * also records its operations when write-behind is disabled but
+	 * {@code recorded} is set. A recorded page that is not written behind is
+	 * then {@linkplain Page#write() written} by the caller, possibly on
+	 * another thread once it is {@linkplain Page#unbind() unbound}.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>The calling thread must not have a page open</li>
+	 * </ul>
+	 *
+	 * @param page_audit_id the page audit record the audits belong to
+	 * @param recorded whether the page's operations are recorded even without write-behind
+	 * @return the open page, to be closed by the caller
+	 * @throws IllegalStateException if the thread already has a page open, or the writer was created {@link #inline}
+	 */
+	public Page openPage(long page_audit_id, boolean recorded) {
+		if(inline) {
+			throw new IllegalStateException("an inline writer cannot open pages");
+		}
+		if(current_page.get() != null) {
+			throw new IllegalStateException("a page is already open on this thread");
+		}
+		Page page = new Page(page_audit_id, recorded || isWriteBehind());
+		if(page.deferred) {
+			current_page.set(page);
+		}
+		return page;
+	}
+
+	private Page deferredPage() {
+		return current_page.get();
+	}
+
+	/**
+	 * Keys an issue message and upserts it by that key, or records it to be
+	 * upserted.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code message} and {@code issue_key} must not be null</li>
+	 * </ul>
+	 *
+	 * @param message the message, must not be null
+	 * @param issue_key the message's deterministic key, see {@link com.looksee.contentAudit.utils.IssueKeys}
+	 * @return the saved message, or {@code message} itself when it is recorded
+	 * @throws NullPointerException if {@code message} or {@code issue_key} is null
+	 */
+	public UXIssueMessage upsert(UXIssueMessage message, String issue_key) {
+		Objects.requireNonNull(message, "message must not be null");
+		message.setKey(Objects.requireNonNull(issue_key, "issue_key must not be null"));
+		Page page = deferredPage();
+		if(page == null) {
+			return neo4j(() -> issue_message_store.upsert(message));
+		}
+		page.record(Write.saveMessage(message));
+		return message;
+	}
+
+	/**
+	 * Saves a copy of a message carried forward from a previous audit under a
+	 * key of the current one, or records the copy to be saved. The template
+	 * itself is left unchanged, so it can be carried forward again.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code template} and {@code issue_key} must not be null</li>
+	 * </ul>
+	 *
+	 * @param template the carried-forward message, must not be null
+	 * @param issue_key the copy's deterministic key, see {@link com.looksee.contentAudit.utils.IssueKeys}
+	 * @return the saved or recorded copy
+	 * @throws NullPointerException if {@code template} or {@code issue_key} is null
+	 * @throws IllegalStateException if the template cannot be copied
+	 */
+	public UXIssueMessage carryForward(UXIssueMessage template, String issue_key) {
+		Objects.requireNonNull(template, "template must not be null");
+		UXIssueMessage copy;
+		try {
+			copy = mapper.readValue(mapper.writerFor(UXIssueMessage.class).writeValueAsString(template), UXIssueMessage.class);
+		} catch (IOException e) {
+			throw new IllegalStateException("could not copy carried-forward issue message", e);
+		}
+		copy.setId(null);
+		return upsert(copy, issue_key);
+	}
+
+	/**
+	 * Links an issue message to an element, or records the link.
+	 *
+	 * @param message the saved or recorded message, must not be null
+	 * @param element_id the element id
+	 */
+	public void addElement(UXIssueMessage message, Long element_id) {
+		Objects.requireNonNull(message, "message must not be null");
+		Page page = deferredPage();
+		if(page == null) {
+			neo4j(() -> {
+				issue_message_store.addElement(message.getId(), element_id);
+				return null;
+			});
+			return;
+		}
+		page.record(Write.addElement(message, element_id));
+	}
+
+	/**
+	 * Links issue messages to elements in one write, or records the links.
+	 * The lists are paired by index.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code messages} and {@code element_ids} must not be null and must have the same size</li>
+	 * </ul>
+	 *
+	 * @param messages the saved or recorded messages, must not be null
+	 * @param element_ids the element ids, must not be null
+	 * @throws NullPointerException if a list is null
+	 * @throws IllegalArgumentException if the lists differ in size
+	 */
+	public void addElements(List<UXIssueMessage> messages, List<Long> element_ids) {
+		Objects.requireNonNull(messages, "messages must not be null");
+		Objects.requireNonNull(element_ids, "element_ids must not be null");
+		if(messages.size() != element_ids.size()) {
+			throw new IllegalArgumentException("messages and element_ids must have the same size");
+		}
+		if(messages.isEmpty()) {
+			return;
+		}
+		Page page = deferredPage();
+		if(page == null) {
+			neo4j(() -> {
+				issue_message_store.addElements(messageIds(messages), element_ids);
+				return null;
+			});
+			return;
+		}
+		page.record(Write.addElements(messages, element_ids));
+	}
+
+	private static List<Long> messageIds(List<UXIssueMessage> messages) {
+		List<Long> ids = new ArrayList<>(messages.size());
+		for(UXIssueMessage message : messages) {
+			ids.add(message.getId());
+		}
+		return ids;
+	}
+
+	/**
+	 * Keys an audit and upserts it by that key, or records it to be upserted.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit} and {@code audit_key} must not be null</li>
+	 * </ul>
+	 *
+	 * @param audit the audit, must not be null
+	 * @param audit_key the audit's deterministic key, see {@link com.looksee.contentAudit.utils.IssueKeys#auditKey()}
+	 * @return the saved audit, or {@code audit} itself when it is recorded
+	 * @throws NullPointerException if {@code audit} or {@code audit_key} is null
+	 */
+	public Audit upsert(Audit audit, String audit_key) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		audit.setKey(Objects.requireNonNull(audit_key, "audit_key must not be null"));
+		Page page = deferredPage();
+		if(page == null) {
+			return neo4j(() -> issue_message_store.upsert(audit));
+		}
+		page.record(Write.saveAudit(audit));
+		return audit;
+	}
+
+	/**
+	 * Adds issue messages to an audit, or records that they are to be added.
+	 *
+	 * @param audit the saved or recorded audit, must not be null
+	 * @param messages the saved or recorded messages, must not be null
+	 */
+	public void addAllIssues(Audit audit, Set<UXIssueMessage> messages) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		Objects.requireNonNull(messages, "messages must not be null");
+		Page page = deferredPage();
+		if(page == null) {
+			neo4j(() -> {
+				issue_message_store.addAllIssues(audit.getId(), messages);
+				return null;
+			});
+			return;
+		}
+		page.record(Write.addAllIssues(audit, messages));
+	}
+
+	/**
+	 * Writes the recorded pages of a batch on the calling thread, in one
+	 * transaction when a transaction manager is available. If the
+	 * transaction fails, none of its operations are kept: the pages can be
+	 * {@linkplain Page#write() written} again, each on its own.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code pages} must not be null; every page must be deferred and not written behind</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>On return, every recorded operation of every page reached the database</li>
+	 * </ul>
+	 *
+	 * @param pages the pages of the batch, must not be null
+	 * @throws IllegalStateException if a page is not deferred or is written behind
+	 * @throws Exception if an operation fails
+	 */
+	public void writeAll(List<Page> pages) throws Exception {
+		Objects.requireNonNull(pages, "pages must not be null");
+		for(Page page : pages) {
+			if(!page.deferred || page.isWrittenBehind()) {
+				throw new IllegalStateException("only recorded pages that are not written behind are written");
+			}
+		}
+
+		PlatformTransactionManager manager = transaction_manager == null ? null : transaction_manager.getIfAvailable();
+		if(manager == null) {
+			for(Page page : pages) {
+				page.write();
+			}
+			return;
+		}
+
+		for(Page page : pages) {
+			page.uncommitted = new ArrayList<>();
+		}
+		try {
+			new TransactionTemplate(manager).executeWithoutResult(status -> {
+				for(Page page : pages) {
+					try {
+						page.write();
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Exception e) {
+						throw new WriteFailedException(e);
+					}
+				}
+			});
+		} catch (RuntimeException e) {
+			for(Page page : pages) {
+				page.rollBack();
+			}
+			throw e instanceof WriteFailedException ? (Exception) e.getCause() : e;
+		}
+		for(Page page : pages) {
+			page.uncommitted = null;
+		}
+	}
+
+	/**
+	 * Carries a checked exception of a page's write out of a transaction.
+	 */
+	private static final class WriteFailedException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		private WriteFailedException(Exception cause) {
+			super(cause);
+		}
+	}
+
+	/**
+	 * Runs a database call within the Neo4j bulkhead.
+	 *
+	 * @throws BulkheadFullException if no permit became available in time, or the thread was interrupted waiting for one
+	 */
+	private <T> T neo4j(Callable<T> call) {
+		if(bulkheads == null) {
+			try {
+				return call.call();
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		try {
+			return bulkheads.execute(Bulkheads.Dependency.NEO4J, call);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BulkheadFullException(Bulkheads.Dependency.NEO4J);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void flushLoop() {
+		List<Page> batch = new ArrayList<>();
+		while(!Thread.currentThread().isInterrupted()) {
+			List<Long> seqs = new ArrayList<>();
+			try {
+				batch.add(queue.take());
+				queue.drainTo(batch, batch_size - 1);
+
+				int written = 0;
+				for(Page page : batch) {
+					if(flush(page)) {
+						written++;
+						seqs.add(page.seq);
+					}
+					else if(page.attempts >= max_attempts && deadLetter(page)) {
+						seqs.add(page.seq);
+					}
+					//otherwise the page is queued for another attempt, or left in the log for the next start
+				}
+				write_ahead_log.markDone(seqs);
+				pending.addAndGet(-seqs.size());
+				flushed.increment(written);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (IOException e) {
+				//the pages are written but still in the log; they will be written again if the service restarts
+				log.error("could not mark {} written pages done in {}", seqs.size(), write_ahead_log.getFile(), e);
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Makes one attempt to write a page. A failed page that has attempts left
+	 * is queued again after a backoff, without holding up the flusher.
+	 *
+	 * @return {@code true} if the page was written, {@code false} if the
+	 *         attempt failed
+	 */
+	private boolean flush(Page page) throws InterruptedException {
+		try {
+			page.flush();
+			return true;
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			retries.increment();
+			page.attempts++;
+			if(page.attempts >= max_attempts) {
+				log.error("writing audit results failed {} times pageAuditId={}; giving up", page.attempts, page.page_audit_id, e);
+				return false;
+			}
+			long delay_ms = retry_backoff.delayMillis(page.attempts);
+			log.warn("writing audit results failed pageAuditId={}; retrying in {}ms", page.page_audit_id, delay_ms, e);
+			try {
+				retry_scheduler.schedule(() -> queue.add(page), delay_ms, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException closed) {
+				//the writer is closing; the page stays in the log and is replayed on the next start
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Appends a page that could not be written to the dead-letter file.
+	 *
+	 * @return {@code true} if the page no longer needs to stay in the log
+	 */
+	private boolean deadLetter(Page page) {
+		String payload;
+		try {
+			payload = encode(page);
+		} catch (IOException | RuntimeException e) {
+			log.error("dropping page of audit results that cannot be encoded pageAuditId={}", page.page_audit_id, e);
+			return true;
+		}
+		return deadLetter(payload);
+	}
+
+	/**
+	 * Appends a logged page payload to the dead-letter file and forces it to disk.
+	 *
+	 * @return {@code true} if the payload was appended
+	 */
+	private boolean deadLetter(String payload) {
+		try {
+			Path directory = dead_letter_file.toAbsolutePath().getParent();
+			if(directory != null) {
+				Files.createDirectories(directory);
+			}
+			Files.write(dead_letter_file, List.of(payload), StandardCharsets.UTF_8,
+						StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+		} catch (IOException e) {
+			log.error("could not append page of audit results to {}; it stays in {}", dead_letter_file, write_ahead_log.getFile(), e);
+			return false;
+		}
+		dead_lettered.increment();
+		return true;
+	}
+
+	/**
+	 * Stops the flusher. Pages not yet written stay in the log and are
+	 * replayed on the next start.
+	 */
+	@Override
+	public void close() throws IOException, InterruptedException {
+		if(flusher != null) {
+			retry_scheduler.shutdownNow();
+			flusher.interrupt();
+			flusher.join(TimeUnit.SECONDS.toMillis(5));
+			write_ahead_log.close();
+		}
+	}
+
+	private String encode(Page page) throws IOException {
+		Map<UXIssueMessage, Integer> message_indexes = new IdentityHashMap<>();
+		Map<Audit, Integer> audit_indexes = new IdentityHashMap<>();
+		List<UXIssueMessage> messages = new ArrayList<>();
+		List<Audit> audits = new ArrayList<>();
+
+		ObjectNode root = mapper.createObjectNode();
+		root.put("pageAuditId", page.page_audit_id);
+		ArrayNode writes = root.putArray("writes");
+		for(Write write : page.writes) {
+			ObjectNode node = writes.addObject();
+			node.put("kind", write.kind.name());
+			switch(write.kind) {
+				case SAVE_MESSAGE:
+					message_indexes.put(write.message, messages.size());
+					node.put("message", messages.size());
+					messages.add(write.message);
+					break;
+				case ADD_ELEMENT:
+					node.set("message", messageRef(write.message, message_indexes));
+					if(write.element_id != null) {
+						node.put("elementId", write.element_id);
+					}
+					break;
+				case ADD_ELEMENTS:
+					ArrayNode linked = node.putArray("messages");
+					ArrayNode element_ids = node.putArray("elementIds");
+					for(int idx = 0; idx < write.messages.size(); idx++) {
+						linked.add(messageRef(write.messages.get(idx), message_indexes));
+						Long element_id = write.element_ids.get(idx);
+						if(element_id != null) {
+							element_ids.add(element_id);
+						}
+						else {
+							element_ids.addNull();
+						}
+					}
+					break;
+				case SAVE_AUDIT:
+					audit_indexes.put(write.audit, audits.size());
+					node.put("audit", audits.size());
+					audits.add(write.audit);
+					break;
+				case ADD_ALL_ISSUES:
+					node.put("audit", auditIndex(write.audit, audit_indexes));
+					ArrayNode refs = node.putArray("messages");
+					for(UXIssueMessage message : write.messages) {
+						refs.add(messageRef(message, message_indexes));
+					}
+					break;
+				case ADD_AUDIT:
+					node.put("audit", auditIndex(write.audit, audit_indexes));
+					break;
+				case PUBLISH:
+					node.put("payload", write.payload);
+					break;
+			}
+		}
+		root.set("messages", mapper.readTree(mapper.writerFor(MESSAGE_LIST).writeValueAsString(messages)));
+		root.set("audits", mapper.readTree(mapper.writerFor(AUDIT_LIST).writeValueAsString(audits)));
+		return mapper.writeValueAsString(root);
+	}
+
+	private ObjectNode messageRef(UXIssueMessage message, Map<UXIssueMessage, Integer> message_indexes) {
+		ObjectNode ref = mapper.createObjectNode();
+		Integer index = message_indexes.get(message);
+		if(index != null) {
+			ref.put("index", index);
+		}
+		else if(message.getId() != null) {
+			ref.put("id", message.getId());
+		}
+		return ref;
+	}
+
+	private static int auditIndex(Audit audit, Map<Audit, Integer> audit_indexes) {
+		Integer index = audit_indexes.get(audit);
+		if(index == null) {
+			throw new IllegalStateException("audit was not saved on this page");
+		}
+		return index;
+	}
+
+	private Page decode(String payload) throws IOException {
+		JsonNode root = mapper.readTree(payload);
+		List<UXIssueMessage> messages = mapper.readerFor(MESSAGE_LIST).readValue(root.get("messages"));
+		List<Audit> audits = mapper.readerFor(AUDIT_LIST).readValue(root.get("audits"));
+
+		Page page = new Page(root.get("pageAuditId").asLong(), true);
+		for(JsonNode node : root.get("writes")) {
+			switch(Write.Kind.valueOf(node.get("kind").asText())) {
+				case SAVE_MESSAGE:
+					page.writes.add(Write.saveMessage(messages.get(node.get("message").asInt())));
+					break;
+				case ADD_ELEMENT:
+					UXIssueMessage message = resolve(node.get("message"), messages);
+					if(message != null) {
+						page.writes.add(Write.addElement(message, node.has("elementId") ? node.get("elementId").asLong() : null));
+					}
+					else {
+						log.warn("skipping replayed link of an unsaved carried-forward message pageAuditId={}", page.page_audit_id);
+					}
+					break;
+				case ADD_ELEMENTS:
+					List<UXIssueMessage> linked = new ArrayList<>();
+					List<Long> element_ids = new ArrayList<>();
+					JsonNode element_id_nodes = node.get("elementIds");
+					int ref_idx = 0;
+					for(JsonNode ref : node.get("messages")) {
+						UXIssueMessage linked_message = resolve(ref, messages);
+						JsonNode element_id = element_id_nodes.get(ref_idx++);
+						if(linked_message != null) {
+							linked.add(linked_message);
+							element_ids.add(element_id.isNull() ? null : element_id.asLong());
+						}
+					}
+					page.writes.add(Write.addElements(linked, element_ids));
+					break;
+				case SAVE_AUDIT:
+					page.writes.add(Write.saveAudit(audits.get(node.get("audit").asInt())));
+					break;
+				case ADD_ALL_ISSUES:
+					Set<UXIssueMessage> issues = new HashSet<>();
+					for(JsonNode ref : node.get("messages")) {
+						UXIssueMessage issue = resolve(ref, messages);
+						if(issue != null) {
+							issues.add(issue);
+						}
+					}
+					page.writes.add(Write.addAllIssues(audits.get(node.get("audit").asInt()), issues));
+					break;
+				case ADD_AUDIT:
+					page.writes.add(Write.addAudit(audits.get(node.get("audit").asInt())));
+					break;
+				case PUBLISH:
+					page.writes.add(Write.publish(node.get("payload").asText()));
+					break;
+			}
+		}
+		page.completed = true;
+		return page;
+	}
+
+	private static UXIssueMessage resolve(JsonNode ref, List<UXIssueMessage> messages) {
+		if(ref.has("index")) {
+			return messages.get(ref.get("index").asInt());
+		}
+		if(ref.has("id")) {
+			UXIssueMessage message = new UXIssueMessage();
+			message.setId(ref.get("id").asLong());
+			return message;
+		}
+		return null;
+	}
+
+	/**
+	 * The audit operations of one page audit record.
+	 */
+	public final class Page implements AutoCloseable {
+		private final long page_audit_id;
+		private final boolean deferred;
+		private final List<Write> writes = new ArrayList<>();
+		private final Map<Audit, Audit> saved_audits = new IdentityHashMap<>();
+		private long seq;
+		private int attempts;
+		private boolean completed;
+		private List<Write> uncommitted;
+
+		private Page(long page_audit_id, boolean deferred) {
+			this.page_audit_id = page_audit_id;
+			this.deferred = deferred;
+		}
+
+		/**
+		 * @return {@code true} if the page's operations are recorded, to be
+		 *         written behind or by {@link #write()}
+		 */
+		public boolean isDeferred() {
+			return deferred;
+		}
+
+		/**
+		 * @return {@code true} if the page is to be {@linkplain #complete(String) completed}
+		 *         and written behind, {@code false} if a deferred page is to be {@linkplain #write() written}
+		 */
+		public boolean isWrittenBehind() {
+			return deferred && isWriteBehind();
+		}
+
+		private void record(Write write) {
+			if(completed) {
+				throw new IllegalStateException("page already completed");
+			}
+			writes.add(write);
+		}
+
+		/**
+		 * Links an audit to the page audit record, or records the link.
+		 *
+		 * @param audit the saved or recorded audit, must not be null
+		 * @throws NullPointerException if {@code audit} is null
+		 */
+		public void addAudit(Audit audit) {
+			Objects.requireNonNull(audit, "audit must not be null");
+			if(!deferred) {
+				neo4j(() -> {
+					issue_message_store.addAudit(page_audit_id, audit.getId());
+					return null;
+				});
+				return;
+			}
+			record(Write.addAudit(audit));
+		}
+
+		/**
+		 * Records the completion update, logs the page and queues it for
+		 * flushing. Only valid for deferred pages; the page can no longer be
+		 * changed afterwards.
+		 *
+		 * <p><strong>Postconditions:</strong></p>
+		 * <ul>
+		 *   <li>The page is in the write-ahead log and will be written even if the service restarts</li>
+		 * </ul>
+		 *
+		 * @param audit_update_json the completion update to publish once the page is written, must not be null
+		 * @throws NullPointerException if {@code audit_update_json} is null
+		 * @throws IllegalStateException if the page is not deferred
+		 * @throws IOException if the page cannot be logged; it is then discarded
+		 */
+		public void complete(String audit_update_json) throws IOException {
+			Objects.requireNonNull(audit_update_json, "audit_update_json must not be null");
+			if(!isWrittenBehind()) {
+				throw new IllegalStateException("only pages written behind are completed");
+			}
+			record(Write.publish(audit_update_json));
+			completed = true;
+
+			seq = write_ahead_log.append(encode(this));
+			pending.incrementAndGet();
+			queue.add(this);
+		}
+
+		private void flush() throws Exception {
+			for(Write write : writes) {
+				if(write.done) {
+					continue;
+				}
+				switch(write.kind) {
+					case SAVE_MESSAGE:
+						write.prior_id = write.message.getId();
+						UXIssueMessage saved_message = neo4j(() -> issue_message_store.upsert(write.message));
+						write.message.setId(saved_message.getId());
+						break;
+					case ADD_ELEMENT:
+						neo4j(() -> {
+							issue_message_store.addElement(write.message.getId(), write.element_id);
+							return null;
+						});
+						break;
+					case ADD_ELEMENTS:
+						neo4j(() -> {
+							issue_message_store.addElements(messageIds(write.messages), write.element_ids);
+							return null;
+						});
+						break;
+					case SAVE_AUDIT:
+						write.prior_id = write.audit.getId();
+						saved_audits.put(write.audit, neo4j(() -> issue_message_store.upsert(write.audit)));
+						break;
+					case ADD_ALL_ISSUES:
+						neo4j(() -> {
+							issue_message_store.addAllIssues(saved_audits.getOrDefault(write.audit, write.audit).getId(), new HashSet<>(write.messages));
+							return null;
+						});
+						break;
+					case ADD_AUDIT:
+						neo4j(() -> {
+							issue_message_store.addAudit(page_audit_id, saved_audits.getOrDefault(write.audit, write.audit).getId());
+							return null;
+						});
+						break;
+					case PUBLISH:
+						bulkheads.execute(Bulkheads.Dependency.PUBSUB, () -> {
+							audit_update_topic.publish(write.payload);
+							return null;
+						});
+						break;
+				}
+				write.done = true;
+				if(uncommitted != null) {
+					uncommitted.add(write);
+				}
+			}
+		}
+
+		/**
+		 * Undoes, in memory, the operations written in a transaction that
+		 * was rolled back, so that writing the page again repeats them.
+		 */
+		private void rollBack() {
+			for(Write write : uncommitted) {
+				write.done = false;
+				if(write.kind == Write.Kind.SAVE_MESSAGE) {
+					write.message.setId(write.prior_id);
+				}
+				else if(write.kind == Write.Kind.SAVE_AUDIT) {
+					saved_audits.remove(write.audit);
+					write.audit.setId(write.prior_id);
+				}
+			}
+			uncommitted = null;
+		}
+
+		/**
+		 * Writes the recorded operations of a page that is not written behind,
+		 * on the calling thread. Operations that succeeded are not repeated if
+		 * the page is written again after a failure.
+		 *
+		 * <p><strong>Preconditions:</strong></p>
+		 * <ul>
+		 *   <li>The page must be deferred and not written behind</li>
+		 * </ul>
+		 *
+		 * <p><strong>Postconditions:</strong></p>
+		 * <ul>
+		 *   <li>On return, every recorded operation reached the database</li>
+		 * </ul>
+		 *
+		 * @throws IllegalStateException if the page is not deferred or is written behind
+		 * @throws Exception if an operation fails
+		 */
+		public void write() throws Exception {
+			if(!deferred || isWrittenBehind()) {
+				throw new IllegalStateException("only recorded pages that are not written behind are written");
+			}
+			completed = true;
+			flush();
+		}
+
+		/**
+		 * Binds a deferred page to the calling thread again after it was
+		 * {@linkplain #unbind() unbound}, so that a page's audits can go on
+		 * recording on another thread. Does nothing for a page whose
+		 * operations are made immediately.
+		 *
+		 * @throws IllegalStateException if the thread has another page open
+		 */
+		public void bind() {
+			if(!deferred) {
+				return;
+			}
+			Page open = current_page.get();
+			if(open != null && open != this) {
+				throw new IllegalStateException("a page is already open on this thread");
+			}
+			current_page.set(this);
+		}
+
+		/**
+		 * Unbinds the page from the calling thread without discarding it, so
+		 * that operations the thread makes afterwards are no longer recorded
+		 * on it and another thread can complete or write it.
+		 */
+		public void unbind() {
+			if(current_page.get() == this) {
+				current_page.remove();
+			}
+		}
+
+		/**
+		 * Unbinds the page from the calling thread. A deferred page that was
+		 * neither completed nor written is discarded.
+		 */
+		@Override
+		public void close() {
+			unbind();
+			if(deferred && !completed) {
+				log.warn("discarding {} unwritten audit operations pageAuditId={}", writes.size(), page_audit_id);
+				writes.clear();
+			}
+		}
+	}
+
+	/**
+	 * One recorded audit operation.
+	 */
+	private static final class Write {
+		enum Kind { SAVE_MESSAGE, ADD_ELEMENT, ADD_ELEMENTS, SAVE_AUDIT, ADD_ALL_ISSUES, ADD_AUDIT, PUBLISH }
+
+		private final Kind kind;
+		private UXIssueMessage message;
+		private List<UXIssueMessage> messages;
+		private Long element_id;
+		private List<Long> element_ids;
+		private Audit audit;
+		private String payload;
+		private Long prior_id;
+		private boolean done;
+
+		private Write(Kind kind) {
+			this.kind = kind;
+		}
+
+		static Write saveMessage(UXIssueMessage message) {
+			Write write = new Write(Kind.SAVE_MESSAGE);
+			write.message = message;
+			return write;
+		}
+
+		static Write addElement(UXIssueMessage message, Long element_id) {
+			Write write = new Write(Kind.ADD_ELEMENT);
+			write.message = message;
+			write.element_id = element_id;
+			return write;
+		}
+
+		static Write addElements(List<UXIssueMessage> messages, List<Long> element_ids) {
+			Write write = new Write(Kind.ADD_ELEMENTS);
+			write.messages = new ArrayList<>(messages);
+			write.element_ids = new ArrayList<>(element_ids);
+			return write;
+		}
+
+		static Write saveAudit(Audit audit) {
+			Write write = new Write(Kind.SAVE_AUDIT);
+			write.audit = audit;
+			return write;
+		}
+
+		static Write addAllIssues(Audit audit, Set<UXIssueMessage> messages) {
+			Write write = new Write(Kind.ADD_ALL_ISSUES);
+			write.audit = audit;
+			write.messages = new ArrayList<>(messages);
+			return write;
+		}
+
+		static Write addAudit(Audit audit) {
+			Write write = new Write(Kind.ADD_AUDIT);
+			write.audit = audit;
+			return write;
+		}
+
+		static Write publish(String payload) {
+			Write write = new Write(Kind.PUBLISH);
+			write.payload = payload;
+			return write;
+		}
+	}
+}
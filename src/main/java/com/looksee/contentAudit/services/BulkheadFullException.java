@@ -0,0 +1,20 @@
+package com.looksee.contentAudit.services;
+
+/**
+ * Thrown when a call to a downstream dependency could not get a
+ * {@link Bulkheads} permit in time.
+ */
+public class BulkheadFullException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final Bulkheads.Dependency dependency;
+
+	public BulkheadFullException(Bulkheads.Dependency dependency) {
+		super(dependency.getTag() + " bulkhead full");
+		this.dependency = dependency;
+	}
+
+	public Bulkheads.Dependency getDependency() {
+		return dependency;
+	}
+}
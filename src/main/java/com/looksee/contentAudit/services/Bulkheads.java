@@ -0,0 +1,175 @@
+package com.looksee.contentAudit.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Separate concurrency limits for each downstream dependency, so that a slow
+ * dependency can only hold as many threads as its own limit and never the
+ * threads other dependencies need.
+ *
+ * <p>A call waits up to {@code audit.bulkhead.max-wait-ms} for a permit of its
+ * dependency and otherwise fails with a {@link BulkheadFullException}. The
+ * Cloud NLP limit is {@code audit.nlp.max-concurrency}, which bounds the
+ * segmentation pool's workers.</p>
+ *
+ * <p>Publishes the {@code audit.bulkhead.active} and
+ * {@code audit.bulkhead.saturation} gauges and counts
+ * {@code audit.bulkhead.rejected} calls, all tagged by {@code dependency}.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>At most {@link #maxConcurrent(Dependency)} calls to a dependency run at a time</li>
+ * </ul>
+ */
+@Component
+public class Bulkheads {
+
+	/**
+	 * Downstream dependencies with their own bulkhead.
+	 */
+	public enum Dependency {
+		NEO4J("neo4j"),
+		CLOUD_NLP("cloud-nlp"),
+		PUBSUB("pubsub");
+
+		private final String tag;
+
+		Dependency(String tag) {
+			this.tag = tag;
+		}
+
+		/**
+		 * @return the value of the {@code dependency} metric tag
+		 */
+		public String getTag() {
+			return tag;
+		}
+	}
+
+	private final Map<Dependency, Semaphore> permits = new EnumMap<>(Dependency.class);
+	private final Map<Dependency, Integer> limits = new EnumMap<>(Dependency.class);
+	private final Map<Dependency, Counter> rejections = new EnumMap<>(Dependency.class);
+	private final long max_wait_ms;
+
+	/**
+	 * Creates the bulkheads.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code meter_registry} must not be null</li>
+	 *   <li>All limits must be positive and {@code max_wait_ms} must not be negative</li>
+	 * </ul>
+	 *
+	 * @param meter_registry registry the bulkhead meters are published to, must not be null
+	 * @param neo4j_max_concurrent maximum concurrent Neo4j calls
+	 * @param nlp_max_concurrent maximum concurrent Cloud NLP calls
+	 * @param pubsub_max_concurrent maximum concurrent Pub/Sub publishes
+	 * @param max_wait_ms how long a call waits for a permit
+	 * @throws NullPointerException if {@code meter_registry} is null
+	 * @throws IllegalArgumentException if a limit is not positive or {@code max_wait_ms} is negative
+	 */
+	@Autowired
+	public Bulkheads(MeterRegistry meter_registry,
+					@Value("${audit.bulkhead.neo4j.max-concurrent:16}") int neo4j_max_concurrent,
+					@Value("${audit.nlp.max-concurrency:8}") int nlp_max_concurrent,
+					@Value("${audit.bulkhead.pubsub.max-concurrent:8}") int pubsub_max_concurrent,
+					@Value("${audit.bulkhead.max-wait-ms:5000}") long max_wait_ms) {
+		Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		if(max_wait_ms < 0) {
+			throw new IllegalArgumentException("max_wait_ms must not be negative, got: " + max_wait_ms);
+		}
+		this.max_wait_ms = max_wait_ms;
+
+		register(meter_registry, Dependency.NEO4J, neo4j_max_concurrent);
+		register(meter_registry, Dependency.CLOUD_NLP, nlp_max_concurrent);
+		register(meter_registry, Dependency.PUBSUB, pubsub_max_concurrent);
+	}
+
+	private void register(MeterRegistry meter_registry, Dependency dependency, int max_concurrent) {
+		if(max_concurrent <= 0) {
+			throw new IllegalArgumentException(dependency.getTag() + " max_concurrent must be positive, got: " + max_concurrent);
+		}
+		Semaphore semaphore = new Semaphore(max_concurrent, true);
+		permits.put(dependency, semaphore);
+		limits.put(dependency, max_concurrent);
+
+		Gauge.builder("audit.bulkhead.active", semaphore, permit -> max_concurrent - permit.availablePermits())
+			.tag("dependency", dependency.getTag())
+			.description("Calls to the dependency in progress")
+			.register(meter_registry);
+		Gauge.builder("audit.bulkhead.saturation", semaphore, permit -> (max_concurrent - permit.availablePermits()) / (double) max_concurrent)
+			.tag("dependency", dependency.getTag())
+			.description("Share of the dependency's concurrency limit in use")
+			.register(meter_registry);
+		rejections.put(dependency, Counter.builder("audit.bulkhead.rejected")
+			.tag("dependency", dependency.getTag())
+			.description("Calls that found the dependency's bulkhead full")
+			.register(meter_registry));
+	}
+
+	/**
+	 * @param dependency the dependency, must not be null
+	 * @return the dependency's concurrency limit
+	 */
+	public int maxConcurrent(Dependency dependency) {
+		return limits.get(dependency);
+	}
+
+	/**
+	 * @param dependency the dependency, must not be null
+	 * @return the number of calls to the dependency in progress
+	 */
+	public int active(Dependency dependency) {
+		return limits.get(dependency) - permits.get(dependency).availablePermits();
+	}
+
+	/**
+	 * Runs a call to a dependency within its bulkhead.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code dependency} and {@code call} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The permit taken for the call is released when it returns or throws</li>
+	 * </ul>
+	 *
+	 * @param <T> the result type
+	 * @param dependency the dependency called, must not be null
+	 * @param call the call, must not be null
+	 * @return the call's result
+	 * @throws BulkheadFullException if no permit became available within {@code audit.bulkhead.max-wait-ms}
+	 * @throws InterruptedException if interrupted while waiting for a permit
+	 * @throws Exception if the call fails
+	 */
+	public <T> T execute(Dependency dependency, Callable<T> call) throws Exception {
+		Objects.requireNonNull(dependency, "dependency must not be null");
+		Objects.requireNonNull(call, "call must not be null");
+
+		Semaphore semaphore = permits.get(dependency);
+		if(!semaphore.tryAcquire(max_wait_ms, TimeUnit.MILLISECONDS)) {
+			rejections.get(dependency).increment();
+			throw new BulkheadFullException(dependency);
+		}
+		try {
+			return call.call();
+		} finally {
+			semaphore.release();
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package com.looksee.contentAudit.services;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+
+import com.google.cloud.language.v1.Sentence;
+import com.looksee.gcp.CloudNLPUtils;
+
+/**
+ * {@link SentenceSegmenter} backed by the Google Cloud Natural Language API.
+ */
+@Component
+public class CloudNLPSentenceSegmenter implements SentenceSegmenter {
+
+	/**
+	 * Splits a paragraph into sentences using {@link CloudNLPUtils#extractSentences(String)}.
+	 *
+	 * @param paragraph the paragraph to split, must not be null
+	 * @return the sentences of the paragraph, in order
+	 * @throws NullPointerException if {@code paragraph} is null
+	 * @throws Exception if the Cloud NLP request fails
+	 */
+	@Override
+	public List<Sentence> extractSentences(String paragraph) throws Exception {
+		Objects.requireNonNull(paragraph, "paragraph must not be null");
+		return CloudNLPUtils.extractSentences(paragraph);
+	}
+}
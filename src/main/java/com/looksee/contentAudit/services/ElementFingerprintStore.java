@@ -0,0 +1,258 @@
+package com.looksee.contentAudit.services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.looksee.models.ElementState;
+import com.looksee.models.audit.messages.UXIssueMessage;
+
+/**
+ * Remembers, per page URL and audit, the issue messages produced for each
+ * element fingerprint so that a re-audit of the same URL can carry results
+ * forward for elements whose content has not changed.
+ *
+ * <p>Messages are remembered by the id of the rule that produced them. They
+ * serve as templates: an audit that carries them forward saves a copy of
+ * each, keyed for its own page audit record with the rule id, rather than
+ * linking the previous audit's messages.</p>
+ *
+ * <p>An element fingerprint is a 64-bit FNV-1a hash of the element's tag name,
+ * outer HTML, all text and owned text, optionally mixed with audit-specific
+ * context (for example the target user education for readability). Elements
+ * that appear more than once on a page with identical content are
+ * disambiguated by their occurrence index so that each copy maps to its own
+ * previous result.</p>
+ *
+ * <p>Only the most recent run for each (URL, audit) pair is retained. The
+ * number of retained pages is bounded and the least recently used page is
+ * evicted first. Snapshots live in this instance's memory only: with more
+ * than one instance, a re-audit routed to an instance that did not run the
+ * previous audit, or that restarted since, is a full audit.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>{@code max_pages} is positive</li>
+ *   <li>The number of retained (URL, audit) snapshots never exceeds {@code max_pages}</li>
+ * </ul>
+ */
+@Component
+public class ElementFingerprintStore {
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final boolean enabled;
+	private final int max_pages;
+	private final Map<String, Map<Long, Map<String, UXIssueMessage>>> snapshots;
+
+	/**
+	 * Creates a fingerprint store.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code max_pages} must be positive</li>
+	 * </ul>
+	 *
+	 * @param enabled whether incremental re-audits are enabled
+	 * @param max_pages maximum number of (URL, audit) snapshots to retain, must be positive
+	 * @throws IllegalArgumentException if {@code max_pages} is not positive
+	 */
+	public ElementFingerprintStore(@Value("${audit.incremental.enabled:false}") boolean enabled,
+								@Value("${audit.incremental.max-pages:1000}") int max_pages) {
+		if (max_pages <= 0) {
+			throw new IllegalArgumentException("max_pages must be positive, got: " + max_pages);
+		}
+		this.enabled = enabled;
+		this.max_pages = max_pages;
+		this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Map<Long, Map<String, UXIssueMessage>>> eldest) {
+				return size() > ElementFingerprintStore.this.max_pages;
+			}
+		};
+	}
+
+	/**
+	 * @return {@code true} if incremental re-audits are enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts an incremental run for the given page URL and audit.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit_key} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns a non-null run. When the store is disabled or {@code url} is null
+	 *       the run never carries results forward and {@link Run#commit()} is a no-op</li>
+	 * </ul>
+	 *
+	 * @param url the page URL (may be null)
+	 * @param audit_key identifies the audit, must not be null
+	 * @param context audit-specific values that affect results and are mixed into every fingerprint
+	 * @return a new run
+	 * @throws NullPointerException if {@code audit_key} is null
+	 */
+	public Run begin(String url, String audit_key, String... context) {
+		Objects.requireNonNull(audit_key, "audit_key must not be null");
+
+		boolean active = enabled && url != null;
+		String snapshot_key = audit_key + "|" + url;
+		Map<Long, Map<String, UXIssueMessage>> previous = Collections.emptyMap();
+		if (active) {
+			synchronized (snapshots) {
+				previous = snapshots.getOrDefault(snapshot_key, Collections.emptyMap());
+			}
+		}
+		return new Run(active, snapshot_key, previous, hash(FNV_OFFSET_BASIS, context));
+	}
+
+	/**
+	 * @return the number of retained (URL, audit) snapshots
+	 */
+	public int size() {
+		synchronized (snapshots) {
+			return snapshots.size();
+		}
+	}
+
+	/**
+	 * Computes the content fingerprint of an element.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code element} must not be null</li>
+	 * </ul>
+	 *
+	 * @param element the element to fingerprint, must not be null
+	 * @param seed the hash seed
+	 * @return the 64-bit fingerprint of the element
+	 * @throws NullPointerException if {@code element} is null
+	 */
+	static long fingerprint(ElementState element, long seed) {
+		Objects.requireNonNull(element, "element must not be null");
+		return hash(seed, element.getName(), element.getOuterHtml(), element.getAllText(), element.getOwnedText());
+	}
+
+	private static long hash(long seed, String... values) {
+		long hash = seed;
+		for (String value : values) {
+			if (value == null) {
+				hash = (hash ^ 0xff) * FNV_PRIME;
+				continue;
+			}
+			for (int i = 0; i < value.length(); i++) {
+				hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+			}
+			hash = (hash ^ 0xfe) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * A single incremental audit of one page. Not thread-safe; a run is owned
+	 * by the audit that created it.
+	 */
+	public class Run {
+		private final boolean active;
+		private final String snapshot_key;
+		private final Map<Long, Map<String, UXIssueMessage>> previous;
+		private final Map<Long, Map<String, UXIssueMessage>> current = new HashMap<>();
+		private final Map<Long, Integer> occurrences = new HashMap<>();
+		private final long seed;
+		private int carried_count = 0;
+
+		private Run(boolean active, String snapshot_key, Map<Long, Map<String, UXIssueMessage>> previous, long seed) {
+			this.active = active;
+			this.snapshot_key = snapshot_key;
+			this.previous = previous;
+			this.seed = seed;
+		}
+
+		/**
+		 * Computes the fingerprint of the next occurrence of an element in this run.
+		 * Must be called exactly once per evaluated element.
+		 *
+		 * @param element the element, must not be null
+		 * @return the occurrence-qualified fingerprint
+		 * @throws NullPointerException if {@code element} is null
+		 */
+		public long fingerprint(ElementState element) {
+			long base = ElementFingerprintStore.fingerprint(element, seed);
+			int occurrence = occurrences.merge(base, 1, Integer::sum);
+			return (base ^ occurrence) * FNV_PRIME;
+		}
+
+		/**
+		 * Returns the issue messages produced for the same fingerprint during the
+		 * previous audit of this page, if any, by the id of the rule that
+		 * produced them. The messages are templates to copy, not to link.
+		 *
+		 * <p><strong>Postconditions:</strong></p>
+		 * <ul>
+		 *   <li>Returns {@code null} if there is no previous result for the fingerprint</li>
+		 *   <li>A non-null result is recorded for the current run as if passed to {@link #record}</li>
+		 * </ul>
+		 *
+		 * @param fingerprint the element fingerprint from {@link #fingerprint(ElementState)}
+		 * @return previously produced issue messages by rule id, or {@code null}
+		 */
+		public Map<String, UXIssueMessage> carryForward(long fingerprint) {
+			if (!active) {
+				return null;
+			}
+			Map<String, UXIssueMessage> carried = previous.get(fingerprint);
+			if (carried != null) {
+				current.put(fingerprint, carried);
+				carried_count++;
+			}
+			return carried;
+		}
+
+		/**
+		 * Records the issue messages produced for an element in this run.
+		 *
+		 * @param fingerprint the element fingerprint from {@link #fingerprint(ElementState)}
+		 * @param issue_messages the issue messages produced for the element by the id of their rule, must not be null
+		 * @throws NullPointerException if {@code issue_messages} is null
+		 */
+		public void record(long fingerprint, Map<String, UXIssueMessage> issue_messages) {
+			Objects.requireNonNull(issue_messages, "issue_messages must not be null");
+			if (active) {
+				current.put(fingerprint, Collections.unmodifiableMap(new LinkedHashMap<>(issue_messages)));
+			}
+		}
+
+		/**
+		 * @return the number of elements whose results were carried forward
+		 */
+		public int getCarriedCount() {
+			return carried_count;
+		}
+
+		/**
+		 * Replaces the stored snapshot for this page and audit with the results of this run.
+		 */
+		public void commit() {
+			if (!active) {
+				return;
+			}
+			synchronized (snapshots) {
+				snapshots.put(snapshot_key, Collections.unmodifiableMap(current));
+			}
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package com.looksee.contentAudit.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import com.looksee.contentAudit.models.ContentElementState;
+import com.looksee.models.ElementState;
+import com.looksee.services.PageStateService;
+
+/**
+ * Loads a page's elements for the content audits with a projection query that
+ * returns only the fields the audits read, instead of hydrating complete
+ * {@link ElementState} entities with their attributes, rendered CSS and
+ * screenshot metadata.
+ *
+ * <p>Elements are returned as {@link ContentElementState}s. When projection is
+ * disabled with {@code audit.projection.enabled=false}, or no
+ * {@link Neo4jClient} is available, elements are loaded through
+ * {@link PageStateService#getElementStates(long)} as before.</p>
+ *
+ * <p>{@link #loadElements(long, Set)} also filters elements by tag name in the
+ * query, so that audits that only evaluate a few tags do not transfer the rest
+ * of the page. Without projection, the same filter is applied after loading.</p>
+ *
+ * <p>{@link #loadElementsOfPages(Collection, Set)} loads the elements of
+ * several pages with one query, for messages handled as a batch.</p>
+ */
+@Component
+public class ElementProjectionLoader {
+	private static final String MATCH_PAGE_ELEMENTS = "MATCH (p:PageState)-[:HAS]->(e:ElementState) WHERE id(p)=$page_state_id ";
+	private static final String PROJECTION_COLUMNS =
+			"id(e) AS id, e.name AS name, e.key AS key, e.xpath AS xpath, "
+			+ "e.ownedText AS ownedText, e.allText AS allText, e.outerHtml AS outerHtml";
+	private static final String RETURN_PROJECTION = "RETURN DISTINCT " + PROJECTION_COLUMNS;
+
+	static final String ELEMENT_PROJECTION_QUERY = MATCH_PAGE_ELEMENTS + RETURN_PROJECTION;
+	static final String TAGGED_ELEMENT_PROJECTION_QUERY = MATCH_PAGE_ELEMENTS + "AND toLower(e.name) IN $tag_names " + RETURN_PROJECTION;
+	static final String PAGES_ELEMENT_PROJECTION_QUERY =
+			"MATCH (p:PageState)-[:HAS]->(e:ElementState) WHERE id(p) IN $page_state_ids "
+			+ "AND ($tag_names IS NULL OR toLower(e.name) IN $tag_names) "
+			+ "RETURN DISTINCT id(p) AS pageStateId, " + PROJECTION_COLUMNS;
+
+	private final ObjectProvider<Neo4jClient> neo4j_client;
+	private final PageStateService page_state_service;
+	private final boolean enabled;
+
+	/**
+	 * Creates a loader.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code neo4j_client} and {@code page_state_service} must not be null</li>
+	 * </ul>
+	 *
+	 * @param neo4j_client provides the client projection queries run on, must not be null
+	 * @param page_state_service loads complete elements when projection is not used, must not be null
+	 * @param enabled whether elements are loaded with the projection query
+	 * @throws NullPointerException if {@code neo4j_client} or {@code page_state_service} is null
+	 */
+	public ElementProjectionLoader(ObjectProvider<Neo4jClient> neo4j_client,
+								PageStateService page_state_service,
+								@Value("${audit.projection.enabled:true}") boolean enabled) {
+		this.neo4j_client = Objects.requireNonNull(neo4j_client, "neo4j_client must not be null");
+		this.page_state_service = Objects.requireNonNull(page_state_service, "page_state_service must not be null");
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Loads the elements of a page.
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>When projected, returns one {@link ContentElementState} per row of the projection query</li>
+	 * </ul>
+	 *
+	 * @param page_state_id the page state id
+	 * @return the page's elements, holding at least id, name, key, xpath, owned text, all text and outer HTML
+	 */
+	public List<ElementState> loadElements(long page_state_id) {
+		Neo4jClient client = enabled ? neo4j_client.getIfAvailable() : null;
+		if(client == null) {
+			return page_state_service.getElementStates(page_state_id);
+		}
+
+		Collection<Map<String, Object>> rows = client.query(ELEMENT_PROJECTION_QUERY)
+													.bind(page_state_id).to("page_state_id")
+													.fetch()
+													.all();
+		return toElements(rows);
+	}
+
+	/**
+	 * Loads the elements of a page whose tag name, ignoring case, is one of
+	 * {@code tag_names}.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code tag_names} must not be null and must hold lower-case tag names</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Every returned element's lower-cased name is in {@code tag_names}</li>
+	 * </ul>
+	 *
+	 * @param page_state_id the page state id
+	 * @param tag_names the lower-case tag names to load, must not be null
+	 * @return the page's elements with those tags, in the order {@link #loadElements(long)} returns them
+	 * @throws NullPointerException if {@code tag_names} is null
+	 */
+	public List<ElementState> loadElements(long page_state_id, Set<String> tag_names) {
+		Objects.requireNonNull(tag_names, "tag_names must not be null");
+
+		Neo4jClient client = enabled ? neo4j_client.getIfAvailable() : null;
+		if(client == null) {
+			List<ElementState> elements = new ArrayList<>();
+			for(ElementState element : page_state_service.getElementStates(page_state_id)) {
+				if(hasTag(element, tag_names)) {
+					elements.add(element);
+				}
+			}
+			return elements;
+		}
+
+		Collection<Map<String, Object>> rows = client.query(TAGGED_ELEMENT_PROJECTION_QUERY)
+													.bind(page_state_id).to("page_state_id")
+													.bind(new ArrayList<>(tag_names)).to("tag_names")
+													.fetch()
+													.all();
+		List<ElementState> elements = toElements(rows);
+
+		assert elements.stream().allMatch(element -> hasTag(element, tag_names));
+		return elements;
+	}
+
+	/**
+	 * Loads the elements of several pages with one query, like
+	 * {@link #loadElements(long, Set)} does for each page, or like
+	 * {@link #loadElements(long)} when {@code tag_names} is null.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code page_state_ids} must not be null</li>
+	 *   <li>{@code tag_names}, if not null, must hold lower-case tag names</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns an entry, possibly empty, for every id in {@code page_state_ids}</li>
+	 * </ul>
+	 *
+	 * @param page_state_ids the page state ids, must not be null
+	 * @param tag_names the lower-case tag names to load, or null to load every element
+	 * @return the elements of each page by page state id
+	 * @throws NullPointerException if {@code page_state_ids} is null
+	 */
+	public Map<Long, List<ElementState>> loadElementsOfPages(Collection<Long> page_state_ids, Set<String> tag_names) {
+		Objects.requireNonNull(page_state_ids, "page_state_ids must not be null");
+
+		Map<Long, List<ElementState>> elements = new LinkedHashMap<>();
+		Neo4jClient client = enabled ? neo4j_client.getIfAvailable() : null;
+		if(client == null) {
+			for(Long page_state_id : page_state_ids) {
+				elements.put(page_state_id, tag_names == null ? loadElements(page_state_id) : loadElements(page_state_id, tag_names));
+			}
+			return elements;
+		}
+
+		for(Long page_state_id : page_state_ids) {
+			elements.put(page_state_id, new ArrayList<>());
+		}
+		Collection<Map<String, Object>> rows = client.query(PAGES_ELEMENT_PROJECTION_QUERY)
+													.bind(new ArrayList<>(page_state_ids)).to("page_state_ids")
+													.bind(tag_names == null ? null : new ArrayList<>(tag_names)).to("tag_names")
+													.fetch()
+													.all();
+		for(Map<String, Object> row : rows) {
+			elements.get(((Number) row.get("pageStateId")).longValue()).add(toElement(row));
+		}
+
+		assert elements.keySet().containsAll(page_state_ids);
+		return elements;
+	}
+
+	private static boolean hasTag(ElementState element, Set<String> tag_names) {
+		return element.getName() != null && tag_names.contains(element.getName().toLowerCase(Locale.ROOT));
+	}
+
+	private static List<ElementState> toElements(Collection<Map<String, Object>> rows) {
+		List<ElementState> elements = new ArrayList<>(rows.size());
+		for(Map<String, Object> row : rows) {
+			elements.add(toElement(row));
+		}
+
+		assert elements.size() == rows.size();
+		return elements;
+	}
+
+	/**
+	 * Maps one row of {@link #ELEMENT_PROJECTION_QUERY} to an element.
+	 *
+	 * @param row the row, keyed by column alias, must not be null
+	 * @return the element
+	 */
+	static ContentElementState toElement(Map<String, Object> row) {
+		Number id = (Number) row.get("id");
+		return new ContentElementState(id == null ? null : id.longValue(),
+										(String) row.get("name"),
+										(String) row.get("key"),
+										(String) row.get("xpath"),
+										(String) row.get("ownedText"),
+										(String) row.get("allText"),
+										(String) row.get("outerHtml"));
+	}
+}
@@ -0,0 +1,205 @@
+package com.looksee.contentAudit.services;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.parser.ParseSettings;
+import org.jsoup.parser.Parser;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Parses element HTML fragments into jsoup documents for the alt-text audits,
+ * spreading large batches across the shared compute pool.
+ *
+ * <p>Parser settings are configured once: an HTML parser with the default
+ * HTML settings and error tracking off. A jsoup {@link Parser} holds parse
+ * state and is not thread-safe, so each worker thread parses with its own
+ * copy of the configured parser rather than building a new one for every
+ * fragment, as {@code Jsoup.parseBodyFragment} does.</p>
+ *
+ * <p>Batches larger than {@code chunk_size} fragments are split into chunks of
+ * {@code chunk_size} fragments, and the chunks are parsed in parallel on the
+ * compute pool. Smaller batches, and every batch when the pool has a single
+ * thread, are parsed lazily on the calling thread when each document is
+ * first read, so that fragments the caller never reads are never parsed.
+ * Each fragment is parsed at most once, and documents are returned in
+ * fragment order either way.</p>
+ *
+ * <p>Records the parse time of every fragment in the {@code audit.parse}
+ * timer, tagged with {@code audit}; the timer's count is the number of
+ * fragments parsed.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>{@code chunk_size} is positive</li>
+ * </ul>
+ */
+@Component
+public class FragmentParseService {
+	private final ForkJoinPool compute_pool;
+	private final MeterRegistry meter_registry;
+	private final int chunk_size;
+	private final Parser parser_template;
+	private final ThreadLocal<Parser> thread_parsers;
+
+	/**
+	 * Creates a parse service.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code compute_pool} and {@code meter_registry} must not be null</li>
+	 *   <li>{@code chunk_size} must be positive</li>
+	 * </ul>
+	 *
+	 * @param compute_pool pool large batches are parsed on, must not be null
+	 * @param meter_registry registry the parse metrics are published to, must not be null
+	 * @param chunk_size number of fragments parsed per task, must be positive
+	 * @throws NullPointerException if {@code compute_pool} or {@code meter_registry} is null
+	 * @throws IllegalArgumentException if {@code chunk_size} is not positive
+	 */
+	public FragmentParseService(@Qualifier("auditComputePool") ForkJoinPool compute_pool,
+								MeterRegistry meter_registry,
+								@Value("${audit.parse.chunk-size:64}") int chunk_size) {
+		Objects.requireNonNull(compute_pool, "compute_pool must not be null");
+		Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		if(chunk_size <= 0) {
+			throw new IllegalArgumentException("chunk_size must be positive, got: " + chunk_size);
+		}
+		this.compute_pool = compute_pool;
+		this.meter_registry = meter_registry;
+		this.chunk_size = chunk_size;
+		this.parser_template = Parser.htmlParser()
+										.settings(ParseSettings.htmlDefault)
+										.setTrackErrors(0);
+		this.thread_parsers = ThreadLocal.withInitial(parser_template::newInstance);
+	}
+
+	public int getChunkSize() {
+		return chunk_size;
+	}
+
+	/**
+	 * Parses an HTML fragment as the body of a new document, like
+	 * {@code Jsoup.parseBodyFragment(fragment, base_uri)}.
+	 *
+	 * @param fragment the HTML fragment; null is parsed as an empty fragment
+	 * @param base_uri the URI relative links are resolved against (may be null)
+	 * @return the document, never null
+	 */
+	public Document parseBodyFragment(String fragment, String base_uri) {
+		Document document = Document.createShell(base_uri == null ? "" : base_uri);
+		Element body = document.body();
+		List<Node> nodes = thread_parsers.get().parseFragmentInput(fragment == null ? "" : fragment, body, document.baseUri());
+		Node[] node_array = nodes.toArray(new Node[0]);
+		//the fragment's nodes are parented to a temporary root; detach them before moving them to the body
+		for(int idx = node_array.length - 1; idx > 0; idx--) {
+			node_array[idx].remove();
+		}
+		for(Node node : node_array) {
+			body.appendChild(node);
+		}
+		return document;
+	}
+
+	/**
+	 * Parses one HTML fragment per element, in parallel chunks when there are
+	 * more than {@code chunk_size} of them and the compute pool has more than
+	 * one thread.
+	 *
+	 * <p>Otherwise the returned list parses each fragment when its document is
+	 * first read and keeps the document for later reads.</p>
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code elements}, {@code fragment} and {@code audit} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns an unmodifiable list of one document per element, in element order</li>
+	 *   <li>Each fragment is parsed at most once</li>
+	 * </ul>
+	 *
+	 * @param <T> the element type
+	 * @param elements the elements to parse, must not be null
+	 * @param fragment extracts the HTML fragment of an element, must not be null
+	 * @param base_uri the URI relative links are resolved against (may be null)
+	 * @param audit name of the audit, used to tag the metrics, must not be null
+	 * @return the parsed documents
+	 * @throws NullPointerException if {@code elements}, {@code fragment} or {@code audit} is null
+	 */
+	public <T> List<Document> parseBodyFragments(List<T> elements, Function<T, String> fragment, String base_uri, String audit) {
+		Objects.requireNonNull(elements, "elements must not be null");
+		Objects.requireNonNull(fragment, "fragment must not be null");
+		Objects.requireNonNull(audit, "audit must not be null");
+		if(elements.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Timer parse_timer = Timer.builder("audit.parse")
+									.tag("audit", audit)
+									.description("Time spent parsing each element fragment")
+									.register(meter_registry);
+
+		if(elements.size() <= chunk_size || compute_pool.getParallelism() <= 1) {
+			Document[] parsed = new Document[elements.size()];
+			return new AbstractList<Document>() {
+				@Override
+				public Document get(int idx) {
+					if(parsed[idx] == null) {
+						parsed[idx] = timedParse(fragment.apply(elements.get(idx)), base_uri, parse_timer);
+					}
+					return parsed[idx];
+				}
+
+				@Override
+				public int size() {
+					return elements.size();
+				}
+			};
+		}
+
+		Document[] documents = new Document[elements.size()];
+		int chunks = (elements.size() + chunk_size - 1) / chunk_size;
+		compute_pool.submit(() -> IntStream.range(0, chunks)
+					.parallel()
+					.forEach(chunk -> parseChunk(elements, fragment, base_uri, parse_timer, documents, chunk)))
+				.join();
+
+		List<Document> parsed = Collections.unmodifiableList(Arrays.asList(documents));
+
+		// Postcondition: one document per element, in element order
+		assert parsed.size() == elements.size() : "parsed size (" + parsed.size() + ") differs from elements size (" + elements.size() + ")";
+
+		return parsed;
+	}
+
+	private <T> void parseChunk(List<T> elements, Function<T, String> fragment, String base_uri, Timer parse_timer, Document[] documents, int chunk) {
+		int end = Math.min(elements.size(), (chunk + 1) * chunk_size);
+		for(int idx = chunk * chunk_size; idx < end; idx++) {
+			documents[idx] = timedParse(fragment.apply(elements.get(idx)), base_uri, parse_timer);
+		}
+	}
+
+	private Document timedParse(String fragment, String base_uri, Timer parse_timer) {
+		long start = System.nanoTime();
+		Document document = parseBodyFragment(fragment, base_uri);
+		parse_timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return document;
+	}
+}
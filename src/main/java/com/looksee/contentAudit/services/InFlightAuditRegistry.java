@@ -0,0 +1,75 @@
+package com.looksee.contentAudit.services;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks the content audits in flight by page audit id, so that a message
+ * delivered again while its first delivery is still being audited joins that
+ * execution instead of repeating it.
+ *
+ * <p>The first caller to {@link #join(long)} an id leads its execution; any
+ * caller that joins the same id before the leader completes follows it and
+ * is given its outcome when it completes. Implementations backed by a shared store can extend
+ * this across instances.</p>
+ *
+ * <p>Implementations must be safe to call concurrently, and count the
+ * duplicates they turn into followers in the {@code audit.dedup.duplicates}
+ * counter, tagged with the {@code outcome} they saw.</p>
+ */
+public interface InFlightAuditRegistry {
+
+	/**
+	 * Joins the execution of the audit with the given page audit id, leading
+	 * it if none is in flight.
+	 *
+	 * @param page_audit_id the page audit id
+	 * @return the caller's part in the execution, never null
+	 */
+	Flight join(long page_audit_id);
+
+	/**
+	 * How an execution ended, as seen by a follower.
+	 */
+	enum Outcome {
+		/** The leader finished the audit, or acknowledged the message. */
+		SUCCEEDED,
+		/** The leader failed or deferred the audit; the message should be redelivered. */
+		FAILED,
+		/** The leader did not finish within the follower's wait. */
+		TIMED_OUT
+	}
+
+	/**
+	 * A caller's part in one execution. The leader must close it when the
+	 * audit ends; a leader that closes without calling
+	 * {@link #complete(boolean)} completes it as failed.
+	 */
+	interface Flight extends AutoCloseable {
+
+		/**
+		 * Returns whether this caller leads the execution and should run the audit.
+		 */
+		boolean isLeader();
+
+		/**
+		 * Completes the execution and releases its page audit id. Only the
+		 * first completion has any effect.
+		 *
+		 * @param succeeded whether the audit succeeded
+		 * @throws IllegalStateException if this caller is not the leader
+		 */
+		void complete(boolean succeeded);
+
+		/**
+		 * Returns the outcome of the execution once the leader completes it,
+		 * without blocking the caller.
+		 *
+		 * @return a future of the execution's outcome, {@link Outcome#TIMED_OUT} if it did not complete in time; never completes exceptionally
+		 * @throws IllegalStateException if this caller is the leader
+		 */
+		CompletableFuture<Outcome> completion();
+
+		@Override
+		void close();
+	}
+}
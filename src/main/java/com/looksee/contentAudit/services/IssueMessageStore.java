@@ -0,0 +1,335 @@
+package com.looksee.contentAudit.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
+import com.looksee.services.UXIssueMessageService;
+
+/**
+ * Saves issue messages and audits idempotently, keyed by their
+ * deterministic keys (see {@link com.looksee.contentAudit.utils.IssueKeys}),
+ * and links them without creating duplicate relationships.
+ *
+ * <p>An upsert first merges a node on the message's or audit's key, which
+ * creates it only if no node with that key exists, and then saves the
+ * message or audit onto that node through {@link UXIssueMessageService} or
+ * {@link AuditService}. Links from messages to elements, from audits to
+ * their messages and from page audit records to audits are merged as well,
+ * with the relationship types the core services create them with. Saving
+ * and linking the same results again, from a redelivery, a write-behind
+ * replay or a concurrent execution, updates the same nodes and leaves the
+ * same relationships, and no read is needed to find them.</p>
+ *
+ * <p>Merging is only race-free with a uniqueness constraint on the key. The
+ * store creates the {@code UXIssueMessage} and {@code Audit} key constraints
+ * on startup, and fails the startup if it cannot, for example because
+ * existing nodes share a key.</p>
+ *
+ * <p>When upserts are disabled with {@code audit.upsert.enabled=false}, or no
+ * {@link Neo4jClient} is available, messages and audits are saved as new
+ * nodes and linked through the core services, as before.</p>
+ */
+@Component
+public class IssueMessageStore {
+	private static final Logger log = LoggerFactory.getLogger(IssueMessageStore.class);
+
+	private static final List<String> KEY_CONSTRAINTS = List.of(
+			"CREATE CONSTRAINT ux_issue_message_key IF NOT EXISTS FOR (m:UXIssueMessage) REQUIRE m.key IS UNIQUE",
+			"CREATE CONSTRAINT audit_key IF NOT EXISTS FOR (a:Audit) REQUIRE a.key IS UNIQUE");
+	private static final String MERGE_MESSAGE_QUERY = "MERGE (m:UXIssueMessage {key: $key}) SET m:%s RETURN id(m) AS id";
+	private static final String MERGE_AUDIT_QUERY = "MERGE (a:Audit {key: $key}) RETURN id(a) AS id";
+	private static final String MERGE_ELEMENT_LINK_QUERY = "MATCH (m:UXIssueMessage) WHERE id(m)=$message_id "
+															+ "MATCH (e:ElementState) WHERE id(e)=$element_id "
+															+ "MERGE (m)-[:FOR]->(e) RETURN id(m) AS id";
+	private static final String MERGE_ELEMENT_LINKS_QUERY = "UNWIND $links AS link "
+																+ "MATCH (m:UXIssueMessage) WHERE id(m)=link.message_id "
+																+ "MATCH (e:ElementState) WHERE id(e)=link.element_id "
+																+ "MERGE (m)-[:FOR]->(e) RETURN count(m) AS linked";
+	private static final String MERGE_ISSUE_LINKS_QUERY = "MATCH (a:Audit) WHERE id(a)=$audit_id "
+															+ "MATCH (m:UXIssueMessage) WHERE id(m) IN $message_ids "
+															+ "MERGE (a)-[:HAS]->(m) RETURN count(m) AS linked";
+	private static final String MERGE_AUDIT_LINK_QUERY = "MATCH (r:AuditRecord) WHERE id(r)=$audit_record_id "
+															+ "MATCH (a:Audit) WHERE id(a)=$audit_id "
+															+ "MERGE (r)-[:HAS]->(a) RETURN id(a) AS id";
+
+	private final ObjectProvider<Neo4jClient> neo4j_client;
+	private final UXIssueMessageService issue_message_service;
+	private final AuditService audit_service;
+	private final AuditRecordService audit_record_service;
+	private final boolean enabled;
+
+	/**
+	 * Creates a store.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code neo4j_client} and all services must not be null</li>
+	 * </ul>
+	 *
+	 * @param neo4j_client provides the client keys and links are merged with, must not be null
+	 * @param issue_message_service saves the messages, must not be null
+	 * @param audit_service saves the audits, must not be null
+	 * @param audit_record_service links audits to page audit records when upserts are disabled, must not be null
+	 * @param enabled whether messages and audits are upserted by key
+	 * @throws NullPointerException if {@code neo4j_client} or a service is null
+	 */
+	@Autowired
+	public IssueMessageStore(ObjectProvider<Neo4jClient> neo4j_client,
+							UXIssueMessageService issue_message_service,
+							AuditService audit_service,
+							AuditRecordService audit_record_service,
+							@Value("${audit.upsert.enabled:true}") boolean enabled) {
+		this.neo4j_client = Objects.requireNonNull(neo4j_client, "neo4j_client must not be null");
+		this.issue_message_service = Objects.requireNonNull(issue_message_service, "issue_message_service must not be null");
+		this.audit_service = Objects.requireNonNull(audit_service, "audit_service must not be null");
+		this.audit_record_service = Objects.requireNonNull(audit_record_service, "audit_record_service must not be null");
+		this.enabled = enabled;
+	}
+
+	private IssueMessageStore(UXIssueMessageService issue_message_service, AuditService audit_service, AuditRecordService audit_record_service) {
+		this.neo4j_client = null;
+		this.issue_message_service = Objects.requireNonNull(issue_message_service, "issue_message_service must not be null");
+		this.audit_service = Objects.requireNonNull(audit_service, "audit_service must not be null");
+		this.audit_record_service = audit_record_service;
+		this.enabled = false;
+	}
+
+	/**
+	 * Creates a store that always saves messages and audits as new nodes,
+	 * for callers without a database client.
+	 *
+	 * @param issue_message_service saves the messages, must not be null
+	 * @param audit_service saves the audits, must not be null
+	 * @param audit_record_service links audits to page audit records, or null if the caller never links them
+	 * @return the store
+	 * @throws NullPointerException if {@code issue_message_service} or {@code audit_service} is null
+	 */
+	public static IssueMessageStore saveOnly(UXIssueMessageService issue_message_service,
+											AuditService audit_service,
+											AuditRecordService audit_record_service) {
+		return new IssueMessageStore(issue_message_service, audit_service, audit_record_service);
+	}
+
+	/**
+	 * Creates the uniqueness constraints that make merging by key race-free,
+	 * unless they exist.
+	 *
+	 * @throws IllegalStateException if upserts are enabled and a constraint cannot be created
+	 */
+	@PostConstruct
+	public void createKeyConstraints() {
+		Neo4jClient client = client();
+		if(client == null) {
+			return;
+		}
+		for(String constraint : KEY_CONSTRAINTS) {
+			try {
+				client.query(constraint).fetch().all();
+			} catch (RuntimeException e) {
+				throw new IllegalStateException("could not create the key constraint needed for upserts; remove nodes that share a key "
+												+ "or set audit.upsert.enabled=false: " + constraint, e);
+			}
+		}
+		log.info("issue message and audit key constraints are in place");
+	}
+
+	/**
+	 * Saves a message onto the node with its key, creating the node if
+	 * there is none.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code message} must not be null and must have a key</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>When upserting, at most one message node exists per key</li>
+	 * </ul>
+	 *
+	 * @param message the message, must not be null
+	 * @return the saved message
+	 * @throws NullPointerException if {@code message} or its key is null
+	 */
+	public UXIssueMessage upsert(UXIssueMessage message) {
+		Objects.requireNonNull(message, "message must not be null");
+		Objects.requireNonNull(message.getKey(), "message key must not be null");
+
+		Neo4jClient client = client();
+		if(client != null && message.getId() == null) {
+			message.setId(mergeKey(client, String.format(MERGE_MESSAGE_QUERY, message.getClass().getSimpleName()), message.getKey()));
+		}
+		return issue_message_service.save(message);
+	}
+
+	/**
+	 * Saves an audit onto the node with its key, creating the node if there
+	 * is none.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit} must not be null and must have a key</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>When upserting, at most one audit node exists per key</li>
+	 * </ul>
+	 *
+	 * @param audit the audit, must not be null
+	 * @return the saved audit
+	 * @throws NullPointerException if {@code audit} or its key is null
+	 */
+	public Audit upsert(Audit audit) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		Objects.requireNonNull(audit.getKey(), "audit key must not be null");
+
+		Neo4jClient client = client();
+		if(client != null && audit.getId() == null) {
+			audit.setId(mergeKey(client, MERGE_AUDIT_QUERY, audit.getKey()));
+		}
+		return audit_service.save(audit);
+	}
+
+	/**
+	 * Links a saved message to an element, unless they are already linked.
+	 *
+	 * @param message_id id of the saved message
+	 * @param element_id id of the element
+	 */
+	public void addElement(Long message_id, Long element_id) {
+		Neo4jClient client = client();
+		if(client == null || message_id == null || element_id == null) {
+			issue_message_service.addElement(message_id, element_id);
+			return;
+		}
+		client.query(MERGE_ELEMENT_LINK_QUERY)
+				.bind(message_id).to("message_id")
+				.bind(element_id).to("element_id")
+				.fetch()
+				.all();
+	}
+
+	/**
+	 * Links saved messages to elements in one query, leaving links that
+	 * already exist as they are. The lists are paired by index.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code message_ids} and {@code element_ids} must not be null and must have the same size</li>
+	 * </ul>
+	 *
+	 * @param message_ids ids of the saved messages, must not be null
+	 * @param element_ids ids of the elements, must not be null
+	 * @throws NullPointerException if a list is null
+	 * @throws IllegalArgumentException if the lists differ in size
+	 */
+	public void addElements(List<Long> message_ids, List<Long> element_ids) {
+		Objects.requireNonNull(message_ids, "message_ids must not be null");
+		Objects.requireNonNull(element_ids, "element_ids must not be null");
+		if(message_ids.size() != element_ids.size()) {
+			throw new IllegalArgumentException("message_ids and element_ids must have the same size");
+		}
+		Neo4jClient client = client();
+		List<Map<String, Object>> links = new ArrayList<>(message_ids.size());
+		for(int idx = 0; idx < message_ids.size(); idx++) {
+			Long message_id = message_ids.get(idx);
+			Long element_id = element_ids.get(idx);
+			if(client == null || message_id == null || element_id == null) {
+				issue_message_service.addElement(message_id, element_id);
+			}
+			else {
+				links.add(Map.of("message_id", message_id, "element_id", element_id));
+			}
+		}
+		if(links.isEmpty()) {
+			return;
+		}
+		client.query(MERGE_ELEMENT_LINKS_QUERY)
+				.bind(links).to("links")
+				.fetch()
+				.all();
+	}
+
+	/**
+	 * Links saved messages to a saved audit, leaving links that already
+	 * exist as they are.
+	 *
+	 * @param audit_id id of the saved audit
+	 * @param messages the saved messages, must not be null
+	 * @throws NullPointerException if {@code messages} is null
+	 */
+	public void addAllIssues(Long audit_id, Set<UXIssueMessage> messages) {
+		Objects.requireNonNull(messages, "messages must not be null");
+		Neo4jClient client = client();
+		if(client == null || audit_id == null) {
+			audit_service.addAllIssues(audit_id, messages);
+			return;
+		}
+		List<Long> message_ids = new ArrayList<>(messages.size());
+		for(UXIssueMessage message : messages) {
+			if(message.getId() != null) {
+				message_ids.add(message.getId());
+			}
+		}
+		client.query(MERGE_ISSUE_LINKS_QUERY)
+				.bind(audit_id).to("audit_id")
+				.bind(message_ids).to("message_ids")
+				.fetch()
+				.all();
+	}
+
+	/**
+	 * Links a saved audit to a page audit record, unless they are already
+	 * linked.
+	 *
+	 * @param page_audit_id id of the page audit record
+	 * @param audit_id id of the saved audit
+	 * @throws IllegalStateException if the store was created {@link #saveOnly} without an audit record service
+	 */
+	public void addAudit(long page_audit_id, Long audit_id) {
+		Neo4jClient client = client();
+		if(client == null || audit_id == null) {
+			if(audit_record_service == null) {
+				throw new IllegalStateException("this store cannot link audits to page audit records");
+			}
+			audit_record_service.addAudit(page_audit_id, audit_id);
+			return;
+		}
+		client.query(MERGE_AUDIT_LINK_QUERY)
+				.bind(page_audit_id).to("audit_record_id")
+				.bind(audit_id).to("audit_id")
+				.fetch()
+				.all();
+	}
+
+	private Neo4jClient client() {
+		return enabled ? neo4j_client.getIfAvailable() : null;
+	}
+
+	private static long mergeKey(Neo4jClient client, String query, String key) {
+		Collection<Map<String, Object>> rows = client.query(query)
+													.bind(key).to("key")
+													.fetch()
+													.all();
+		return ((Number) rows.iterator().next().get("id")).longValue();
+	}
+}
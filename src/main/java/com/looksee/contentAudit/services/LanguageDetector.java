@@ -0,0 +1,256 @@
+package com.looksee.contentAudit.services;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.looksee.contentAudit.models.enums.Language;
+
+/**
+ * Detects the language of a text block from its character trigrams, so that
+ * audits can score it with that language's readability rules.
+ *
+ * <p>Each supported {@link Language} has a profile of its most frequent
+ * trigrams, with word boundaries as spaces, weighted by rank. The detector
+ * reads at most the first {@value #SAMPLE_LENGTH} characters of a text, adds
+ * the weights of the trigrams it finds plus a bonus for letters only one
+ * language uses (for example sharp s in German or &ntilde; in Spanish), and picks the best
+ * scoring language. Text too short or too ambiguous to tell falls back to
+ * {@link Language#ENGLISH}, the language the audits assumed before.</p>
+ *
+ * <p>Profiles are held in a small open-addressing table of packed trigrams,
+ * so trigram lookups allocate nothing; a classification allocates only its
+ * array of one score per language. Results are cached by a hash of the sampled
+ * text, so text repeated across elements and pages, such as navigation and
+ * footers, is classified once. The cache is cleared when it reaches its
+ * bound.</p>
+ *
+ * <p>Thread-safe.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>The cache never holds more than {@code cache_size} entries</li>
+ * </ul>
+ */
+@Component
+public class LanguageDetector {
+	static final int SAMPLE_LENGTH = 400;
+	private static final int MIN_SCORE = 24;
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	//most frequent trigrams first, '_' marks a word boundary
+	private static final String ENGLISH_PROFILE = "_th the he_ _an and nd_ _of of_ _to to_ ing ng_ _in in_ is_ ed_ _a_ ion tio _is re_ er_ at_ hat tha _wh for _fo _be on_ ent _co you _yo _it it_ _wi wit ith all ter";
+	private static final String GERMAN_PROFILE = "en_ er_ _de der ch_ ie_ ich die _di ein _ei sch und _un den cht _da _zu ung ine ten gen das _ge _ve ist _is mit _mi auf _au nen _si sie eit _be ber ver hen von";
+	private static final String SPANISH_PROFILE = "_de de_ os_ _la la_ _qu que ue_ _el el_ _en as_ _co ent _lo los _se _pa par ara _po por con i\u00f3n \u00f3n_ _un ado _es ien aci ci\u00f3 do_ ra_ _su nte est _ca del _y_ una";
+	private static final String FRENCH_PROFILE = "_de _le le_ _la la_ _et et_ les _qu que ue_ de_ des _du du_ _da dan ans _po our _un une _pa par _ce ur_ ait eur _l' _d' ne_ _au aux _ne _pl ell lle ous _vo vou est _es";
+
+	private static final Language[] LANGUAGES = { Language.ENGLISH, Language.GERMAN, Language.SPANISH, Language.FRENCH };
+	private static final int TABLE_SIZE = 512;
+	private static final long[] trigram_keys = new long[TABLE_SIZE];
+	private static final int[] trigram_weights = new int[TABLE_SIZE];
+
+	static {
+		addProfile(0, ENGLISH_PROFILE);
+		addProfile(1, GERMAN_PROFILE);
+		addProfile(2, SPANISH_PROFILE);
+		addProfile(3, FRENCH_PROFILE);
+	}
+
+	private final boolean enabled;
+	private final int cache_size;
+	private final Map<Long, Language> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a language detector.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code cache_size} must not be negative</li>
+	 * </ul>
+	 *
+	 * @param enabled whether to detect languages; when disabled every text is English
+	 * @param cache_size maximum number of cached results; 0 disables the cache
+	 * @throws IllegalArgumentException if {@code cache_size} is negative
+	 */
+	public LanguageDetector(@Value("${audit.language.detect:true}") boolean enabled,
+							@Value("${audit.language.cache-size:10000}") int cache_size) {
+		if(cache_size < 0) {
+			throw new IllegalArgumentException("cache_size must not be negative, got: " + cache_size);
+		}
+		this.enabled = enabled;
+		this.cache_size = cache_size;
+	}
+
+	/**
+	 * Creates an enabled detector with the default cache size.
+	 */
+	public static LanguageDetector defaults() {
+		return new LanguageDetector(true, 10000);
+	}
+
+	private static void addProfile(int language, String profile) {
+		String[] trigrams = profile.split(" ");
+		for(int rank = 0; rank < trigrams.length; rank++) {
+			String trigram = trigrams[rank].replace('_', ' ');
+			if(trigram.length() != 3) {
+				continue;
+			}
+			int weight = 1 + 4 * (trigrams.length - rank) / trigrams.length;
+			int slot = slot(pack(trigram.charAt(0), trigram.charAt(1), trigram.charAt(2)), true);
+			int shift = language * 8;
+			int current = (trigram_weights[slot] >>> shift) & 0xff;
+			trigram_weights[slot] = (trigram_weights[slot] & ~(0xff << shift)) | (Math.max(current, weight) << shift);
+		}
+	}
+
+	private static long pack(char first, char second, char third) {
+		return 1L << 48 | (long) first << 32 | (long) second << 16 | third;
+	}
+
+	private static int slot(long key, boolean insert) {
+		int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 55) & (TABLE_SIZE - 1);
+		while(trigram_keys[slot] != 0 && trigram_keys[slot] != key) {
+			slot = (slot + 1) & (TABLE_SIZE - 1);
+		}
+		if(trigram_keys[slot] == 0) {
+			if(!insert) {
+				return -1;
+			}
+			trigram_keys[slot] = key;
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the language of {@code text}, from the cache when the same text
+	 * was seen before.
+	 *
+	 * @param text the text block, may be null
+	 * @return the detected language, {@link Language#ENGLISH} for null, short or ambiguous text
+	 */
+	public Language detect(String text) {
+		if(!enabled || text == null) {
+			return Language.ENGLISH;
+		}
+		if(cache_size == 0) {
+			return classify(text);
+		}
+
+		long key = sampleHash(text);
+		Language language = cache.get(key);
+		if(language == null) {
+			language = classify(text);
+			if(cache.size() >= cache_size) {
+				cache.clear();
+			}
+			cache.put(key, language);
+		}
+		return language;
+	}
+
+	/**
+	 * Returns the number of cached results.
+	 */
+	public int cacheSize() {
+		return cache.size();
+	}
+
+	private static long sampleHash(String text) {
+		int length = Math.min(text.length(), SAMPLE_LENGTH);
+		long hash = FNV_OFFSET_BASIS;
+		for(int idx = 0; idx < length; idx++) {
+			hash = (hash ^ text.charAt(idx)) * FNV_PRIME;
+		}
+		return (hash ^ text.length()) * FNV_PRIME;
+	}
+
+	/**
+	 * Classifies {@code text} without the cache.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code text} must not be null</li>
+	 * </ul>
+	 *
+	 * @param text the text block, must not be null
+	 * @return the detected language, {@link Language#ENGLISH} for short or ambiguous text
+	 * @throws NullPointerException if {@code text} is null
+	 */
+	static Language classify(CharSequence text) {
+		Objects.requireNonNull(text, "text must not be null");
+
+		int[] scores = new int[LANGUAGES.length];
+		int length = Math.min(text.length(), SAMPLE_LENGTH);
+		char first = ' ';
+		char second = ' ';
+		for(int idx = 0; idx < length; idx++) {
+			char raw = text.charAt(idx);
+			char c = Character.isLetter(raw) || raw == '\'' ? Character.toLowerCase(raw) : ' ';
+			addLetterBonus(raw, c, scores);
+			if(c == ' ' && second == ' ') {
+				continue;
+			}
+			addTrigram(first, second, c, scores);
+			first = second;
+			second = c;
+		}
+		addTrigram(first, second, ' ', scores);
+
+		int best = 0;
+		int runner_up = -1;
+		for(int language = 1; language < scores.length; language++) {
+			if(scores[language] > scores[best]) {
+				runner_up = best;
+				best = language;
+			}
+			else if(runner_up < 0 || scores[language] > scores[runner_up]) {
+				runner_up = language;
+			}
+		}
+		//too little evidence, or no clear winner
+		if(scores[best] < MIN_SCORE || scores[best] * 4 < scores[runner_up] * 5) {
+			return Language.ENGLISH;
+		}
+		return LANGUAGES[best];
+	}
+
+	private static void addTrigram(char first, char second, char third, int[] scores) {
+		int slot = slot(pack(first, second, third), false);
+		if(slot < 0) {
+			return;
+		}
+		int weights = trigram_weights[slot];
+		for(int language = 0; language < scores.length; language++) {
+			scores[language] += (weights >>> (language * 8)) & 0xff;
+		}
+	}
+
+	/**
+	 * Adds a bonus for characters that only one of the languages uses.
+	 */
+	private static void addLetterBonus(char raw, char c, int[] scores) {
+		if(raw < 0x80) {
+			return;
+		}
+		switch(c) {
+			case '\u00df': case '\u00e4': case '\u00f6': case '\u00fc':
+				scores[1] += 6;
+				break;
+			case '\u00f1': case '\u00e1': case '\u00ed': case '\u00f3': case '\u00fa':
+				scores[2] += 6;
+				break;
+			case '\u00e7': case '\u00e8': case '\u00ea': case '\u00e0': case '\u00e2':
+			case '\u00f9': case '\u00fb': case '\u00ee': case '\u00f4': case '\u0153':
+				scores[3] += 6;
+				break;
+			default:
+				if(raw == '\u00bf' || raw == '\u00a1') {
+					scores[2] += 6;
+				}
+		}
+	}
+}
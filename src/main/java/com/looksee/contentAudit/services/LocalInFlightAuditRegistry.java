@@ -0,0 +1,146 @@
+package com.looksee.contentAudit.services;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link InFlightAuditRegistry} that tracks the audits in flight on this
+ * instance. Duplicates delivered to other instances are not seen.
+ *
+ * <p>A follower's completion times out after {@code audit.dedup.join-timeout-ms}.
+ * Duplicates are counted in {@code audit.dedup.duplicates} tagged with
+ * {@code outcome} {@code succeeded}, {@code failed} or {@code timed_out}.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>A page audit id is registered exactly while its leader has not completed</li>
+ *   <li>{@code join_timeout_ms} is not negative</li>
+ * </ul>
+ */
+@Component
+public class LocalInFlightAuditRegistry implements InFlightAuditRegistry {
+	private final ConcurrentMap<Long, CompletableFuture<Outcome>> flights = new ConcurrentHashMap<>();
+	private final MeterRegistry meter_registry;
+	private final long join_timeout_ms;
+
+	/**
+	 * Creates a registry.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code meter_registry} must not be null</li>
+	 *   <li>{@code join_timeout_ms} must not be negative</li>
+	 * </ul>
+	 *
+	 * @param meter_registry registry the duplicates counter is published to, must not be null
+	 * @param join_timeout_ms how long a follower waits for the leader
+	 * @throws NullPointerException if {@code meter_registry} is null
+	 * @throws IllegalArgumentException if {@code join_timeout_ms} is negative
+	 */
+	public LocalInFlightAuditRegistry(MeterRegistry meter_registry,
+									@Value("${audit.dedup.join-timeout-ms:60000}") long join_timeout_ms) {
+		Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		if(join_timeout_ms < 0) {
+			throw new IllegalArgumentException("join_timeout_ms must not be negative, got: " + join_timeout_ms);
+		}
+		this.meter_registry = meter_registry;
+		this.join_timeout_ms = join_timeout_ms;
+	}
+
+	/**
+	 * Returns the number of page audit ids with a leader in flight.
+	 */
+	public int size() {
+		return flights.size();
+	}
+
+	@Override
+	public Flight join(long page_audit_id) {
+		CompletableFuture<Outcome> flight = new CompletableFuture<>();
+		CompletableFuture<Outcome> leader = flights.putIfAbsent(page_audit_id, flight);
+		if(leader == null) {
+			return new LeaderFlight(page_audit_id, flight);
+		}
+		return new FollowerFlight(leader);
+	}
+
+	private void countDuplicate(Outcome outcome) {
+		Counter.builder("audit.dedup.duplicates")
+			.tag("outcome", outcome.name().toLowerCase())
+			.description("Deliveries that joined an audit already in flight")
+			.register(meter_registry)
+			.increment();
+	}
+
+	private final class LeaderFlight implements Flight {
+		private final long page_audit_id;
+		private final CompletableFuture<Outcome> flight;
+
+		private LeaderFlight(long page_audit_id, CompletableFuture<Outcome> flight) {
+			this.page_audit_id = page_audit_id;
+			this.flight = flight;
+		}
+
+		@Override
+		public boolean isLeader() {
+			return true;
+		}
+
+		@Override
+		public void complete(boolean succeeded) {
+			flights.remove(page_audit_id, flight);
+			flight.complete(succeeded ? Outcome.SUCCEEDED : Outcome.FAILED);
+		}
+
+		@Override
+		public CompletableFuture<Outcome> completion() {
+			throw new IllegalStateException("the leader does not wait for itself");
+		}
+
+		@Override
+		public void close() {
+			complete(false);
+		}
+	}
+
+	private final class FollowerFlight implements Flight {
+		private final CompletableFuture<Outcome> leader;
+
+		private FollowerFlight(CompletableFuture<Outcome> leader) {
+			this.leader = leader;
+		}
+
+		@Override
+		public boolean isLeader() {
+			return false;
+		}
+
+		@Override
+		public void complete(boolean succeeded) {
+			throw new IllegalStateException("only the leader completes a flight");
+		}
+
+		@Override
+		public CompletableFuture<Outcome> completion() {
+			return leader.handle((outcome, e) -> e == null ? outcome : Outcome.FAILED)
+				.completeOnTimeout(Outcome.TIMED_OUT, join_timeout_ms, TimeUnit.MILLISECONDS)
+				.thenApply(outcome -> {
+					countDuplicate(outcome);
+					return outcome;
+				});
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
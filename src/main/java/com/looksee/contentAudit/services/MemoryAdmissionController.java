@@ -0,0 +1,273 @@
+package com.looksee.contentAudit.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.looksee.models.ElementState;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admits audits against a heap budget so that one instance can run many small
+ * audits, or a few large ones, at the same time.
+ *
+ * <p>Each audit's memory cost is estimated from its element count and the
+ * number of text characters it holds. An audit is admitted immediately if its
+ * cost fits within the budget alongside the audits already in flight. If it
+ * does not fit, it waits up to the queue timeout for in-flight audits to
+ * finish. If it still does not fit, it is deferred and the caller should ask
+ * Pub/Sub to redeliver the message later. An audit that costs more than the
+ * whole budget is admitted once nothing else is in flight, so that it cannot
+ * be deferred forever.</p>
+ *
+ * <p>Publishes the {@code audit.admission.inflight.bytes} and
+ * {@code audit.admission.budget.bytes} gauges, and counts decisions in
+ * {@code audit.admission.decisions} tagged with {@code outcome}
+ * {@code admitted} (immediately), {@code queued} (after waiting) or
+ * {@code deferred}.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>{@code budget_bytes} is positive</li>
+ *   <li>The in-flight cost is the sum of the costs of unreleased permits</li>
+ * </ul>
+ */
+@Component
+public class MemoryAdmissionController {
+	private final long budget_bytes;
+	private final long queue_timeout_nanos;
+	private final long bytes_per_element;
+	private final long bytes_per_char;
+
+	private final Counter admitted;
+	private final Counter queued;
+	private final Counter deferred;
+
+	private long in_flight_bytes;
+
+	/**
+	 * Creates an admission controller.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code meter_registry} must not be null</li>
+	 *   <li>{@code budget_mb}, {@code queue_timeout_ms}, {@code bytes_per_element} and
+	 *       {@code bytes_per_char} must not be negative</li>
+	 * </ul>
+	 *
+	 * @param meter_registry registry the gauges and counters are published to, must not be null
+	 * @param budget_mb heap budget in megabytes; 0 uses half of the maximum heap
+	 * @param queue_timeout_ms how long an audit waits for budget before it is deferred
+	 * @param bytes_per_element estimated heap used per element, independent of its text
+	 * @param bytes_per_char estimated heap used per text character, including the copies audits make
+	 * @throws NullPointerException if {@code meter_registry} is null
+	 * @throws IllegalArgumentException if a numeric argument is negative
+	 */
+	public MemoryAdmissionController(MeterRegistry meter_registry,
+									@Value("${audit.admission.heap-budget-mb:0}") long budget_mb,
+									@Value("${audit.admission.queue-timeout-ms:5000}") long queue_timeout_ms,
+									@Value("${audit.admission.bytes-per-element:2048}") long bytes_per_element,
+									@Value("${audit.admission.bytes-per-char:8}") long bytes_per_char) {
+		Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		if(budget_mb < 0 || queue_timeout_ms < 0 || bytes_per_element < 0 || bytes_per_char < 0) {
+			throw new IllegalArgumentException("admission settings must not be negative");
+		}
+
+		this.budget_bytes = budget_mb == 0 ? Runtime.getRuntime().maxMemory() / 2 : budget_mb * 1024 * 1024;
+		this.queue_timeout_nanos = TimeUnit.MILLISECONDS.toNanos(queue_timeout_ms);
+		this.bytes_per_element = bytes_per_element;
+		this.bytes_per_char = bytes_per_char;
+
+		Gauge.builder("audit.admission.inflight.bytes", this, MemoryAdmissionController::getInFlightBytes)
+			.description("Estimated heap used by audits in flight")
+			.baseUnit("bytes")
+			.register(meter_registry);
+		Gauge.builder("audit.admission.budget.bytes", this, MemoryAdmissionController::getBudgetBytes)
+			.description("Heap budget for audits in flight")
+			.baseUnit("bytes")
+			.register(meter_registry);
+		this.admitted = decisionCounter(meter_registry, "admitted");
+		this.queued = decisionCounter(meter_registry, "queued");
+		this.deferred = decisionCounter(meter_registry, "deferred");
+	}
+
+	private static Counter decisionCounter(MeterRegistry meter_registry, String outcome) {
+		return Counter.builder("audit.admission.decisions")
+			.tag("outcome", outcome)
+			.description("Audit admission decisions")
+			.register(meter_registry);
+	}
+
+	public long getBudgetBytes() {
+		return budget_bytes;
+	}
+
+	public synchronized long getInFlightBytes() {
+		return in_flight_bytes;
+	}
+
+	/**
+	 * Estimates the heap an audit of {@code elements} needs.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code elements} must not be null</li>
+	 * </ul>
+	 *
+	 * @param elements the page's elements, must not be null
+	 * @return the estimated cost in bytes, never negative
+	 * @throws NullPointerException if {@code elements} is null
+	 */
+	public long estimateCost(List<ElementState> elements) {
+		Objects.requireNonNull(elements, "elements must not be null");
+
+		long text_chars = 0;
+		for(ElementState element : elements) {
+			text_chars += length(element.getOwnedText()) + length(element.getAllText()) + length(element.getOuterHtml());
+		}
+		return elements.size() * bytes_per_element + text_chars * bytes_per_char;
+	}
+
+	private static long length(String text) {
+		return text == null ? 0 : text.length();
+	}
+
+	/**
+	 * Admits an audit of the given cost, waiting up to the queue timeout for
+	 * budget to become available.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code cost_bytes} must not be negative</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>If a permit is returned, its cost is counted as in flight until it is closed</li>
+	 * </ul>
+	 *
+	 * @param cost_bytes the audit's estimated cost, must not be negative
+	 * @return a permit to close when the audit finishes, or {@code null} if the audit is deferred
+	 * @throws IllegalArgumentException if {@code cost_bytes} is negative
+	 * @throws InterruptedException if interrupted while waiting for budget
+	 */
+	public Permit admit(long cost_bytes) throws InterruptedException {
+		if(cost_bytes < 0) {
+			throw new IllegalArgumentException("cost_bytes must not be negative, got: " + cost_bytes);
+		}
+		return reserve(cost_bytes) ? new Permit(cost_bytes) : null;
+	}
+
+	/**
+	 * Admits a batch of audits at once, as if they were one audit of their
+	 * total cost, so that a batch never waits for budget its own audits
+	 * hold. Each audit gets its own permit, which releases its own cost.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code costs_bytes} must not be null and must not hold negative costs</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>If permits are returned, there is one per cost, in the same order</li>
+	 * </ul>
+	 *
+	 * @param costs_bytes the audits' estimated costs, must not be null
+	 * @return the audits' permits, or {@code null} if the batch is deferred
+	 * @throws NullPointerException if {@code costs_bytes} is null
+	 * @throws IllegalArgumentException if a cost is negative
+	 * @throws InterruptedException if interrupted while waiting for budget
+	 */
+	public List<Permit> admitAll(List<Long> costs_bytes) throws InterruptedException {
+		Objects.requireNonNull(costs_bytes, "costs_bytes must not be null");
+		long total_bytes = 0;
+		for(long cost_bytes : costs_bytes) {
+			if(cost_bytes < 0) {
+				throw new IllegalArgumentException("cost_bytes must not be negative, got: " + cost_bytes);
+			}
+			total_bytes += cost_bytes;
+		}
+		if(!reserve(total_bytes)) {
+			return null;
+		}
+
+		List<Permit> permits = new ArrayList<>(costs_bytes.size());
+		for(long cost_bytes : costs_bytes) {
+			permits.add(new Permit(cost_bytes));
+		}
+		return permits;
+	}
+
+	/**
+	 * Counts a cost as in flight once it fits, waiting up to the queue timeout.
+	 *
+	 * @return {@code true} if the cost was reserved, {@code false} if it is deferred
+	 */
+	private boolean reserve(long cost_bytes) throws InterruptedException {
+		long deadline = System.nanoTime() + queue_timeout_nanos;
+		boolean waited = false;
+		synchronized(this) {
+			while(!fits(cost_bytes)) {
+				long remaining = deadline - System.nanoTime();
+				if(remaining <= 0) {
+					deferred.increment();
+					return false;
+				}
+				waited = true;
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			}
+			in_flight_bytes += cost_bytes;
+		}
+
+		if(waited) {
+			queued.increment();
+		}
+		else {
+			admitted.increment();
+		}
+		return true;
+	}
+
+	private boolean fits(long cost_bytes) {
+		return in_flight_bytes == 0 || in_flight_bytes + cost_bytes <= budget_bytes;
+	}
+
+	private synchronized void release(long cost_bytes) {
+		in_flight_bytes -= cost_bytes;
+		assert in_flight_bytes >= 0;
+		notifyAll();
+	}
+
+	/**
+	 * Budget held by one admitted audit. Closing it more than once has no
+	 * further effect.
+	 */
+	public final class Permit implements AutoCloseable {
+		private final long cost_bytes;
+		private boolean released;
+
+		private Permit(long cost_bytes) {
+			this.cost_bytes = cost_bytes;
+		}
+
+		public long getCostBytes() {
+			return cost_bytes;
+		}
+
+		@Override
+		public synchronized void close() {
+			if(!released) {
+				released = true;
+				release(cost_bytes);
+			}
+		}
+	}
+}
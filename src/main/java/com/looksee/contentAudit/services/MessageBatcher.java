@@ -0,0 +1,201 @@
+package com.looksee.contentAudit.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Groups messages that arrive close together for the same key, so that they
+ * can be handled as one batch. With {@code audit.batching.enabled=true}, the
+ * controller groups messages by domain audit record: a domain crawl delivers
+ * its pages within seconds of each other, and a group shares its lookups and
+ * writes.
+ *
+ * <p>The first message for a key opens a batch; messages for the same key
+ * that arrive within {@code audit.batching.window-ms} of it join the batch,
+ * up to {@code audit.batching.max-size} messages. The batch is closed by a
+ * scheduler thread when its window ends, or as soon as it is full, and its
+ * messages are then passed to the handler given with the first message. No
+ * caller waits for the window; a message arriving after the batch closed
+ * opens the next batch.</p>
+ *
+ * <p>Handlers run on the single scheduler thread, so they must hand the
+ * batch's work off rather than run it, and must not throw.</p>
+ *
+ * <p>Records the sizes of closed batches in the {@code audit.batching.size}
+ * distribution summary.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>At most one batch per key is open</li>
+ *   <li>A batch never holds more than {@code audit.batching.max-size} messages</li>
+ *   <li>Each batch is passed to its handler exactly once</li>
+ * </ul>
+ */
+@Component
+public class MessageBatcher implements AutoCloseable {
+	private static final Logger log = LoggerFactory.getLogger(MessageBatcher.class);
+
+	private final boolean enabled;
+	private final long window_ms;
+	private final int max_size;
+	private final Map<Long, Batch<?>> open_batches = new HashMap<>();
+	private final DistributionSummary batch_sizes;
+	private final ScheduledExecutorService closer;
+
+	/**
+	 * Creates a batcher.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code meter_registry} must not be null</li>
+	 *   <li>{@code window_ms} must not be negative and {@code max_size} must be positive</li>
+	 * </ul>
+	 *
+	 * @param meter_registry registry the batch size summary is published to, must not be null
+	 * @param enabled whether messages are batched
+	 * @param window_ms how long a batch stays open after its first message
+	 * @param max_size number of messages at which a batch is closed before its window ends, must be positive
+	 * @throws NullPointerException if {@code meter_registry} is null
+	 * @throws IllegalArgumentException if {@code window_ms} or {@code max_size} is out of range
+	 */
+	@Autowired
+	public MessageBatcher(MeterRegistry meter_registry,
+						@Value("${audit.batching.enabled:false}") boolean enabled,
+						@Value("${audit.batching.window-ms:50}") long window_ms,
+						@Value("${audit.batching.max-size:16}") int max_size) {
+		Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		if(window_ms < 0 || max_size <= 0) {
+			throw new IllegalArgumentException("window_ms must not be negative and max_size must be positive");
+		}
+		this.enabled = enabled;
+		this.window_ms = window_ms;
+		this.max_size = max_size;
+		this.batch_sizes = DistributionSummary.builder("audit.batching.size")
+			.description("Messages handled together in one batch")
+			.register(meter_registry);
+		this.closer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "audit-batch-closer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return {@code true} if messages are batched
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Adds a message to the open batch of its key, or opens a batch for it
+	 * that {@code handler} will receive. Returns without waiting for the
+	 * batch to close.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code message} and {@code handler} must not be null</li>
+	 *   <li>{@code handler} must not block or throw</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The message will be passed to the handler of its batch, with the
+	 *       batch's other messages in the order they joined</li>
+	 * </ul>
+	 *
+	 * @param <T> the type of the batched messages, the same for every message of a key
+	 * @param key the key messages are grouped by
+	 * @param message the message, must not be null
+	 * @param handler receives the batch's messages once it closes, if this message opens it, must not be null
+	 * @throws NullPointerException if {@code message} or {@code handler} is null
+	 * @throws java.util.concurrent.RejectedExecutionException if the batcher was closed
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T> void join(long key, T message, Consumer<List<T>> handler) {
+		Objects.requireNonNull(message, "message must not be null");
+		Objects.requireNonNull(handler, "handler must not be null");
+		Batch<T> batch = (Batch<T>) open_batches.get(key);
+		if(batch == null) {
+			batch = new Batch<>(key, handler);
+			open_batches.put(key, batch);
+			Batch<T> opened = batch;
+			batch.close_task = closer.schedule(() -> close(opened), window_ms, TimeUnit.MILLISECONDS);
+		}
+
+		batch.members.add(message);
+		if(batch.members.size() == max_size) {
+			//full: close it now rather than at the end of its window
+			open_batches.remove(key);
+			batch.close_task.cancel(false);
+			Batch<T> full = batch;
+			closer.execute(() -> close(full));
+		}
+	}
+
+	/**
+	 * Closes a batch, unless it was already closed, and passes its messages
+	 * to its handler. Runs on the scheduler thread.
+	 */
+	private <T> void close(Batch<T> batch) {
+		List<T> members;
+		synchronized(this) {
+			if(batch.closed) {
+				return;
+			}
+			batch.closed = true;
+			open_batches.remove(batch.key, batch);
+			members = new ArrayList<>(batch.members);
+		}
+		batch_sizes.record(members.size());
+		try {
+			batch.handler.accept(members);
+		} catch (RuntimeException e) {
+			log.error("batch handler failed key={} size={}", batch.key, members.size(), e);
+		}
+	}
+
+	/**
+	 * Stops the scheduler. Batches still open are not handled; their
+	 * messages are redelivered by Pub/Sub.
+	 */
+	@Override
+	public void close() {
+		closer.shutdownNow();
+	}
+
+	/**
+	 * The messages of one batch and the handler that receives them.
+	 *
+	 * @param <T> the type of the batched messages
+	 */
+	private static final class Batch<T> {
+		private final long key;
+		private final Consumer<List<T>> handler;
+		private final List<T> members = new ArrayList<>();
+		private ScheduledFuture<?> close_task;
+		private boolean closed;
+
+		private Batch(long key, Consumer<List<T>> handler) {
+			this.key = key;
+			this.handler = handler;
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package com.looksee.contentAudit.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remembers, for a short time, the page audit ids whose audit record or page
+ * state could not be found, so that misrouted or stale messages delivered
+ * again are acknowledged without another database lookup.
+ *
+ * <p>An entry expires {@code ttl_ms} after the miss that recorded it; the
+ * first message after that looks the id up again. An entry is removed as
+ * soon as a lookup finds the records, or when {@link #invalidate(long)} is
+ * called. The number of entries is bounded, and the oldest entry is evicted
+ * first. A {@code ttl_ms} of 0 disables the cache.</p>
+ *
+ * <p>Publishes the {@code audit.negative-cache.size} gauge and counts the
+ * messages it answers in {@code audit.negative-cache.hits}.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>{@code max_entries} is positive and {@code ttl_nanos} is not negative</li>
+ *   <li>The number of entries never exceeds {@code max_entries}</li>
+ * </ul>
+ */
+@Component
+public class MissingRecordCache {
+	private final long ttl_nanos;
+	private final int max_entries;
+	private final LongSupplier clock;
+	private final Map<Long, Long> expiries;
+	private final Counter hits;
+
+	/**
+	 * Creates a missing record cache.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code meter_registry} must not be null</li>
+	 *   <li>{@code ttl_ms} must not be negative and {@code max_entries} must be positive</li>
+	 * </ul>
+	 *
+	 * @param meter_registry registry the gauge and counter are published to, must not be null
+	 * @param ttl_ms how long a missing id is remembered; 0 disables the cache
+	 * @param max_entries maximum number of ids remembered, must be positive
+	 * @throws NullPointerException if {@code meter_registry} is null
+	 * @throws IllegalArgumentException if {@code ttl_ms} is negative or {@code max_entries} is not positive
+	 */
+	@Autowired
+	public MissingRecordCache(MeterRegistry meter_registry,
+							@Value("${audit.negative-cache.ttl-ms:30000}") long ttl_ms,
+							@Value("${audit.negative-cache.max-entries:10000}") int max_entries) {
+		this(meter_registry, ttl_ms, max_entries, System::nanoTime);
+	}
+
+	MissingRecordCache(MeterRegistry meter_registry, long ttl_ms, int max_entries, LongSupplier clock) {
+		Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		Objects.requireNonNull(clock, "clock must not be null");
+		if(ttl_ms < 0) {
+			throw new IllegalArgumentException("ttl_ms must not be negative, got: " + ttl_ms);
+		}
+		if(max_entries <= 0) {
+			throw new IllegalArgumentException("max_entries must be positive, got: " + max_entries);
+		}
+		this.ttl_nanos = TimeUnit.MILLISECONDS.toNanos(ttl_ms);
+		this.max_entries = max_entries;
+		this.clock = clock;
+		this.expiries = new LinkedHashMap<>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+				return size() > MissingRecordCache.this.max_entries;
+			}
+		};
+
+		Gauge.builder("audit.negative-cache.size", this, MissingRecordCache::size)
+			.description("Page audit ids remembered as missing")
+			.register(meter_registry);
+		this.hits = Counter.builder("audit.negative-cache.hits")
+			.description("Messages acknowledged from the negative cache without a database lookup")
+			.register(meter_registry);
+	}
+
+	/**
+	 * @return {@code true} if missing ids are remembered at all
+	 */
+	public boolean isEnabled() {
+		return ttl_nanos > 0;
+	}
+
+	/**
+	 * @return the number of remembered ids, including expired ones not yet looked up again
+	 */
+	public synchronized int size() {
+		return expiries.size();
+	}
+
+	/**
+	 * Returns whether the page audit id was recently found to be missing,
+	 * counting a hit if it was. Expired entries are removed.
+	 *
+	 * @param page_audit_id the page audit id
+	 * @return {@code true} if the id is remembered as missing and has not expired
+	 */
+	public boolean isKnownMissing(long page_audit_id) {
+		synchronized(this) {
+			Long expiry = expiries.get(page_audit_id);
+			if(expiry == null) {
+				return false;
+			}
+			if(clock.getAsLong() - expiry >= 0) {
+				expiries.remove(page_audit_id);
+				return false;
+			}
+		}
+		hits.increment();
+		return true;
+	}
+
+	/**
+	 * Remembers that the audit record or page state of the page audit id
+	 * could not be found. Does nothing when the cache is disabled.
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>If enabled, the id is known missing until the TTL passes or it is invalidated</li>
+	 * </ul>
+	 *
+	 * @param page_audit_id the page audit id
+	 */
+	public void recordMissing(long page_audit_id) {
+		if(!isEnabled()) {
+			return;
+		}
+		synchronized(this) {
+			expiries.remove(page_audit_id);
+			expiries.put(page_audit_id, clock.getAsLong() + ttl_nanos);
+		}
+	}
+
+	/**
+	 * Forgets that the page audit id was missing, because its records have
+	 * appeared.
+	 *
+	 * @param page_audit_id the page audit id
+	 */
+	public synchronized void invalidate(long page_audit_id) {
+		expiries.remove(page_audit_id);
+	}
+}
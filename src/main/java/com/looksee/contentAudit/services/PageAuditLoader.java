@@ -0,0 +1,195 @@
+package com.looksee.contentAudit.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import com.looksee.contentAudit.models.ContentAuditRecord;
+import com.looksee.contentAudit.models.ContentPageState;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+import com.looksee.models.enums.AuditName;
+import com.looksee.services.AuditRecordService;
+import com.looksee.services.PageStateService;
+
+/**
+ * Looks up the page audit records of messages, their page states and the
+ * names of the audits they already have, with one projection query for any
+ * number of records instead of three lookups per record.
+ *
+ * <p>Records and pages are returned as {@link ContentAuditRecord}s and
+ * {@link ContentPageState}s holding only the fields the audits read. When
+ * projection is disabled with {@code audit.projection.enabled=false}, or no
+ * {@link Neo4jClient} is available, each record is looked up through
+ * {@link AuditRecordService} and {@link PageStateService} as before.</p>
+ */
+@Component
+public class PageAuditLoader {
+	static final String PAGE_AUDITS_PROJECTION_QUERY =
+			"UNWIND $page_audit_ids AS page_audit_id "
+			+ "MATCH (r:AuditRecord) WHERE id(r)=page_audit_id "
+			+ "OPTIONAL MATCH (r)-->(p:PageState) "
+			+ "WITH r, head(collect(p)) AS p "
+			+ "OPTIONAL MATCH (r)-[:HAS]->(a:Audit) "
+			+ "RETURN id(r) AS id, r.targetUserEducation AS targetUserEducation, "
+			+ "id(p) AS pageStateId, p.url AS url, collect(DISTINCT a.name) AS auditNames";
+
+	private final ObjectProvider<Neo4jClient> neo4j_client;
+	private final AuditRecordService audit_record_service;
+	private final PageStateService page_state_service;
+	private final boolean enabled;
+
+	/**
+	 * Creates a loader.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code neo4j_client} and both services must not be null</li>
+	 * </ul>
+	 *
+	 * @param neo4j_client provides the client the projection query runs on, must not be null
+	 * @param audit_record_service looks up records when projection is not used, must not be null
+	 * @param page_state_service looks up page states when projection is not used, must not be null
+	 * @param enabled whether records are looked up with the projection query
+	 * @throws NullPointerException if {@code neo4j_client} or a service is null
+	 */
+	public PageAuditLoader(ObjectProvider<Neo4jClient> neo4j_client,
+							AuditRecordService audit_record_service,
+							PageStateService page_state_service,
+							@Value("${audit.projection.enabled:true}") boolean enabled) {
+		this.neo4j_client = Objects.requireNonNull(neo4j_client, "neo4j_client must not be null");
+		this.audit_record_service = Objects.requireNonNull(audit_record_service, "audit_record_service must not be null");
+		this.page_state_service = Objects.requireNonNull(page_state_service, "page_state_service must not be null");
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Looks up page audit records with their page states and existing audits.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code page_audit_ids} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns an entry for every id whose record exists, and none for the others</li>
+	 * </ul>
+	 *
+	 * @param page_audit_ids the page audit record ids, must not be null
+	 * @return the records found, by page audit record id
+	 * @throws NullPointerException if {@code page_audit_ids} is null
+	 */
+	public Map<Long, PageAuditRecords> loadAll(Collection<Long> page_audit_ids) {
+		Objects.requireNonNull(page_audit_ids, "page_audit_ids must not be null");
+
+		Map<Long, PageAuditRecords> records = new LinkedHashMap<>();
+		Neo4jClient client = enabled ? neo4j_client.getIfAvailable() : null;
+		if(client == null) {
+			for(Long page_audit_id : page_audit_ids) {
+				Optional<AuditRecord> audit_record = audit_record_service.findById(page_audit_id);
+				if(audit_record.isEmpty()) {
+					continue;
+				}
+				PageState page = page_state_service.findByAuditRecordId(page_audit_id);
+				Set<AuditName> audit_names = EnumSet.noneOf(AuditName.class);
+				if(page != null) {
+					for(Audit audit : audit_record_service.getAllAudits(audit_record.get().getId())) {
+						if(audit.getName() != null) {
+							audit_names.add(audit.getName());
+						}
+					}
+				}
+				records.put(page_audit_id, new PageAuditRecords(audit_record.get(), page, audit_names));
+			}
+			return records;
+		}
+
+		Collection<Map<String, Object>> rows = client.query(PAGE_AUDITS_PROJECTION_QUERY)
+													.bind(new ArrayList<>(page_audit_ids)).to("page_audit_ids")
+													.fetch()
+													.all();
+		for(Map<String, Object> row : rows) {
+			PageAuditRecords found = toRecords(row);
+			records.put(found.getAuditRecord().getId(), found);
+		}
+
+		assert page_audit_ids.containsAll(records.keySet());
+		return records;
+	}
+
+	/**
+	 * Maps one row of {@link #PAGE_AUDITS_PROJECTION_QUERY} to the records of
+	 * a page audit. Audit names this service does not know are left out.
+	 *
+	 * @param row the row, keyed by column alias, must not be null
+	 * @return the records
+	 */
+	static PageAuditRecords toRecords(Map<String, Object> row) {
+		ContentAuditRecord audit_record = new ContentAuditRecord(((Number) row.get("id")).longValue(),
+																(String) row.get("targetUserEducation"));
+		Number page_state_id = (Number) row.get("pageStateId");
+		ContentPageState page = page_state_id == null ? null : new ContentPageState(page_state_id.longValue(), (String) row.get("url"));
+
+		Set<AuditName> audit_names = EnumSet.noneOf(AuditName.class);
+		Object names = row.get("auditNames");
+		if(names instanceof Collection) {
+			for(Object name : (Collection<?>) names) {
+				for(AuditName audit_name : AuditName.values()) {
+					if(audit_name.name().equals(name)) {
+						audit_names.add(audit_name);
+					}
+				}
+			}
+		}
+		return new PageAuditRecords(audit_record, page, audit_names);
+	}
+
+	/**
+	 * The records a page audit message refers to.
+	 */
+	public static final class PageAuditRecords {
+		private final AuditRecord audit_record;
+		private final PageState page;
+		private final Set<AuditName> audit_names;
+
+		PageAuditRecords(AuditRecord audit_record, PageState page, Set<AuditName> audit_names) {
+			this.audit_record = audit_record;
+			this.page = page;
+			this.audit_names = Collections.unmodifiableSet(audit_names);
+		}
+
+		/**
+		 * @return the page audit record, never null
+		 */
+		public AuditRecord getAuditRecord() {
+			return audit_record;
+		}
+
+		/**
+		 * @return the record's page state, or null if it has none
+		 */
+		public PageState getPage() {
+			return page;
+		}
+
+		/**
+		 * @return the names of the audits the record already has
+		 */
+		public Set<AuditName> getAuditNames() {
+			return audit_names;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.looksee.contentAudit.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.looksee.contentAudit.models.messages.IssueTemplate;
+import com.looksee.models.audit.messages.UXIssueMessage;
+
+/**
+ * Decides whether compliant ("passing") results are persisted as one issue
+ * message per element or rolled up into counters.
+ *
+ * <p>When aggregation is enabled, an audit counts each passing result by issue
+ * template and element tag. After evaluating the page, it saves one summary
+ * message per template and tag whose points are the sum of the counted results.
+ * Violations are always itemized. Audit scores are unchanged because they are
+ * summed from the messages either way.</p>
+ *
+ * <p>When aggregation is disabled, {@link Tally#add(IssueTemplate, String)}
+ * always returns {@code false} and the audit itemizes passing results as
+ * before.</p>
+ */
+@Component
+public class PassingMessageAggregator {
+	private final boolean enabled;
+
+	/**
+	 * Creates an aggregator.
+	 *
+	 * @param enabled whether passing results are rolled up into summary messages
+	 */
+	public PassingMessageAggregator(@Value("${audit.passing-messages.aggregate:false}") boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts counting passing results for one audit execution.
+	 *
+	 * @return a new, empty tally
+	 */
+	public Tally begin() {
+		return new Tally();
+	}
+
+	/**
+	 * Passing results counted during one audit execution. Not thread-safe; each
+	 * audit execution uses its own tally.
+	 */
+	public final class Tally {
+		private final Map<IssueTemplate, Integer> counts = new LinkedHashMap<>();
+		private final Map<IssueTemplate, String> tags = new LinkedHashMap<>();
+		private int count;
+
+		private Tally() {
+		}
+
+		/**
+		 * Counts a passing result if aggregation is enabled.
+		 *
+		 * <p><strong>Preconditions:</strong></p>
+		 * <ul>
+		 *   <li>{@code template} and {@code tag} must not be null</li>
+		 * </ul>
+		 *
+		 * @param template the template the itemized message would have been built from, must not be null
+		 * @param tag the tag name of the passing element, must not be null
+		 * @return {@code true} if the result was counted, {@code false} if the caller must itemize it
+		 * @throws NullPointerException if {@code template} or {@code tag} is null
+		 */
+		public boolean add(IssueTemplate template, String tag) {
+			Objects.requireNonNull(template, "template must not be null");
+			Objects.requireNonNull(tag, "tag must not be null");
+			if(!enabled) {
+				return false;
+			}
+
+			IssueTemplate tag_template = template.forTag(tag);
+			counts.merge(tag_template, 1, Integer::sum);
+			tags.putIfAbsent(tag_template, tag);
+			count++;
+			return true;
+		}
+
+		/**
+		 * Returns the number of passing results counted so far. Audits compare it
+		 * before and after evaluating an element to tell whether any of the
+		 * element's results were counted instead of itemized.
+		 *
+		 * @return the number of counted results
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * Builds the summary messages of the counted results.
+		 *
+		 * <p><strong>Postconditions:</strong></p>
+		 * <ul>
+		 *   <li>Returns one unsaved message per template and tag, in the order they were first counted</li>
+		 *   <li>The points of the returned messages sum to the points of the counted results</li>
+		 * </ul>
+		 *
+		 * @return the summary messages, empty if nothing was counted
+		 */
+		public List<UXIssueMessage> toIssueMessages() {
+			return new ArrayList<>(toIssueMessagesByRule().values());
+		}
+
+		/**
+		 * Builds the summary messages of the counted results, by rule id. The
+		 * rule id of a summary is its template id, {@code .summary.} and its
+		 * tag, so it is the same for every execution that counted the same
+		 * template and tag and can be used as the rule id of an issue key.
+		 *
+		 * <p><strong>Postconditions:</strong></p>
+		 * <ul>
+		 *   <li>Returns one unsaved message per template and tag, in the order they were first counted</li>
+		 *   <li>The points of the returned messages sum to the points of the counted results</li>
+		 * </ul>
+		 *
+		 * @return the summary messages by rule id, empty if nothing was counted
+		 */
+		public Map<String, UXIssueMessage> toIssueMessagesByRule() {
+			Map<String, UXIssueMessage> summary_messages = new LinkedHashMap<>();
+			for(Map.Entry<IssueTemplate, Integer> entry : counts.entrySet()) {
+				String tag = tags.get(entry.getKey());
+				summary_messages.put(entry.getKey().getId() + ".summary." + tag,
+									entry.getKey().toSummaryIssueMessage(tag, entry.getValue()));
+			}
+			return summary_messages;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.looksee.contentAudit.services;
+
+/**
+ * Thrown when work could not be queued for an {@link AuditPipeline} stage
+ * because its queue is full, or could not run because the pipeline was
+ * closed before the stage reached it.
+ */
+public class PipelineStageFullException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final AuditPipeline.Stage stage;
+
+	public PipelineStageFullException(AuditPipeline.Stage stage) {
+		this(stage, stage.getTag() + " stage full");
+	}
+
+	public PipelineStageFullException(AuditPipeline.Stage stage, String message) {
+		super(message);
+		this.stage = stage;
+	}
+
+	public AuditPipeline.Stage getStage() {
+		return stage;
+	}
+}
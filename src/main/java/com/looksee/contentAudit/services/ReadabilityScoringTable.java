@@ -0,0 +1,141 @@
+package com.looksee.contentAudit.services;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.looksee.contentAudit.models.enums.EducationLevel;
+
+/**
+ * Points awarded to a text element for its Flesch Reading Ease score, by
+ * target audience education level.
+ *
+ * <p>Reading ease scores are grouped into bands by descending band floors: a
+ * score falls in the first band whose floor it reaches, and scores below the
+ * lowest floor fall in the last band. Each education level has one point value
+ * per band. Both are read from configuration so the scoring can be tuned
+ * without code changes; the defaults reproduce the original scoring.</p>
+ *
+ * <p>The table is immutable and lookups do not allocate, so it is safe to use
+ * from concurrent scoring tasks.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>Band floors are strictly descending</li>
+ *   <li>Every education level has exactly one point value per band, each between 0 and 4 inclusive</li>
+ * </ul>
+ */
+@Component
+public class ReadabilityScoringTable {
+	public static final int MAX_POINTS = 4;
+
+	private final double[] band_floors;
+	private final int[][] points;
+
+	/**
+	 * Creates a scoring table.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code band_floors} must not be null or empty and must be strictly descending</li>
+	 *   <li>Each points row must not be null, must have {@code band_floors.length + 1} values,
+	 *       and every value must be between 0 and 4 inclusive</li>
+	 * </ul>
+	 *
+	 * @param band_floors the lowest reading ease score of each band but the last, highest first
+	 * @param general points per band when the audit record has no target education
+	 * @param hs points per band for a high school audience
+	 * @param college points per band for a college audience
+	 * @param advanced points per band for an advanced degree audience
+	 * @param other points per band for an unrecognized target education
+	 * @throws NullPointerException if any argument is null
+	 * @throws IllegalArgumentException if the floors or points do not satisfy the preconditions
+	 */
+	public ReadabilityScoringTable(@Value("${audit.readability.band-floors:90,80,70,60,50,30}") double[] band_floors,
+									@Value("${audit.readability.points.general:4,4,4,3,2,1,0}") int[] general,
+									@Value("${audit.readability.points.hs:4,4,4,3,2,1,0}") int[] hs,
+									@Value("${audit.readability.points.college:4,4,4,4,3,2,1}") int[] college,
+									@Value("${audit.readability.points.advanced:3,4,4,4,4,3,2}") int[] advanced,
+									@Value("${audit.readability.points.other:4,4,3,2,1,0,0}") int[] other) {
+		Objects.requireNonNull(band_floors, "band_floors must not be null");
+		if(band_floors.length == 0) {
+			throw new IllegalArgumentException("band_floors must not be empty");
+		}
+		for(int idx = 1; idx < band_floors.length; idx++) {
+			if(!(band_floors[idx] < band_floors[idx - 1])) {
+				throw new IllegalArgumentException("band_floors must be strictly descending, got: " + Arrays.toString(band_floors));
+			}
+		}
+
+		this.band_floors = band_floors.clone();
+		this.points = new int[EducationLevel.values().length][];
+		this.points[EducationLevel.GENERAL.ordinal()] = validateRow(EducationLevel.GENERAL, general);
+		this.points[EducationLevel.HS.ordinal()] = validateRow(EducationLevel.HS, hs);
+		this.points[EducationLevel.COLLEGE.ordinal()] = validateRow(EducationLevel.COLLEGE, college);
+		this.points[EducationLevel.ADVANCED.ordinal()] = validateRow(EducationLevel.ADVANCED, advanced);
+		this.points[EducationLevel.OTHER.ordinal()] = validateRow(EducationLevel.OTHER, other);
+	}
+
+	/**
+	 * Creates a scoring table with the default bands and points.
+	 *
+	 * @return a table reproducing the original readability scoring
+	 */
+	public static ReadabilityScoringTable defaults() {
+		return new ReadabilityScoringTable(new double[] { 90, 80, 70, 60, 50, 30 },
+											new int[] { 4, 4, 4, 3, 2, 1, 0 },
+											new int[] { 4, 4, 4, 3, 2, 1, 0 },
+											new int[] { 4, 4, 4, 4, 3, 2, 1 },
+											new int[] { 3, 4, 4, 4, 4, 3, 2 },
+											new int[] { 4, 4, 3, 2, 1, 0, 0 });
+	}
+
+	/**
+	 * Looks up the points for a reading ease score.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code education_level} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns a value between 0 and 4, inclusive</li>
+	 *   <li>Returns 0 if {@code ease_of_reading_score} is NaN</li>
+	 * </ul>
+	 *
+	 * @param education_level the target audience education level, must not be null
+	 * @param ease_of_reading_score the Flesch Reading Ease score
+	 * @return the points earned
+	 * @throws NullPointerException if {@code education_level} is null
+	 */
+	public int getPoints(EducationLevel education_level, double ease_of_reading_score) {
+		Objects.requireNonNull(education_level, "education_level must not be null");
+		if(Double.isNaN(ease_of_reading_score)) {
+			return 0;
+		}
+
+		int band = 0;
+		while(band < band_floors.length && ease_of_reading_score < band_floors[band]) {
+			band++;
+		}
+		return points[education_level.ordinal()][band];
+	}
+
+	private int[] validateRow(EducationLevel education_level, int[] row) {
+		Objects.requireNonNull(row, "points for " + education_level + " must not be null");
+		if(row.length != band_floors.length + 1) {
+			throw new IllegalArgumentException("points for " + education_level + " must have " + (band_floors.length + 1)
+					+ " values, got: " + Arrays.toString(row));
+		}
+		for(int value : row) {
+			if(value < 0 || value > MAX_POINTS) {
+				throw new IllegalArgumentException("points for " + education_level + " must be between 0 and " + MAX_POINTS
+						+ ", got: " + Arrays.toString(row));
+			}
+		}
+		return row.clone();
+	}
+}
@@ -0,0 +1,190 @@
+package com.looksee.contentAudit.services;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.looksee.contentAudit.utils.Backoff;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Retries asynchronous calls to Neo4j and Google Cloud that fail
+ * transiently, scheduling each retry instead of sleeping for it. A failed
+ * attempt has already released its thread and its bulkhead permit, so
+ * nothing is held while the retry waits.
+ *
+ * <p>The resilience4j retries of the core services ({@code neoforj} and
+ * {@code gcp} in {@code application.yml}) make a single attempt, since they
+ * would sleep on the calling thread while it holds a bulkhead permit. The
+ * controller retries its pipeline stages through this class instead.</p>
+ *
+ * <p>An attempt is retried up to {@code audit.retry.max-attempts} attempts in
+ * all, after an exponential, jittered {@link Backoff} starting at
+ * {@code audit.retry.delay-ms}, when its failure or one of its causes is one
+ * of {@link #TRANSIENT_EXCEPTIONS} or a subclass of one. Exceptions are
+ * matched by class name, so that the drivers need not be on the classpath.
+ * Retries are counted in {@code audit.retry.retries}, tagged by
+ * {@code operation}.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>No thread waits for a retry's delay</li>
+ *   <li>An operation is attempted at most {@code audit.retry.max-attempts} times</li>
+ * </ul>
+ */
+@Component
+public class ScheduledRetry implements AutoCloseable {
+	private static final long MAX_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(10);
+
+	/**
+	 * Exceptions that are worth retrying: the {@code retryExceptions} of the
+	 * {@code neoforj} and {@code gcp} retries in {@code application.yml},
+	 * without their catch-all {@code RuntimeException}.
+	 */
+	static final Set<String> TRANSIENT_EXCEPTIONS = Set.of(
+			"org.neo4j.ogm.exception.ConnectionException",
+			"org.neo4j.driver.exceptions.SessionExpiredException",
+			"org.neo4j.driver.exceptions.DiscoveryException",
+			"org.neo4j.driver.exceptions.TransientException",
+			"org.neo4j.driver.exceptions.ServiceUnavailableException",
+			"org.neo4j.ogm.exception.TransactionException",
+			"org.springframework.dao.TransientDataAccessResourceException",
+			"java.io.IOException",
+			"com.google.cloud.storage.StorageException",
+			"com.google.api.gax.rpc.ResourceExhaustedException",
+			"com.google.api.gax.rpc.UnknownException",
+			"io.grpc.StatusRuntimeException");
+
+	private final MeterRegistry meter_registry;
+	private final int max_attempts;
+	private final Backoff backoff;
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Creates a retry.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code meter_registry} must not be null</li>
+	 *   <li>{@code max_attempts} must be positive and {@code retry_delay_ms} must not be negative</li>
+	 * </ul>
+	 *
+	 * @param meter_registry registry the retry counter is published to, must not be null
+	 * @param max_attempts attempts per operation, including the first, must be positive
+	 * @param retry_delay_ms nominal delay before the first retry, doubled for each further retry
+	 * @throws NullPointerException if {@code meter_registry} is null
+	 * @throws IllegalArgumentException if a numeric argument is out of range
+	 */
+	@Autowired
+	public ScheduledRetry(MeterRegistry meter_registry,
+						@Value("${audit.retry.max-attempts:5}") int max_attempts,
+						@Value("${audit.retry.delay-ms:500}") long retry_delay_ms) {
+		this.meter_registry = Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		if(max_attempts <= 0) {
+			throw new IllegalArgumentException("max_attempts must be positive, got: " + max_attempts);
+		}
+		this.max_attempts = max_attempts;
+		this.backoff = Backoff.exponential(retry_delay_ms, Math.max(retry_delay_ms, MAX_RETRY_DELAY_MS));
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "audit-retry");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Starts an operation, and starts it again after a scheduled delay each
+	 * time it fails transiently.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code operation} and {@code attempt} must not be null</li>
+	 *   <li>{@code attempt} must be safe to run again after it failed</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The returned future completes with the first successful attempt's result,
+	 *       or with the failure of the last attempt</li>
+	 * </ul>
+	 *
+	 * @param <T> the result type
+	 * @param operation the value of the {@code operation} metric tag, must not be null
+	 * @param attempt starts one attempt of the operation, must not be null
+	 * @return the operation's result
+	 * @throws NullPointerException if {@code operation} or {@code attempt} is null
+	 */
+	public <T> CompletableFuture<T> call(String operation, Supplier<CompletableFuture<T>> attempt) {
+		Objects.requireNonNull(operation, "operation must not be null");
+		Objects.requireNonNull(attempt, "attempt must not be null");
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		attempt(operation, attempt, 1, result);
+		return result;
+	}
+
+	private <T> void attempt(String operation, Supplier<CompletableFuture<T>> attempt, int number, CompletableFuture<T> result) {
+		CompletableFuture<T> started;
+		try {
+			started = attempt.get();
+		} catch (RuntimeException e) {
+			started = CompletableFuture.failedFuture(e);
+		}
+		started.whenComplete((value, error) -> {
+			if(error == null) {
+				result.complete(value);
+				return;
+			}
+			if(number >= max_attempts || !isTransient(error)) {
+				result.completeExceptionally(error);
+				return;
+			}
+			Counter.builder("audit.retry.retries")
+				.tag("operation", operation)
+				.description("Attempts retried after a transient failure")
+				.register(meter_registry)
+				.increment();
+			try {
+				scheduler.schedule(() -> attempt(operation, attempt, number + 1, result),
+									backoff.delayMillis(number), TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				result.completeExceptionally(error);
+			}
+		});
+	}
+
+	/**
+	 * @param error a failure, must not be null
+	 * @return {@code true} if the failure or one of its causes is one of {@link #TRANSIENT_EXCEPTIONS} or a subclass of one
+	 */
+	static boolean isTransient(Throwable error) {
+		for(Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+			for(Class<?> type = cause.getClass(); type != null; type = type.getSuperclass()) {
+				if(TRANSIENT_EXCEPTIONS.contains(type.getName())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Stops the scheduler. Retries still waiting are dropped; their messages
+	 * are redelivered by Pub/Sub.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+}
@@ -0,0 +1,196 @@
+package com.looksee.contentAudit.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.cloud.language.v1.Sentence;
+import com.looksee.contentAudit.utils.Backoff;
+
+/**
+ * Sends paragraph segmentation requests to a {@link SentenceSegmenter}
+ * concurrently, bounded by a maximum number of in-flight requests and a
+ * maximum request rate so that the NLP quota is respected.
+ *
+ * <p>The limits are shared by every audit running on this instance. Requests
+ * are started in submission order and spaced at least {@code 1 / max_qps}
+ * seconds apart. Requests run on {@code audit.nlp.worker-threads} threads of
+ * their own, and the {@link Bulkheads.Dependency#CLOUD_NLP} bulkhead bounds
+ * how many of them call Cloud NLP at once. A worker that finds no free permit
+ * within {@code audit.bulkhead.max-wait-ms} fails its attempt with a
+ * {@link BulkheadFullException}, which is counted as a rejection and retried
+ * like any other failure.</p>
+ *
+ * <p>Callers compose the returned futures rather than wait for them;
+ * {@code ParagraphingAudit} scores a page once all of its paragraphs are
+ * segmented, so a slow NLP backend holds no audit thread.</p>
+ *
+ * <p>A failed request is retried up to {@code max_attempts} attempts in all,
+ * after an exponential, jittered {@link Backoff}. The retry is scheduled
+ * rather than slept, so no thread is held while it waits.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>At most {@code Bulkheads#maxConcurrent(CLOUD_NLP)} segmentation requests are in flight at any time</li>
+ *   <li>Requests are started at a rate of at most {@code max_qps} per second</li>
+ * </ul>
+ */
+@Component
+public class SentenceSegmentationPipeline {
+	private static final long MAX_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(10);
+
+	private final SentenceSegmenter segmenter;
+	private final Bulkheads bulkheads;
+	private final ExecutorService executor;
+	private final int max_attempts;
+	private final Backoff backoff;
+	private final long interval_nanos;
+	private long next_start_nanos;
+
+	/**
+	 * Creates a segmentation pipeline.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code segmenter} and {@code bulkheads} must not be null</li>
+	 *   <li>{@code worker_threads}, {@code max_qps} and {@code max_attempts} must be positive</li>
+	 *   <li>{@code retry_delay_ms} must not be negative</li>
+	 * </ul>
+	 *
+	 * @param segmenter the segmenter that performs each request, must not be null
+	 * @param bulkheads bulkheads whose Cloud NLP limit bounds the requests in flight, must not be null
+	 * @param worker_threads number of threads requests run on, must be positive
+	 * @param max_qps maximum number of requests started per second, must be positive
+	 * @param max_attempts attempts per paragraph, including the first, must be positive
+	 * @param retry_delay_ms nominal delay before the first retry, doubled for each further retry
+	 * @throws NullPointerException if {@code segmenter} or {@code bulkheads} is null
+	 * @throws IllegalArgumentException if a numeric argument is out of range
+	 */
+	public SentenceSegmentationPipeline(SentenceSegmenter segmenter,
+										Bulkheads bulkheads,
+										@Value("${audit.nlp.worker-threads:16}") int worker_threads,
+										@Value("${audit.nlp.max-qps:10}") double max_qps,
+										@Value("${audit.nlp.retry.max-attempts:3}") int max_attempts,
+										@Value("${audit.nlp.retry.delay-ms:250}") long retry_delay_ms) {
+		Objects.requireNonNull(segmenter, "segmenter must not be null");
+		Objects.requireNonNull(bulkheads, "bulkheads must not be null");
+		if (worker_threads <= 0) {
+			throw new IllegalArgumentException("worker_threads must be positive, got: " + worker_threads);
+		}
+		if (max_qps <= 0) {
+			throw new IllegalArgumentException("max_qps must be positive, got: " + max_qps);
+		}
+		if (max_attempts <= 0) {
+			throw new IllegalArgumentException("max_attempts must be positive, got: " + max_attempts);
+		}
+
+		this.segmenter = segmenter;
+		this.bulkheads = bulkheads;
+		this.max_attempts = max_attempts;
+		this.backoff = Backoff.exponential(retry_delay_ms, Math.max(retry_delay_ms, MAX_RETRY_DELAY_MS));
+		this.interval_nanos = (long) (TimeUnit.SECONDS.toNanos(1) / max_qps);
+		this.next_start_nanos = System.nanoTime();
+
+		AtomicInteger thread_count = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(worker_threads, runnable -> {
+			Thread thread = new Thread(runnable, "nlp-segmenter-" + thread_count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Submits paragraphs for segmentation.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code paragraphs} must not be null and must not contain null entries</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns one future per paragraph, in paragraph order</li>
+	 *   <li>A future completes exceptionally with the segmenter's exception if every attempt of its request fails</li>
+	 * </ul>
+	 *
+	 * @param paragraphs the paragraphs to segment, must not be null
+	 * @return the pending sentences of each paragraph, in paragraph order
+	 * @throws NullPointerException if {@code paragraphs} or any paragraph is null
+	 */
+	public List<CompletableFuture<List<Sentence>>> submit(List<String> paragraphs) {
+		Objects.requireNonNull(paragraphs, "paragraphs must not be null");
+
+		List<CompletableFuture<List<Sentence>>> results = new ArrayList<>(paragraphs.size());
+		for (String paragraph : paragraphs) {
+			Objects.requireNonNull(paragraph, "paragraph must not be null");
+			results.add(segmentAsync(paragraph, 1));
+		}
+		return results;
+	}
+
+	private CompletableFuture<List<Sentence>> segmentAsync(String paragraph, int attempt) {
+		return CompletableFuture.supplyAsync(() -> segment(paragraph), executor)
+				.handle((sentences, error) -> {
+					if (error == null) {
+						return CompletableFuture.completedFuture(sentences);
+					}
+					if (attempt >= max_attempts || executor.isShutdown() || error.getCause() instanceof InterruptedException) {
+						return CompletableFuture.<List<Sentence>>failedFuture(error);
+					}
+					long delay_ms = backoff.delayMillis(attempt);
+					return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delay_ms, TimeUnit.MILLISECONDS, executor))
+							.thenCompose(ignored -> segmentAsync(paragraph, attempt + 1));
+				})
+				.thenCompose(Function.identity());
+	}
+
+	/**
+	 * Stops accepting requests and releases the worker threads.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private List<Sentence> segment(String paragraph) {
+		try {
+			awaitRatePermit();
+			return bulkheads.execute(Bulkheads.Dependency.CLOUD_NLP, () -> segmenter.extractSentences(paragraph));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CompletionException(e);
+		} catch (Exception e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	/**
+	 * Blocks until the next request may start under the configured rate.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private void awaitRatePermit() throws InterruptedException {
+		long wait_nanos;
+		synchronized (this) {
+			long now = System.nanoTime();
+			long start = Math.max(now, next_start_nanos);
+			next_start_nanos = start + interval_nanos;
+			wait_nanos = start - now;
+		}
+		if (wait_nanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait_nanos);
+		}
+	}
+}
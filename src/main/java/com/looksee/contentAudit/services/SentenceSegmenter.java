@@ -0,0 +1,22 @@
+package com.looksee.contentAudit.services;
+
+import java.util.List;
+
+import com.google.cloud.language.v1.Sentence;
+
+/**
+ * Splits a paragraph of text into sentences.
+ *
+ * <p>Implementations must be safe to call concurrently.</p>
+ */
+public interface SentenceSegmenter {
+
+	/**
+	 * Splits a paragraph into sentences.
+	 *
+	 * @param paragraph the paragraph to split, must not be null
+	 * @return the sentences of the paragraph, in order
+	 * @throws Exception if the paragraph could not be segmented
+	 */
+	List<Sentence> extractSentences(String paragraph) throws Exception;
+}
@@ -0,0 +1,73 @@
+package com.looksee.contentAudit.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter. The delay before retry {@code n} is drawn
+ * uniformly from the upper half of {@code min(max, initial * 2^(n-1))}, so
+ * that callers that failed together do not retry together, while every retry
+ * still waits at least half of its nominal delay.
+ *
+ * <p>Immutable and thread-safe.</p>
+ */
+public final class Backoff {
+	private final long initial_delay_ms;
+	private final long max_delay_ms;
+
+	private Backoff(long initial_delay_ms, long max_delay_ms) {
+		this.initial_delay_ms = initial_delay_ms;
+		this.max_delay_ms = max_delay_ms;
+	}
+
+	/**
+	 * Creates a backoff.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code initial_delay_ms} must not be negative and must not exceed {@code max_delay_ms}</li>
+	 * </ul>
+	 *
+	 * @param initial_delay_ms nominal delay before the first retry
+	 * @param max_delay_ms largest nominal delay
+	 * @return the backoff
+	 * @throws IllegalArgumentException if the delays are out of range
+	 */
+	public static Backoff exponential(long initial_delay_ms, long max_delay_ms) {
+		if(initial_delay_ms < 0 || max_delay_ms < initial_delay_ms) {
+			throw new IllegalArgumentException("expected 0 <= initial_delay_ms <= max_delay_ms, got "
+												+ initial_delay_ms + " and " + max_delay_ms);
+		}
+		return new Backoff(initial_delay_ms, max_delay_ms);
+	}
+
+	/**
+	 * Returns the nominal delay before a retry, without jitter.
+	 *
+	 * @param retry the retry number, starting at 1
+	 * @return the nominal delay in milliseconds
+	 */
+	public long nominalDelayMillis(int retry) {
+		long delay = initial_delay_ms;
+		for(int doubling = 1; doubling < retry && delay < max_delay_ms; doubling++) {
+			delay *= 2;
+		}
+		return Math.min(delay, max_delay_ms);
+	}
+
+	/**
+	 * Returns a jittered delay before a retry.
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The delay is between half of {@link #nominalDelayMillis(int)} and all of it</li>
+	 * </ul>
+	 *
+	 * @param retry the retry number, starting at 1
+	 * @return the delay in milliseconds
+	 */
+	public long delayMillis(int retry) {
+		long nominal = nominalDelayMillis(retry);
+		long half = nominal / 2;
+		return half + ThreadLocalRandom.current().nextLong(nominal - half + 1);
+	}
+}
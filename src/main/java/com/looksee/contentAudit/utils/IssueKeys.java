@@ -0,0 +1,108 @@
+package com.looksee.contentAudit.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Builds deterministic issue message keys for one audit of one page audit
+ * record. A key is derived from the page audit id, the audit class, the key
+ * of the element the issue is about and the id of the rule that produced it,
+ * so every execution of the same audit for the same page audit record
+ * produces the same keys, and issue messages can be upserted by key. The
+ * audit itself is keyed by the page audit id and the audit class.
+ *
+ * <p>Immutable and thread-safe.</p>
+ */
+public final class IssueKeys {
+	private static final String KEY_PREFIX = "uxissue";
+	private static final String AUDIT_KEY_PREFIX = "audit";
+	private static final char SEPARATOR = '\u001f';
+
+	private final String scope;
+
+	private IssueKeys(String scope) {
+		this.scope = scope;
+	}
+
+	/**
+	 * Creates the key builder of an audit.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code audit} must not be null</li>
+	 * </ul>
+	 *
+	 * @param page_audit_id the page audit record the audit belongs to
+	 * @param audit the audit class, must not be null
+	 * @return the key builder
+	 * @throws NullPointerException if {@code audit} is null
+	 */
+	public static IssueKeys forAudit(long page_audit_id, Class<?> audit) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		return new IssueKeys(page_audit_id + String.valueOf(SEPARATOR) + audit.getSimpleName());
+	}
+
+	/**
+	 * Creates a key builder whose keys no other builder produces, for callers
+	 * that cannot name the page audit record. Upserting messages with these
+	 * keys always creates new nodes, as saving them did.
+	 *
+	 * @param audit the audit class, must not be null
+	 * @return the key builder
+	 * @throws NullPointerException if {@code audit} is null
+	 */
+	public static IssueKeys unique(Class<?> audit) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		return new IssueKeys(UUID.randomUUID() + String.valueOf(SEPARATOR) + audit.getSimpleName());
+	}
+
+	/**
+	 * Returns the key of the audit itself.
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Builders of the same audit and page audit id give equal keys</li>
+	 * </ul>
+	 *
+	 * @return the audit key
+	 */
+	public String auditKey() {
+		return AUDIT_KEY_PREFIX + HexFormat.of().formatHex(sha256(scope));
+	}
+
+	/**
+	 * Returns the key of an issue.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code rule_id} must not be null</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Equal arguments for the same audit and page audit id give equal keys</li>
+	 * </ul>
+	 *
+	 * @param element_key key of the element the issue is about, or null for page-level issues
+	 * @param rule_id id of the rule that produced the issue, must not be null
+	 * @return the issue key
+	 * @throws NullPointerException if {@code rule_id} is null
+	 */
+	public String of(String element_key, String rule_id) {
+		Objects.requireNonNull(rule_id, "rule_id must not be null");
+		String natural_key = scope + SEPARATOR + (element_key == null ? "" : element_key) + SEPARATOR + rule_id;
+		return KEY_PREFIX + HexFormat.of().formatHex(sha256(natural_key));
+	}
+
+	private static byte[] sha256(String value) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.looksee.contentAudit.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Selects one in every {@code n} events for logging so that per-element
+ * diagnostics in audit loops stay cheap on large pages.
+ *
+ * <p>Thread-safe. The first event is always sampled.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>{@code every_n} is positive</li>
+ * </ul>
+ */
+public class LogSampler {
+	private final long every_n;
+	private final AtomicLong events = new AtomicLong();
+
+	/**
+	 * Creates a sampler.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code every_n} must be positive</li>
+	 * </ul>
+	 *
+	 * @param every_n sample one in every {@code every_n} events, must be positive
+	 * @throws IllegalArgumentException if {@code every_n} is not positive
+	 */
+	public LogSampler(long every_n) {
+		if (every_n <= 0) {
+			throw new IllegalArgumentException("every_n must be positive, got: " + every_n);
+		}
+		this.every_n = every_n;
+	}
+
+	/**
+	 * Records an event and reports whether it should be logged.
+	 *
+	 * @return {@code true} for one in every {@code every_n} events
+	 */
+	public boolean sample() {
+		return events.getAndIncrement() % every_n == 0;
+	}
+}
@@ -0,0 +1,238 @@
+package com.looksee.contentAudit.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.looksee.contentAudit.models.enums.Language;
+import com.looksee.models.ElementState;
+
+/**
+ * Running readability counts of a page and of its sections.
+ *
+ * <p>Sections are delimited by headings ({@code h1} to {@code h6}) in page
+ * order: each heading starts a section that runs to the next heading, and
+ * elements before the first heading form a section without a heading. As
+ * text blocks are scored, their {@link TextStatistics} are added to their
+ * section and to the page totals, so section and page reading ease are
+ * available without reading the text again.</p>
+ *
+ * <p>Each block is counted under its language. A section or page whose blocks
+ * are in more than one language is scored by the formula of the language with
+ * the most words.</p>
+ *
+ * <p>Not thread-safe; each audit execution uses its own rollup.</p>
+ */
+public final class ReadabilityRollup {
+	private final Map<ElementState, Section> element_sections = new IdentityHashMap<>();
+	private final List<Section> sections = new ArrayList<>();
+	private final Counts page_counts = new Counts();
+
+	private ReadabilityRollup(List<ElementState> page_elements) {
+		Section section = null;
+		for(ElementState element : page_elements) {
+			if(isHeading(element.getName())) {
+				section = new Section(element);
+				sections.add(section);
+			}
+			else if(section == null) {
+				section = new Section(null);
+				sections.add(section);
+			}
+			element_sections.put(element, section);
+		}
+	}
+
+	/**
+	 * Creates a rollup for a page, assigning each element to its section.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code page_elements} must not be null and must be in page order</li>
+	 * </ul>
+	 *
+	 * @param page_elements all elements of the page, in page order, must not be null
+	 * @return an empty rollup
+	 * @throws NullPointerException if {@code page_elements} is null
+	 */
+	public static ReadabilityRollup of(List<ElementState> page_elements) {
+		Objects.requireNonNull(page_elements, "page_elements must not be null");
+		return new ReadabilityRollup(page_elements);
+	}
+
+	private static boolean isHeading(String name) {
+		return name != null
+				&& name.length() == 2
+				&& Character.toLowerCase(name.charAt(0)) == 'h'
+				&& name.charAt(1) >= '1'
+				&& name.charAt(1) <= '6';
+	}
+
+	/**
+	 * Adds a scored English text block to its section and to the page.
+	 *
+	 * @see #add(ElementState, TextStatistics, Language)
+	 */
+	public void add(ElementState element, TextStatistics statistics) {
+		add(element, statistics, Language.ENGLISH);
+	}
+
+	/**
+	 * Adds a scored text block to its section and to the page.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code element} must be one of the page's elements</li>
+	 *   <li>{@code statistics} and {@code language} must not be null</li>
+	 * </ul>
+	 *
+	 * @param element the element the text block belongs to
+	 * @param statistics the counts of the text block, must not be null
+	 * @param language the language of the text block, must not be null
+	 * @throws NullPointerException if {@code statistics} or {@code language} is null
+	 * @throws IllegalArgumentException if {@code element} is not one of the page's elements
+	 */
+	public void add(ElementState element, TextStatistics statistics, Language language) {
+		Objects.requireNonNull(statistics, "statistics must not be null");
+		Objects.requireNonNull(language, "language must not be null");
+		Section section = element_sections.get(element);
+		if(section == null) {
+			throw new IllegalArgumentException("element is not on the page");
+		}
+		section.add(element, statistics, language);
+		page_counts.add(statistics, language);
+	}
+
+	public TextStatistics getPageStatistics() {
+		return page_counts.toStatistics();
+	}
+
+	/**
+	 * Returns the language with the most words on the page, English if no
+	 * words were added.
+	 */
+	public Language getPageLanguage() {
+		return page_counts.dominantLanguage();
+	}
+
+	/**
+	 * Returns the Flesch Reading Ease score of all text blocks added so far.
+	 *
+	 * @return the score, or {@code NaN} if no words were added
+	 */
+	public double getPageReadingEase() {
+		return page_counts.readingEase();
+	}
+
+	/**
+	 * Returns the sections that received text, in page order.
+	 */
+	public List<Section> getSections() {
+		List<Section> scored = new ArrayList<>();
+		for(Section section : sections) {
+			if(section.counts.words > 0) {
+				scored.add(section);
+			}
+		}
+		return Collections.unmodifiableList(scored);
+	}
+
+	/**
+	 * Running counts of one heading-delimited section.
+	 */
+	public static final class Section {
+		private final ElementState heading;
+		private final Counts counts = new Counts();
+		private ElementState first_element;
+		private int blocks;
+
+		private Section(ElementState heading) {
+			this.heading = heading;
+		}
+
+		private void add(ElementState element, TextStatistics statistics, Language language) {
+			if(first_element == null) {
+				first_element = element;
+			}
+			counts.add(statistics, language);
+			blocks++;
+		}
+
+		/**
+		 * Returns the heading that starts the section, or {@code null} for
+		 * text before the first heading.
+		 */
+		public ElementState getHeading() {
+			return heading;
+		}
+
+		/**
+		 * Returns the first text block added to the section.
+		 */
+		public ElementState getFirstElement() {
+			return first_element;
+		}
+
+		public int getBlockCount() {
+			return blocks;
+		}
+
+		public TextStatistics getStatistics() {
+			return counts.toStatistics();
+		}
+
+		/**
+		 * Returns the language with the most words in the section.
+		 */
+		public Language getLanguage() {
+			return counts.dominantLanguage();
+		}
+
+		/**
+		 * Returns the Flesch Reading Ease score of the section's text blocks.
+		 *
+		 * @return the score, or {@code NaN} if the section has no words
+		 */
+		public double getReadingEase() {
+			return counts.readingEase();
+		}
+	}
+
+	/**
+	 * Running sentence, word and syllable totals, with words per language.
+	 */
+	private static final class Counts {
+		private final long[] language_words = new long[Language.values().length];
+		private long sentences;
+		private long words;
+		private long syllables;
+
+		void add(TextStatistics statistics, Language language) {
+			sentences += statistics.getSentences();
+			words += statistics.getWords();
+			syllables += statistics.getSyllables();
+			language_words[language.ordinal()] += statistics.getWords();
+		}
+
+		TextStatistics toStatistics() {
+			return new TextStatistics(sentences, words, syllables);
+		}
+
+		Language dominantLanguage() {
+			Language dominant = Language.ENGLISH;
+			for(Language language : Language.values()) {
+				if(language_words[language.ordinal()] > language_words[dominant.ordinal()]) {
+					dominant = language;
+				}
+			}
+			return dominant;
+		}
+
+		double readingEase() {
+			return TextStatistics.readingEase(dominantLanguage(), sentences, words, syllables);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.looksee.contentAudit.utils;
+
+import java.util.Objects;
+
+import com.looksee.contentAudit.models.enums.Language;
+
+/**
+ * Sentence, word and syllable counts of a text, the inputs of the Flesch
+ * Reading Ease formula and its per-language variants. Counts of several texts
+ * can be added together, so a reading ease can be computed for any group of
+ * texts without reading them again.
+ *
+ * <p>Words are runs of letters, digits and apostrophes. Sentences end at
+ * {@code .}, {@code !} or {@code ?}; text with words but no terminator counts
+ * as one sentence. Syllables are counted per word by the text's
+ * {@link Language}, English unless another language is given.</p>
+ *
+ * <p>Immutable.</p>
+ */
+public final class TextStatistics {
+	public static final TextStatistics EMPTY = new TextStatistics(0, 0, 0);
+
+	private final long sentences;
+	private final long words;
+	private final long syllables;
+
+	/**
+	 * Creates statistics from counts.
+	 *
+	 * @param sentences number of sentences, must not be negative
+	 * @param words number of words, must not be negative
+	 * @param syllables number of syllables, must not be negative
+	 * @throws IllegalArgumentException if a count is negative
+	 */
+	public TextStatistics(long sentences, long words, long syllables) {
+		if(sentences < 0 || words < 0 || syllables < 0) {
+			throw new IllegalArgumentException("counts must not be negative");
+		}
+		this.sentences = sentences;
+		this.words = words;
+		this.syllables = syllables;
+	}
+
+	/**
+	 * Counts the sentences, words and syllables of English {@code text} in one pass.
+	 *
+	 * @param text the text, may be null
+	 * @return the statistics, {@link #EMPTY} for null or text without words
+	 */
+	public static TextStatistics of(String text) {
+		return of(text, Language.ENGLISH);
+	}
+
+	/**
+	 * Counts the sentences, words and syllables of {@code text} in one pass,
+	 * counting syllables the way {@code language} spells them.
+	 *
+	 * @param text the text, may be null
+	 * @param language the language of the text, must not be null
+	 * @return the statistics, {@link #EMPTY} for null or text without words
+	 * @throws NullPointerException if {@code language} is null
+	 */
+	public static TextStatistics of(String text, Language language) {
+		Objects.requireNonNull(language, "language must not be null");
+		if(text == null) {
+			return EMPTY;
+		}
+
+		long sentences = 0;
+		long words = 0;
+		long syllables = 0;
+		boolean sentence_has_words = false;
+
+		int idx = 0;
+		int length = text.length();
+		while(idx < length) {
+			char c = text.charAt(idx);
+			if(isWordChar(c)) {
+				int start = idx;
+				while(idx < length && isWordChar(text.charAt(idx))) {
+					idx++;
+				}
+				words++;
+				syllables += language.countSyllables(text, start, idx);
+				sentence_has_words = true;
+				continue;
+			}
+			if((c == '.' || c == '!' || c == '?') && sentence_has_words) {
+				sentences++;
+				sentence_has_words = false;
+			}
+			idx++;
+		}
+		if(sentence_has_words) {
+			sentences++;
+		}
+		return words == 0 ? EMPTY : new TextStatistics(sentences, words, syllables);
+	}
+
+	private static boolean isWordChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '\'';
+	}
+
+	/**
+	 * Estimates the syllables of the English word {@code text[start, end)}.
+	 */
+	static int countSyllables(CharSequence text, int start, int end) {
+		return Language.ENGLISH.countSyllables(text, start, end);
+	}
+
+	public long getSentences() {
+		return sentences;
+	}
+
+	public long getWords() {
+		return words;
+	}
+
+	public long getSyllables() {
+		return syllables;
+	}
+
+	/**
+	 * Returns the combined counts of this and {@code other}.
+	 *
+	 * @param other the statistics to add, must not be null
+	 * @return the sum
+	 */
+	public TextStatistics plus(TextStatistics other) {
+		return new TextStatistics(sentences + other.sentences, words + other.words, syllables + other.syllables);
+	}
+
+	/**
+	 * Returns the Flesch Reading Ease score of the counted text.
+	 *
+	 * @return the score, or {@code NaN} if there are no words
+	 */
+	public double readingEase() {
+		return readingEase(Language.ENGLISH);
+	}
+
+	/**
+	 * Returns the reading ease score of the counted text by the formula of
+	 * {@code language}.
+	 *
+	 * @param language the language of the text, must not be null
+	 * @return the score, or {@code NaN} if there are no words
+	 * @throws NullPointerException if {@code language} is null
+	 */
+	public double readingEase(Language language) {
+		return readingEase(language, sentences, words, syllables);
+	}
+
+	/**
+	 * Computes a reading ease score from counts.
+	 *
+	 * @return the score, or {@code NaN} if there are no words or sentences
+	 */
+	static double readingEase(Language language, long sentences, long words, long syllables) {
+		Objects.requireNonNull(language, "language must not be null");
+		if(words == 0 || sentences == 0) {
+			return Double.NaN;
+		}
+		return language.readingEase(sentences, words, syllables);
+	}
+}
@@ -0,0 +1,206 @@
+package com.looksee.contentAudit.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Append-only local log of entries that must survive a restart until they
+ * are marked done.
+ *
+ * <p>Each entry is one line {@code P <seq> <payload>}; marking entries done
+ * appends {@code D <seq>} lines. Every append is forced to disk before it
+ * returns. On open, entries that were never marked done are kept, in append
+ * order, and the file is rewritten to hold only them. A partly written last
+ * line, left by a crash during an append, is ignored. When no entry is
+ * outstanding the file is truncated.</p>
+ *
+ * <p>Payloads must not contain line breaks. Thread-safe.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>Sequence numbers increase in append order</li>
+ *   <li>An entry is outstanding from its append until it is marked done</li>
+ * </ul>
+ */
+public final class WriteAheadLog implements Closeable {
+	private final Path file;
+	private final FileChannel channel;
+	private final Set<Long> outstanding = new HashSet<>();
+	private final List<Entry> recovered;
+	private long next_seq;
+
+	private WriteAheadLog(Path file) throws IOException {
+		this.file = file;
+		Map<Long, String> entries = new LinkedHashMap<>();
+		long max_seq = 0;
+		if(Files.exists(file)) {
+			String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			//only complete lines were acknowledged; a torn last line is dropped
+			String[] lines = content.substring(0, content.lastIndexOf('\n') + 1).split("\n");
+			for(String line : lines) {
+				try {
+					if(line.startsWith("P ")) {
+						int separator = line.indexOf(' ', 2);
+						long seq = Long.parseLong(line.substring(2, separator));
+						entries.put(seq, line.substring(separator + 1));
+						max_seq = Math.max(max_seq, seq);
+					}
+					else if(line.startsWith("D ")) {
+						entries.remove(Long.parseLong(line.substring(2)));
+					}
+				} catch (RuntimeException e) {
+					//skip a line that is not a log record
+				}
+			}
+		}
+
+		List<Entry> pending = new ArrayList<>();
+		StringBuilder rewritten = new StringBuilder();
+		for(Map.Entry<Long, String> entry : entries.entrySet()) {
+			pending.add(new Entry(entry.getKey(), entry.getValue()));
+			outstanding.add(entry.getKey());
+			rewritten.append("P ").append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+		}
+		Path parent = file.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		Files.write(temp, rewritten.toString().getBytes(StandardCharsets.UTF_8));
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		this.recovered = Collections.unmodifiableList(pending);
+		this.next_seq = max_seq + 1;
+		this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Opens the log at {@code file}, creating it and its directory if needed,
+	 * and recovers the entries that were not marked done.
+	 *
+	 * @param file the log file, must not be null
+	 * @return the open log
+	 * @throws NullPointerException if {@code file} is null
+	 * @throws IOException if the log cannot be read or written
+	 */
+	public static WriteAheadLog open(Path file) throws IOException {
+		Objects.requireNonNull(file, "file must not be null");
+		return new WriteAheadLog(file);
+	}
+
+	/**
+	 * Returns the entries that were outstanding when the log was opened, in
+	 * append order.
+	 */
+	public List<Entry> recovered() {
+		return recovered;
+	}
+
+	/**
+	 * Returns the number of entries not yet marked done.
+	 */
+	public synchronized int outstanding() {
+		return outstanding.size();
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Appends an entry and forces it to disk.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code payload} must not be null and must not contain a line break</li>
+	 * </ul>
+	 *
+	 * @param payload the entry, must not be null
+	 * @return the entry's sequence number
+	 * @throws NullPointerException if {@code payload} is null
+	 * @throws IllegalArgumentException if {@code payload} contains a line break
+	 * @throws IOException if the entry cannot be written
+	 */
+	public synchronized long append(String payload) throws IOException {
+		Objects.requireNonNull(payload, "payload must not be null");
+		if(payload.indexOf('\n') >= 0 || payload.indexOf('\r') >= 0) {
+			throw new IllegalArgumentException("payload must not contain a line break");
+		}
+
+		long seq = next_seq++;
+		write("P " + seq + " " + payload + "\n");
+		outstanding.add(seq);
+		return seq;
+	}
+
+	/**
+	 * Marks entries done with a single forced write, and truncates the log
+	 * once no entry is outstanding.
+	 *
+	 * @param seqs sequence numbers of the entries, must not be null
+	 * @throws IOException if the log cannot be written
+	 */
+	public synchronized void markDone(Collection<Long> seqs) throws IOException {
+		StringBuilder lines = new StringBuilder();
+		for(long seq : seqs) {
+			if(outstanding.remove(seq)) {
+				lines.append("D ").append(seq).append('\n');
+			}
+		}
+		if(outstanding.isEmpty()) {
+			channel.truncate(0);
+			channel.force(true);
+		}
+		else if(lines.length() > 0) {
+			write(lines.toString());
+		}
+	}
+
+	private void write(String lines) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		channel.force(false);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * One logged entry.
+	 */
+	public static final class Entry {
+		private final long seq;
+		private final String payload;
+
+		Entry(long seq, String payload) {
+			this.seq = seq;
+			this.payload = payload;
+		}
+
+		public long getSeq() {
+			return seq;
+		}
+
+		public String getPayload() {
+			return payload;
+		}
+	}
+}
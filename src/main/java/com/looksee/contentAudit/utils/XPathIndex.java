@@ -0,0 +1,276 @@
+package com.looksee.contentAudit.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tree of element xpaths that answers ancestor and descendant questions by
+ * location step rather than by string matching.
+ *
+ * <p>Each xpath is split into location steps, and elements with the same steps
+ * share a node. Steps without a position predicate are treated as position 1,
+ * so {@code div} and {@code div[1]} are the same step, while {@code div[1]},
+ * {@code div[10]} and {@code divider[1]} are all different. Ancestor checks
+ * walk up from the deeper node, so they take time proportional to the
+ * difference in depth.</p>
+ *
+ * <p>Elements are addressed by their index in the list the index was built
+ * from. Elements without an xpath are neither ancestors nor descendants of
+ * any element.</p>
+ *
+ * <p>{@link #documentOrder()} walks the tree to put the elements in document
+ * order as far as their xpaths determine it.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>The index never changes after construction</li>
+ * </ul>
+ */
+public final class XPathIndex {
+	private final Node root;
+	private final Node[] element_nodes;
+
+	private XPathIndex(List<String> xpaths) {
+		root = new Node(null, null, 0);
+		element_nodes = new Node[xpaths.size()];
+		for(int idx = 0; idx < element_nodes.length; idx++) {
+			String xpath = xpaths.get(idx);
+			if(xpath == null) {
+				continue;
+			}
+			Node node = root;
+			for(String step : steps(xpath)) {
+				node = node.child(step);
+			}
+			element_nodes[idx] = node;
+			node.addElement(idx);
+		}
+	}
+
+	/**
+	 * Builds the index of {@code xpaths}.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code xpaths} must not be null; it may contain null</li>
+	 * </ul>
+	 *
+	 * @param xpaths the element xpaths, in the order they will be addressed by, must not be null
+	 * @return the index
+	 * @throws NullPointerException if {@code xpaths} is null
+	 */
+	public static XPathIndex of(List<String> xpaths) {
+		Objects.requireNonNull(xpaths, "xpaths must not be null");
+		return new XPathIndex(xpaths);
+	}
+
+	/**
+	 * Splits an xpath into normalized location steps. Slashes inside
+	 * predicates do not split steps, and a step without a predicate gets
+	 * {@code [1]}.
+	 *
+	 * @param xpath the xpath, must not be null
+	 * @return the steps, from the root down
+	 */
+	static List<String> steps(String xpath) {
+		List<String> steps = new ArrayList<>();
+		int bracket_depth = 0;
+		char quote = 0;
+		int start = 0;
+		for(int idx = 0; idx <= xpath.length(); idx++) {
+			char c = idx < xpath.length() ? xpath.charAt(idx) : '/';
+			if(quote != 0) {
+				if(c == quote) {
+					quote = 0;
+				}
+			}
+			else if(c == '\'' || c == '"') {
+				quote = c;
+			}
+			else if(c == '[') {
+				bracket_depth++;
+			}
+			else if(c == ']') {
+				bracket_depth--;
+			}
+			else if(c == '/' && bracket_depth <= 0) {
+				if(idx > start) {
+					String step = xpath.substring(start, idx);
+					steps.add(step.indexOf('[') < 0 ? step + "[1]" : step);
+				}
+				start = idx + 1;
+			}
+		}
+		return steps;
+	}
+
+	public int size() {
+		return element_nodes.length;
+	}
+
+	/**
+	 * Returns the number of location steps in the element's xpath, 0 if it has none.
+	 */
+	public int depth(int idx) {
+		Node node = element_nodes[idx];
+		return node == null ? 0 : node.depth;
+	}
+
+	/**
+	 * Returns whether {@code ancestor} is {@code descendant} or one of its
+	 * ancestors, by xpath.
+	 *
+	 * @param ancestor index of the candidate ancestor
+	 * @param descendant index of the candidate descendant
+	 * @return {@code true} if both have xpaths and the first's steps are a prefix of the second's
+	 */
+	public boolean isAncestorOrSelf(int ancestor, int descendant) {
+		Node ancestor_node = element_nodes[ancestor];
+		Node node = element_nodes[descendant];
+		if(ancestor_node == null || node == null) {
+			return false;
+		}
+		while(node.depth > ancestor_node.depth) {
+			node = node.parent;
+		}
+		return node == ancestor_node;
+	}
+
+	/**
+	 * Returns whether {@code ancestor} is a proper ancestor of
+	 * {@code descendant}, by xpath.
+	 *
+	 * @param ancestor index of the candidate ancestor
+	 * @param descendant index of the candidate descendant
+	 * @return {@code true} if {@code ancestor} is an ancestor-or-self at a smaller depth
+	 */
+	public boolean isAncestor(int ancestor, int descendant) {
+		return depth(ancestor) < depth(descendant) && isAncestorOrSelf(ancestor, descendant);
+	}
+
+	/**
+	 * Returns the element indices in document order.
+	 *
+	 * <p>An xpath fixes the order of an ancestor before its descendants and of
+	 * same-named siblings by position, but not of siblings with different
+	 * names, such as {@code h2[2]} and {@code p[3]}. Such siblings keep the
+	 * order in which their subtrees first appear in the list the index was
+	 * built from. Elements with the same xpath keep their list order, and
+	 * elements without an xpath come last.</p>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>Returns each index from 0 to {@code size() - 1} exactly once</li>
+	 *   <li>Every element comes after its ancestors</li>
+	 *   <li>Same-named siblings come in order of position</li>
+	 * </ul>
+	 *
+	 * @return the indices in document order
+	 */
+	public int[] documentOrder() {
+		int[] order = new int[element_nodes.length];
+		int count = root.appendInDocumentOrder(order, 0);
+		for(int idx = 0; idx < element_nodes.length; idx++) {
+			if(element_nodes[idx] == null) {
+				order[count++] = idx;
+			}
+		}
+
+		assert count == order.length;
+		return order;
+	}
+
+	private static final class Node {
+		private final Node parent;
+		private final String step;
+		private final int depth;
+		private Map<String, Node> children;
+		private List<Integer> elements;
+
+		Node(Node parent, String step, int depth) {
+			this.parent = parent;
+			this.step = step;
+			this.depth = depth;
+		}
+
+		Node child(String step) {
+			if(children == null) {
+				children = new LinkedHashMap<>();
+			}
+			return children.computeIfAbsent(step, key -> new Node(this, key, depth + 1));
+		}
+
+		void addElement(int idx) {
+			if(elements == null) {
+				elements = new ArrayList<>(1);
+			}
+			elements.add(idx);
+		}
+
+		/**
+		 * Appends the elements of this subtree in document order and returns
+		 * the next free slot. Children are created in the order their
+		 * subtrees first appear; same-named children are then put in order of
+		 * position within the slots their name occupies.
+		 */
+		int appendInDocumentOrder(int[] order, int count) {
+			if(elements != null) {
+				for(int idx : elements) {
+					order[count++] = idx;
+				}
+			}
+			if(children == null) {
+				return count;
+			}
+
+			List<Node> ordered = new ArrayList<>(children.values());
+			Map<String, List<Node>> by_name = new HashMap<>();
+			for(Node child : ordered) {
+				by_name.computeIfAbsent(child.name(), key -> new ArrayList<>()).add(child);
+			}
+			for(List<Node> same_name : by_name.values()) {
+				same_name.sort((left, right) -> Integer.compare(left.position(), right.position()));
+			}
+			Map<String, Integer> taken = new HashMap<>();
+			for(int idx = 0; idx < ordered.size(); idx++) {
+				String name = ordered.get(idx).name();
+				ordered.set(idx, by_name.get(name).get(taken.merge(name, 1, Integer::sum) - 1));
+			}
+			for(Node child : ordered) {
+				count = child.appendInDocumentOrder(order, count);
+			}
+			return count;
+		}
+
+		/**
+		 * Returns the step's name, or the whole step if its predicate is not a
+		 * position, so that it is ordered only by its first appearance.
+		 */
+		String name() {
+			return position() > 0 ? step.substring(0, step.indexOf('[')) : step;
+		}
+
+		/**
+		 * Returns the step's position, or 0 if its predicate is not a position.
+		 */
+		int position() {
+			int open = step.indexOf('[');
+			if(open < 0 || step.charAt(step.length() - 1) != ']' || open + 2 > step.length() - 1) {
+				return 0;
+			}
+			int position = 0;
+			for(int idx = open + 1; idx < step.length() - 1; idx++) {
+				char c = step.charAt(idx);
+				if(c < '0' || c > '9' || position > 100_000_000) {
+					return 0;
+				}
+				position = position * 10 + (c - '0');
+			}
+			return position;
+		}
+	}
+}
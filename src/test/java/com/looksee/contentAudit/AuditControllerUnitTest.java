@@ -4,7 +4,6 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -19,9 +18,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -33,6 +34,17 @@ import com.looksee.contentAudit.models.ObjectAltTextAudit;
 import com.looksee.contentAudit.models.ParagraphingAudit;
 import com.looksee.contentAudit.models.ReadabilityAudit;
 import com.looksee.contentAudit.models.SVGAltTextAudit;
+import com.looksee.contentAudit.services.AuditPipeline;
+import com.looksee.contentAudit.services.AuditWriter;
+import com.looksee.contentAudit.services.Bulkheads;
+import com.looksee.contentAudit.services.ElementProjectionLoader;
+import com.looksee.contentAudit.services.IssueMessageStore;
+import com.looksee.contentAudit.services.LocalInFlightAuditRegistry;
+import com.looksee.contentAudit.services.MemoryAdmissionController;
+import com.looksee.contentAudit.services.MessageBatcher;
+import com.looksee.contentAudit.services.MissingRecordCache;
+import com.looksee.contentAudit.services.PageAuditLoader;
+import com.looksee.contentAudit.services.ScheduledRetry;
 import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
 import com.looksee.mapper.Body;
 import com.looksee.models.ElementState;
@@ -41,7 +53,11 @@ import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.enums.AuditName;
 import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
 import com.looksee.services.PageStateService;
+import com.looksee.services.UXIssueMessageService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class AuditControllerUnitTest {
 
@@ -57,6 +73,7 @@ public class AuditControllerUnitTest {
 	private ParagraphingAudit paragraphAudit;
 	private ReadabilityAudit readabilityAudit;
 	private PubSubAuditUpdatePublisherImpl auditUpdateTopic;
+	private MemoryAdmissionController admissionController;
 
 	@Before
 	public void setUp() throws Exception {
@@ -72,9 +89,9 @@ public class AuditControllerUnitTest {
 		paragraphAudit = mock(ParagraphingAudit.class);
 		readabilityAudit = mock(ReadabilityAudit.class);
 		auditUpdateTopic = mock(PubSubAuditUpdatePublisherImpl.class);
+		admissionController = new MemoryAdmissionController(new SimpleMeterRegistry(), 1, 0, 2048, 8);
 
-		setField("audit_record_service", auditRecordService);
-		setField("page_state_service", pageStateService);
+		setField("page_audit_loader", new PageAuditLoader(emptyProvider(), auditRecordService, pageStateService, false));
 		setField("image_alt_text_auditor", imageAltTextAudit);
 		setField("appletAllAltTextAudit", appletAltTextAudit);
 		setField("canvasAltTextAudit", canvasAltTextAudit);
@@ -84,6 +101,22 @@ public class AuditControllerUnitTest {
 		setField("paragraph_auditor", paragraphAudit);
 		setField("readability_auditor", readabilityAudit);
 		setField("audit_update_topic", auditUpdateTopic);
+		setField("admission_controller", admissionController);
+		setField("element_loader", new ElementProjectionLoader(emptyProvider(), pageStateService, false));
+		setField("in_flight_registry", new LocalInFlightAuditRegistry(new SimpleMeterRegistry(), 1000));
+		setField("missing_record_cache", new MissingRecordCache(new SimpleMeterRegistry(), 30000, 100));
+		Bulkheads bulkheads = new Bulkheads(new SimpleMeterRegistry(), 4, 4, 4, 1000);
+		setField("bulkheads", bulkheads);
+		setField("pipeline", new AuditPipeline(new SimpleMeterRegistry(), false, 1, 1, 1, 1, 1));
+		setField("retry", new ScheduledRetry(new SimpleMeterRegistry(), 1, 0));
+		setField("batcher", new MessageBatcher(new SimpleMeterRegistry(), false, 0, 1));
+		setField("audit_writer", new AuditWriter(IssueMessageStore.saveOnly(mock(UXIssueMessageService.class), mock(AuditService.class), auditRecordService),
+												auditUpdateTopic, bulkheads, emptyProvider(), new SimpleMeterRegistry(), false, "unused", 1, 1, 0, 1, "unused"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ObjectProvider<T> emptyProvider() {
+		return mock(ObjectProvider.class);
 	}
 
 	private void setField(String fieldName, Object value) throws Exception {
@@ -153,7 +186,7 @@ public class AuditControllerUnitTest {
 
 	@Test
 	public void receiveMessageWithNullBodyReturnsOk() {
-		ResponseEntity<String> response = controller.receiveMessage(null);
+		ResponseEntity<String> response = controller.receiveMessage(null).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Invalid pubsub payload", response.getBody());
@@ -164,7 +197,7 @@ public class AuditControllerUnitTest {
 		Body body = mock(Body.class);
 		when(body.getMessage()).thenReturn(null);
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Invalid pubsub payload", response.getBody());
@@ -177,7 +210,7 @@ public class AuditControllerUnitTest {
 		when(body.getMessage()).thenReturn(message);
 		when(message.getData()).thenReturn(null);
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Invalid pubsub payload", response.getBody());
@@ -190,7 +223,7 @@ public class AuditControllerUnitTest {
 		when(body.getMessage()).thenReturn(message);
 		when(message.getData()).thenReturn("   ");
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Empty pubsub payload data", response.getBody());
@@ -203,7 +236,7 @@ public class AuditControllerUnitTest {
 		when(body.getMessage()).thenReturn(message);
 		when(message.getData()).thenReturn("not-valid-base64!!!");
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Invalid pubsub message format", response.getBody());
@@ -217,7 +250,7 @@ public class AuditControllerUnitTest {
 		when(body.getMessage()).thenReturn(message);
 		when(message.getData()).thenReturn(invalidJson);
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Invalid pubsub message format", response.getBody());
@@ -232,7 +265,7 @@ public class AuditControllerUnitTest {
 		when(body.getMessage()).thenReturn(message);
 		when(message.getData()).thenReturn(encoded);
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Invalid pageAuditId", response.getBody());
@@ -247,7 +280,7 @@ public class AuditControllerUnitTest {
 		when(body.getMessage()).thenReturn(message);
 		when(message.getData()).thenReturn(encoded);
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Invalid pageAuditId", response.getBody());
@@ -264,7 +297,7 @@ public class AuditControllerUnitTest {
 
 		when(auditRecordService.findById(42L)).thenReturn(Optional.empty());
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Audit record not found", response.getBody());
@@ -283,7 +316,7 @@ public class AuditControllerUnitTest {
 		when(auditRecordService.findById(42L)).thenReturn(Optional.of(auditRecord));
 		when(pageStateService.findByAuditRecordId(42L)).thenReturn(null);
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Page state not found", response.getBody());
@@ -291,7 +324,10 @@ public class AuditControllerUnitTest {
 
 	@Test
 	public void receiveMessageSuccessfulAuditReturnsOk() throws Exception {
-		String json = "{\"pageAuditId\":42,\"accountId\":1}";
+		assertAuditSucceeds("{\"pageAuditId\":42,\"accountId\":1}");
+	}
+
+	private void assertAuditSucceeds(String json) throws Exception {
 		String encoded = Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
 		Body body = mock(Body.class);
 		Body.Message message = mock(Body.Message.class);
@@ -320,14 +356,44 @@ public class AuditControllerUnitTest {
 		when(objectAltTextAudit.execute(any(), any(), any())).thenReturn(mockAudit);
 		when(svgAltTextAudit.execute(any(), any(), any())).thenReturn(mockAudit);
 		when(readabilityAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-		when(paragraphAudit.execute(any(), any(), any())).thenReturn(mockAudit);
+		ParagraphingAudit.Segmentation segmentation = mock(ParagraphingAudit.Segmentation.class);
+		when(segmentation.whenSegmented()).thenReturn(CompletableFuture.completedFuture(null));
+		when(segmentation.score()).thenReturn(mockAudit);
+		when(paragraphAudit.begin(any(), any())).thenReturn(segmentation);
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals("Successfully completed content audit", response.getBody());
 	}
 
+	@Test
+	public void receiveMessageRunsAuditInPipelineStages() throws Exception {
+		AuditPipeline pipeline = new AuditPipeline(new SimpleMeterRegistry(), true, 1, 1, 1, 1, 4);
+		setField("pipeline", pipeline);
+		try {
+			receiveMessageSuccessfulAuditReturnsOk();
+		} finally {
+			pipeline.close();
+		}
+	}
+
+	@Test
+	public void receiveMessageAuditsMessageOfADomainInABatch() throws Exception {
+		SimpleMeterRegistry meter_registry = new SimpleMeterRegistry();
+		AuditPipeline pipeline = new AuditPipeline(new SimpleMeterRegistry(), true, 1, 1, 1, 1, 4);
+		MessageBatcher batcher = new MessageBatcher(meter_registry, true, 0, 16);
+		setField("pipeline", pipeline);
+		setField("batcher", batcher);
+		try {
+			assertAuditSucceeds("{\"pageAuditId\":42,\"accountId\":1,\"domainAuditRecordId\":7}");
+			assertEquals(1, meter_registry.find("audit.batching.size").summary().count());
+		} finally {
+			batcher.close();
+			pipeline.close();
+		}
+	}
+
 	@Test
 	public void receiveMessageSkipsExistingAudits() throws Exception {
 		String json = "{\"pageAuditId\":42,\"accountId\":1}";
@@ -361,12 +427,12 @@ public class AuditControllerUnitTest {
 
 		when(auditRecordService.getAllAudits(42L)).thenReturn(existingAudits);
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		verify(imageAltTextAudit, never()).execute(any(), any(), any());
 		verify(readabilityAudit, never()).execute(any(), any(), any());
-		verify(paragraphAudit, never()).execute(any(), any(), any());
+		verify(paragraphAudit, never()).begin(any(), any());
 	}
 
 	@Test
@@ -391,9 +457,41 @@ public class AuditControllerUnitTest {
 
 		when(auditRecordService.getAllAudits(42L)).thenThrow(new RuntimeException("DB error"));
 
-		ResponseEntity<String> response = controller.receiveMessage(body);
+		ResponseEntity<String> response = controller.receiveMessage(body).join();
 
 		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
 		assertEquals("Error performing content audit", response.getBody());
 	}
+
+	@Test
+	public void receiveMessageDefersWhenHeapBudgetIsExhausted() throws Exception {
+		String json = "{\"pageAuditId\":42,\"accountId\":1}";
+		String encoded = Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+		Body body = mock(Body.class);
+		Body.Message message = mock(Body.Message.class);
+		when(body.getMessage()).thenReturn(message);
+		when(message.getData()).thenReturn(encoded);
+
+		AuditRecord auditRecord = mock(AuditRecord.class);
+		when(auditRecord.getId()).thenReturn(42L);
+		when(auditRecordService.findById(42L)).thenReturn(Optional.of(auditRecord));
+
+		PageState pageState = mock(PageState.class);
+		when(pageState.getId()).thenReturn(100L);
+		List<ElementState> elements = new ArrayList<>();
+		elements.add(mock(ElementState.class));
+		when(pageState.getElements()).thenReturn(elements);
+		when(pageStateService.findByAuditRecordId(42L)).thenReturn(pageState);
+		when(pageStateService.getElementStates(100L)).thenReturn(elements);
+
+		// another audit holds the whole 1 MB budget
+		try (MemoryAdmissionController.Permit permit = admissionController.admit(1024 * 1024)) {
+			ResponseEntity<String> response = controller.receiveMessage(body).join();
+
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+			verify(auditRecordService).getAllAudits(42L);
+			verify(imageAltTextAudit, never()).execute(any(), any(), any());
+		}
+		assertEquals(0, admissionController.getInFlightBytes());
+	}
 }
@@ -0,0 +1,139 @@
+package com.looksee.contentAudit.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.looksee.contentAudit.utils.LogSampler;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Measures the time the per-element statement of the readability loop spends
+ * logging for one page.
+ *
+ * <p>{@code fullTextWarnPerElement} logs the way the loop used to: every
+ * element's full text at WARN. {@code sampledStructuredDebug} logs the way
+ * {@code ReadabilityAudit.measureReadability} does now: a sampled line with
+ * the element id and text length at DEBUG. Each runs against a synchronous file appender and against the same
+ * appender wrapped in an {@link AsyncAppender}, with the logger at WARN as in
+ * production.</p>
+ *
+ * <p>Run with:</p>
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main AuditLoggingBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditLoggingBenchmark {
+
+	@Param({ "sync", "async" })
+	public String appender;
+
+	@Param({ "500" })
+	public int element_count;
+
+	private LoggerContext context;
+	private Logger log;
+	private File log_file;
+	private List<String> element_texts;
+	private LogSampler sampler;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		log_file = File.createTempFile("audit-logging-benchmark", ".log");
+		context = new LoggerContext();
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger : %m%n");
+		encoder.start();
+
+		FileAppender<ILoggingEvent> file_appender = new FileAppender<>();
+		file_appender.setContext(context);
+		file_appender.setFile(log_file.getAbsolutePath());
+		file_appender.setEncoder(encoder);
+		file_appender.start();
+
+		Appender<ILoggingEvent> root_appender = file_appender;
+		if ("async".equals(appender)) {
+			AsyncAppender async_appender = new AsyncAppender();
+			async_appender.setContext(context);
+			async_appender.setQueueSize(8192);
+			async_appender.setNeverBlock(true);
+			async_appender.addAppender(file_appender);
+			async_appender.start();
+			root_appender = async_appender;
+		}
+
+		log = context.getLogger(AuditLoggingBenchmark.class.getName());
+		log.setLevel(ch.qos.logback.classic.Level.WARN);
+		log.setAdditive(false);
+		log.addAppender(root_appender);
+
+		element_texts = new ArrayList<>(element_count);
+		for (int i = 0; i < element_count; i++) {
+			StringBuilder text = new StringBuilder();
+			for (int sentence = 0; sentence < 5; sentence++) {
+				text.append("Element ").append(i).append(" sentence ").append(sentence)
+					.append(" has an ordinary amount of body copy to read. ");
+			}
+			element_texts.add(text.toString());
+		}
+		sampler = new LogSampler(100);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.stop();
+		log_file.delete();
+	}
+
+	@Benchmark
+	public void fullTextWarnPerElement(Blackhole blackhole) {
+		for (String text : element_texts) {
+			log.warn("Calculating readability of text : " + text);
+			blackhole.consume(text.length());
+		}
+	}
+
+	@Benchmark
+	public void sampledStructuredDebug(Blackhole blackhole) {
+		for (int i = 0; i < element_texts.size(); i++) {
+			String text = element_texts.get(i);
+			if (log.isDebugEnabled() && sampler.sample()) {
+				log.debug("calculating readability elementId={} textLength={}", i, text.length());
+			}
+			blackhole.consume(text.length());
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package com.looksee.contentAudit.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.looksee.contentAudit.loadtest.SyntheticPageGenerator;
+import com.looksee.contentAudit.models.ContentElementState;
+import com.looksee.models.ElementState;
+
+/**
+ * Compares loading one page's elements as complete entities with loading them
+ * through the content audit projection.
+ *
+ * <p>Rows are built from a synthetic page. A complete row also carries the
+ * properties a stored {@code ElementState} has besides the projected ones:
+ * flattened attributes and rendered CSS values, location, size, colors and
+ * screenshot metadata. Each benchmark decodes one page of rows into fresh maps,
+ * as the driver does, and keeps the elements built from them. The
+ * {@code transfer_bytes} counter reports the page's row payload, counting UTF-8
+ * bytes for keys and strings and 8 bytes per number. Run with {@code -prof gc}
+ * and compare {@code gc.alloc.rate.norm} for the heap per page.
+ * {@code taggedElements} loads only the rows with the tags the alt-text
+ * audits evaluate, as they do when no text audit is pending.</p>
+ *
+ * <p>Run with:</p>
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ElementProjectionBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementProjectionBenchmark {
+
+	private static final String[] CSS_PROPERTIES = {
+		"color", "background-color", "font-family", "font-size", "font-weight", "line-height",
+		"letter-spacing", "text-align", "text-decoration", "text-transform", "display", "position",
+		"top", "left", "width", "height", "margin-top", "margin-right", "margin-bottom", "margin-left",
+		"padding-top", "padding-right", "padding-bottom", "padding-left", "border-top-width",
+		"border-right-width", "border-bottom-width", "border-left-width", "border-color", "border-radius",
+		"box-shadow", "opacity", "overflow", "visibility", "z-index", "cursor", "white-space",
+		"vertical-align", "flex-direction", "justify-content", "align-items", "transform"
+	};
+	private static final String[] CSS_VALUES = {
+		"rgb(33, 37, 41)", "rgba(0, 0, 0, 0)", "\"Helvetica Neue\", Arial, sans-serif", "16px", "400",
+		"24px", "normal", "left", "none solid rgb(33, 37, 41)", "block", "static", "auto", "0px", "8px"
+	};
+
+	private static final Set<String> ALT_TEXT_TAG_NAMES = Set.of("area", "input", "embed", "applet", "video", "audio",
+																"iframe", "object", "canvas", "svg");
+
+	@Param({ "500" })
+	public int element_count;
+
+	private List<Map<String, Object>> complete_rows;
+	private List<Map<String, Object>> projected_rows;
+	private List<Map<String, Object>> tagged_rows;
+
+	/**
+	 * Row payload of the page last loaded by the benchmark.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Transfer {
+		public long transfer_bytes;
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<ElementState> elements = new SyntheticPageGenerator(42).generatePage(1, element_count).getElements();
+		complete_rows = new ArrayList<>(elements.size());
+		projected_rows = new ArrayList<>(elements.size());
+		tagged_rows = new ArrayList<>();
+		for(ElementState element : elements) {
+			Map<String, Object> projected_row = new HashMap<>();
+			projected_row.put("id", element.getId());
+			projected_row.put("name", element.getName());
+			projected_row.put("key", element.getKey());
+			projected_row.put("xpath", element.getXpath());
+			projected_row.put("ownedText", element.getOwnedText());
+			projected_row.put("allText", element.getAllText());
+			projected_row.put("outerHtml", element.getOuterHtml());
+			projected_rows.add(projected_row);
+			if(ALT_TEXT_TAG_NAMES.contains(element.getName())) {
+				tagged_rows.add(projected_row);
+			}
+
+			Map<String, Object> complete_row = new HashMap<>(projected_row);
+			long id = element.getId();
+			complete_row.put("attributes.class", "content-block block-" + (id % 17));
+			complete_row.put("attributes.id", "el-" + id);
+			complete_row.put("attributes.style", "margin: 0 auto; max-width: 72ch;");
+			complete_row.put("attributes.data-track", "section-" + (id % 5));
+			for(int idx = 0; idx < CSS_PROPERTIES.length; idx++) {
+				complete_row.put("renderedCssValues." + CSS_PROPERTIES[idx], CSS_VALUES[(int) ((id + idx) % CSS_VALUES.length)]);
+			}
+			complete_row.put("cssSelector", "body > main > div:nth-child(" + (id % 40) + ")");
+			complete_row.put("classification", "LEAF");
+			complete_row.put("screenshotUrl", "https://storage.googleapis.com/look-see-screenshots/page-1/element-" + id + ".png");
+			complete_row.put("screenshotChecksum", Long.toHexString(id * 0x9E3779B97F4A7C15L));
+			complete_row.put("xLocation", id % 1280);
+			complete_row.put("yLocation", id * 24);
+			complete_row.put("width", 640L);
+			complete_row.put("height", 24L);
+			complete_row.put("backgroundColor", "rgb(255, 255, 255)");
+			complete_row.put("foregroundColor", "rgb(33, 37, 41)");
+			complete_row.put("textContrast", 15.3);
+			complete_row.put("nonTextContrast", 1.0);
+			complete_row.put("imageFlagged", Boolean.FALSE);
+			complete_row.put("visible", Boolean.TRUE);
+			complete_row.put("createdAt", "2024-03-01T12:00:00Z");
+			complete_rows.add(complete_row);
+		}
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> completeEntities(Transfer transfer) {
+		List<Map<String, Object>> elements = new ArrayList<>(complete_rows.size());
+		long bytes = 0;
+		for(Map<String, Object> row : complete_rows) {
+			Map<String, Object> decoded = new HashMap<>(row);
+			bytes += payloadBytes(decoded);
+			elements.add(decoded);
+		}
+		transfer.transfer_bytes = bytes;
+		return elements;
+	}
+
+	@Benchmark
+	public List<ElementState> projectedElements(Transfer transfer) {
+		return project(projected_rows, transfer);
+	}
+
+	@Benchmark
+	public List<ElementState> taggedElements(Transfer transfer) {
+		return project(tagged_rows, transfer);
+	}
+
+	private static List<ElementState> project(List<Map<String, Object>> rows, Transfer transfer) {
+		List<ElementState> elements = new ArrayList<>(rows.size());
+		long bytes = 0;
+		for(Map<String, Object> row : rows) {
+			Map<String, Object> decoded = new HashMap<>(row);
+			bytes += payloadBytes(decoded);
+			elements.add(new ContentElementState(((Number) decoded.get("id")).longValue(),
+												(String) decoded.get("name"),
+												(String) decoded.get("key"),
+												(String) decoded.get("xpath"),
+												(String) decoded.get("ownedText"),
+												(String) decoded.get("allText"),
+												(String) decoded.get("outerHtml")));
+		}
+		transfer.transfer_bytes = bytes;
+		return elements;
+	}
+
+	private static long payloadBytes(Map<String, Object> row) {
+		long bytes = 0;
+		for(Map.Entry<String, Object> entry : row.entrySet()) {
+			bytes += entry.getKey().getBytes(StandardCharsets.UTF_8).length;
+			Object value = entry.getValue();
+			if(value instanceof String) {
+				bytes += ((String) value).getBytes(StandardCharsets.UTF_8).length;
+			}
+			else if(value instanceof Boolean) {
+				bytes += 1;
+			}
+			else if(value != null) {
+				bytes += 8;
+			}
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,36 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Writes a synthetic page corpus file for the load-test profile and
+ * benchmarks.
+ *
+ * <p>Run with:</p>
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath com.looksee.contentAudit.loadtest.GenerateCorpus --out corpus.bin --pages 1000 --elements 5000"
+ * </pre>
+ *
+ * <p>Options: {@code --out} (required), {@code --pages} (default 100),
+ * {@code --elements} per page (default 500) and {@code --seed} (default 42).</p>
+ */
+public class GenerateCorpus {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = LoadGenerator.parseOptions(args);
+		if(!options.containsKey("out")) {
+			throw new IllegalArgumentException("--out is required");
+		}
+		Path out = Paths.get(options.get("out"));
+		int pages = Integer.parseInt(options.getOrDefault("pages", "100"));
+		int elements = Integer.parseInt(options.getOrDefault("elements", "500"));
+		long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+		new SyntheticPageGenerator(seed).generate(pages, elements).write(out);
+		System.out.printf("wrote %d pages of %d elements to %s (%d bytes)%n", pages, elements, out, Files.size(out));
+	}
+}
@@ -0,0 +1,60 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+import com.looksee.services.AuditRecordService;
+
+/**
+ * {@link AuditRecordService} backed by {@link SyntheticPageFixtures}.
+ *
+ * <p>No audit record ever has existing audits, so every replayed message runs
+ * every content audit. Added audits are only counted. Every call goes through
+ * {@link ServiceCallMeter}.</p>
+ */
+public class InMemoryAuditRecordService extends AuditRecordService {
+	private static final String SERVICE = "AuditRecordService";
+
+	private final SyntheticPageFixtures fixtures;
+	private final ServiceCallMeter calls;
+	private final AtomicLong audits_added = new AtomicLong();
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param fixtures the fixtures to serve, must not be null
+	 * @param calls meter the service's calls are counted and delayed by, must not be null
+	 * @throws NullPointerException if {@code fixtures} or {@code calls} is null
+	 */
+	public InMemoryAuditRecordService(SyntheticPageFixtures fixtures, ServiceCallMeter calls) {
+		this.fixtures = Objects.requireNonNull(fixtures, "fixtures must not be null");
+		this.calls = Objects.requireNonNull(calls, "calls must not be null");
+	}
+
+	@Override
+	public Optional<AuditRecord> findById(long id) {
+		calls.call(SERVICE, "findById");
+		return Optional.ofNullable(fixtures.findAuditRecord(id));
+	}
+
+	@Override
+	public Set<Audit> getAllAudits(long id) {
+		calls.call(SERVICE, "getAllAudits");
+		return new HashSet<>();
+	}
+
+	@Override
+	public void addAudit(long audit_record_id, long audit_id) {
+		calls.call(SERVICE, "addAudit");
+		audits_added.incrementAndGet();
+	}
+
+	public long getAuditsAdded() {
+		return audits_added.get();
+	}
+}
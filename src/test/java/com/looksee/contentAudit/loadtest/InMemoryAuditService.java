@@ -0,0 +1,47 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.AuditService;
+
+/**
+ * {@link AuditService} that gives saved audits ids instead of storing them.
+ *
+ * <p>Audits and their issue links are not retained, so the heap the load
+ * generator measures is the service's own. Every call goes through
+ * {@link ServiceCallMeter}.</p>
+ */
+public class InMemoryAuditService extends AuditService {
+	private static final String SERVICE = "AuditService";
+
+	private final ServiceCallMeter calls;
+	private final AtomicLong next_id = new AtomicLong(1);
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param calls meter the service's calls are counted and delayed by, must not be null
+	 * @throws NullPointerException if {@code calls} is null
+	 */
+	public InMemoryAuditService(ServiceCallMeter calls) {
+		this.calls = Objects.requireNonNull(calls, "calls must not be null");
+	}
+
+	@Override
+	public Audit save(Audit audit) {
+		calls.call(SERVICE, "save");
+		if(audit.getId() == null) {
+			audit.setId(next_id.getAndIncrement());
+		}
+		return audit;
+	}
+
+	@Override
+	public void addAllIssues(Long audit_id, Set<UXIssueMessage> issue_messages) {
+		calls.call(SERVICE, "addAllIssues");
+	}
+}
@@ -0,0 +1,43 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+import com.looksee.services.PageStateService;
+
+/**
+ * {@link PageStateService} backed by {@link SyntheticPageFixtures}. Every
+ * call goes through {@link ServiceCallMeter}.
+ */
+public class InMemoryPageStateService extends PageStateService {
+	private static final String SERVICE = "PageStateService";
+
+	private final SyntheticPageFixtures fixtures;
+	private final ServiceCallMeter calls;
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param fixtures the fixtures to serve, must not be null
+	 * @param calls meter the service's calls are counted and delayed by, must not be null
+	 * @throws NullPointerException if {@code fixtures} or {@code calls} is null
+	 */
+	public InMemoryPageStateService(SyntheticPageFixtures fixtures, ServiceCallMeter calls) {
+		this.fixtures = Objects.requireNonNull(fixtures, "fixtures must not be null");
+		this.calls = Objects.requireNonNull(calls, "calls must not be null");
+	}
+
+	@Override
+	public PageState findByAuditRecordId(long audit_record_id) {
+		calls.call(SERVICE, "findByAuditRecordId");
+		return fixtures.findPage(audit_record_id);
+	}
+
+	@Override
+	public List<ElementState> getElementStates(long page_id) {
+		calls.call(SERVICE, "getElementStates");
+		return fixtures.getElementStates(page_id);
+	}
+}
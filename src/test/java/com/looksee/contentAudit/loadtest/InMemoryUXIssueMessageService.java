@@ -0,0 +1,46 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.UXIssueMessageService;
+
+/**
+ * {@link UXIssueMessageService} that gives saved issue messages ids instead
+ * of storing them.
+ *
+ * <p>Messages and their element links are not retained, so the heap the load
+ * generator measures is the service's own. Every call goes through
+ * {@link ServiceCallMeter}.</p>
+ */
+public class InMemoryUXIssueMessageService extends UXIssueMessageService {
+	private static final String SERVICE = "UXIssueMessageService";
+
+	private final ServiceCallMeter calls;
+	private final AtomicLong next_id = new AtomicLong(1);
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param calls meter the service's calls are counted and delayed by, must not be null
+	 * @throws NullPointerException if {@code calls} is null
+	 */
+	public InMemoryUXIssueMessageService(ServiceCallMeter calls) {
+		this.calls = Objects.requireNonNull(calls, "calls must not be null");
+	}
+
+	@Override
+	public UXIssueMessage save(UXIssueMessage message) {
+		calls.call(SERVICE, "save");
+		if(message.getId() == null) {
+			message.setId(next_id.getAndIncrement());
+		}
+		return message;
+	}
+
+	@Override
+	public void addElement(Long message_id, Long element_id) {
+		calls.call(SERVICE, "addElement");
+	}
+}
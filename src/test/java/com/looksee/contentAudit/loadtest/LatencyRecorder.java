@@ -0,0 +1,86 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records request outcomes and latencies for {@link LoadGenerator}.
+ *
+ * <p>Thread-safe.</p>
+ */
+class LatencyRecorder {
+	private final List<Long> latencies_nanos = new ArrayList<>();
+	private long succeeded;
+	private long rejected;
+	private long failed;
+
+	synchronized void success(long latency_nanos) {
+		succeeded++;
+		latencies_nanos.add(latency_nanos);
+	}
+
+	/**
+	 * Records a request the service answered with 503 so that Pub/Sub
+	 * redelivers it, e.g. when its heap budget or write-behind queue is full.
+	 */
+	synchronized void rejected(long latency_nanos) {
+		rejected++;
+		latencies_nanos.add(latency_nanos);
+	}
+
+	synchronized void failure() {
+		failed++;
+	}
+
+	synchronized long getSucceeded() {
+		return succeeded;
+	}
+
+	synchronized long getRejected() {
+		return rejected;
+	}
+
+	synchronized long getFailed() {
+		return failed;
+	}
+
+	synchronized long getTotal() {
+		return succeeded + rejected + failed;
+	}
+
+	/**
+	 * Returns the fraction of requests that were rejected or failed.
+	 *
+	 * @return error rate between 0 and 1, 0 if nothing was recorded
+	 */
+	synchronized double getErrorRate() {
+		long total = getTotal();
+		return total == 0 ? 0 : (double) (rejected + failed) / total;
+	}
+
+	/**
+	 * Returns the nearest-rank percentile of the recorded latencies.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code percentile} must be in (0, 100]</li>
+	 * </ul>
+	 *
+	 * @param percentile the percentile, in (0, 100]
+	 * @return the latency in milliseconds, 0 if nothing was recorded
+	 * @throws IllegalArgumentException if {@code percentile} is out of range
+	 */
+	synchronized double percentileMillis(double percentile) {
+		if(percentile <= 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be in (0, 100], got: " + percentile);
+		}
+		if(latencies_nanos.isEmpty()) {
+			return 0;
+		}
+		List<Long> sorted = new ArrayList<>(latencies_nanos);
+		Collections.sort(sorted);
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+		return sorted.get(Math.max(rank, 1) - 1) / 1_000_000.0;
+	}
+}
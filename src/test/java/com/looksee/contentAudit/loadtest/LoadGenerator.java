@@ -0,0 +1,191 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Replays Pub/Sub push traffic against a running content audit service.
+ *
+ * <p>Posts base64-encoded {@code PageAuditMessage} bodies to the controller at
+ * a fixed rate, cycling through page audit ids {@code 1} to {@code --pages}.
+ * The service should run with the {@code loadtest} profile so that those ids
+ * resolve to synthetic pages. Responses are classified by status code: any
+ * 2xx as succeeded, whatever the body, 503 as rejected, since the service
+ * deferred the message for Pub/Sub to redeliver, and anything else as failed.
+ * At the end it prints throughput, p50/p99 latency, error rate and the
+ * service's heap use, sampled once a second from the actuator.</p>
+ *
+ * <p>Run with:</p>
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath com.looksee.contentAudit.loadtest.LoadGenerator --rate 20 --duration 60"
+ * </pre>
+ *
+ * <p>Options: {@code --target} (default {@code http://localhost:8080/}),
+ * {@code --metrics} (default {@code http://localhost:8081/actuator/metrics/jvm.memory.used?tag=area:heap}),
+ * {@code --rate} messages per second (default 10), {@code --duration} seconds
+ * (default 30), {@code --pages} (default 100) and {@code --concurrency}
+ * maximum requests in flight (default 32).</p>
+ */
+public class LoadGenerator {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parseOptions(args);
+		URI target = URI.create(options.getOrDefault("target", "http://localhost:8080/"));
+		URI metrics = URI.create(options.getOrDefault("metrics", "http://localhost:8081/actuator/metrics/jvm.memory.used?tag=area:heap"));
+		int rate = Integer.parseInt(options.getOrDefault("rate", "10"));
+		int duration_seconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+		int pages = Integer.parseInt(options.getOrDefault("pages", "100"));
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+		if(rate <= 0 || duration_seconds <= 0 || pages <= 0 || concurrency <= 0) {
+			throw new IllegalArgumentException("rate, duration, pages and concurrency must be positive");
+		}
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		LatencyRecorder recorder = new LatencyRecorder();
+		Semaphore in_flight = new Semaphore(concurrency);
+		AtomicLong sequence = new AtomicLong();
+		AtomicLong max_heap = new AtomicLong(-1);
+		AtomicLong last_heap = new AtomicLong(-1);
+
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+		scheduler.scheduleAtFixedRate(() -> {
+			long seq = sequence.getAndIncrement();
+			if(!in_flight.tryAcquire()) {
+				recorder.failure();
+				return;
+			}
+			HttpRequest request = HttpRequest.newBuilder(target)
+					.timeout(Duration.ofSeconds(60))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(pushBody(seq % pages + 1, seq)))
+					.build();
+			long start = System.nanoTime();
+			client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+				long latency = System.nanoTime() - start;
+				in_flight.release();
+				if(error != null) {
+					recorder.failure();
+				}
+				else {
+					record(recorder, response.statusCode(), latency);
+				}
+			});
+		}, 0, 1_000_000_000L / rate, TimeUnit.NANOSECONDS);
+
+		scheduler.scheduleAtFixedRate(() -> {
+			long heap = sampleHeapBytes(client, metrics);
+			if(heap >= 0) {
+				last_heap.set(heap);
+				max_heap.accumulateAndGet(heap, Math::max);
+			}
+		}, 0, 1, TimeUnit.SECONDS);
+
+		long start = System.nanoTime();
+		Thread.sleep(TimeUnit.SECONDS.toMillis(duration_seconds));
+		scheduler.shutdown();
+		in_flight.acquire(concurrency);
+		double elapsed_seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("requests=%d succeeded=%d rejected=%d failed=%d%n",
+				recorder.getTotal(), recorder.getSucceeded(), recorder.getRejected(), recorder.getFailed());
+		System.out.printf("throughput=%.1f msg/s p50=%.1f ms p99=%.1f ms errorRate=%.2f%%%n",
+				recorder.getSucceeded() / elapsed_seconds, recorder.percentileMillis(50),
+				recorder.percentileMillis(99), recorder.getErrorRate() * 100);
+		System.out.printf("heapUsed max=%s last=%s%n", megabytes(max_heap.get()), megabytes(last_heap.get()));
+	}
+
+	/**
+	 * Records a response by its status code: 2xx as succeeded, 503 as
+	 * rejected and anything else as failed.
+	 */
+	static void record(LatencyRecorder recorder, int status_code, long latency_nanos) {
+		if(status_code >= 200 && status_code < 300) {
+			recorder.success(latency_nanos);
+		}
+		else if(status_code == 503) {
+			recorder.rejected(latency_nanos);
+		}
+		else {
+			recorder.failure();
+		}
+	}
+
+	/**
+	 * Builds a Pub/Sub push body whose message data is the base64-encoded
+	 * {@code PageAuditMessage} for the given page audit.
+	 *
+	 * @param page_audit_id the page audit id, also used as the page id
+	 * @param sequence unique sequence number used as the message id
+	 * @return the JSON body
+	 */
+	static String pushBody(long page_audit_id, long sequence) {
+		ObjectNode page_audit_message = MAPPER.createObjectNode();
+		page_audit_message.put("pageAuditId", page_audit_id);
+		page_audit_message.put("accountId", 1);
+		page_audit_message.put("pageId", page_audit_id);
+
+		ObjectNode body = MAPPER.createObjectNode();
+		ObjectNode message = body.putObject("message");
+		message.put("data", Base64.getEncoder().encodeToString(page_audit_message.toString().getBytes(StandardCharsets.UTF_8)));
+		message.put("messageId", "loadtest-" + sequence);
+		body.put("subscription", "loadtest");
+		return body.toString();
+	}
+
+	static Map<String, String> parseOptions(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for(int idx = 0; idx < args.length; idx++) {
+			if(!args[idx].startsWith("--") || idx + 1 >= args.length) {
+				throw new IllegalArgumentException("expected --option value, got: " + args[idx]);
+			}
+			options.put(args[idx].substring(2), args[++idx]);
+		}
+		return options;
+	}
+
+	/**
+	 * Reads used heap from the actuator metrics endpoint.
+	 *
+	 * @return used heap in bytes, or -1 if the endpoint is unavailable
+	 */
+	private static long sampleHeapBytes(HttpClient client, URI metrics) {
+		try {
+			HttpResponse<String> response = client.send(HttpRequest.newBuilder(metrics).timeout(Duration.ofSeconds(2)).build(),
+					HttpResponse.BodyHandlers.ofString());
+			if(response.statusCode() != 200) {
+				return -1;
+			}
+			JsonNode measurements = MAPPER.readTree(response.body()).path("measurements");
+			return measurements.isArray() && measurements.size() > 0 ? measurements.get(0).path("value").asLong(-1) : -1;
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return -1;
+		}
+		catch(Exception e) {
+			return -1;
+		}
+	}
+
+	private static String megabytes(long bytes) {
+		return bytes < 0 ? "n/a" : String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+	}
+}
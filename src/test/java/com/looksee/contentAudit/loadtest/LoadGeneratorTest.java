@@ -0,0 +1,81 @@
+package com.looksee.contentAudit.loadtest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class LoadGeneratorTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void pushBodyEncodesPageAuditMessage() throws Exception {
+		JsonNode body = mapper.readTree(LoadGenerator.pushBody(7, 42));
+
+		assertEquals("loadtest-42", body.path("message").path("messageId").asText());
+		String data = new String(Base64.getDecoder().decode(body.path("message").path("data").asText()), StandardCharsets.UTF_8);
+		JsonNode page_audit_message = mapper.readTree(data);
+		assertEquals(7, page_audit_message.path("pageAuditId").asLong());
+		assertEquals(7, page_audit_message.path("pageId").asLong());
+		assertEquals(1, page_audit_message.path("accountId").asLong());
+	}
+
+	@Test
+	public void parseOptionsReadsPairs() {
+		Map<String, String> options = LoadGenerator.parseOptions(new String[] { "--rate", "25", "--pages", "10" });
+
+		assertEquals("25", options.get("rate"));
+		assertEquals("10", options.get("pages"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parseOptionsRejectsDanglingOption() {
+		LoadGenerator.parseOptions(new String[] { "--rate" });
+	}
+
+	@Test
+	public void recorderReportsNearestRankPercentilesAndErrorRate() {
+		LatencyRecorder recorder = new LatencyRecorder();
+		for(long millis = 1; millis <= 100; millis++) {
+			recorder.success(millis * 1_000_000);
+		}
+
+		assertEquals(50.0, recorder.percentileMillis(50), 0.001);
+		assertEquals(99.0, recorder.percentileMillis(99), 0.001);
+
+		recorder.rejected(500_000_000);
+		recorder.failure();
+
+		assertEquals(500.0, recorder.percentileMillis(100), 0.001);
+		assertEquals(2.0 / 102, recorder.getErrorRate(), 1e-9);
+	}
+
+	@Test
+	public void recordClassifiesResponsesByStatusCode() {
+		LatencyRecorder recorder = new LatencyRecorder();
+
+		LoadGenerator.record(recorder, 200, 1_000_000);
+		LoadGenerator.record(recorder, 204, 1_000_000);
+		LoadGenerator.record(recorder, 503, 1_000_000);
+		LoadGenerator.record(recorder, 500, 1_000_000);
+
+		assertEquals(2, recorder.getSucceeded());
+		assertEquals(1, recorder.getRejected());
+		assertEquals(1, recorder.getFailed());
+	}
+
+	@Test
+	public void emptyRecorderReportsZero() {
+		LatencyRecorder recorder = new LatencyRecorder();
+
+		assertEquals(0.0, recorder.percentileMillis(99), 0.0);
+		assertEquals(0.0, recorder.getErrorRate(), 0.0);
+	}
+}
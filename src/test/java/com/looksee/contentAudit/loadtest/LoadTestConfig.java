@@ -0,0 +1,129 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.looksee.contentAudit.services.IssueMessageStore;
+import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
+import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
+import com.looksee.services.PageStateService;
+import com.looksee.services.UXIssueMessageService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the audit record, page state and audit update dependencies of the
+ * controller with in-memory stand-ins when the {@code loadtest} profile is
+ * active. The controller then serves synthetic pages, so the load generator
+ * can replay traffic without production data.
+ *
+ * <p>Pages are read from {@code loadtest.corpus-file} when it is set, and
+ * generated from {@code loadtest.seed} otherwise; either way page audit ids
+ * {@code 1} to the number of pages are valid. Issue messages and audits are
+ * saved through in-memory stand-ins too, unless
+ * {@code loadtest.in-memory-persistence=false}, in which case they go through
+ * the configured {@code AuditService} and {@code UXIssueMessageService}.
+ * With the in-memory stand-ins, issue messages and audits are saved as new
+ * objects and linked directly rather than merged on their keys, which needs
+ * Neo4j, and batches of audit
+ * results are written within a transaction manager that does nothing.</p>
+ *
+ * <p>Calls to the stand-ins are counted and delayed by
+ * {@link ServiceCallMeter}, configured by {@code loadtest.latency-ms} and
+ * {@code loadtest.latency-jitter-ms}.</p>
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+	@Bean
+	public SyntheticPageFixtures syntheticPageFixtures(@Value("${loadtest.corpus-file:}") String corpus_file,
+													@Value("${loadtest.pages:100}") int pages,
+													@Value("${loadtest.elements-per-page:500}") int elements_per_page,
+													@Value("${loadtest.seed:42}") long seed) throws IOException {
+		if(!corpus_file.isBlank()) {
+			return new SyntheticPageFixtures(SyntheticPageCorpus.read(Paths.get(corpus_file)));
+		}
+		return new SyntheticPageFixtures(new SyntheticPageGenerator(seed).generate(pages, elements_per_page));
+	}
+
+	@Bean
+	public ServiceCallMeter serviceCallMeter(MeterRegistry meter_registry,
+											@Value("${loadtest.latency-ms:0}") long latency_ms,
+											@Value("${loadtest.latency-jitter-ms:0}") long latency_jitter_ms) {
+		return new ServiceCallMeter(meter_registry, latency_ms, latency_jitter_ms);
+	}
+
+	@Bean
+	@Primary
+	public AuditRecordService inMemoryAuditRecordService(SyntheticPageFixtures fixtures, ServiceCallMeter calls) {
+		return new InMemoryAuditRecordService(fixtures, calls);
+	}
+
+	@Bean
+	@Primary
+	public PageStateService inMemoryPageStateService(SyntheticPageFixtures fixtures, ServiceCallMeter calls) {
+		return new InMemoryPageStateService(fixtures, calls);
+	}
+
+	@Bean
+	@Primary
+	@ConditionalOnProperty(name = "loadtest.in-memory-persistence", havingValue = "true", matchIfMissing = true)
+	public AuditService inMemoryAuditService(ServiceCallMeter calls) {
+		return new InMemoryAuditService(calls);
+	}
+
+	@Bean
+	@Primary
+	@ConditionalOnProperty(name = "loadtest.in-memory-persistence", havingValue = "true", matchIfMissing = true)
+	public UXIssueMessageService inMemoryUXIssueMessageService(ServiceCallMeter calls) {
+		return new InMemoryUXIssueMessageService(calls);
+	}
+
+	@Bean
+	@Primary
+	@ConditionalOnProperty(name = "loadtest.in-memory-persistence", havingValue = "true", matchIfMissing = true)
+	public IssueMessageStore inMemoryIssueMessageStore(UXIssueMessageService issue_message_service,
+														AuditService audit_service,
+														AuditRecordService audit_record_service) {
+		return IssueMessageStore.saveOnly(issue_message_service, audit_service, audit_record_service);
+	}
+
+	@Bean
+	@Primary
+	@ConditionalOnProperty(name = "loadtest.in-memory-persistence", havingValue = "true", matchIfMissing = true)
+	public PlatformTransactionManager inMemoryTransactionManager() {
+		return new PlatformTransactionManager() {
+			@Override
+			public TransactionStatus getTransaction(TransactionDefinition definition) {
+				return new SimpleTransactionStatus();
+			}
+
+			@Override
+			public void commit(TransactionStatus status) {
+			}
+
+			@Override
+			public void rollback(TransactionStatus status) {
+			}
+		};
+	}
+
+	@Bean
+	@Primary
+	public PubSubAuditUpdatePublisherImpl recordingAuditUpdatePublisher() {
+		return new RecordingAuditUpdatePublisher();
+	}
+}
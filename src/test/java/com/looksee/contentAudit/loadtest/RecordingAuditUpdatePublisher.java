@@ -0,0 +1,22 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
+
+/**
+ * Audit update publisher that counts progress updates instead of sending them
+ * to Pub/Sub.
+ */
+public class RecordingAuditUpdatePublisher extends PubSubAuditUpdatePublisherImpl {
+	private final AtomicLong published = new AtomicLong();
+
+	@Override
+	public void publish(String message) {
+		published.incrementAndGet();
+	}
+
+	public long getPublishedCount() {
+		return published.get();
+	}
+}
@@ -0,0 +1,92 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the calls made to the in-memory service stand-ins and delays each by
+ * a simulated database latency, so the load generator can measure the
+ * pipeline's compute ceiling with no latency and its sensitivity to latency
+ * with some.
+ *
+ * <p>Each call waits {@code loadtest.latency-ms} plus a uniformly random
+ * extra of up to {@code loadtest.latency-jitter-ms}, and is counted in the
+ * {@code loadtest.service.calls} counter tagged by {@code service} and
+ * {@code method}.</p>
+ *
+ * <p>Thread-safe.</p>
+ */
+public class ServiceCallMeter {
+	private final MeterRegistry meter_registry;
+	private final long latency_ms;
+	private final long latency_jitter_ms;
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the meter.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code meter_registry} must not be null</li>
+	 *   <li>{@code latency_ms} and {@code latency_jitter_ms} must not be negative</li>
+	 * </ul>
+	 *
+	 * @param meter_registry registry the call counters are published to, must not be null
+	 * @param latency_ms delay added to every call
+	 * @param latency_jitter_ms maximum random delay added on top of {@code latency_ms}
+	 * @throws NullPointerException if {@code meter_registry} is null
+	 * @throws IllegalArgumentException if a latency is negative
+	 */
+	public ServiceCallMeter(MeterRegistry meter_registry, long latency_ms, long latency_jitter_ms) {
+		this.meter_registry = Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		if(latency_ms < 0 || latency_jitter_ms < 0) {
+			throw new IllegalArgumentException("latencies must not be negative");
+		}
+		this.latency_ms = latency_ms;
+		this.latency_jitter_ms = latency_jitter_ms;
+	}
+
+	/**
+	 * Counts a call and waits the simulated latency. An interrupted wait ends
+	 * early with the thread's interrupt flag set again.
+	 *
+	 * @param service the simple name of the service called, must not be null
+	 * @param method the method called, must not be null
+	 */
+	public void call(String service, String method) {
+		counter(service, method).increment();
+
+		long delay_ms = latency_ms + (latency_jitter_ms > 0 ? ThreadLocalRandom.current().nextLong(latency_jitter_ms + 1) : 0);
+		if(delay_ms > 0) {
+			try {
+				Thread.sleep(delay_ms);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @param service the simple name of the service, must not be null
+	 * @param method the method, must not be null
+	 * @return the number of calls made to the method so far
+	 */
+	public long count(String service, String method) {
+		return (long) counter(service, method).count();
+	}
+
+	private Counter counter(String service, String method) {
+		Objects.requireNonNull(service, "service must not be null");
+		Objects.requireNonNull(method, "method must not be null");
+		return counters.computeIfAbsent(service + '.' + method, name -> Counter.builder("loadtest.service.calls")
+																			.tag("service", service)
+																			.tag("method", method)
+																			.description("Calls made to an in-memory service stand-in")
+																			.register(meter_registry));
+	}
+}
@@ -0,0 +1,50 @@
+package com.looksee.contentAudit.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.looksee.models.audit.messages.UXIssueMessage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ServiceCallMeterTest {
+
+	@Test
+	public void countsCallsPerServiceAndMethod() {
+		SimpleMeterRegistry meter_registry = new SimpleMeterRegistry();
+		ServiceCallMeter calls = new ServiceCallMeter(meter_registry, 0, 0);
+		InMemoryUXIssueMessageService issue_message_service = new InMemoryUXIssueMessageService(calls);
+
+		UXIssueMessage first = issue_message_service.save(new UXIssueMessage());
+		UXIssueMessage second = issue_message_service.save(new UXIssueMessage());
+		issue_message_service.addElement(first.getId(), 7L);
+
+		assertNotEquals(first.getId(), second.getId());
+		assertEquals(2, calls.count("UXIssueMessageService", "save"));
+		assertEquals(1, calls.count("UXIssueMessageService", "addElement"));
+		assertEquals(0, calls.count("AuditService", "save"));
+		assertEquals(2, meter_registry.find("loadtest.service.calls")
+									.tag("service", "UXIssueMessageService")
+									.tag("method", "save")
+									.counter().count(), 0);
+	}
+
+	@Test
+	public void delaysEveryCallByTheConfiguredLatency() {
+		ServiceCallMeter calls = new ServiceCallMeter(new SimpleMeterRegistry(), 20, 10);
+
+		long start = System.nanoTime();
+		calls.call("PageStateService", "getElementStates");
+		long elapsed_ms = (System.nanoTime() - start) / 1_000_000;
+
+		assertTrue(elapsed_ms >= 20);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeLatency() {
+		new ServiceCallMeter(new SimpleMeterRegistry(), -1, 0);
+	}
+}
@@ -0,0 +1,27 @@
+package com.looksee.contentAudit.loadtest;
+
+import com.looksee.models.audit.AuditRecord;
+
+/**
+ * {@link AuditRecord} built from synthetic fixture data, used by the load-test
+ * profile in place of audit records loaded from the database.
+ */
+class SyntheticAuditRecord extends AuditRecord {
+	private final long id;
+	private final String target_user_education;
+
+	SyntheticAuditRecord(long id, String target_user_education) {
+		this.id = id;
+		this.target_user_education = target_user_education;
+	}
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public String getTargetUserEducation() {
+		return target_user_education;
+	}
+}
@@ -0,0 +1,60 @@
+package com.looksee.contentAudit.loadtest;
+
+import com.looksee.models.ElementState;
+
+/**
+ * Read-only {@link ElementState} built from synthetic fixture data, used by the
+ * load-test profile in place of elements loaded from the database.
+ */
+class SyntheticElementState extends ElementState {
+	private final long id;
+	private final String name;
+	private final String xpath;
+	private final String owned_text;
+	private final String all_text;
+	private final String outer_html;
+
+	SyntheticElementState(long id, String name, String xpath, String owned_text, String all_text, String outer_html) {
+		this.id = id;
+		this.name = name;
+		this.xpath = xpath;
+		this.owned_text = owned_text;
+		this.all_text = all_text;
+		this.outer_html = outer_html;
+	}
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getKey() {
+		return "elementstate" + id;
+	}
+
+	@Override
+	public String getXpath() {
+		return xpath;
+	}
+
+	@Override
+	public String getOwnedText() {
+		return owned_text;
+	}
+
+	@Override
+	public String getAllText() {
+		return all_text;
+	}
+
+	@Override
+	public String getOuterHtml() {
+		return outer_html;
+	}
+}
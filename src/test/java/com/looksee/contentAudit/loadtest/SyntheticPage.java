@@ -0,0 +1,78 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.AuditRecord;
+
+/**
+ * One synthetic page of a {@link SyntheticPageCorpus}: its id, url, the
+ * target user education of its audit record and its elements in document
+ * order.
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>The element list is unmodifiable and never null</li>
+ * </ul>
+ */
+public final class SyntheticPage {
+	private final long id;
+	private final String url;
+	private final String target_user_education;
+	private final List<ElementState> elements;
+
+	/**
+	 * Creates a page.
+	 *
+	 * @param id the page id, also used as the page audit id
+	 * @param url the page url, must not be null
+	 * @param target_user_education the target user education, may be null
+	 * @param elements the elements in document order, must not be null
+	 * @throws NullPointerException if {@code url} or {@code elements} is null
+	 */
+	SyntheticPage(long id, String url, String target_user_education, List<ElementState> elements) {
+		this.id = id;
+		this.url = Objects.requireNonNull(url, "url must not be null");
+		this.target_user_education = target_user_education;
+		this.elements = Collections.unmodifiableList(Objects.requireNonNull(elements, "elements must not be null"));
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public String getTargetUserEducation() {
+		return target_user_education;
+	}
+
+	public List<ElementState> getElements() {
+		return elements;
+	}
+
+	/**
+	 * Returns a new {@link PageState} for this page. Each call returns a new
+	 * page state, so callers may replace its elements without affecting
+	 * others; all page states share the same immutable elements.
+	 *
+	 * @return a new page state
+	 */
+	public PageState toPageState() {
+		return new SyntheticPageState(id, url, elements);
+	}
+
+	/**
+	 * Returns the audit record that audits this page.
+	 *
+	 * @return an audit record with this page's id
+	 */
+	public AuditRecord toAuditRecord() {
+		return new SyntheticAuditRecord(id, target_user_education);
+	}
+}
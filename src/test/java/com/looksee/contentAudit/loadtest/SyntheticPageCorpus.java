@@ -0,0 +1,219 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.looksee.models.ElementState;
+
+/**
+ * Set of synthetic pages that can be written to and read back from a compact
+ * file, so that benchmarks and load tests replay identical inputs.
+ *
+ * <p>The file is a gzip-compressed binary stream: a header with a magic
+ * number, format version, seed and page count, then each page's id, url,
+ * target user education and elements. Tag names are written once and then
+ * referenced by index; other strings are length-prefixed UTF-8.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>The page list is unmodifiable and never null</li>
+ * </ul>
+ */
+public final class SyntheticPageCorpus {
+	private static final int MAGIC = 0x4C535043;
+	private static final int VERSION = 1;
+
+	private final long seed;
+	private final List<SyntheticPage> pages;
+
+	/**
+	 * Creates a corpus.
+	 *
+	 * @param seed seed the pages were generated from
+	 * @param pages the pages, must not be null
+	 * @throws NullPointerException if {@code pages} is null
+	 */
+	SyntheticPageCorpus(long seed, List<SyntheticPage> pages) {
+		this.seed = seed;
+		this.pages = Collections.unmodifiableList(new ArrayList<>(Objects.requireNonNull(pages, "pages must not be null")));
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public List<SyntheticPage> getPages() {
+		return pages;
+	}
+
+	/**
+	 * Writes the corpus to {@code file}, replacing it if it exists.
+	 *
+	 * @param file the file to write, must not be null
+	 * @throws IOException if the file cannot be written
+	 * @throws NullPointerException if {@code file} is null
+	 */
+	public void write(Path file) throws IOException {
+		Objects.requireNonNull(file, "file must not be null");
+		try(OutputStream stream = Files.newOutputStream(file)) {
+			write(stream);
+		}
+	}
+
+	/**
+	 * Writes the corpus to {@code stream} and finishes the gzip stream.
+	 * The stream is not closed.
+	 *
+	 * @param stream the stream to write to, must not be null
+	 * @throws IOException if the stream cannot be written
+	 */
+	public void write(OutputStream stream) throws IOException {
+		GZIPOutputStream gzip = new GZIPOutputStream(new NonClosingOutputStream(stream), 1 << 16);
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(seed);
+			out.writeInt(pages.size());
+
+			Map<String, Integer> tags = new HashMap<>();
+			for(SyntheticPage page : pages) {
+				out.writeLong(page.getId());
+				writeString(out, page.getUrl());
+				writeString(out, page.getTargetUserEducation());
+				out.writeInt(page.getElements().size());
+				for(ElementState element : page.getElements()) {
+					out.writeLong(element.getId());
+					Integer tag = tags.get(element.getName());
+					if(tag == null) {
+						out.writeInt(-1);
+						writeString(out, element.getName());
+						tags.put(element.getName(), tags.size());
+					}
+					else {
+						out.writeInt(tag);
+					}
+					writeString(out, element.getXpath());
+					writeString(out, element.getOwnedText());
+					writeString(out, element.getAllText());
+					writeString(out, element.getOuterHtml());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a corpus written by {@link #write(Path)}.
+	 *
+	 * @param file the file to read, must not be null
+	 * @return the corpus
+	 * @throws IOException if the file cannot be read or is not a corpus file
+	 * @throws NullPointerException if {@code file} is null
+	 */
+	public static SyntheticPageCorpus read(Path file) throws IOException {
+		Objects.requireNonNull(file, "file must not be null");
+		try(InputStream stream = Files.newInputStream(file)) {
+			return read(stream);
+		}
+	}
+
+	/**
+	 * Reads a corpus written by {@link #write(OutputStream)}.
+	 *
+	 * @param stream the stream to read, must not be null
+	 * @return the corpus
+	 * @throws IOException if the stream cannot be read or does not hold a corpus
+	 */
+	public static SyntheticPageCorpus read(InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream, 1 << 16), 1 << 16));
+		if(in.readInt() != MAGIC) {
+			throw new IOException("not a synthetic page corpus");
+		}
+		int version = in.readInt();
+		if(version != VERSION) {
+			throw new IOException("unsupported synthetic page corpus version: " + version);
+		}
+		long seed = in.readLong();
+		int page_count = in.readInt();
+
+		List<String> tags = new ArrayList<>();
+		List<SyntheticPage> pages = new ArrayList<>(page_count);
+		for(int page_idx = 0; page_idx < page_count; page_idx++) {
+			long page_id = in.readLong();
+			String url = readString(in);
+			String target_user_education = readString(in);
+			int element_count = in.readInt();
+			List<ElementState> elements = new ArrayList<>(element_count);
+			for(int element_idx = 0; element_idx < element_count; element_idx++) {
+				long element_id = in.readLong();
+				int tag = in.readInt();
+				String name;
+				if(tag < 0) {
+					name = readString(in);
+					tags.add(name);
+				}
+				else {
+					name = tags.get(tag);
+				}
+				elements.add(new SyntheticElementState(element_id, name, readString(in), readString(in), readString(in), readString(in)));
+			}
+			pages.add(new SyntheticPage(page_id, url, target_user_education, elements));
+		}
+		return new SyntheticPageCorpus(seed, pages);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if(value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if(length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Lets the gzip stream be finished without closing the caller's stream.
+	 */
+	private static final class NonClosingOutputStream extends FilterOutputStream {
+		NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			out.write(bytes, offset, length);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.AuditRecord;
+
+/**
+ * Synthetic pages and audit records served by the load-test profile, looked
+ * up by page audit id.
+ *
+ * <p>Each page of the corpus has one audit record and one page with the
+ * page's id, so page audit ids are the corpus's page ids.</p>
+ *
+ * <p><strong>Class Invariants:</strong></p>
+ * <ul>
+ *   <li>The fixtures never change after construction</li>
+ * </ul>
+ */
+public class SyntheticPageFixtures {
+	private final Map<Long, SyntheticPage> pages = new HashMap<>();
+
+	/**
+	 * Creates fixtures for the pages of {@code corpus}.
+	 *
+	 * @param corpus the corpus to serve, must not be null
+	 * @throws NullPointerException if {@code corpus} is null
+	 */
+	public SyntheticPageFixtures(SyntheticPageCorpus corpus) {
+		Objects.requireNonNull(corpus, "corpus must not be null");
+		for(SyntheticPage page : corpus.getPages()) {
+			pages.put(page.getId(), page);
+		}
+	}
+
+	public int getPageCount() {
+		return pages.size();
+	}
+
+	/**
+	 * Returns the audit record with the given page audit id.
+	 *
+	 * @param page_audit_id the page audit id
+	 * @return the audit record, or {@code null} if there is none
+	 */
+	public AuditRecord findAuditRecord(long page_audit_id) {
+		SyntheticPage page = pages.get(page_audit_id);
+		return page == null ? null : page.toAuditRecord();
+	}
+
+	/**
+	 * Returns a new page for the given page audit id. Each call returns a new
+	 * page so that concurrent requests do not share mutable state; the pages
+	 * share the same immutable element list.
+	 *
+	 * @param page_audit_id the page audit id
+	 * @return a new page, or {@code null} if there is none
+	 */
+	public PageState findPage(long page_audit_id) {
+		SyntheticPage page = pages.get(page_audit_id);
+		return page == null ? null : page.toPageState();
+	}
+
+	/**
+	 * Returns the elements of the given page.
+	 *
+	 * @param page_id the page id
+	 * @return the page's unmodifiable element list, empty if there is no such page
+	 */
+	public List<ElementState> getElementStates(long page_id) {
+		SyntheticPage page = pages.get(page_id);
+		return page == null ? Collections.emptyList() : page.getElements();
+	}
+}
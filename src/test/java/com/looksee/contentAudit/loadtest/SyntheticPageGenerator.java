@@ -0,0 +1,420 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.looksee.models.ElementState;
+
+/**
+ * Generates deterministic synthetic pages for benchmarks and load tests.
+ *
+ * <p>A page is a sequence of blocks under {@code /html/body/main[1]}, drawn
+ * from {@link Block} by weight. The weights follow the elements the content
+ * audits inspect: text sections with nested paragraphs and inline links,
+ * lists, navigation, images and image maps, figures, inline SVGs with and
+ * without {@code <title>}/{@code <desc>}, video and audio with and without
+ * {@code <track>}, iframes, objects, canvases and applets. Roughly 70% of the
+ * accessibility-relevant blocks are compliant.</p>
+ *
+ * <p>Elements are listed in document order with their ancestors, so
+ * containers' all text includes their descendants' text, as it does for
+ * crawled pages. Like crawled data, media, iframe, SVG, figure, object and
+ * applet elements carry their markup in their all text, which is what the
+ * audits parse. Element ids are {@code page_id * 1_000_000 + index}.</p>
+ *
+ * <p>Each page is generated from its own pseudo-random sequence derived from
+ * the seed and page id, so a page is the same whether it is generated alone
+ * or as part of a corpus.</p>
+ */
+public class SyntheticPageGenerator {
+	private static final String[] TARGET_EDUCATIONS = { null, "HS", "College", "Advanced" };
+	private static final String[] COMMON_WORDS = {
+		"the", "a", "we", "you", "can", "use", "this", "page", "help", "and", "to", "of", "for", "with", "your",
+		"team", "work", "make", "find", "read", "plan", "each", "day", "new", "our", "it", "is", "on", "that", "all"
+	};
+	private static final String[] LONG_WORDS = {
+		"accessibility", "comprehensive", "documentation", "configuration", "requirements", "environment",
+		"international", "organizational", "infrastructure", "responsibility", "administration", "availability",
+		"recommendations", "significantly", "professional", "understanding", "performance", "customers"
+	};
+
+	/**
+	 * Block kinds and their weights, per 100 blocks.
+	 */
+	enum Block {
+		TEXT_SECTION(35), LIST(12), NAVIGATION(8), BUTTON(4), IMAGE(14), IMAGE_MAP(2), IMAGE_INPUT(2), EMBED(1),
+		FIGURE(5), SVG(8), VIDEO(2), AUDIO(1), IFRAME(2), OBJECT(2), CANVAS(1), APPLET(1);
+
+		private final int weight;
+
+		Block(int weight) {
+			this.weight = weight;
+		}
+
+		int getWeight() {
+			return weight;
+		}
+	}
+
+	private static final int TOTAL_WEIGHT;
+	static {
+		int total = 0;
+		for(Block block : Block.values()) {
+			total += block.getWeight();
+		}
+		TOTAL_WEIGHT = total;
+	}
+
+	private final long seed;
+
+	public SyntheticPageGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Generates pages {@code 1} to {@code page_count}.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code page_count} and {@code elements_per_page} must be positive</li>
+	 * </ul>
+	 *
+	 * @param page_count number of pages, must be positive
+	 * @param elements_per_page number of elements on each page, must be positive
+	 * @return the corpus
+	 * @throws IllegalArgumentException if {@code page_count} or {@code elements_per_page} is not positive
+	 */
+	public SyntheticPageCorpus generate(int page_count, int elements_per_page) {
+		if(page_count <= 0) {
+			throw new IllegalArgumentException("page_count must be positive, got: " + page_count);
+		}
+		List<SyntheticPage> pages = new ArrayList<>(page_count);
+		for(long page_id = 1; page_id <= page_count; page_id++) {
+			pages.add(generatePage(page_id, elements_per_page));
+		}
+		return new SyntheticPageCorpus(seed, pages);
+	}
+
+	/**
+	 * Generates one page.
+	 *
+	 * <p><strong>Preconditions:</strong></p>
+	 * <ul>
+	 *   <li>{@code element_count} must be positive</li>
+	 * </ul>
+	 *
+	 * <p><strong>Postconditions:</strong></p>
+	 * <ul>
+	 *   <li>The page has exactly {@code element_count} elements</li>
+	 * </ul>
+	 *
+	 * @param page_id the page id
+	 * @param element_count number of elements, must be positive
+	 * @return the page
+	 * @throws IllegalArgumentException if {@code element_count} is not positive
+	 */
+	public SyntheticPage generatePage(long page_id, int element_count) {
+		if(element_count <= 0) {
+			throw new IllegalArgumentException("element_count must be positive, got: " + element_count);
+		}
+
+		Random random = new Random(seed ^ (page_id * 0x9E3779B97F4A7C15L));
+		String target_user_education = TARGET_EDUCATIONS[random.nextInt(TARGET_EDUCATIONS.length)];
+
+		Node main = new Node("main", "/html/body/main[1]");
+		int node_count = 0;
+		while(node_count < element_count) {
+			node_count += addBlock(random, main, pick(random));
+		}
+
+		List<ElementState> elements = new ArrayList<>(element_count);
+		for(Node block : main.children) {
+			flatten(block, page_id, elements, element_count);
+		}
+
+		assert elements.size() == element_count;
+		return new SyntheticPage(page_id, "https://loadtest.example.com/pages/" + page_id, target_user_education, elements);
+	}
+
+	private static Block pick(Random random) {
+		int roll = random.nextInt(TOTAL_WEIGHT);
+		for(Block block : Block.values()) {
+			roll -= block.getWeight();
+			if(roll < 0) {
+				return block;
+			}
+		}
+		throw new IllegalStateException("weights do not cover roll");
+	}
+
+	/**
+	 * Adds one block to {@code parent}.
+	 *
+	 * @return the number of elements added
+	 */
+	private static int addBlock(Random random, Node parent, Block block) {
+		switch(block) {
+			case TEXT_SECTION: {
+				Node container = random.nextInt(4) == 0 ? parent.add(new Node("div")) : parent;
+				Node section = container.add(new Node("section"));
+				section.add(new Node("h2").text(titleCase(words(random, 2 + random.nextInt(5)))));
+				int paragraphs = 1 + random.nextInt(4);
+				for(int idx = 0; idx < paragraphs; idx++) {
+					Node paragraph = section.add(new Node("p").text(sentences(random, 1 + random.nextInt(4))));
+					if(random.nextInt(3) == 0) {
+						paragraph.add(new Node("a").attributes(" href=\"/articles/" + random.nextInt(1000) + "\"").text(words(random, 2 + random.nextInt(3))));
+					}
+					if(random.nextInt(4) == 0) {
+						paragraph.add(new Node("strong").text(words(random, 1 + random.nextInt(3))));
+					}
+				}
+				return section.size() + (container == parent ? 0 : 1);
+			}
+			case LIST: {
+				Node list = parent.add(new Node("ul"));
+				int items = 2 + random.nextInt(5);
+				for(int idx = 0; idx < items; idx++) {
+					Node item = list.add(new Node("li").text(sentences(random, 1)));
+					if(random.nextInt(4) == 0) {
+						item.add(new Node("a").attributes(" href=\"/items/" + random.nextInt(1000) + "\"").text(words(random, 2)));
+					}
+				}
+				return list.size();
+			}
+			case NAVIGATION: {
+				Node nav = parent.add(new Node("nav"));
+				int links = 3 + random.nextInt(5);
+				for(int idx = 0; idx < links; idx++) {
+					nav.add(new Node("a").attributes(" href=\"/section/" + idx + "\"").text(titleCase(words(random, 1 + random.nextInt(2)))));
+				}
+				return nav.size();
+			}
+			case BUTTON:
+				parent.add(new Node("button").text(titleCase(words(random, 1 + random.nextInt(3)))));
+				return 1;
+			case IMAGE:
+				parent.add(new Node("img").attributes(" src=\"/images/" + random.nextInt(10_000) + ".png\"" + altAttribute(random)));
+				return 1;
+			case IMAGE_MAP:
+				parent.add(new Node("area").attributes(" href=\"/regions/" + random.nextInt(100) + "\"" + altAttribute(random)));
+				return 1;
+			case IMAGE_INPUT:
+				parent.add(new Node("input").attributes(" type=\"image\" src=\"/buttons/" + random.nextInt(100) + ".png\"" + altAttribute(random)));
+				return 1;
+			case EMBED:
+				parent.add(new Node("embed").attributes(" src=\"/embeds/" + random.nextInt(100) + ".swf\"" + altAttribute(random)));
+				return 1;
+			case FIGURE: {
+				Node figure = parent.add(new Node("figure").allTextIsInnerHtml());
+				figure.add(new Node("img").attributes(" src=\"/figures/" + random.nextInt(1000) + ".png\"" + altAttribute(random)));
+				if(compliant(random)) {
+					figure.add(new Node("figcaption").text(sentences(random, 1)));
+				}
+				return figure.size();
+			}
+			case SVG: {
+				String title = random.nextInt(10) < 7 ? "<title>" + titleCase(words(random, 2)) + "</title>" : "";
+				String desc = random.nextInt(10) < 6 ? "<desc>" + sentences(random, 1) + "</desc>" : "";
+				parent.add(new Node("svg").attributes(" viewBox=\"0 0 24 24\"").innerHtml(title + desc + "<path d=\"M0 0h24v24H0z\"></path>").allTextIsOuterHtml());
+				return 1;
+			}
+			case VIDEO:
+			case AUDIO: {
+				String tag = block == Block.VIDEO ? "video" : "audio";
+				String track = compliant(random) ? "<track kind=\"captions\" src=\"/captions/" + random.nextInt(1000) + ".vtt\">" : "";
+				String transcript = random.nextInt(2) == 0 ? "<a href=\"/transcripts/" + random.nextInt(1000) + "\">Transcript</a>" : "";
+				parent.add(new Node(tag).attributes(" controls src=\"/media/" + random.nextInt(1000) + "\"").innerHtml(track + transcript).allTextIsInnerHtml());
+				return 1;
+			}
+			case IFRAME: {
+				String title = compliant(random) ? " title=\"" + titleCase(words(random, 3)) + "\"" : "";
+				parent.add(new Node("iframe").attributes(" src=\"/widgets/" + random.nextInt(100) + "\"" + title).innerHtml("").allTextIsOuterHtml());
+				return 1;
+			}
+			case OBJECT:
+			case CANVAS: {
+				String tag = block == Block.OBJECT ? "object" : "canvas";
+				String fallback = compliant(random) ? "<a href=\"/fallback/" + random.nextInt(100) + "\">" + words(random, 3) + "</a>" : "";
+				parent.add(new Node(tag).innerHtml(fallback).allTextIsInnerHtml());
+				return 1;
+			}
+			case APPLET: {
+				String alt = compliant(random) ? "<alt>" + words(random, 3) + "</alt>" : "";
+				parent.add(new Node("applet").attributes(" code=\"Widget.class\"").innerHtml(alt).allTextIsInnerHtml());
+				return 1;
+			}
+			default:
+				throw new IllegalStateException("unknown block: " + block);
+		}
+	}
+
+	private static void flatten(Node node, long page_id, List<ElementState> elements, int limit) {
+		if(elements.size() >= limit) {
+			return;
+		}
+		elements.add(new SyntheticElementState(page_id * 1_000_000L + elements.size(), node.tag, node.xpath,
+				node.owned_text, node.allText(), node.outerHtml()));
+		for(Node child : node.children) {
+			flatten(child, page_id, elements, limit);
+		}
+	}
+
+	private static boolean compliant(Random random) {
+		return random.nextInt(10) < 7;
+	}
+
+	private static String altAttribute(Random random) {
+		int roll = random.nextInt(10);
+		if(roll < 7) {
+			return " alt=\"" + words(random, 2 + random.nextInt(4)) + "\"";
+		}
+		return roll < 9 ? "" : " alt=\"\"";
+	}
+
+	private static String sentences(Random random, int count) {
+		StringBuilder text = new StringBuilder();
+		for(int sentence = 0; sentence < count; sentence++) {
+			if(sentence > 0) {
+				text.append(' ');
+			}
+			text.append(titleCase(words(random, 4 + random.nextInt(24)))).append('.');
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Returns {@code count} words, about one in five of them long.
+	 */
+	private static String words(Random random, int count) {
+		StringBuilder text = new StringBuilder();
+		for(int word = 0; word < count; word++) {
+			if(word > 0) {
+				text.append(' ');
+			}
+			text.append(random.nextInt(5) == 0 ? LONG_WORDS[random.nextInt(LONG_WORDS.length)] : COMMON_WORDS[random.nextInt(COMMON_WORDS.length)]);
+		}
+		return text.toString();
+	}
+
+	private static String titleCase(String text) {
+		return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+	}
+
+	/**
+	 * Element under construction. Xpath indices count same-tag siblings, as
+	 * in crawled xpaths.
+	 */
+	private static final class Node {
+		private final String tag;
+		private final List<Node> children = new ArrayList<>();
+		private final Map<String, Integer> child_tag_counts = new HashMap<>();
+		private String xpath;
+		private String attributes = "";
+		private String owned_text = "";
+		private String inner_html;
+		private boolean all_text_is_outer_html;
+		private boolean all_text_is_inner_html;
+
+		Node(String tag) {
+			this.tag = tag;
+		}
+
+		Node(String tag, String xpath) {
+			this.tag = tag;
+			this.xpath = xpath;
+		}
+
+		Node add(Node child) {
+			child.xpath = xpath + "/" + child.tag + "[" + child_tag_counts.merge(child.tag, 1, Integer::sum) + "]";
+			children.add(child);
+			return child;
+		}
+
+		Node text(String owned_text) {
+			this.owned_text = owned_text;
+			return this;
+		}
+
+		Node attributes(String attributes) {
+			this.attributes = attributes;
+			return this;
+		}
+
+		Node innerHtml(String inner_html) {
+			this.inner_html = inner_html;
+			return this;
+		}
+
+		Node allTextIsOuterHtml() {
+			this.all_text_is_outer_html = true;
+			return this;
+		}
+
+		Node allTextIsInnerHtml() {
+			this.all_text_is_inner_html = true;
+			return this;
+		}
+
+		/**
+		 * Returns the number of elements in this subtree, including this one.
+		 */
+		int size() {
+			int size = 1;
+			for(Node child : children) {
+				size += child.size();
+			}
+			return size;
+		}
+
+		String allText() {
+			if(all_text_is_outer_html) {
+				return outerHtml();
+			}
+			if(all_text_is_inner_html) {
+				return innerHtml();
+			}
+			StringBuilder text = new StringBuilder(owned_text);
+			for(Node child : children) {
+				String child_text = child.allText();
+				if(!child_text.isEmpty()) {
+					if(text.length() > 0) {
+						text.append(' ');
+					}
+					text.append(child_text);
+				}
+			}
+			return text.toString();
+		}
+
+		String innerHtml() {
+			if(inner_html != null) {
+				return inner_html;
+			}
+			StringBuilder html = new StringBuilder(owned_text);
+			for(Node child : children) {
+				html.append(child.outerHtml());
+			}
+			return html.toString();
+		}
+
+		String outerHtml() {
+			String open = "<" + tag + attributes + ">";
+			switch(tag) {
+				case "img":
+				case "input":
+				case "area":
+				case "embed":
+					return open;
+				default:
+					return open + innerHtml() + "</" + tag + ">";
+			}
+		}
+	}
+}
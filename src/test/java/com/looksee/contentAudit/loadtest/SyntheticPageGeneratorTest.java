@@ -0,0 +1,122 @@
+package com.looksee.contentAudit.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import com.looksee.models.ElementState;
+
+public class SyntheticPageGeneratorTest {
+
+	private static void assertSameElements(List<ElementState> expected, List<ElementState> actual) {
+		assertEquals(expected.size(), actual.size());
+		for(int idx = 0; idx < expected.size(); idx++) {
+			ElementState left = expected.get(idx);
+			ElementState right = actual.get(idx);
+			assertEquals(left.getId(), right.getId());
+			assertEquals(left.getName(), right.getName());
+			assertEquals(left.getXpath(), right.getXpath());
+			assertEquals(left.getOwnedText(), right.getOwnedText());
+			assertEquals(left.getAllText(), right.getAllText());
+			assertEquals(left.getOuterHtml(), right.getOuterHtml());
+		}
+	}
+
+	@Test
+	public void sameSeedGeneratesSamePages() {
+		SyntheticPage first = new SyntheticPageGenerator(7).generatePage(3, 400);
+		SyntheticPage second = new SyntheticPageGenerator(7).generate(3, 400).getPages().get(2);
+
+		assertEquals(first.getTargetUserEducation(), second.getTargetUserEducation());
+		assertSameElements(first.getElements(), second.getElements());
+	}
+
+	@Test
+	public void differentSeedsGenerateDifferentPages() {
+		SyntheticPage first = new SyntheticPageGenerator(7).generatePage(1, 200);
+		SyntheticPage second = new SyntheticPageGenerator(8).generatePage(1, 200);
+
+		boolean differs = false;
+		for(int idx = 0; idx < 200 && !differs; idx++) {
+			differs = !first.getElements().get(idx).getOuterHtml().equals(second.getElements().get(idx).getOuterHtml());
+		}
+		assertTrue(differs);
+	}
+
+	@Test
+	public void pageHasRequestedElementCountAndAuditedTags() {
+		SyntheticPage page = new SyntheticPageGenerator(42).generatePage(1, 5000);
+
+		assertEquals(5000, page.getElements().size());
+		Set<String> tags = new HashSet<>();
+		for(ElementState element : page.getElements()) {
+			tags.add(element.getName());
+		}
+		for(String tag : new String[] { "section", "p", "a", "li", "img", "area", "input", "figure", "figcaption",
+				"svg", "video", "audio", "iframe", "object", "canvas", "applet" }) {
+			assertTrue("missing " + tag, tags.contains(tag));
+		}
+	}
+
+	@Test
+	public void containersIncludeNestedText() {
+		SyntheticPage page = new SyntheticPageGenerator(42).generatePage(1, 1000);
+
+		boolean found = false;
+		List<ElementState> elements = page.getElements();
+		for(int idx = 0; idx + 1 < elements.size() && !found; idx++) {
+			ElementState section = elements.get(idx);
+			ElementState heading = elements.get(idx + 1);
+			if("section".equals(section.getName())) {
+				assertEquals(section.getXpath() + "/h2[1]", heading.getXpath());
+				assertTrue(section.getAllText().startsWith(heading.getAllText()));
+				assertTrue(section.getOuterHtml().contains(heading.getOuterHtml()));
+				found = true;
+			}
+		}
+		assertTrue(found);
+	}
+
+	@Test
+	public void corpusRoundTripsThroughCompactFile() throws IOException {
+		SyntheticPageCorpus corpus = new SyntheticPageGenerator(42).generate(3, 500);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		corpus.write(out);
+		SyntheticPageCorpus read = SyntheticPageCorpus.read(new ByteArrayInputStream(out.toByteArray()));
+
+		assertEquals(42, read.getSeed());
+		assertEquals(3, read.getPages().size());
+		long raw_bytes = 0;
+		for(int idx = 0; idx < 3; idx++) {
+			SyntheticPage expected = corpus.getPages().get(idx);
+			SyntheticPage actual = read.getPages().get(idx);
+			assertEquals(expected.getId(), actual.getId());
+			assertEquals(expected.getUrl(), actual.getUrl());
+			assertEquals(expected.getTargetUserEducation(), actual.getTargetUserEducation());
+			assertSameElements(expected.getElements(), actual.getElements());
+			for(ElementState element : expected.getElements()) {
+				raw_bytes += element.getAllText().length() + element.getOuterHtml().length();
+			}
+		}
+		assertTrue("expected compressed corpus to be smaller than its text", out.size() < raw_bytes / 4);
+	}
+
+	@Test(expected = IOException.class)
+	public void readRejectsOtherData() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		}
+		SyntheticPageCorpus.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+}
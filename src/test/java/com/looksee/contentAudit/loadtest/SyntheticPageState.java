@@ -0,0 +1,42 @@
+package com.looksee.contentAudit.loadtest;
+
+import java.util.List;
+
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+
+/**
+ * {@link PageState} built from synthetic fixture data, used by the load-test
+ * profile in place of pages loaded from the database.
+ */
+class SyntheticPageState extends PageState {
+	private final long id;
+	private final String url;
+	private volatile List<ElementState> elements;
+
+	SyntheticPageState(long id, String url, List<ElementState> elements) {
+		this.id = id;
+		this.url = url;
+		this.elements = elements;
+	}
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public String getUrl() {
+		return url;
+	}
+
+	@Override
+	public List<ElementState> getElements() {
+		return elements;
+	}
+
+	@Override
+	public void setElements(List<ElementState> elements) {
+		this.elements = elements;
+	}
+}
@@ -10,10 +10,15 @@ import static org.mockito.Mockito.when;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.looksee.contentAudit.services.AuditWriter;
+import com.looksee.contentAudit.services.ElementFingerprintStore;
+import com.looksee.contentAudit.services.FragmentParseService;
+import com.looksee.contentAudit.services.PassingMessageAggregator;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
@@ -25,6 +30,8 @@ import com.looksee.models.enums.AuditSubcategory;
 import com.looksee.services.AuditService;
 import com.looksee.services.UXIssueMessageService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 public class ImageAltTextAuditTest {
 
 	private ImageAltTextAudit audit;
@@ -37,13 +44,21 @@ public class ImageAltTextAuditTest {
 		auditService = mock(AuditService.class);
 		issueMessageService = mock(UXIssueMessageService.class);
 
-		Field auditServiceField = ImageAltTextAudit.class.getDeclaredField("audit_service");
-		auditServiceField.setAccessible(true);
-		auditServiceField.set(audit, auditService);
+		Field auditWriterField = ImageAltTextAudit.class.getDeclaredField("audit_writer");
+		auditWriterField.setAccessible(true);
+		auditWriterField.set(audit, AuditWriter.inline(auditService, issueMessageService));
+
+		Field fingerprintStoreField = ImageAltTextAudit.class.getDeclaredField("fingerprint_store");
+		fingerprintStoreField.setAccessible(true);
+		fingerprintStoreField.set(audit, new ElementFingerprintStore(false, 1));
+
+		Field passingAggregatorField = ImageAltTextAudit.class.getDeclaredField("passing_aggregator");
+		passingAggregatorField.setAccessible(true);
+		passingAggregatorField.set(audit, new PassingMessageAggregator(false));
 
-		Field issueServiceField = ImageAltTextAudit.class.getDeclaredField("issue_message_service");
-		issueServiceField.setAccessible(true);
-		issueServiceField.set(audit, issueMessageService);
+		Field parseServiceField = ImageAltTextAudit.class.getDeclaredField("parse_service");
+		parseServiceField.setAccessible(true);
+		parseServiceField.set(audit, new FragmentParseService(ForkJoinPool.commonPool(), new SimpleMeterRegistry(), 64));
 
 		when(issueMessageService.save(any(UXIssueMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
 		when(auditService.save(any(Audit.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -1,6 +1,9 @@
 package com.looksee.contentAudit.models;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
 
 import org.junit.Test;
 
@@ -53,4 +56,19 @@ public class ParagraphingAuditUnitTest {
 		assertEquals(1, ParagraphingAudit.calculateParagraphScore(6).getMaxPossiblePoints());
 		assertEquals(1, ParagraphingAudit.calculateParagraphScore(50).getMaxPossiblePoints());
 	}
+
+	@Test
+	public void splitParagraphsSkipsShortParagraphsAndAddsMissingPeriods() {
+		List<String> paragraphs = ParagraphingAudit.splitParagraphs(
+			"  First paragraph has words.  \nToo short\n\nSecond paragraph without period\n");
+
+		assertEquals(2, paragraphs.size());
+		assertEquals("First paragraph has words.", paragraphs.get(0));
+		assertEquals("Second paragraph without period.", paragraphs.get(1));
+	}
+
+	@Test
+	public void splitParagraphsReturnsEmptyListForBlankText() {
+		assertTrue(ParagraphingAudit.splitParagraphs("   \n  ").isEmpty());
+	}
 }
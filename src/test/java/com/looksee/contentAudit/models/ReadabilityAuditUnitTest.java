@@ -6,10 +6,21 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 
+import com.looksee.contentAudit.loadtest.SyntheticPageGenerator;
+import com.looksee.contentAudit.models.enums.EducationLevel;
+import com.looksee.contentAudit.models.enums.Language;
+import com.looksee.contentAudit.services.LanguageDetector;
+import com.looksee.contentAudit.services.ReadabilityScoringTable;
+import com.looksee.contentAudit.utils.TextStatistics;
 import com.looksee.models.ElementState;
 import com.looksee.models.audit.Score;
 
@@ -125,12 +136,6 @@ public class ReadabilityAuditUnitTest {
 		assertEquals(0, ((Integer) countWordsMethod.invoke(null, "   ")).intValue());
 		assertEquals(3, ((Integer) countWordsMethod.invoke(null, "alpha beta gamma")).intValue());
 
-		Method xpathContainsMethod = ReadabilityAudit.class.getDeclaredMethod("xpathContains", String.class, String.class);
-		xpathContainsMethod.setAccessible(true);
-		assertTrue((Boolean) xpathContainsMethod.invoke(null, "/html/body/div", "body"));
-		assertFalse((Boolean) xpathContainsMethod.invoke(null, null, "body"));
-		assertFalse((Boolean) xpathContainsMethod.invoke(null, "/html/body", null));
-
 		Method consumerTypeMethod = ReadabilityAudit.class.getDeclaredMethod("getConsumerType", String.class);
 		consumerTypeMethod.setAccessible(true);
 		assertEquals("the average consumer", consumerTypeMethod.invoke(audit, (Object) null));
@@ -172,57 +177,58 @@ public class ReadabilityAuditUnitTest {
 	@Test
 	public void getPointsForEducationLevelUsesExpectedBands() throws Exception {
 		ReadabilityAudit audit = new ReadabilityAudit();
-		Method method = ReadabilityAudit.class.getDeclaredMethod("getPointsForEducationLevel", double.class, String.class);
+		setScoringTable(audit, ReadabilityScoringTable.defaults());
+		Method method = ReadabilityAudit.class.getDeclaredMethod("getPointsForEducationLevel", double.class, EducationLevel.class);
 		method.setAccessible(true);
 
 		// 90+ band
-		assertEquals(4, ((Integer) method.invoke(audit, 95.0d, null)).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 95.0d, "HS")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 95.0d, "College")).intValue());
-		assertEquals(3, ((Integer) method.invoke(audit, 95.0d, "Advanced")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 90.0d, "Other")).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 95.0d, EducationLevel.fromTargetUserEducation((String) null))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 95.0d, EducationLevel.fromTargetUserEducation("HS"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 95.0d, EducationLevel.fromTargetUserEducation("College"))).intValue());
+		assertEquals(3, ((Integer) method.invoke(audit, 95.0d, EducationLevel.fromTargetUserEducation("Advanced"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 90.0d, EducationLevel.fromTargetUserEducation("Other"))).intValue());
 
 		// 80-89 band
-		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, null)).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, "HS")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, "College")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, "Advanced")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, "Other")).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, EducationLevel.fromTargetUserEducation((String) null))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, EducationLevel.fromTargetUserEducation("HS"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, EducationLevel.fromTargetUserEducation("College"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, EducationLevel.fromTargetUserEducation("Advanced"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 85.0d, EducationLevel.fromTargetUserEducation("Other"))).intValue());
 
 		// 70-79 band
-		assertEquals(4, ((Integer) method.invoke(audit, 75.0d, null)).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 75.0d, "HS")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 75.0d, "College")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 75.0d, "Advanced")).intValue());
-		assertEquals(3, ((Integer) method.invoke(audit, 75.0d, "Other")).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 75.0d, EducationLevel.fromTargetUserEducation((String) null))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 75.0d, EducationLevel.fromTargetUserEducation("HS"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 75.0d, EducationLevel.fromTargetUserEducation("College"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 75.0d, EducationLevel.fromTargetUserEducation("Advanced"))).intValue());
+		assertEquals(3, ((Integer) method.invoke(audit, 75.0d, EducationLevel.fromTargetUserEducation("Other"))).intValue());
 
 		// 60-69 band
-		assertEquals(3, ((Integer) method.invoke(audit, 65.0d, null)).intValue());
-		assertEquals(3, ((Integer) method.invoke(audit, 65.0d, "HS")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 65.0d, "College")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 65.0d, "Advanced")).intValue());
-		assertEquals(2, ((Integer) method.invoke(audit, 65.0d, "Other")).intValue());
+		assertEquals(3, ((Integer) method.invoke(audit, 65.0d, EducationLevel.fromTargetUserEducation((String) null))).intValue());
+		assertEquals(3, ((Integer) method.invoke(audit, 65.0d, EducationLevel.fromTargetUserEducation("HS"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 65.0d, EducationLevel.fromTargetUserEducation("College"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 65.0d, EducationLevel.fromTargetUserEducation("Advanced"))).intValue());
+		assertEquals(2, ((Integer) method.invoke(audit, 65.0d, EducationLevel.fromTargetUserEducation("Other"))).intValue());
 
 		// 50-59 band
-		assertEquals(2, ((Integer) method.invoke(audit, 55.0d, null)).intValue());
-		assertEquals(2, ((Integer) method.invoke(audit, 55.0d, "HS")).intValue());
-		assertEquals(3, ((Integer) method.invoke(audit, 55.0d, "College")).intValue());
-		assertEquals(4, ((Integer) method.invoke(audit, 55.0d, "Advanced")).intValue());
-		assertEquals(1, ((Integer) method.invoke(audit, 55.0d, "Other")).intValue());
+		assertEquals(2, ((Integer) method.invoke(audit, 55.0d, EducationLevel.fromTargetUserEducation((String) null))).intValue());
+		assertEquals(2, ((Integer) method.invoke(audit, 55.0d, EducationLevel.fromTargetUserEducation("HS"))).intValue());
+		assertEquals(3, ((Integer) method.invoke(audit, 55.0d, EducationLevel.fromTargetUserEducation("College"))).intValue());
+		assertEquals(4, ((Integer) method.invoke(audit, 55.0d, EducationLevel.fromTargetUserEducation("Advanced"))).intValue());
+		assertEquals(1, ((Integer) method.invoke(audit, 55.0d, EducationLevel.fromTargetUserEducation("Other"))).intValue());
 
 		// 30-49 band
-		assertEquals(1, ((Integer) method.invoke(audit, 45.0d, null)).intValue());
-		assertEquals(1, ((Integer) method.invoke(audit, 45.0d, "HS")).intValue());
-		assertEquals(2, ((Integer) method.invoke(audit, 45.0d, "College")).intValue());
-		assertEquals(3, ((Integer) method.invoke(audit, 45.0d, "Advanced")).intValue());
-		assertEquals(0, ((Integer) method.invoke(audit, 45.0d, "Other")).intValue());
+		assertEquals(1, ((Integer) method.invoke(audit, 45.0d, EducationLevel.fromTargetUserEducation((String) null))).intValue());
+		assertEquals(1, ((Integer) method.invoke(audit, 45.0d, EducationLevel.fromTargetUserEducation("HS"))).intValue());
+		assertEquals(2, ((Integer) method.invoke(audit, 45.0d, EducationLevel.fromTargetUserEducation("College"))).intValue());
+		assertEquals(3, ((Integer) method.invoke(audit, 45.0d, EducationLevel.fromTargetUserEducation("Advanced"))).intValue());
+		assertEquals(0, ((Integer) method.invoke(audit, 45.0d, EducationLevel.fromTargetUserEducation("Other"))).intValue());
 
 		// Below 30 band
-		assertEquals(0, ((Integer) method.invoke(audit, 20.0d, null)).intValue());
-		assertEquals(0, ((Integer) method.invoke(audit, 20.0d, "HS")).intValue());
-		assertEquals(1, ((Integer) method.invoke(audit, 20.0d, "College")).intValue());
-		assertEquals(2, ((Integer) method.invoke(audit, 20.0d, "Advanced")).intValue());
-		assertEquals(0, ((Integer) method.invoke(audit, 20.0d, "Other")).intValue());
+		assertEquals(0, ((Integer) method.invoke(audit, 20.0d, EducationLevel.fromTargetUserEducation((String) null))).intValue());
+		assertEquals(0, ((Integer) method.invoke(audit, 20.0d, EducationLevel.fromTargetUserEducation("HS"))).intValue());
+		assertEquals(1, ((Integer) method.invoke(audit, 20.0d, EducationLevel.fromTargetUserEducation("College"))).intValue());
+		assertEquals(2, ((Integer) method.invoke(audit, 20.0d, EducationLevel.fromTargetUserEducation("Advanced"))).intValue());
+		assertEquals(0, ((Integer) method.invoke(audit, 20.0d, EducationLevel.fromTargetUserEducation("Other"))).intValue());
 	}
 
 	@Test
@@ -239,14 +245,202 @@ public class ReadabilityAuditUnitTest {
 	}
 
 	@Test
-	public void xpathContainsHandlesNullInputs() throws Exception {
-		Method xpathContainsMethod = ReadabilityAudit.class.getDeclaredMethod("xpathContains", String.class, String.class);
-		xpathContainsMethod.setAccessible(true);
+	public void scoreElementsReturnsEmptyListForNoElements() throws Exception {
+		ReadabilityAudit audit = new ReadabilityAudit();
+		ForkJoinPool pool = new ForkJoinPool(2);
+		setComputePool(audit, pool);
+		setScoringTable(audit, ReadabilityScoringTable.defaults());
+
+		try {
+			assertTrue(audit.scoreElements(Collections.emptyList(), null).isEmpty());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void scoreElementsPreservesElementOrderAcrossWorkers() throws Exception {
+		ReadabilityAudit audit = new ReadabilityAudit();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		setComputePool(audit, pool);
+		setScoringTable(audit, ReadabilityScoringTable.defaults());
+		setLanguageDetector(audit, LanguageDetector.defaults());
+
+		List<ElementState> elements = new ArrayList<>();
+		for(int i = 0; i < 200; i++) {
+			StringBuilder text = new StringBuilder();
+			for(int word = 0; word < i + 4; word++) {
+				text.append("word ");
+			}
+			ElementState element = mock(ElementState.class);
+			when(element.getAllText()).thenReturn(text.toString().trim());
+			elements.add(element);
+		}
+
+		try {
+			List<ReadabilityAudit.ElementReadability> scores = audit.scoreElements(elements, "HS");
+
+			assertEquals(elements.size(), scores.size());
+			for(int i = 0; i < scores.size(); i++) {
+				assertEquals(i + 4, scores.get(i).word_count);
+				if(i + 4 < 10) {
+					assertEquals(4, scores.get(i).points);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void scoreElementsUsesTheDetectedLanguagesFormula() throws Exception {
+		ReadabilityAudit audit = new ReadabilityAudit();
+		ForkJoinPool pool = new ForkJoinPool(1);
+		setComputePool(audit, pool);
+		setScoringTable(audit, ReadabilityScoringTable.defaults());
+		setLanguageDetector(audit, LanguageDetector.defaults());
+
+		String text = "Die Kinder spielen im Garten und sie lachen, weil die Sonne scheint und es warm ist.";
+		ElementState element = mock(ElementState.class);
+		when(element.getAllText()).thenReturn(text);
+
+		try {
+			ReadabilityAudit.ElementReadability readability = audit.scoreElements(List.of(element), null).get(0);
+
+			assertEquals(Language.GERMAN, readability.language);
+			assertEquals(TextStatistics.of(text, Language.GERMAN).readingEase(Language.GERMAN), readability.ease_of_reading_score, 0.0);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * The element filter as it was written against the entities, kept as an
+	 * oracle for {@link ReadabilityAudit#selectTextElements(List)}. Its xpath
+	 * check is a substring match, which agrees with the step-wise check for the
+	 * fully indexed absolute xpaths of synthetic pages.
+	 */
+	private static List<ElementState> legacySelectTextElements(List<ElementState> elements) {
+		List<ElementState> selected = new ArrayList<>();
+		for(ElementState element: elements) {
+			if(element.getName().contentEquals("button")
+					|| element.getName().contentEquals("a")
+					|| element.getOwnedText() == null
+					|| element.getOwnedText().isBlank()
+					|| element.getAllText() == null
+					|| element.getAllText().isBlank()
+					|| element.getAllText().trim().split("\\s+").length <= 3) {
+				continue;
+			}
+			boolean is_child_text = false;
+			for(ElementState element2: elements) {
+				if(element2.getKey().contentEquals(element.getKey())) {
+					continue;
+				}
+				if(element2.getOwnedText() != null
+						&& !element2.getOwnedText().isBlank()
+						&& element2.getAllText() != null
+						&& element2.getAllText().contains(element.getAllText())
+						&& !element2.getAllText().contentEquals(element.getAllText())) {
+					is_child_text = true;
+					break;
+				}
+				else if(element2.getAllText() != null
+						&& element2.getAllText().contentEquals(element.getAllText())
+						&& (element2.getXpath() == null || element.getXpath() == null || !element2.getXpath().contains(element.getXpath()))) {
+					is_child_text = true;
+					break;
+				}
+			}
+			if(!is_child_text) {
+				selected.add(element);
+			}
+		}
+		return selected;
+	}
+
+	private static ElementState textElement(String key, String xpath, String text) {
+		return new ElementState() {
+			@Override
+			public String getKey() {
+				return key;
+			}
+
+			@Override
+			public String getName() {
+				return "div";
+			}
+
+			@Override
+			public String getXpath() {
+				return xpath;
+			}
+
+			@Override
+			public String getOwnedText() {
+				return text;
+			}
+
+			@Override
+			public String getAllText() {
+				return text;
+			}
+		};
+	}
+
+	@Test
+	public void selectTextElementsTreatsIndexedSiblingsAsSeparateSubtrees() {
+		String text = "The same sentence appears in more than one place.";
+		List<ElementState> elements = new ArrayList<>();
+		elements.add(textElement("first", "/html/body/div", text));
+		elements.add(textElement("tenth", "/html/body/div[10]", text));
+
+		// div is div[1], not an ancestor of div[10], so each copy is a duplicate of the other
+		assertTrue(ReadabilityAudit.selectTextElements(elements).isEmpty());
+	}
+
+	@Test
+	public void selectTextElementsKeepsElementWhoseEqualTextIsInItsSubtree() {
+		String text = "The same sentence appears in the parent and child.";
+		List<ElementState> elements = new ArrayList<>();
+		elements.add(textElement("parent", "/html/body/div[1]", text));
+		elements.add(textElement("child", "/html/body/div[1]/p[1]", text));
+
+		List<ElementState> selected = ReadabilityAudit.selectTextElements(elements);
+
+		assertEquals(1, selected.size());
+		assertEquals("parent", selected.get(0).getKey());
+	}
+
+	@Test
+	public void selectTextElementsMatchesEntityScanOnSyntheticPages() {
+		SyntheticPageGenerator generator = new SyntheticPageGenerator(11);
+		for(long page_id = 1; page_id <= 5; page_id++) {
+			List<ElementState> elements = generator.generatePage(page_id, 600).getElements();
+
+			List<ElementState> expected = legacySelectTextElements(elements);
+			List<ElementState> actual = ReadabilityAudit.selectTextElements(elements);
+
+			assertFalse(expected.isEmpty());
+			assertEquals(expected, actual);
+		}
+	}
+
+	private void setComputePool(ReadabilityAudit audit, ForkJoinPool pool) throws Exception {
+		Field field = ReadabilityAudit.class.getDeclaredField("compute_pool");
+		field.setAccessible(true);
+		field.set(audit, pool);
+	}
+
+	private void setScoringTable(ReadabilityAudit audit, ReadabilityScoringTable scoring_table) throws Exception {
+		Field field = ReadabilityAudit.class.getDeclaredField("scoring_table");
+		field.setAccessible(true);
+		field.set(audit, scoring_table);
+	}
 
-		assertFalse((Boolean) xpathContainsMethod.invoke(null, null, null));
-		assertFalse((Boolean) xpathContainsMethod.invoke(null, null, "/html"));
-		assertFalse((Boolean) xpathContainsMethod.invoke(null, "/html/body", null));
-		assertTrue((Boolean) xpathContainsMethod.invoke(null, "/html/body/div", "/html/body"));
-		assertFalse((Boolean) xpathContainsMethod.invoke(null, "/html/body", "/html/body/div"));
+	private void setLanguageDetector(ReadabilityAudit audit, LanguageDetector language_detector) throws Exception {
+		Field field = ReadabilityAudit.class.getDeclaredField("language_detector");
+		field.setAccessible(true);
+		field.set(audit, language_detector);
 	}
 }
@@ -4,15 +4,22 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.looksee.contentAudit.services.AuditWriter;
+import com.looksee.contentAudit.services.ElementFingerprintStore;
+import com.looksee.contentAudit.services.FragmentParseService;
+import com.looksee.contentAudit.services.PassingMessageAggregator;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
@@ -24,6 +31,8 @@ import com.looksee.models.enums.AuditSubcategory;
 import com.looksee.services.AuditService;
 import com.looksee.services.UXIssueMessageService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 public class SVGAltTextAuditTest {
 
 	private SVGAltTextAudit audit;
@@ -36,13 +45,21 @@ public class SVGAltTextAuditTest {
 		auditService = mock(AuditService.class);
 		issueMessageService = mock(UXIssueMessageService.class);
 
-		Field auditServiceField = SVGAltTextAudit.class.getDeclaredField("audit_service");
-		auditServiceField.setAccessible(true);
-		auditServiceField.set(audit, auditService);
+		Field auditWriterField = SVGAltTextAudit.class.getDeclaredField("audit_writer");
+		auditWriterField.setAccessible(true);
+		auditWriterField.set(audit, AuditWriter.inline(auditService, issueMessageService));
+
+		Field fingerprintStoreField = SVGAltTextAudit.class.getDeclaredField("fingerprint_store");
+		fingerprintStoreField.setAccessible(true);
+		fingerprintStoreField.set(audit, new ElementFingerprintStore(false, 1));
+
+		Field passingAggregatorField = SVGAltTextAudit.class.getDeclaredField("passing_aggregator");
+		passingAggregatorField.setAccessible(true);
+		passingAggregatorField.set(audit, new PassingMessageAggregator(false));
 
-		Field issueServiceField = SVGAltTextAudit.class.getDeclaredField("issue_message_service");
-		issueServiceField.setAccessible(true);
-		issueServiceField.set(audit, issueMessageService);
+		Field parseServiceField = SVGAltTextAudit.class.getDeclaredField("parse_service");
+		parseServiceField.setAccessible(true);
+		parseServiceField.set(audit, new FragmentParseService(ForkJoinPool.commonPool(), new SimpleMeterRegistry(), 64));
 
 		when(issueMessageService.save(any(UXIssueMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
 		when(auditService.save(any(Audit.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -172,4 +189,69 @@ public class SVGAltTextAuditTest {
 		assertEquals(0, result.getPoints());
 		assertEquals(2, result.getTotalPossiblePoints());
 	}
+
+	@Test
+	public void executeWithIncrementalStoreCarriesForwardUnchangedSvgResults() throws Exception {
+		Field fingerprintStoreField = SVGAltTextAudit.class.getDeclaredField("fingerprint_store");
+		fingerprintStoreField.setAccessible(true);
+		fingerprintStoreField.set(audit, new ElementFingerprintStore(true, 10));
+
+		PageState pageState = mock(PageState.class);
+		List<ElementState> elements = new ArrayList<>();
+
+		ElementState svgElement = mock(ElementState.class);
+		when(svgElement.getName()).thenReturn("svg");
+		when(svgElement.getAllText()).thenReturn("<svg><title>My SVG</title></svg>");
+		when(svgElement.getId()).thenReturn(1L);
+		elements.add(svgElement);
+
+		when(pageState.getElements()).thenReturn(elements);
+		when(pageState.getUrl()).thenReturn("http://example.com");
+
+		Audit first = audit.execute(pageState, mock(AuditRecord.class), null);
+		Audit second = audit.execute(pageState, mock(AuditRecord.class), null);
+
+		assertEquals(first.getPoints(), second.getPoints());
+		assertEquals(first.getTotalPossiblePoints(), second.getTotalPossiblePoints());
+		verify(issueMessageService, times(2)).save(any(UXIssueMessage.class));
+
+		when(svgElement.getAllText()).thenReturn("<svg><title>My SVG</title><desc>A description</desc></svg>");
+		Audit third = audit.execute(pageState, mock(AuditRecord.class), null);
+
+		assertEquals(2, third.getPoints());
+		verify(issueMessageService, times(4)).save(any(UXIssueMessage.class));
+	}
+
+	@Test
+	public void executeWithAggregationSavesOneSummaryPerPassingCheck() throws Exception {
+		Field passingAggregatorField = SVGAltTextAudit.class.getDeclaredField("passing_aggregator");
+		passingAggregatorField.setAccessible(true);
+		passingAggregatorField.set(audit, new PassingMessageAggregator(true));
+
+		PageState pageState = mock(PageState.class);
+		List<ElementState> elements = new ArrayList<>();
+		for(long id = 1; id <= 10; id++) {
+			ElementState svgElement = mock(ElementState.class);
+			when(svgElement.getName()).thenReturn("svg");
+			when(svgElement.getAllText()).thenReturn("<svg><title>My SVG</title><desc>A description</desc></svg>");
+			when(svgElement.getId()).thenReturn(id);
+			elements.add(svgElement);
+		}
+		ElementState failingElement = mock(ElementState.class);
+		when(failingElement.getName()).thenReturn("svg");
+		when(failingElement.getAllText()).thenReturn("<svg><desc>A description</desc></svg>");
+		when(failingElement.getId()).thenReturn(11L);
+		elements.add(failingElement);
+
+		when(pageState.getElements()).thenReturn(elements);
+		when(pageState.getUrl()).thenReturn("http://example.com");
+
+		Audit result = audit.execute(pageState, mock(AuditRecord.class), null);
+
+		assertEquals(21, result.getPoints());
+		assertEquals(22, result.getTotalPossiblePoints());
+		// one itemized violation plus one summary each for the title and desc checks
+		verify(issueMessageService, times(3)).save(any(UXIssueMessage.class));
+		verify(issueMessageService, times(1)).addElement(any(), any());
+	}
 }
@@ -0,0 +1,81 @@
+package com.looksee.contentAudit.models.messages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.looksee.models.audit.messages.ElementStateIssueMessage;
+import com.looksee.models.enums.Priority;
+
+public class IssueTemplatesTest {
+
+	@Test
+	public void templatesAreRegisteredById() {
+		assertFalse(IssueTemplates.all().isEmpty());
+		for(IssueTemplate template : IssueTemplates.all().values()) {
+			assertSame(template, IssueTemplates.byId(template.getId()));
+		}
+		assertNull(IssueTemplates.byId("alt-text.unknown"));
+		assertNull(IssueTemplates.byId(null));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void sharedLabelsAreImmutable() {
+		IssueTemplates.ALT_TEXT_LABELS.add("mutated");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void templateLabelsAreImmutable() {
+		IssueTemplates.SVG_TITLE_PRESENT.getLabels().add("mutated");
+	}
+
+	@Test
+	public void templatesShareTheRegistryLabelSets() {
+		for(IssueTemplate template : IssueTemplates.all().values()) {
+			assertTrue(template.getLabels() == IssueTemplates.ALT_TEXT_LABELS
+					|| template.getLabels() == IssueTemplates.READABILITY_LABELS
+					|| template.getLabels() == IssueTemplates.PARAGRAPHING_LABELS);
+		}
+	}
+
+	@Test
+	public void forTagResolvesPlaceholdersAsTheAuditsDid() {
+		IssueTemplate track_missing = IssueTemplates.MEDIA_TRACK_MISSING.forTag("video");
+
+		assertEquals("video does not have track element defined", track_missing.getTitle());
+		assertEquals("video does not have track element defined", track_missing.getDescription());
+		assertEquals("video tag should have a <track> element defined within the video tag", track_missing.getRecommendation());
+		assertEquals(IssueTemplates.MEDIA_TRACK_MISSING.getId(), track_missing.getId());
+		assertEquals("Well done! This audio is considered accessible according to WCAG 2.1 section 1.1.1",
+				IssueTemplates.MEDIA_TRANSCRIPT_PRESENT.forTag("audio").getDescription());
+	}
+
+	@Test
+	public void forTagCachesResolvedTemplates() {
+		assertSame(IssueTemplates.IMAGE_ALT_TEXT_MISSING.forTag("area"), IssueTemplates.IMAGE_ALT_TEXT_MISSING.forTag("area"));
+	}
+
+	@Test
+	public void messagesCarryTemplatePoints() {
+		ElementStateIssueMessage failing = IssueTemplates.SVG_TITLE_MISSING.toIssueMessage();
+		ElementStateIssueMessage passing = IssueTemplates.SVG_TITLE_PRESENT.toIssueMessage();
+
+		assertEquals(0, failing.getPoints());
+		assertEquals(1, failing.getMaxPoints());
+		assertEquals(1, passing.getPoints());
+		assertEquals(1, passing.getMaxPoints());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsPointsAboveMaximum() {
+		Set<String> labels = new HashSet<>();
+		new IssueTemplate("test", Priority.NONE, "title", "description", "", labels, "wcag", 2, 1);
+	}
+}
@@ -0,0 +1,109 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuditPipelineTest {
+
+	private SimpleMeterRegistry meter_registry;
+	private AuditPipeline pipeline;
+
+	@Before
+	public void setUp() {
+		meter_registry = new SimpleMeterRegistry();
+		pipeline = new AuditPipeline(meter_registry, true, 1, 1, 1, 1, 1);
+	}
+
+	@After
+	public void tearDown() {
+		pipeline.close();
+	}
+
+	@Test
+	public void runsTaskInItsStage() throws Exception {
+		CompletableFuture<String> result = pipeline.submit(AuditPipeline.Stage.AUDIT, () -> Thread.currentThread().getName());
+
+		assertTrue(result.get(5, TimeUnit.SECONDS).startsWith("audit-audit-"));
+	}
+
+	@Test
+	public void fullStageRejectsWithoutAffectingOthers() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		pipeline.submit(AuditPipeline.Stage.PERSIST, () -> {
+			started.countDown();
+			return release.await(5, TimeUnit.SECONDS);
+		});
+		started.await(5, TimeUnit.SECONDS);
+		CompletableFuture<String> queued = pipeline.submit(AuditPipeline.Stage.PERSIST, () -> "queued");
+
+		CompletableFuture<String> rejected = pipeline.submit(AuditPipeline.Stage.PERSIST, () -> "rejected");
+		try {
+			rejected.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertEquals(AuditPipeline.Stage.PERSIST, ((PipelineStageFullException) e.getCause()).getStage());
+		}
+		assertTrue(rejected.isCompletedExceptionally());
+		assertEquals(1, pipeline.queueDepth(AuditPipeline.Stage.PERSIST));
+		assertEquals(1, meter_registry.find("audit.pipeline.queue.depth").tag("stage", "persist").gauge().value(), 0);
+		assertEquals(1, meter_registry.find("audit.pipeline.rejected").tag("stage", "persist").counter().count(), 0);
+		assertEquals("loaded", pipeline.submit(AuditPipeline.Stage.LOAD, () -> "loaded").get(5, TimeUnit.SECONDS));
+
+		release.countDown();
+		assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void taskFailureCompletesFutureExceptionally() throws Exception {
+		CompletableFuture<String> result = pipeline.submit(AuditPipeline.Stage.PUBLISH, () -> {
+			throw new IllegalStateException("publish failed");
+		});
+
+		try {
+			result.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertTrue(result.isCompletedExceptionally());
+	}
+
+	@Test
+	public void closeFailsQueuedTasks() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		pipeline.submit(AuditPipeline.Stage.LOAD, () -> {
+			started.countDown();
+			return new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+		});
+		started.await(5, TimeUnit.SECONDS);
+		CompletableFuture<String> queued = pipeline.submit(AuditPipeline.Stage.LOAD, () -> "queued");
+
+		pipeline.close();
+
+		try {
+			queued.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			assertEquals(AuditPipeline.Stage.LOAD, ((PipelineStageFullException) e.getCause()).getStage());
+		}
+		assertTrue(queued.isCompletedExceptionally());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void disabledPipelineRejectsTasks() {
+		AuditPipeline disabled = new AuditPipeline(new SimpleMeterRegistry(), false, 1, 1, 1, 1, 1);
+
+		assertFalse(disabled.isEnabled());
+		disabled.submit(AuditPipeline.Stage.LOAD, () -> "loaded");
+	}
+}
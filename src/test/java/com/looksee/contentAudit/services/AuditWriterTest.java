@@ -0,0 +1,382 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.looksee.contentAudit.utils.WriteAheadLog;
+import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
+import com.looksee.services.UXIssueMessageService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuditWriterTest {
+
+	private final List<String> calls = new CopyOnWriteArrayList<>();
+	private final List<String> saved_keys = new CopyOnWriteArrayList<>();
+	private Path log_file;
+	private Path dead_letter_file;
+	private volatile int failures;
+	private final Set<String> failing_keys = ConcurrentHashMap.newKeySet();
+
+	private final UXIssueMessageService issue_message_service = new UXIssueMessageService() {
+		private long next_id = 100;
+
+		@Override
+		public synchronized UXIssueMessage save(UXIssueMessage message) {
+			if(failures > 0 || failing_keys.contains(message.getKey())) {
+				failures = Math.max(0, failures - 1);
+				throw new IllegalStateException("database unavailable");
+			}
+			saved_keys.add(message.getKey());
+			UXIssueMessage saved = new UXIssueMessage();
+			saved.setId(next_id++);
+			calls.add("save " + saved.getId());
+			return saved;
+		}
+
+		@Override
+		public void addElement(Long message_id, Long element_id) {
+			calls.add("link " + message_id + " " + element_id);
+		}
+	};
+
+	private final PubSubAuditUpdatePublisherImpl audit_update_topic = new PubSubAuditUpdatePublisherImpl() {
+		@Override
+		public void publish(String audit_update_json) {
+			calls.add("publish " + audit_update_json);
+		}
+	};
+
+	private final StaticListableBeanFactory transaction_managers = new StaticListableBeanFactory();
+	private volatile boolean commit_fails;
+
+	private final PlatformTransactionManager transaction_manager = new PlatformTransactionManager() {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			calls.add("begin");
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+			if(commit_fails) {
+				calls.add("rollback");
+				throw new IllegalStateException("commit failed");
+			}
+			calls.add("commit");
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+			calls.add("rollback");
+		}
+	};
+
+	@Before
+	public void setUp() throws IOException {
+		Path directory = Files.createTempDirectory("audit-writer-test");
+		log_file = directory.resolve("write-behind.log");
+		dead_letter_file = directory.resolve("write-behind.dead");
+	}
+
+	private AuditWriter writer(boolean enabled) throws IOException {
+		return writer(enabled, 3);
+	}
+
+	private AuditWriter writer(boolean enabled, int max_attempts) throws IOException {
+		return new AuditWriter(IssueMessageStore.saveOnly(issue_message_service, new AuditService(), new AuditRecordService()), audit_update_topic,
+								new Bulkheads(new SimpleMeterRegistry(), 4, 4, 4, 1000), transaction_managers.getBeanProvider(PlatformTransactionManager.class),
+								new SimpleMeterRegistry(), enabled, log_file.toString(), 8, 2, 0, max_attempts, dead_letter_file.toString());
+	}
+
+	private void awaitFlushed(AuditWriter writer) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while(writer.getPendingPages() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(0, writer.getPendingPages());
+	}
+
+	@Test
+	public void inlineWriterSavesImmediately() {
+		AuditWriter writer = AuditWriter.inline(new AuditService(), issue_message_service);
+
+		UXIssueMessage saved = writer.upsert(new UXIssueMessage(), "issue-1");
+		writer.addElement(saved, 7L);
+
+		assertEquals(List.of("save 100", "link 100 7"), calls);
+		assertEquals(List.of("issue-1"), saved_keys);
+		assertFalse(writer.isWriteBehind());
+	}
+
+	@Test
+	public void carriedForwardMessageIsSavedAsACopyUnderTheNewKey() {
+		AuditWriter writer = AuditWriter.inline(new AuditService(), issue_message_service);
+		UXIssueMessage template = new UXIssueMessage();
+		template.setId(5L);
+		template.setKey("issue-old");
+
+		writer.carryForward(template, "issue-new");
+
+		assertEquals(List.of("save 100"), calls);
+		assertEquals(List.of("issue-new"), saved_keys);
+		assertEquals(Long.valueOf(5), template.getId());
+		assertEquals("issue-old", template.getKey());
+	}
+
+	@Test
+	public void batchedElementLinksAreLoggedAndReplayed() throws Exception {
+		failures = Integer.MAX_VALUE;
+		AuditWriter crashed = writer(true, Integer.MAX_VALUE);
+		try (AuditWriter.Page page = crashed.openPage(1)) {
+			UXIssueMessage first = crashed.upsert(new UXIssueMessage(), "issue-1");
+			UXIssueMessage second = crashed.upsert(new UXIssueMessage(), "issue-2");
+			crashed.addElements(List.of(first, second), List.of(7L, 8L));
+			page.complete("{}");
+		}
+		crashed.close();
+
+		failures = 0;
+		try (AuditWriter writer = writer(true)) {
+			awaitFlushed(writer);
+		}
+		assertEquals(List.of("save 100", "save 101", "link 100 7", "link 101 8", "publish {}"), calls);
+	}
+
+	@Test
+	public void disabledWriteBehindRunsPageOperationsImmediately() throws Exception {
+		try (AuditWriter writer = writer(false);
+				AuditWriter.Page page = writer.openPage(1)) {
+			assertFalse(page.isDeferred());
+			writer.upsert(new UXIssueMessage(), "issue-1");
+		}
+
+		assertEquals(List.of("save 100"), calls);
+		assertFalse(Files.exists(log_file));
+	}
+
+	@Test
+	public void recordedPageIsWrittenByTheThreadItIsHandedTo() throws Exception {
+		try (AuditWriter writer = writer(false)) {
+			AuditWriter.Page page = writer.openPage(1, true);
+			UXIssueMessage message = writer.upsert(new UXIssueMessage(), "issue-1");
+			writer.addElement(message, 7L);
+			page.unbind();
+			assertTrue(page.isDeferred());
+			assertFalse(page.isWrittenBehind());
+			assertTrue(calls.isEmpty());
+
+			Thread persister = new Thread(() -> {
+				try (page) {
+					page.write();
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			persister.start();
+			persister.join();
+
+			assertEquals(List.of("save 100", "link 100 7"), calls);
+			writer.upsert(new UXIssueMessage(), "issue-2");
+			assertEquals(3, calls.size());
+		}
+	}
+
+	@Test
+	public void recordedPagesOfABatchAreWrittenInOneTransaction() throws Exception {
+		transaction_managers.addBean("transactionManager", transaction_manager);
+		try (AuditWriter writer = writer(false)) {
+			AuditWriter.Page first = writer.openPage(1, true);
+			writer.addElement(writer.upsert(new UXIssueMessage(), "issue-1"), 7L);
+			first.unbind();
+			AuditWriter.Page second = writer.openPage(2, true);
+			writer.upsert(new UXIssueMessage(), "issue-2");
+			second.unbind();
+
+			writer.writeAll(List.of(first, second));
+		}
+		assertEquals(List.of("begin", "save 100", "link 100 7", "save 101", "commit"), calls);
+	}
+
+	@Test
+	public void pagesOfARolledBackBatchCanBeWrittenAgain() throws Exception {
+		transaction_managers.addBean("transactionManager", transaction_manager);
+		commit_fails = true;
+		try (AuditWriter writer = writer(false)) {
+			AuditWriter.Page page = writer.openPage(1, true);
+			UXIssueMessage message = writer.upsert(new UXIssueMessage(), "issue-1");
+			writer.addElement(message, 7L);
+			page.unbind();
+
+			try {
+				writer.writeAll(List.of(page));
+				fail("expected the commit to fail");
+			} catch (IllegalStateException e) {
+				assertEquals("commit failed", e.getMessage());
+			}
+			assertNull(message.getId());
+
+			page.write();
+			assertEquals(Long.valueOf(101), message.getId());
+		}
+		assertEquals(List.of("begin", "save 100", "link 100 7", "rollback", "save 101", "link 101 7"), calls);
+	}
+
+	@Test
+	public void deferredPageIsWrittenInOrderAfterItCompletes() throws Exception {
+		try (AuditWriter writer = writer(true)) {
+			UXIssueMessage message = new UXIssueMessage();
+			try (AuditWriter.Page page = writer.openPage(1)) {
+				assertTrue(page.isDeferred());
+				assertSame(message, writer.upsert(message, "issue-1"));
+				writer.addElement(message, 7L);
+				assertTrue(calls.isEmpty());
+				page.complete("{\"pageAuditId\":1}");
+			}
+
+			awaitFlushed(writer);
+			assertEquals(List.of("save 100", "link 100 7", "publish {\"pageAuditId\":1}"), calls);
+			assertEquals(Long.valueOf(100), message.getId());
+		}
+		assertEquals(0, Files.size(log_file));
+	}
+
+	@Test
+	public void failedWritesAreRetriedWithoutRepeatingCompletedOnes() throws Exception {
+		failures = 1;
+		try (AuditWriter writer = writer(true)) {
+			try (AuditWriter.Page page = writer.openPage(1)) {
+				writer.addElement(writer.upsert(new UXIssueMessage(), "issue-1"), 7L);
+				page.complete("{}");
+			}
+
+			awaitFlushed(writer);
+		}
+		assertEquals(List.of("save 100", "link 100 7", "publish {}"), calls);
+	}
+
+	@Test
+	public void incompletePageIsDiscarded() throws Exception {
+		try (AuditWriter writer = writer(true)) {
+			try (AuditWriter.Page page = writer.openPage(1)) {
+				writer.upsert(new UXIssueMessage(), "issue-1");
+			}
+
+			writer.upsert(new UXIssueMessage(), "issue-1");
+			assertEquals(List.of("save 100"), calls);
+			assertEquals(0, writer.getPendingPages());
+		}
+	}
+
+	@Test
+	public void replaysLoggedPagesOnStart() throws Exception {
+		failures = Integer.MAX_VALUE;
+		AuditWriter crashed = writer(true, Integer.MAX_VALUE);
+		try (AuditWriter.Page page = crashed.openPage(1)) {
+			crashed.addElement(crashed.upsert(new UXIssueMessage(), "issue-1"), 7L);
+			page.complete("{}");
+		}
+		crashed.close();
+		assertTrue(calls.isEmpty());
+
+		failures = 0;
+		try (AuditWriter writer = writer(true)) {
+			awaitFlushed(writer);
+		}
+		assertEquals(List.of("save 100", "link 100 7", "publish {}"), calls);
+		assertEquals(List.of("issue-1"), saved_keys);
+	}
+
+	@Test
+	public void pageFailingEveryAttemptIsDeadLetteredWithoutHoldingBackLaterPages() throws Exception {
+		failing_keys.add("issue-1");
+		try (AuditWriter writer = writer(true)) {
+			try (AuditWriter.Page page = writer.openPage(1)) {
+				writer.upsert(new UXIssueMessage(), "issue-1");
+				page.complete("{\"pageAuditId\":1}");
+			}
+			try (AuditWriter.Page page = writer.openPage(2)) {
+				writer.upsert(new UXIssueMessage(), "issue-2");
+				page.complete("{\"pageAuditId\":2}");
+			}
+
+			awaitFlushed(writer);
+		}
+		assertEquals(List.of("save 100", "publish {\"pageAuditId\":2}"), calls);
+		List<String> dead_letters = Files.readAllLines(dead_letter_file);
+		assertEquals(1, dead_letters.size());
+		assertTrue(dead_letters.get(0).contains("\"pageAuditId\":1"));
+		assertEquals(0, Files.size(log_file));
+	}
+
+	@Test
+	public void replaySkipsLoggedPagesThatCannotBeDecoded() throws Exception {
+		try (WriteAheadLog write_ahead_log = WriteAheadLog.open(log_file)) {
+			write_ahead_log.append("not a page");
+		}
+		failures = Integer.MAX_VALUE;
+		AuditWriter crashed = writer(true, Integer.MAX_VALUE);
+		try (AuditWriter.Page page = crashed.openPage(1)) {
+			crashed.upsert(new UXIssueMessage(), "issue-1");
+			page.complete("{}");
+		}
+		crashed.close();
+
+		failures = 0;
+		try (AuditWriter writer = writer(true)) {
+			awaitFlushed(writer);
+		}
+		assertEquals(List.of("save 100", "publish {}"), calls);
+		assertEquals(List.of("not a page"), Files.readAllLines(dead_letter_file));
+	}
+
+	@Test
+	public void failingPageWaitsForItsRetryWithoutHoldingBackLaterPages() throws Exception {
+		failing_keys.add("issue-1");
+		try (AuditWriter writer = writer(true, Integer.MAX_VALUE)) {
+			try (AuditWriter.Page page = writer.openPage(1)) {
+				writer.upsert(new UXIssueMessage(), "issue-1");
+				page.complete("{\"pageAuditId\":1}");
+			}
+			try (AuditWriter.Page page = writer.openPage(2)) {
+				writer.upsert(new UXIssueMessage(), "issue-2");
+				page.complete("{\"pageAuditId\":2}");
+			}
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while(writer.getPendingPages() > 1 && System.nanoTime() < deadline) {
+				Thread.sleep(5);
+			}
+			assertEquals(List.of("save 100", "publish {\"pageAuditId\":2}"), calls);
+			assertEquals(1, writer.getPendingPages());
+
+			failing_keys.clear();
+			awaitFlushed(writer);
+		}
+		assertEquals(List.of("save 100", "publish {\"pageAuditId\":2}", "save 101", "publish {\"pageAuditId\":1}"), calls);
+	}
+}
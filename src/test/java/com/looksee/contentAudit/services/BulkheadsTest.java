@@ -0,0 +1,80 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BulkheadsTest {
+
+	private SimpleMeterRegistry meter_registry;
+	private Bulkheads bulkheads;
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		meter_registry = new SimpleMeterRegistry();
+		bulkheads = new Bulkheads(meter_registry, 2, 1, 1, 50);
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	private double gauge(String name, Bulkheads.Dependency dependency) {
+		return meter_registry.find(name).tag("dependency", dependency.getTag()).gauge().value();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNonPositiveLimit() {
+		new Bulkheads(meter_registry, 0, 1, 1, 50);
+	}
+
+	@Test
+	public void fullDependencyRejectsWithoutAffectingOthers() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.submit(() -> bulkheads.execute(Bulkheads.Dependency.CLOUD_NLP, () -> {
+			started.countDown();
+			return release.await(5, TimeUnit.SECONDS);
+		}));
+		started.await(5, TimeUnit.SECONDS);
+
+		try {
+			bulkheads.execute(Bulkheads.Dependency.CLOUD_NLP, () -> "second");
+			fail("expected the Cloud NLP bulkhead to be full");
+		} catch (BulkheadFullException e) {
+			assertEquals(Bulkheads.Dependency.CLOUD_NLP, e.getDependency());
+		}
+		assertEquals("db", bulkheads.execute(Bulkheads.Dependency.NEO4J, () -> "db"));
+		assertEquals(1, gauge("audit.bulkhead.active", Bulkheads.Dependency.CLOUD_NLP), 0);
+		assertEquals(1.0, gauge("audit.bulkhead.saturation", Bulkheads.Dependency.CLOUD_NLP), 0);
+		assertEquals(1, meter_registry.find("audit.bulkhead.rejected").tag("dependency", "cloud-nlp").counter().count(), 0);
+
+		release.countDown();
+	}
+
+	@Test
+	public void permitIsReleasedWhenCallFails() throws Exception {
+		try {
+			bulkheads.execute(Bulkheads.Dependency.PUBSUB, () -> {
+				throw new IllegalStateException("publish failed");
+			});
+			fail("expected the call's exception");
+		} catch (IllegalStateException e) {
+			assertEquals(0, bulkheads.active(Bulkheads.Dependency.PUBSUB));
+		}
+		assertEquals("published", bulkheads.execute(Bulkheads.Dependency.PUBSUB, () -> "published"));
+	}
+}
@@ -0,0 +1,151 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.looksee.models.ElementState;
+import com.looksee.models.audit.messages.UXIssueMessage;
+
+public class ElementFingerprintStoreTest {
+
+	private ElementState element(String name, String outerHtml, String allText) {
+		ElementState element = mock(ElementState.class);
+		when(element.getName()).thenReturn(name);
+		when(element.getOuterHtml()).thenReturn(outerHtml);
+		when(element.getAllText()).thenReturn(allText);
+		return element;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNonPositiveMaxPages() {
+		new ElementFingerprintStore(true, 0);
+	}
+
+	@Test
+	public void disabledStoreNeverCarriesResultsForward() {
+		ElementFingerprintStore store = new ElementFingerprintStore(false, 10);
+		ElementState img = element("img", "<img alt=\"a\">", "");
+
+		ElementFingerprintStore.Run first = store.begin("http://example.com", "audit");
+		long fingerprint = first.fingerprint(img);
+		first.record(fingerprint, Map.of("rule", mock(UXIssueMessage.class)));
+		first.commit();
+
+		ElementFingerprintStore.Run second = store.begin("http://example.com", "audit");
+		assertNull(second.carryForward(second.fingerprint(img)));
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void unchangedElementCarriesPreviousResultsForward() {
+		ElementFingerprintStore store = new ElementFingerprintStore(true, 10);
+		ElementState img = element("img", "<img alt=\"a\">", "");
+		Map<String, UXIssueMessage> messages = Map.of("rule", mock(UXIssueMessage.class));
+
+		ElementFingerprintStore.Run first = store.begin("http://example.com", "audit");
+		long fingerprint = first.fingerprint(img);
+		assertNull(first.carryForward(fingerprint));
+		first.record(fingerprint, messages);
+		first.commit();
+
+		ElementFingerprintStore.Run second = store.begin("http://example.com", "audit");
+		Map<String, UXIssueMessage> carried = second.carryForward(second.fingerprint(element("img", "<img alt=\"a\">", "")));
+		assertEquals(messages, carried);
+		assertEquals(1, second.getCarriedCount());
+	}
+
+	@Test
+	public void changedElementIsReevaluated() {
+		ElementFingerprintStore store = new ElementFingerprintStore(true, 10);
+
+		ElementFingerprintStore.Run first = store.begin("http://example.com", "audit");
+		long fingerprint = first.fingerprint(element("img", "<img alt=\"a\">", ""));
+		first.record(fingerprint, Map.of("rule", mock(UXIssueMessage.class)));
+		first.commit();
+
+		ElementFingerprintStore.Run second = store.begin("http://example.com", "audit");
+		assertNull(second.carryForward(second.fingerprint(element("img", "<img>", ""))));
+	}
+
+	@Test
+	public void resultsAreScopedToUrlAuditAndContext() {
+		ElementFingerprintStore store = new ElementFingerprintStore(true, 10);
+		ElementState text = element("p", "<p>Some text here</p>", "Some text here");
+
+		ElementFingerprintStore.Run first = store.begin("http://example.com", "readability", "HS");
+		long fingerprint = first.fingerprint(text);
+		first.record(fingerprint, Map.of("rule", mock(UXIssueMessage.class)));
+		first.commit();
+
+		ElementFingerprintStore.Run other_url = store.begin("http://example.com/other", "readability", "HS");
+		assertNull(other_url.carryForward(other_url.fingerprint(text)));
+
+		ElementFingerprintStore.Run other_audit = store.begin("http://example.com", "paragraphing", "HS");
+		assertNull(other_audit.carryForward(other_audit.fingerprint(text)));
+
+		ElementFingerprintStore.Run other_context = store.begin("http://example.com", "readability", "College");
+		assertNull(other_context.carryForward(other_context.fingerprint(text)));
+	}
+
+	@Test
+	public void identicalElementsMapToTheirOwnPreviousResults() {
+		ElementFingerprintStore store = new ElementFingerprintStore(true, 10);
+		ElementState first_svg = element("svg", "<svg></svg>", "");
+		ElementState second_svg = element("svg", "<svg></svg>", "");
+		Map<String, UXIssueMessage> first_messages = Map.of("rule", mock(UXIssueMessage.class));
+		Map<String, UXIssueMessage> second_messages = Map.of("rule", mock(UXIssueMessage.class));
+
+		ElementFingerprintStore.Run first = store.begin("http://example.com", "audit");
+		long first_fingerprint = first.fingerprint(first_svg);
+		long second_fingerprint = first.fingerprint(second_svg);
+		assertNotEquals(first_fingerprint, second_fingerprint);
+		first.record(first_fingerprint, first_messages);
+		first.record(second_fingerprint, second_messages);
+		first.commit();
+
+		ElementFingerprintStore.Run second = store.begin("http://example.com", "audit");
+		assertEquals(first_messages, second.carryForward(second.fingerprint(first_svg)));
+		assertEquals(second_messages, second.carryForward(second.fingerprint(second_svg)));
+	}
+
+	@Test
+	public void uncommittedRunDoesNotReplacePreviousSnapshot() {
+		ElementFingerprintStore store = new ElementFingerprintStore(true, 10);
+		ElementState img = element("img", "<img alt=\"a\">", "");
+		Map<String, UXIssueMessage> messages = Map.of("rule", mock(UXIssueMessage.class));
+
+		ElementFingerprintStore.Run first = store.begin("http://example.com", "audit");
+		first.record(first.fingerprint(img), messages);
+		first.commit();
+
+		ElementFingerprintStore.Run failed = store.begin("http://example.com", "audit");
+		failed.fingerprint(img);
+
+		ElementFingerprintStore.Run third = store.begin("http://example.com", "audit");
+		assertSame(messages.get("rule"), third.carryForward(third.fingerprint(img)).get("rule"));
+	}
+
+	@Test
+	public void leastRecentlyUsedPagesAreEvicted() {
+		ElementFingerprintStore store = new ElementFingerprintStore(true, 2);
+		ElementState img = element("img", "<img alt=\"a\">", "");
+
+		for (String url : new String[] { "http://a.com", "http://b.com", "http://c.com" }) {
+			ElementFingerprintStore.Run run = store.begin(url, "audit");
+			run.record(run.fingerprint(img), Map.of("rule", mock(UXIssueMessage.class)));
+			run.commit();
+		}
+
+		assertEquals(2, store.size());
+		ElementFingerprintStore.Run evicted = store.begin("http://a.com", "audit");
+		assertNull(evicted.carryForward(evicted.fingerprint(img)));
+	}
+}
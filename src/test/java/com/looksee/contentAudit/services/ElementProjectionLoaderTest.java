@@ -0,0 +1,111 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import com.looksee.contentAudit.models.ContentElementState;
+import com.looksee.models.ElementState;
+import com.looksee.services.PageStateService;
+
+public class ElementProjectionLoaderTest {
+
+	@Test
+	public void mapsProjectionRowToElement() {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", 42L);
+		row.put("name", "p");
+		row.put("key", "elementstate42");
+		row.put("xpath", "/html/body/p[2]");
+		row.put("ownedText", "owned");
+		row.put("allText", "owned and child");
+		row.put("outerHtml", "<p>owned <b>and child</b></p>");
+
+		ContentElementState element = ElementProjectionLoader.toElement(row);
+
+		assertEquals(Long.valueOf(42), element.getId());
+		assertEquals("p", element.getName());
+		assertEquals("elementstate42", element.getKey());
+		assertEquals("/html/body/p[2]", element.getXpath());
+		assertEquals("owned", element.getOwnedText());
+		assertEquals("owned and child", element.getAllText());
+		assertEquals("<p>owned <b>and child</b></p>", element.getOuterHtml());
+	}
+
+	@Test
+	public void mapsMissingPropertiesToNull() {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", 7);
+
+		ContentElementState element = ElementProjectionLoader.toElement(row);
+
+		assertEquals(Long.valueOf(7), element.getId());
+		assertNull(element.getOwnedText());
+		assertNull(element.getOuterHtml());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void loadsCompleteElementsWhenProjectionIsDisabled() {
+		List<ElementState> elements = List.of(new ElementState());
+		PageStateService page_state_service = new PageStateService() {
+			@Override
+			public List<ElementState> getElementStates(long page_id) {
+				return page_id == 3 ? elements : null;
+			}
+		};
+		ObjectProvider<Neo4jClient> neo4j_client = mock(ObjectProvider.class);
+
+		ElementProjectionLoader loader = new ElementProjectionLoader(neo4j_client, page_state_service, false);
+
+		assertSame(elements, loader.loadElements(3));
+		verifyNoInteractions(neo4j_client);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filtersCompleteElementsByTagWhenProjectionIsDisabled() {
+		ElementState svg = new ContentElementState(1L, "SVG", null, null, null, null, null);
+		ElementState div = new ContentElementState(2L, "div", null, null, null, null, null);
+		ElementState iframe = new ContentElementState(3L, "iframe", null, null, null, null, null);
+		PageStateService page_state_service = new PageStateService() {
+			@Override
+			public List<ElementState> getElementStates(long page_id) {
+				return List.of(svg, div, iframe);
+			}
+		};
+
+		ElementProjectionLoader loader = new ElementProjectionLoader(mock(ObjectProvider.class), page_state_service, false);
+
+		assertEquals(List.of(svg, iframe), loader.loadElements(3, Set.of("svg", "iframe")));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void loadsElementsOfEachPageWhenProjectionIsDisabled() {
+		ElementState svg = new ContentElementState(1L, "svg", null, null, null, null, null);
+		ElementState div = new ContentElementState(2L, "div", null, null, null, null, null);
+		PageStateService page_state_service = new PageStateService() {
+			@Override
+			public List<ElementState> getElementStates(long page_id) {
+				return page_id == 3 ? List.of(svg, div) : List.of(div);
+			}
+		};
+
+		ElementProjectionLoader loader = new ElementProjectionLoader(mock(ObjectProvider.class), page_state_service, false);
+
+		assertEquals(Map.of(3L, List.of(svg, div), 4L, List.of(div)), loader.loadElementsOfPages(List.of(3L, 4L), null));
+		assertEquals(Map.of(3L, List.of(svg), 4L, List.of()), loader.loadElementsOfPages(List.of(3L, 4L), Set.of("svg")));
+	}
+}
@@ -0,0 +1,134 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class FragmentParseServiceTest {
+
+	private static final String URL = "https://example.com/page";
+
+	private ForkJoinPool pool;
+	private SimpleMeterRegistry meter_registry;
+
+	@Before
+	public void setUp() {
+		pool = new ForkJoinPool(4);
+		meter_registry = new SimpleMeterRegistry();
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void parsesLikeJsoupParseBodyFragment() {
+		FragmentParseService parse_service = new FragmentParseService(pool, meter_registry, 64);
+		String[] fragments = {
+			"<svg viewBox=\"0 0 24 24\"><title>Logo</title><desc>Company logo</desc><path d=\"M0 0h24\"></path></svg>",
+			"<img src=\"a.png\" alt=\"\">",
+			"<figure><img src=\"b.png\"><figcaption>Caption</figcaption></figure>",
+			"plain text <b>and</b> markup",
+			"<td>cell outside a table</td><p>unclosed paragraph",
+			""
+		};
+
+		for(String fragment : fragments) {
+			Document expected = Jsoup.parseBodyFragment(fragment, URL);
+			Document actual = parse_service.parseBodyFragment(fragment, URL);
+
+			assertEquals(expected.outerHtml(), actual.outerHtml());
+			assertEquals(expected.baseUri(), actual.baseUri());
+		}
+	}
+
+	@Test
+	public void parsesNullAsAnEmptyFragment() {
+		FragmentParseService parse_service = new FragmentParseService(pool, meter_registry, 64);
+
+		Document document = parse_service.parseBodyFragment(null, null);
+
+		assertEquals("", document.body().html());
+	}
+
+	@Test
+	public void keepsElementOrderAcrossParallelChunks() {
+		FragmentParseService parse_service = new FragmentParseService(pool, meter_registry, 3);
+		List<String> fragments = new ArrayList<>();
+		for(int idx = 0; idx < 100; idx++) {
+			fragments.add("<svg><title>icon " + idx + "</title></svg>");
+		}
+
+		List<Document> documents = parse_service.parseBodyFragments(fragments, Function.identity(), URL, "SVGAltTextAudit");
+
+		assertEquals(fragments.size(), documents.size());
+		for(int idx = 0; idx < documents.size(); idx++) {
+			assertEquals("icon " + idx, documents.get(idx).getElementsByTag("title").first().text());
+		}
+	}
+
+	@Test
+	public void recordsParseTimeAndCountPerAudit() {
+		FragmentParseService parse_service = new FragmentParseService(pool, meter_registry, 2);
+		List<String> fragments = List.of("<img alt=\"a\">", "<img alt=\"b\">", "<img alt=\"c\">");
+
+		parse_service.parseBodyFragments(fragments, Function.identity(), URL, "ImageAltTextAudit");
+		for(Document document : parse_service.parseBodyFragments(fragments.subList(0, 1), Function.identity(), URL, "ImageAltTextAudit")) {
+			assertEquals("a", document.getElementsByTag("img").first().attr("alt"));
+		}
+
+		Timer parse_timer = meter_registry.find("audit.parse").tag("audit", "ImageAltTextAudit").timer();
+		assertEquals(4, parse_timer.count());
+		assertTrue(parse_timer.totalTime(TimeUnit.NANOSECONDS) > 0);
+	}
+
+	@Test
+	public void parsesSmallBatchesAndSingleThreadPoolsLazilyAndOnce() {
+		ForkJoinPool single_thread_pool = new ForkJoinPool(1);
+		try {
+			FragmentParseService parse_service = new FragmentParseService(single_thread_pool, meter_registry, 2);
+			List<String> fragments = List.of("<p>one</p>", "<p>two</p>", "<p>three</p>");
+
+			List<Document> documents = parse_service.parseBodyFragments(fragments, Function.identity(), URL, "FigureAltTextAudit");
+			Timer parse_timer = meter_registry.find("audit.parse").tag("audit", "FigureAltTextAudit").timer();
+			assertEquals(0, parse_timer.count());
+
+			assertEquals("three", documents.get(2).body().text());
+			assertEquals(1, parse_timer.count());
+
+			assertSame(documents.get(2), documents.get(2));
+			assertEquals(1, parse_timer.count());
+		} finally {
+			single_thread_pool.shutdown();
+		}
+	}
+
+	@Test
+	public void returnsNoDocumentsForNoElements() {
+		FragmentParseService parse_service = new FragmentParseService(pool, meter_registry, 2);
+
+		assertTrue(parse_service.parseBodyFragments(Collections.<String>emptyList(), Function.identity(), URL, "SVGAltTextAudit").isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNonPositiveChunkSize() {
+		new FragmentParseService(pool, meter_registry, 0);
+	}
+}
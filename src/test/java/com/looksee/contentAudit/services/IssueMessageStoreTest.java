@@ -0,0 +1,123 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.models.enums.AuditCategory;
+import com.looksee.models.enums.AuditLevel;
+import com.looksee.models.enums.AuditName;
+import com.looksee.models.enums.AuditSubcategory;
+import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
+import com.looksee.services.UXIssueMessageService;
+
+public class IssueMessageStoreTest {
+
+	private final List<String> calls = new ArrayList<>();
+
+	private final UXIssueMessageService issue_message_service = new UXIssueMessageService() {
+		@Override
+		public UXIssueMessage save(UXIssueMessage message) {
+			calls.add("save " + message.getKey());
+			return message;
+		}
+
+		@Override
+		public void addElement(Long message_id, Long element_id) {
+			calls.add("link " + message_id + " " + element_id);
+		}
+	};
+
+	private final AuditService audit_service = new AuditService() {
+		@Override
+		public Audit save(Audit audit) {
+			calls.add("save " + audit.getKey());
+			return audit;
+		}
+
+		@Override
+		public void addAllIssues(Long audit_id, Set<UXIssueMessage> messages) {
+			calls.add("issues " + audit_id + " " + messages.size());
+		}
+	};
+
+	private final AuditRecordService audit_record_service = new AuditRecordService() {
+		@Override
+		public void addAudit(long page_audit_id, long audit_id) {
+			calls.add("audit " + page_audit_id + " " + audit_id);
+		}
+	};
+
+	private static Audit audit(String key) {
+		Audit audit = new Audit(AuditCategory.CONTENT, AuditSubcategory.WRITTEN_CONTENT, AuditName.PARAGRAPHING,
+								0, null, AuditLevel.PAGE, 0, "https://example.com", "", "", false);
+		audit.setKey(key);
+		return audit;
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void disabledStoreSavesAndLinksThroughTheServices() {
+		ObjectProvider<Neo4jClient> neo4j_client = mock(ObjectProvider.class);
+		IssueMessageStore store = new IssueMessageStore(neo4j_client, issue_message_service, audit_service, audit_record_service, false);
+		UXIssueMessage message = new UXIssueMessage();
+		message.setKey("uxissue1");
+		message.setId(3L);
+		Audit audit = audit("audit1");
+		audit.setId(4L);
+
+		store.upsert(message);
+		store.addElement(3L, 9L);
+		store.upsert(audit);
+		store.addAllIssues(4L, Set.of(message));
+		store.addAudit(1, 4L);
+
+		assertEquals(List.of("save uxissue1", "link 3 9", "save audit1", "issues 4 1", "audit 1 4"), calls);
+		verifyNoInteractions(neo4j_client);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void upsertedAuditIsSavedOntoTheNodeMergedOnItsKey() {
+		Neo4jClient client = mock(Neo4jClient.class, RETURNS_DEEP_STUBS);
+		when(client.query(anyString()).bind(any()).to(anyString()).fetch().all()).thenReturn(List.of(Map.of("id", 5L)));
+		ObjectProvider<Neo4jClient> neo4j_client = mock(ObjectProvider.class);
+		when(neo4j_client.getIfAvailable()).thenReturn(client);
+		IssueMessageStore store = new IssueMessageStore(neo4j_client, issue_message_service, audit_service, audit_record_service, true);
+		Audit audit = audit("audit1");
+
+		store.upsert(audit);
+
+		assertEquals(Long.valueOf(5), audit.getId());
+		assertEquals(List.of("save audit1"), calls);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void rejectsMessageWithoutKey() {
+		UXIssueMessage message = new UXIssueMessage();
+		message.setKey(null);
+
+		IssueMessageStore.saveOnly(issue_message_service, audit_service, null).upsert(message);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void saveOnlyStoreWithoutRecordServiceCannotLinkAudits() {
+		IssueMessageStore.saveOnly(issue_message_service, audit_service, null).addAudit(1, 4L);
+	}
+}
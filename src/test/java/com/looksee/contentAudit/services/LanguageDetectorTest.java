@@ -0,0 +1,74 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.looksee.contentAudit.models.enums.Language;
+
+public class LanguageDetectorTest {
+
+	private static final String ENGLISH = "The quick brown fox jumps over the lazy dog while the farmer watches from the window of his house.";
+	private static final String GERMAN = "Der schnelle braune Fuchs springt \u00fcber den faulen Hund, w\u00e4hrend der Bauer aus dem Fenster seines Hauses zusieht.";
+	private static final String SPANISH = "El r\u00e1pido zorro marr\u00f3n salta sobre el perro perezoso mientras el granjero mira desde la ventana de su casa.";
+	private static final String FRENCH = "Le renard brun rapide saute par-dessus le chien paresseux pendant que le fermier regarde depuis la fen\u00eatre de sa maison.";
+
+	@Test
+	public void detectsSupportedLanguages() {
+		LanguageDetector detector = LanguageDetector.defaults();
+
+		assertEquals(Language.ENGLISH, detector.detect(ENGLISH));
+		assertEquals(Language.GERMAN, detector.detect(GERMAN));
+		assertEquals(Language.SPANISH, detector.detect(SPANISH));
+		assertEquals(Language.FRENCH, detector.detect(FRENCH));
+	}
+
+	@Test
+	public void detectsLanguagesWithoutAccents() {
+		assertEquals(Language.GERMAN, LanguageDetector.classify("Die Kinder spielen im Garten und sie lachen, weil die Sonne scheint und es warm ist."));
+		assertEquals(Language.SPANISH, LanguageDetector.classify("Los ninos juegan en el parque porque hace sol y quieren correr con sus amigos de la escuela."));
+		assertEquals(Language.FRENCH, LanguageDetector.classify("Les enfants jouent dans le jardin parce que le soleil brille et ils aiment courir avec leurs amis."));
+	}
+
+	@Test
+	public void fallsBackToEnglishForShortOrNullText() {
+		LanguageDetector detector = LanguageDetector.defaults();
+
+		assertEquals(Language.ENGLISH, detector.detect(null));
+		assertEquals(Language.ENGLISH, detector.detect("Kontakt"));
+		assertEquals(Language.ENGLISH, detector.detect("12345 67890"));
+	}
+
+	@Test
+	public void disabledDetectorTreatsEverythingAsEnglish() {
+		assertEquals(Language.ENGLISH, new LanguageDetector(false, 10).detect(GERMAN));
+	}
+
+	@Test
+	public void cachesResultsUpToItsBound() {
+		LanguageDetector detector = new LanguageDetector(true, 2);
+
+		detector.detect(ENGLISH);
+		detector.detect(ENGLISH);
+		assertEquals(1, detector.cacheSize());
+
+		detector.detect(GERMAN);
+		detector.detect(SPANISH);
+		assertEquals(1, detector.cacheSize());
+		assertEquals(Language.FRENCH, detector.detect(FRENCH));
+		assertEquals(2, detector.cacheSize());
+	}
+
+	@Test
+	public void uncachedDetectorStillDetects() {
+		LanguageDetector detector = new LanguageDetector(true, 0);
+
+		assertEquals(Language.GERMAN, detector.detect(GERMAN));
+		assertEquals(0, detector.cacheSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeCacheSize() {
+		new LanguageDetector(true, -1);
+	}
+}
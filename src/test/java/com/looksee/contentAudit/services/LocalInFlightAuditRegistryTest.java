@@ -0,0 +1,94 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.looksee.contentAudit.services.InFlightAuditRegistry.Flight;
+import com.looksee.contentAudit.services.InFlightAuditRegistry.Outcome;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LocalInFlightAuditRegistryTest {
+
+	private SimpleMeterRegistry meter_registry;
+	private LocalInFlightAuditRegistry registry;
+
+	@Before
+	public void setUp() {
+		meter_registry = new SimpleMeterRegistry();
+		registry = new LocalInFlightAuditRegistry(meter_registry, 5000);
+	}
+
+	private double duplicates(String outcome) {
+		return meter_registry.find("audit.dedup.duplicates").tag("outcome", outcome).counter().count();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNegativeTimeout() {
+		new LocalInFlightAuditRegistry(meter_registry, -1);
+	}
+
+	@Test
+	public void firstDeliveryLeadsAndDuplicateFollows() {
+		Flight leader = registry.join(7);
+		Flight follower = registry.join(7);
+		Flight other = registry.join(8);
+
+		assertTrue(leader.isLeader());
+		assertFalse(follower.isLeader());
+		assertTrue(other.isLeader());
+		assertEquals(2, registry.size());
+	}
+
+	@Test
+	public void followerCompletesWithLeaderOutcome() throws Exception {
+		Flight leader = registry.join(7);
+		Flight follower = registry.join(7);
+
+		CompletableFuture<Outcome> outcome = follower.completion();
+		assertFalse(outcome.isDone());
+
+		leader.complete(true);
+		leader.close();
+
+		assertEquals(Outcome.SUCCEEDED, outcome.get(5, TimeUnit.SECONDS));
+		assertEquals(1, duplicates("succeeded"), 0);
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	public void closingWithoutCompletingFailsFollowers() throws Exception {
+		Flight follower;
+		try (Flight leader = registry.join(7)) {
+			follower = registry.join(7);
+		}
+
+		assertEquals(Outcome.FAILED, follower.completion().get(5, TimeUnit.SECONDS));
+		assertEquals(1, duplicates("failed"), 0);
+	}
+
+	@Test
+	public void followerTimesOutWhileLeaderRuns() throws Exception {
+		registry = new LocalInFlightAuditRegistry(meter_registry, 10);
+		registry.join(7);
+
+		assertEquals(Outcome.TIMED_OUT, registry.join(7).completion().get(5, TimeUnit.SECONDS));
+		assertEquals(1, duplicates("timed_out"), 0);
+	}
+
+	@Test
+	public void deliveryAfterCompletionLeadsAgain() {
+		try (Flight leader = registry.join(7)) {
+			leader.complete(true);
+		}
+
+		assertTrue(registry.join(7).isLeader());
+	}
+}
@@ -0,0 +1,148 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.looksee.models.ElementState;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MemoryAdmissionControllerTest {
+
+	private static final long MB = 1024 * 1024;
+
+	private SimpleMeterRegistry registry;
+
+	@Before
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+	}
+
+	private double decisions(String outcome) {
+		return registry.find("audit.admission.decisions").tag("outcome", outcome).counter().count();
+	}
+
+	private static ElementState element(String owned_text, String all_text, String outer_html) {
+		return new ElementState() {
+			@Override
+			public String getOwnedText() {
+				return owned_text;
+			}
+
+			@Override
+			public String getAllText() {
+				return all_text;
+			}
+
+			@Override
+			public String getOuterHtml() {
+				return outer_html;
+			}
+		};
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNegativeBudget() {
+		new MemoryAdmissionController(registry, -1, 0, 2048, 8);
+	}
+
+	@Test
+	public void estimateCountsElementsAndTextCharacters() {
+		MemoryAdmissionController controller = new MemoryAdmissionController(registry, 10, 0, 100, 2);
+		List<ElementState> elements = new ArrayList<>();
+		elements.add(element("abc", "abcdef", "<p>abcdef</p>"));
+		elements.add(element(null, null, null));
+
+		assertEquals(2 * 100 + (3 + 6 + 13) * 2, controller.estimateCost(elements));
+	}
+
+	@Test
+	public void admitsWithinBudgetAndTracksInFlightCost() throws Exception {
+		MemoryAdmissionController controller = new MemoryAdmissionController(registry, 10, 0, 2048, 8);
+
+		MemoryAdmissionController.Permit first = controller.admit(4 * MB);
+		MemoryAdmissionController.Permit second = controller.admit(6 * MB);
+
+		assertNotNull(first);
+		assertNotNull(second);
+		assertEquals(10 * MB, controller.getInFlightBytes());
+		assertEquals(10.0 * MB, registry.find("audit.admission.inflight.bytes").gauge().value(), 0.0);
+
+		first.close();
+		first.close();
+		assertEquals(6 * MB, controller.getInFlightBytes());
+		second.close();
+		assertEquals(0, controller.getInFlightBytes());
+		assertEquals(2.0, decisions("admitted"), 0.0);
+	}
+
+	@Test
+	public void defersWhenBudgetIsExhaustedAfterTimeout() throws Exception {
+		MemoryAdmissionController controller = new MemoryAdmissionController(registry, 10, 50, 2048, 8);
+
+		try (MemoryAdmissionController.Permit held = controller.admit(8 * MB)) {
+			long start = System.nanoTime();
+			assertNull(controller.admit(4 * MB));
+			assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		}
+		assertEquals(1.0, decisions("deferred"), 0.0);
+	}
+
+	@Test
+	public void queuedAuditIsAdmittedWhenBudgetIsReleased() throws Exception {
+		MemoryAdmissionController controller = new MemoryAdmissionController(registry, 10, 5000, 2048, 8);
+		MemoryAdmissionController.Permit held = controller.admit(8 * MB);
+
+		CompletableFuture<MemoryAdmissionController.Permit> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return controller.admit(4 * MB);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(50);
+		assertEquals(8 * MB, controller.getInFlightBytes());
+
+		held.close();
+		MemoryAdmissionController.Permit admitted = waiting.get(5, TimeUnit.SECONDS);
+
+		assertNotNull(admitted);
+		assertEquals(4 * MB, controller.getInFlightBytes());
+		assertEquals(1.0, decisions("queued"), 0.0);
+	}
+
+	@Test
+	public void batchIsAdmittedAsAWholeAndReleasedPerAudit() throws Exception {
+		MemoryAdmissionController controller = new MemoryAdmissionController(registry, 10, 0, 2048, 8);
+
+		List<MemoryAdmissionController.Permit> permits = controller.admitAll(List.of(6 * MB, 4 * MB));
+
+		assertEquals(2, permits.size());
+		assertEquals(10 * MB, controller.getInFlightBytes());
+		assertNull(controller.admitAll(List.of(1L)));
+		permits.get(0).close();
+		assertEquals(4 * MB, controller.getInFlightBytes());
+		permits.get(1).close();
+		assertEquals(0, controller.getInFlightBytes());
+	}
+
+	@Test
+	public void auditLargerThanBudgetIsAdmittedWhenNothingElseIsInFlight() throws Exception {
+		MemoryAdmissionController controller = new MemoryAdmissionController(registry, 1, 0, 2048, 8);
+
+		try (MemoryAdmissionController.Permit permit = controller.admit(50 * MB)) {
+			assertNotNull(permit);
+			assertNull(controller.admit(1));
+		}
+	}
+}
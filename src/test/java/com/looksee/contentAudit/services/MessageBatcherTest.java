@@ -0,0 +1,71 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MessageBatcherTest {
+
+	private final SimpleMeterRegistry meter_registry = new SimpleMeterRegistry();
+	private final BlockingQueue<List<String>> handled = new LinkedBlockingQueue<>();
+	private MessageBatcher batcher;
+
+	@After
+	public void tearDown() {
+		if(batcher != null) {
+			batcher.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNonPositiveMaxSize() {
+		new MessageBatcher(meter_registry, true, 50, 0);
+	}
+
+	@Test
+	public void messagesOfAKeyJoinItsOpenBatchUntilItsWindowEnds() throws Exception {
+		batcher = new MessageBatcher(meter_registry, true, 200, 16);
+
+		batcher.join(1, "a", handled::add);
+		batcher.join(1, "b", handled::add);
+		batcher.join(2, "c", handled::add);
+
+		assertEquals(List.of("a", "b"), handled.poll(5, TimeUnit.SECONDS));
+		assertEquals(List.of("c"), handled.poll(5, TimeUnit.SECONDS));
+		batcher.join(1, "d", handled::add);
+		assertEquals(List.of("d"), handled.poll(5, TimeUnit.SECONDS));
+		assertEquals(2, meter_registry.find("audit.batching.size").summary().max(), 0);
+	}
+
+	@Test
+	public void fullBatchClosesBeforeItsWindowEnds() throws Exception {
+		batcher = new MessageBatcher(meter_registry, true, TimeUnit.MINUTES.toMillis(1), 2);
+
+		batcher.join(1, "a", handled::add);
+		batcher.join(1, "b", handled::add);
+		batcher.join(1, "c", handled::add);
+
+		assertEquals(List.of("a", "b"), handled.poll(5, TimeUnit.SECONDS));
+		assertNull(handled.poll(100, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void joinReturnsBeforeTheBatchCloses() {
+		batcher = new MessageBatcher(meter_registry, true, TimeUnit.MINUTES.toMillis(1), 16);
+
+		long started = System.nanoTime();
+		batcher.join(1, "a", handled::add);
+
+		assertEquals(true, System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+		assertNull(handled.peek());
+	}
+}
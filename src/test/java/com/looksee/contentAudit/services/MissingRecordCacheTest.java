@@ -0,0 +1,82 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MissingRecordCacheTest {
+
+	private SimpleMeterRegistry meter_registry;
+	private AtomicLong now;
+
+	@Before
+	public void setUp() {
+		meter_registry = new SimpleMeterRegistry();
+		now = new AtomicLong();
+	}
+
+	private MissingRecordCache cache(long ttl_ms, int max_entries) {
+		return new MissingRecordCache(meter_registry, ttl_ms, max_entries, now::get);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNonPositiveMaxEntries() {
+		cache(1000, 0);
+	}
+
+	@Test
+	public void remembersMissingIdsUntilTheyExpire() {
+		MissingRecordCache cache = cache(1000, 10);
+		cache.recordMissing(7);
+
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+		assertTrue(cache.isKnownMissing(7));
+		assertFalse(cache.isKnownMissing(8));
+
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+		assertFalse(cache.isKnownMissing(7));
+		assertEquals(0, cache.size());
+		assertEquals(1, meter_registry.find("audit.negative-cache.hits").counter().count(), 0);
+	}
+
+	@Test
+	public void invalidateForgetsAnId() {
+		MissingRecordCache cache = cache(1000, 10);
+		cache.recordMissing(7);
+		cache.invalidate(7);
+
+		assertFalse(cache.isKnownMissing(7));
+	}
+
+	@Test
+	public void evictsOldestIdBeyondMaxEntries() {
+		MissingRecordCache cache = cache(1000, 2);
+		cache.recordMissing(1);
+		cache.recordMissing(2);
+		cache.recordMissing(1);
+		cache.recordMissing(3);
+
+		assertEquals(2, cache.size());
+		assertTrue(cache.isKnownMissing(1));
+		assertFalse(cache.isKnownMissing(2));
+		assertTrue(cache.isKnownMissing(3));
+	}
+
+	@Test
+	public void zeroTtlDisablesTheCache() {
+		MissingRecordCache cache = cache(0, 10);
+		cache.recordMissing(7);
+
+		assertFalse(cache.isEnabled());
+		assertFalse(cache.isKnownMissing(7));
+		assertEquals(0, cache.size());
+	}
+}
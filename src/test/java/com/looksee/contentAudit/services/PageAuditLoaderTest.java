@@ -0,0 +1,97 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import com.looksee.contentAudit.models.ContentAuditRecord;
+import com.looksee.contentAudit.models.ContentPageState;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+import com.looksee.models.enums.AuditCategory;
+import com.looksee.models.enums.AuditLevel;
+import com.looksee.models.enums.AuditName;
+import com.looksee.models.enums.AuditSubcategory;
+import com.looksee.services.AuditRecordService;
+import com.looksee.services.PageStateService;
+
+public class PageAuditLoaderTest {
+
+	@Test
+	public void mapsProjectionRowToRecords() {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", 42L);
+		row.put("targetUserEducation", "College");
+		row.put("pageStateId", 100);
+		row.put("url", "https://example.com");
+		row.put("auditNames", List.of("PARAGRAPHING", "NOT_A_CONTENT_AUDIT"));
+
+		PageAuditLoader.PageAuditRecords records = PageAuditLoader.toRecords(row);
+
+		assertEquals(Long.valueOf(42), records.getAuditRecord().getId());
+		assertEquals("College", records.getAuditRecord().getTargetUserEducation());
+		assertEquals(Long.valueOf(100), records.getPage().getId());
+		assertEquals("https://example.com", records.getPage().getUrl());
+		assertEquals(Set.of(AuditName.PARAGRAPHING), records.getAuditNames());
+	}
+
+	@Test
+	public void mapsRecordWithoutPageStateToNullPage() {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", 42L);
+		row.put("auditNames", List.of());
+
+		PageAuditLoader.PageAuditRecords records = PageAuditLoader.toRecords(row);
+
+		assertNull(records.getPage());
+		assertEquals(Set.of(), records.getAuditNames());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void looksUpEachRecordThroughTheServicesWhenProjectionIsDisabled() {
+		AuditRecord audit_record = new ContentAuditRecord(42L, null);
+		PageState page = new ContentPageState(100L, "https://example.com");
+		AuditRecordService audit_record_service = new AuditRecordService() {
+			@Override
+			public Optional<AuditRecord> findById(long id) {
+				return id == 42 ? Optional.of(audit_record) : Optional.empty();
+			}
+
+			@Override
+			public Set<Audit> getAllAudits(long id) {
+				return Set.of(new Audit(AuditCategory.CONTENT, AuditSubcategory.WRITTEN_CONTENT, AuditName.ALT_TEXT,
+										0, null, AuditLevel.PAGE, 0, "https://example.com", "", "", false));
+			}
+		};
+		PageStateService page_state_service = new PageStateService() {
+			@Override
+			public PageState findByAuditRecordId(long id) {
+				return page;
+			}
+		};
+		ObjectProvider<Neo4jClient> neo4j_client = mock(ObjectProvider.class);
+
+		PageAuditLoader loader = new PageAuditLoader(neo4j_client, audit_record_service, page_state_service, false);
+		Map<Long, PageAuditLoader.PageAuditRecords> records = loader.loadAll(List.of(42L, 43L));
+
+		assertEquals(Set.of(42L), records.keySet());
+		assertSame(audit_record, records.get(42L).getAuditRecord());
+		assertSame(page, records.get(42L).getPage());
+		assertEquals(Set.of(AuditName.ALT_TEXT), records.get(42L).getAuditNames());
+		verifyNoInteractions(neo4j_client);
+	}
+}
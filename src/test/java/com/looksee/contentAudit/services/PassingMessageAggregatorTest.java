@@ -0,0 +1,78 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.looksee.contentAudit.models.messages.IssueTemplates;
+import com.looksee.models.audit.messages.UXIssueMessage;
+
+public class PassingMessageAggregatorTest {
+
+	@Test
+	public void disabledAggregatorLeavesResultsToBeItemized() {
+		PassingMessageAggregator.Tally tally = new PassingMessageAggregator(false).begin();
+
+		assertFalse(tally.add(IssueTemplates.SVG_TITLE_PRESENT, "svg"));
+		assertEquals(0, tally.getCount());
+		assertTrue(tally.toIssueMessages().isEmpty());
+	}
+
+	@Test
+	public void enabledAggregatorRollsUpResultsPerTemplateAndTag() {
+		PassingMessageAggregator.Tally tally = new PassingMessageAggregator(true).begin();
+
+		for(int i = 0; i < 5; i++) {
+			assertTrue(tally.add(IssueTemplates.IMAGE_ALT_TEXT_PRESENT, "area"));
+		}
+		for(int i = 0; i < 3; i++) {
+			assertTrue(tally.add(IssueTemplates.IMAGE_ALT_TEXT_PRESENT, "input"));
+		}
+		tally.add(IssueTemplates.MEDIA_TRACK_PRESENT, "video");
+
+		List<UXIssueMessage> summary_messages = tally.toIssueMessages();
+
+		assertEquals(9, tally.getCount());
+		assertEquals(3, summary_messages.size());
+		assertEquals(5, summary_messages.get(0).getPoints());
+		assertEquals(5, summary_messages.get(0).getMaxPoints());
+		assertEquals(3, summary_messages.get(1).getPoints());
+		assertEquals(1, summary_messages.get(2).getPoints());
+	}
+
+	@Test
+	public void summaryPointsScaleWithTemplatePoints() {
+		PassingMessageAggregator.Tally tally = new PassingMessageAggregator(true).begin();
+		tally.add(IssueTemplates.READABILITY_EASY_TO_READ, "p");
+		tally.add(IssueTemplates.READABILITY_EASY_TO_READ, "p");
+
+		UXIssueMessage summary_message = tally.toIssueMessages().get(0);
+
+		assertEquals(8, summary_message.getPoints());
+		assertEquals(8, summary_message.getMaxPoints());
+	}
+
+	@Test
+	public void summaryRuleIdsNameTemplateAndTag() {
+		PassingMessageAggregator.Tally tally = new PassingMessageAggregator(true).begin();
+		tally.add(IssueTemplates.IMAGE_ALT_TEXT_PRESENT, "area");
+		tally.add(IssueTemplates.IMAGE_ALT_TEXT_PRESENT, "input");
+
+		Map<String, UXIssueMessage> summary_messages = tally.toIssueMessagesByRule();
+
+		assertEquals(List.of("alt-text.image.present.summary.area", "alt-text.image.present.summary.input"),
+					new ArrayList<>(summary_messages.keySet()));
+		assertEquals(1, summary_messages.get("alt-text.image.present.summary.input").getPoints());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void addRejectsNullTag() {
+		new PassingMessageAggregator(true).begin().add(IssueTemplates.SVG_TITLE_PRESENT, null);
+	}
+}
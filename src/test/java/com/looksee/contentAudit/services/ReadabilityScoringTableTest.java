@@ -0,0 +1,135 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.looksee.contentAudit.models.enums.EducationLevel;
+
+public class ReadabilityScoringTableTest {
+
+	private static final String[] TARGET_EDUCATIONS = { null, "HS", "College", "Advanced", "Other", "", "hs" };
+
+	/**
+	 * The if/else chain that ReadabilityAudit used before the scoring table, kept
+	 * verbatim as the reference the default table must reproduce.
+	 */
+	private static int legacyPoints(double ease_of_reading_score, String target_user_education) {
+		int element_points = 0;
+
+		if(ease_of_reading_score >= 90 ) {
+			if(target_user_education == null) { element_points = 4; }
+			else if("HS".contentEquals(target_user_education)) { element_points = 4; }
+			else if("College".contentEquals(target_user_education)) { element_points = 4; }
+			else if("Advanced".contentEquals(target_user_education)) { element_points = 3; }
+			else { element_points = 4; }
+		}
+		else if(ease_of_reading_score < 90 && ease_of_reading_score >= 80 ) {
+			if(target_user_education == null) { element_points = 4; }
+			else if("HS".contentEquals(target_user_education)) { element_points = 4; }
+			else if("College".contentEquals(target_user_education)) { element_points = 4; }
+			else if("Advanced".contentEquals(target_user_education)) { element_points = 4; }
+			else { element_points = 4; }
+		}
+		else if(ease_of_reading_score < 80 && ease_of_reading_score >= 70) {
+			if(target_user_education == null) { element_points = 4; }
+			else if("HS".contentEquals(target_user_education)) { element_points = 4; }
+			else if("College".contentEquals(target_user_education)) { element_points = 4; }
+			else if("Advanced".contentEquals(target_user_education)) { element_points = 4; }
+			else { element_points = 3; }
+		}
+		else if(ease_of_reading_score < 70 && ease_of_reading_score >= 60) {
+			if(target_user_education == null) { element_points = 3; }
+			else if("HS".contentEquals(target_user_education)) { element_points = 3; }
+			else if("College".contentEquals(target_user_education)) { element_points = 4; }
+			else if("Advanced".contentEquals(target_user_education)) { element_points = 4; }
+			else { element_points = 2; }
+		}
+		else if(ease_of_reading_score < 60 && ease_of_reading_score >= 50) {
+			if(target_user_education == null) { element_points = 2; }
+			else if("HS".contentEquals(target_user_education)) { element_points = 2; }
+			else if("College".contentEquals(target_user_education)) { element_points = 3; }
+			else if("Advanced".contentEquals(target_user_education)) { element_points = 4; }
+			else { element_points = 1; }
+		}
+		else if(ease_of_reading_score < 50 && ease_of_reading_score >= 30) {
+			if(target_user_education == null) { element_points = 1; }
+			else if("HS".contentEquals(target_user_education)) { element_points = 1; }
+			else if("College".contentEquals(target_user_education)) { element_points = 2; }
+			else if("Advanced".contentEquals(target_user_education)) { element_points = 3; }
+			else { element_points = 0; }
+		}
+		else if(ease_of_reading_score < 30) {
+			if(target_user_education == null) { element_points = 0; }
+			else if("College".contentEquals(target_user_education)) { element_points = 1; }
+			else if("Advanced".contentEquals(target_user_education)) { element_points = 2; }
+			else { element_points = 0; }
+		}
+
+		return element_points;
+	}
+
+	@Test
+	public void defaultTableReproducesLegacyPointsExactly() {
+		ReadabilityScoringTable table = ReadabilityScoringTable.defaults();
+
+		for(String target_user_education : TARGET_EDUCATIONS) {
+			EducationLevel education_level = EducationLevel.fromTargetUserEducation(target_user_education);
+			for(int tenths = -2000; tenths <= 2000; tenths++) {
+				double score = tenths / 10.0;
+				assertEquals("score " + score + ", education " + target_user_education,
+						legacyPoints(score, target_user_education), table.getPoints(education_level, score));
+			}
+			for(double score : new double[] { Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+												Math.nextDown(90), Math.nextDown(30), -0.0 }) {
+				assertEquals("score " + score + ", education " + target_user_education,
+						legacyPoints(score, target_user_education), table.getPoints(education_level, score));
+			}
+		}
+	}
+
+	@Test
+	public void configuredTableUsesConfiguredBandsAndPoints() {
+		ReadabilityScoringTable table = new ReadabilityScoringTable(new double[] { 60 },
+																	new int[] { 4, 0 },
+																	new int[] { 4, 1 },
+																	new int[] { 4, 2 },
+																	new int[] { 4, 3 },
+																	new int[] { 3, 0 });
+
+		assertEquals(4, table.getPoints(EducationLevel.GENERAL, 60));
+		assertEquals(0, table.getPoints(EducationLevel.GENERAL, 59.9));
+		assertEquals(2, table.getPoints(EducationLevel.COLLEGE, 10));
+		assertEquals(3, table.getPoints(EducationLevel.OTHER, 75));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsBandFloorsThatAreNotDescending() {
+		new ReadabilityScoringTable(new double[] { 50, 60 },
+									new int[] { 4, 2, 0 }, new int[] { 4, 2, 0 }, new int[] { 4, 2, 0 },
+									new int[] { 4, 2, 0 }, new int[] { 4, 2, 0 });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsRowWithWrongNumberOfBands() {
+		new ReadabilityScoringTable(new double[] { 60 },
+									new int[] { 4, 0 }, new int[] { 4 }, new int[] { 4, 0 },
+									new int[] { 4, 0 }, new int[] { 4, 0 });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsPointsAboveMaximum() {
+		new ReadabilityScoringTable(new double[] { 60 },
+									new int[] { 5, 0 }, new int[] { 4, 0 }, new int[] { 4, 0 },
+									new int[] { 4, 0 }, new int[] { 4, 0 });
+	}
+
+	@Test
+	public void educationLevelResolvesAuditRecordValues() {
+		assertEquals(EducationLevel.GENERAL, EducationLevel.fromTargetUserEducation(null));
+		assertEquals(EducationLevel.HS, EducationLevel.fromTargetUserEducation("HS"));
+		assertEquals(EducationLevel.COLLEGE, EducationLevel.fromTargetUserEducation("College"));
+		assertEquals(EducationLevel.ADVANCED, EducationLevel.fromTargetUserEducation("Advanced"));
+		assertEquals(EducationLevel.OTHER, EducationLevel.fromTargetUserEducation("college"));
+	}
+}
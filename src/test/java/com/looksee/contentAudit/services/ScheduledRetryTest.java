@@ -0,0 +1,97 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ScheduledRetryTest {
+
+	private final SimpleMeterRegistry meter_registry = new SimpleMeterRegistry();
+	private ScheduledRetry retry;
+
+	@After
+	public void tearDown() {
+		if(retry != null) {
+			retry.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNonPositiveAttempts() {
+		new ScheduledRetry(meter_registry, 0, 10);
+	}
+
+	@Test
+	public void transientFailureIsRetriedUntilItSucceeds() throws Exception {
+		retry = new ScheduledRetry(meter_registry, 3, 10);
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = retry.call("load", () -> attempts.incrementAndGet() < 3
+				? CompletableFuture.failedFuture(new CompletionException(new IOException("connection reset")))
+				: CompletableFuture.completedFuture("loaded"))
+			.get(5, TimeUnit.SECONDS);
+
+		assertEquals("loaded", result);
+		assertEquals(3, attempts.get());
+		assertEquals(2, meter_registry.find("audit.retry.retries").tag("operation", "load").counter().count(), 0);
+	}
+
+	@Test
+	public void failureThatIsNotTransientIsNotRetried() throws Exception {
+		retry = new ScheduledRetry(meter_registry, 3, 10);
+		AtomicInteger attempts = new AtomicInteger();
+
+		CompletableFuture<String> result = retry.call("load", () -> {
+			attempts.incrementAndGet();
+			return CompletableFuture.failedFuture(new IllegalStateException("bad record"));
+		});
+
+		try {
+			result.get(5, TimeUnit.SECONDS);
+			fail("expected the failure");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertEquals(1, attempts.get());
+	}
+
+	@Test
+	public void lastTransientFailureIsReturnedOnceAttemptsAreUsedUp() throws Exception {
+		retry = new ScheduledRetry(meter_registry, 2, 10);
+		AtomicInteger attempts = new AtomicInteger();
+
+		CompletableFuture<String> result = retry.call("persist", () -> {
+			attempts.incrementAndGet();
+			throw new CompletionException(new IOException("connection reset"));
+		});
+
+		try {
+			result.get(5, TimeUnit.SECONDS);
+			fail("expected the failure");
+		} catch (ExecutionException e) {
+			assertTrue(ScheduledRetry.isTransient(e));
+		}
+		assertEquals(2, attempts.get());
+	}
+
+	@Test
+	public void onlyDependencyFailuresAreTransient() {
+		assertFalse(ScheduledRetry.isTransient(new BulkheadFullException(Bulkheads.Dependency.NEO4J)));
+		assertFalse(ScheduledRetry.isTransient(new PipelineStageFullException(AuditPipeline.Stage.LOAD)));
+		assertTrue(ScheduledRetry.isTransient(new CompletionException(new SocketException())));
+	}
+}
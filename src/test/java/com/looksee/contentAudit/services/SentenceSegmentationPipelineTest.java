@@ -0,0 +1,177 @@
+package com.looksee.contentAudit.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.cloud.language.v1.Sentence;
+import com.google.cloud.language.v1.TextSpan;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SentenceSegmentationPipelineTest {
+
+	private static final long LATENCY_MILLIS = 100;
+
+	private SentenceSegmentationPipeline pipeline;
+
+	/**
+	 * Local segmenter that injects a fixed latency per request and splits
+	 * paragraphs on periods.
+	 */
+	private static class LatencySegmenter implements SentenceSegmenter {
+		private final AtomicInteger in_flight = new AtomicInteger();
+		private final AtomicInteger max_in_flight = new AtomicInteger();
+
+		@Override
+		public List<Sentence> extractSentences(String paragraph) throws Exception {
+			max_in_flight.accumulateAndGet(in_flight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(LATENCY_MILLIS);
+				if (paragraph.startsWith("fail")) {
+					throw new IllegalStateException("segmentation failed");
+				}
+				List<Sentence> sentences = new ArrayList<>();
+				for (String text : paragraph.split("\\.")) {
+					sentences.add(Sentence.newBuilder()
+							.setText(TextSpan.newBuilder().setContent(text.trim()).build())
+							.build());
+				}
+				return sentences;
+			} finally {
+				in_flight.decrementAndGet();
+			}
+		}
+	}
+
+	@After
+	public void tearDown() {
+		if (pipeline != null) {
+			pipeline.shutdown();
+		}
+	}
+
+	private static SentenceSegmentationPipeline pipeline(SentenceSegmenter segmenter, int max_concurrency, double max_qps, int max_attempts) {
+		Bulkheads bulkheads = new Bulkheads(new SimpleMeterRegistry(), 1, max_concurrency, 1, 1000);
+		return new SentenceSegmentationPipeline(segmenter, bulkheads, 2 * max_concurrency, max_qps, max_attempts, 10);
+	}
+
+	private List<String> paragraphs(int count) {
+		List<String> paragraphs = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			paragraphs.add("Paragraph number " + i + ". Second sentence.");
+		}
+		return paragraphs;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNonPositiveQps() {
+		pipeline(new LatencySegmenter(), 1, 0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNonPositiveAttempts() {
+		pipeline(new LatencySegmenter(), 1, 10, 0);
+	}
+
+	@Test
+	public void concurrentRequestsAreFasterThanSerialAndKeepOrder() {
+		LatencySegmenter segmenter = new LatencySegmenter();
+		pipeline = pipeline(segmenter, 8, 1000, 1);
+		int count = 16;
+
+		long start = System.nanoTime();
+		List<CompletableFuture<List<Sentence>>> results = pipeline.submit(paragraphs(count));
+		for (int i = 0; i < count; i++) {
+			List<Sentence> sentences = results.get(i).join();
+			assertEquals("Paragraph number " + i, sentences.get(0).getText().getContent());
+		}
+		long elapsed_millis = (System.nanoTime() - start) / 1_000_000;
+
+		long serial_millis = count * LATENCY_MILLIS;
+		assertTrue("expected concurrent segmentation to take well under " + serial_millis + "ms, took " + elapsed_millis + "ms",
+				elapsed_millis < serial_millis / 2);
+		assertTrue(segmenter.max_in_flight.get() > 1);
+	}
+
+	@Test
+	public void inFlightRequestsNeverExceedConcurrencyLimit() {
+		LatencySegmenter segmenter = new LatencySegmenter();
+		pipeline = pipeline(segmenter, 3, 1000, 1);
+
+		CompletableFuture.allOf(pipeline.submit(paragraphs(12)).toArray(new CompletableFuture[0])).join();
+
+		assertTrue(segmenter.max_in_flight.get() <= 3);
+	}
+
+	@Test
+	public void requestRateIsLimitedToConfiguredQps() {
+		pipeline = pipeline(new LatencySegmenter(), 8, 20, 1);
+
+		long start = System.nanoTime();
+		CompletableFuture.allOf(pipeline.submit(paragraphs(6)).toArray(new CompletableFuture[0])).join();
+		long elapsed_millis = (System.nanoTime() - start) / 1_000_000;
+
+		// 6 requests at 20 qps start at 0, 50, ..., 250ms
+		assertTrue("expected at least 250ms, took " + elapsed_millis + "ms", elapsed_millis >= 250);
+	}
+
+	@Test
+	public void failedRequestCompletesExceptionallyWithoutAffectingOthers() {
+		pipeline = pipeline(new LatencySegmenter(), 4, 1000, 1);
+		List<String> paragraphs = new ArrayList<>();
+		paragraphs.add("First paragraph.");
+		paragraphs.add("fail this paragraph.");
+		paragraphs.add("Third paragraph.");
+
+		List<CompletableFuture<List<Sentence>>> results = pipeline.submit(paragraphs);
+
+		assertEquals("First paragraph", results.get(0).join().get(0).getText().getContent());
+		assertEquals("Third paragraph", results.get(2).join().get(0).getText().getContent());
+		try {
+			results.get(1).join();
+			fail("expected segmentation failure");
+		} catch (CompletionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void failedRequestIsRetriedUntilItSucceeds() {
+		AtomicInteger attempts = new AtomicInteger();
+		pipeline = pipeline(paragraph -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new IllegalStateException("backend unavailable");
+			}
+			return new LatencySegmenter().extractSentences(paragraph);
+		}, 2, 1000, 3);
+
+		List<Sentence> sentences = pipeline.submit(List.of("Only paragraph.")).get(0).join();
+
+		assertEquals("Only paragraph", sentences.get(0).getText().getContent());
+		assertEquals(3, attempts.get());
+	}
+
+	@Test
+	public void workersBeyondTheBulkheadAreRejected() {
+		SimpleMeterRegistry meter_registry = new SimpleMeterRegistry();
+		LatencySegmenter segmenter = new LatencySegmenter();
+		pipeline = new SentenceSegmentationPipeline(segmenter, new Bulkheads(meter_registry, 1, 1, 1, 0), 4, 1000, 1, 10);
+
+		List<CompletableFuture<List<Sentence>>> results = pipeline.submit(paragraphs(4));
+		CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+
+		assertEquals(1, segmenter.max_in_flight.get());
+		assertTrue(results.stream().anyMatch(CompletableFuture::isCompletedExceptionally));
+		assertTrue(meter_registry.find("audit.bulkhead.rejected").tag("dependency", "cloud-nlp").counter().count() > 0);
+	}
+}
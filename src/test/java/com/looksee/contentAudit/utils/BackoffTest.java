@@ -0,0 +1,38 @@
+package com.looksee.contentAudit.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BackoffTest {
+
+	@Test
+	public void nominalDelayDoublesUpToMax() {
+		Backoff backoff = Backoff.exponential(100, 1000);
+
+		assertEquals(100, backoff.nominalDelayMillis(1));
+		assertEquals(200, backoff.nominalDelayMillis(2));
+		assertEquals(800, backoff.nominalDelayMillis(4));
+		assertEquals(1000, backoff.nominalDelayMillis(5));
+		assertEquals(1000, backoff.nominalDelayMillis(60));
+	}
+
+	@Test
+	public void jitteredDelayStaysInUpperHalfOfNominalDelay() {
+		Backoff backoff = Backoff.exponential(100, 1000);
+
+		for(int retry = 1; retry <= 6; retry++) {
+			long nominal = backoff.nominalDelayMillis(retry);
+			for(int sample = 0; sample < 100; sample++) {
+				long delay = backoff.delayMillis(retry);
+				assertTrue(delay >= nominal / 2 && delay <= nominal);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsInitialDelayAboveMax() {
+		Backoff.exponential(1000, 100);
+	}
+}
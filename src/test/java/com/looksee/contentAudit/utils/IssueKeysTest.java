@@ -0,0 +1,54 @@
+package com.looksee.contentAudit.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.looksee.contentAudit.models.ImageAltTextAudit;
+import com.looksee.contentAudit.models.SVGAltTextAudit;
+
+public class IssueKeysTest {
+
+	@Test
+	public void sameIssueGetsSameKey() {
+		String key = IssueKeys.forAudit(7, ImageAltTextAudit.class).of("elementstate1", "alt-text.image.missing");
+
+		assertEquals(key, IssueKeys.forAudit(7, ImageAltTextAudit.class).of("elementstate1", "alt-text.image.missing"));
+		assertTrue(key.startsWith("uxissue"));
+	}
+
+	@Test
+	public void everyPartOfTheIssueChangesTheKey() {
+		IssueKeys issue_keys = IssueKeys.forAudit(7, ImageAltTextAudit.class);
+		String key = issue_keys.of("elementstate1", "alt-text.image.missing");
+
+		assertNotEquals(key, IssueKeys.forAudit(8, ImageAltTextAudit.class).of("elementstate1", "alt-text.image.missing"));
+		assertNotEquals(key, IssueKeys.forAudit(7, SVGAltTextAudit.class).of("elementstate1", "alt-text.image.missing"));
+		assertNotEquals(key, issue_keys.of("elementstate2", "alt-text.image.missing"));
+		assertNotEquals(key, issue_keys.of("elementstate1", "alt-text.image.empty"));
+		assertNotEquals(issue_keys.of(null, "alt-text.image.missing"), issue_keys.of("", "alt-text.image.missing.x"));
+	}
+
+	@Test
+	public void auditKeyDependsOnThePageAuditAndTheAuditOnly() {
+		String key = IssueKeys.forAudit(7, ImageAltTextAudit.class).auditKey();
+
+		assertEquals(key, IssueKeys.forAudit(7, ImageAltTextAudit.class).auditKey());
+		assertNotEquals(key, IssueKeys.forAudit(8, ImageAltTextAudit.class).auditKey());
+		assertNotEquals(key, IssueKeys.forAudit(7, SVGAltTextAudit.class).auditKey());
+		assertTrue(key.startsWith("audit"));
+	}
+
+	@Test
+	public void uniqueBuildersNeverShareKeys() {
+		assertNotEquals(IssueKeys.unique(ImageAltTextAudit.class).of("elementstate1", "alt-text.image.missing"),
+						IssueKeys.unique(ImageAltTextAudit.class).of("elementstate1", "alt-text.image.missing"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void rejectsNullRuleId() {
+		IssueKeys.forAudit(7, ImageAltTextAudit.class).of("elementstate1", null);
+	}
+}
@@ -0,0 +1,38 @@
+package com.looksee.contentAudit.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LogSamplerTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorRejectsNonPositiveRate() {
+		new LogSampler(0);
+	}
+
+	@Test
+	public void samplesFirstAndEveryNthEvent() {
+		LogSampler sampler = new LogSampler(3);
+		int sampled = 0;
+		for (int i = 0; i < 9; i++) {
+			boolean selected = sampler.sample();
+			if (i % 3 == 0) {
+				assertTrue("expected event " + i + " to be sampled", selected);
+			}
+			if (selected) {
+				sampled++;
+			}
+		}
+		assertEquals(3, sampled);
+	}
+
+	@Test
+	public void samplerOfOneSelectsEveryEvent() {
+		LogSampler sampler = new LogSampler(1);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(sampler.sample());
+		}
+	}
+}
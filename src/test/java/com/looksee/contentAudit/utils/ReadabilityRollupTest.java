@@ -0,0 +1,101 @@
+package com.looksee.contentAudit.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.looksee.contentAudit.models.enums.Language;
+import com.looksee.models.ElementState;
+
+public class ReadabilityRollupTest {
+
+	private static ElementState element(String name) {
+		return new ElementState() {
+			@Override
+			public String getName() {
+				return name;
+			}
+		};
+	}
+
+	@Test
+	public void groupsTextBlocksByHeading() {
+		ElementState intro = element("p");
+		ElementState heading = element("h2");
+		ElementState first = element("p");
+		ElementState second = element("li");
+		ElementState other_heading = element("H3");
+		List<ElementState> page = Arrays.asList(intro, heading, first, second, other_heading);
+
+		ReadabilityRollup rollup = ReadabilityRollup.of(page);
+		rollup.add(intro, TextStatistics.of("An opening line."));
+		rollup.add(first, TextStatistics.of("One. Two."));
+		rollup.add(second, TextStatistics.of("Three four."));
+
+		List<ReadabilityRollup.Section> sections = rollup.getSections();
+		assertEquals(2, sections.size());
+		assertNull(sections.get(0).getHeading());
+		assertSame(intro, sections.get(0).getFirstElement());
+		assertSame(heading, sections.get(1).getHeading());
+		assertSame(first, sections.get(1).getFirstElement());
+		assertEquals(2, sections.get(1).getBlockCount());
+		assertEquals(3, sections.get(1).getStatistics().getSentences());
+		assertEquals(4, sections.get(1).getStatistics().getWords());
+	}
+
+	@Test
+	public void pageTotalsAreTheSumOfSections() {
+		ElementState heading = element("h1");
+		ElementState body = element("p");
+		ElementState footer_heading = element("h2");
+		ElementState footer = element("p");
+		ReadabilityRollup rollup = ReadabilityRollup.of(Arrays.asList(heading, body, footer_heading, footer));
+
+		TextStatistics body_text = TextStatistics.of("Readable sentences keep people reading.");
+		TextStatistics footer_text = TextStatistics.of("Copyright notices are rarely memorable.");
+		rollup.add(body, body_text);
+		rollup.add(footer, footer_text);
+
+		TextStatistics page = rollup.getPageStatistics();
+		assertEquals(body_text.plus(footer_text).getWords(), page.getWords());
+		assertEquals(body_text.plus(footer_text).readingEase(), rollup.getPageReadingEase(), 0.0);
+	}
+
+	@Test
+	public void reportsNoSectionsBeforeTextIsAdded() {
+		ReadabilityRollup rollup = ReadabilityRollup.of(Arrays.asList(element("h1"), element("p")));
+
+		assertTrue(rollup.getSections().isEmpty());
+		assertTrue(Double.isNaN(rollup.getPageReadingEase()));
+	}
+
+	@Test
+	public void scoresByTheLanguageWithTheMostWords() {
+		ElementState heading = element("h1");
+		ElementState german = element("p");
+		ElementState english = element("p");
+		ReadabilityRollup rollup = ReadabilityRollup.of(Arrays.asList(heading, german, english));
+
+		TextStatistics german_text = new TextStatistics(2, 30, 50);
+		TextStatistics english_text = new TextStatistics(1, 5, 6);
+		rollup.add(german, german_text, Language.GERMAN);
+		rollup.add(english, english_text, Language.ENGLISH);
+
+		assertEquals(Language.GERMAN, rollup.getPageLanguage());
+		assertEquals(Language.GERMAN, rollup.getSections().get(0).getLanguage());
+		assertEquals(german_text.plus(english_text).readingEase(Language.GERMAN), rollup.getPageReadingEase(), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsElementsNotOnThePage() {
+		ReadabilityRollup rollup = ReadabilityRollup.of(Arrays.asList(element("p")));
+
+		rollup.add(element("p"), TextStatistics.of("Stray text."));
+	}
+}
@@ -0,0 +1,101 @@
+package com.looksee.contentAudit.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.looksee.contentAudit.models.enums.Language;
+
+public class TextStatisticsTest {
+
+	@Test
+	public void countsSentencesWordsAndSyllables() {
+		TextStatistics statistics = TextStatistics.of("The cat sat. Did it make a table?");
+
+		assertEquals(2, statistics.getSentences());
+		assertEquals(8, statistics.getWords());
+		//the, cat, sat, did, it, make, a, ta-ble
+		assertEquals(9, statistics.getSyllables());
+	}
+
+	@Test
+	public void countsTextWithoutTerminatorAsOneSentence() {
+		TextStatistics statistics = TextStatistics.of("  a heading without a full stop ");
+
+		assertEquals(1, statistics.getSentences());
+		assertEquals(6, statistics.getWords());
+	}
+
+	@Test
+	public void collapsesRunsOfTerminators() {
+		assertEquals(3, TextStatistics.of("Really?! Yes... it is.").getSentences());
+	}
+
+	@Test
+	public void returnsEmptyForNullOrWordlessText() {
+		assertSame(TextStatistics.EMPTY, TextStatistics.of(null));
+		assertSame(TextStatistics.EMPTY, TextStatistics.of(" ... !! "));
+		assertTrue(Double.isNaN(TextStatistics.EMPTY.readingEase()));
+	}
+
+	@Test
+	public void countsAtLeastOneSyllablePerWord() {
+		assertEquals(1, TextStatistics.countSyllables("rhythm", 0, 6));
+		assertEquals(1, TextStatistics.countSyllables("the", 0, 3));
+		assertEquals(1, TextStatistics.countSyllables("make", 0, 4));
+		assertEquals(3, TextStatistics.countSyllables("beautiful", 0, 9));
+	}
+
+	@Test
+	public void addingCountsMatchesCountingTheJoinedText() {
+		String first = "Short words are easy to read.";
+		String second = "Polysyllabic terminology considerably complicates comprehension.";
+
+		TextStatistics sum = TextStatistics.of(first).plus(TextStatistics.of(second));
+		TextStatistics joined = TextStatistics.of(first + " " + second);
+
+		assertEquals(joined.getSentences(), sum.getSentences());
+		assertEquals(joined.getWords(), sum.getWords());
+		assertEquals(joined.getSyllables(), sum.getSyllables());
+		assertEquals(joined.readingEase(), sum.readingEase(), 0.0);
+	}
+
+	@Test
+	public void simpleTextReadsMoreEasilyThanDenseText() {
+		double simple = TextStatistics.of("The dog ran. The sun was hot. We had fun.").readingEase();
+		double dense = TextStatistics.of("Institutional considerations necessitate comprehensive organizational restructuring.").readingEase();
+
+		assertTrue(simple > 90);
+		assertTrue(dense < 0);
+	}
+
+	@Test
+	public void countsSyllablesByLanguage() {
+		//Spanish strong vowels split into separate syllables: le-o
+		assertEquals(2, TextStatistics.of("leo", Language.SPANISH).getSyllables());
+		//French mute final e and es: chose, choses, mai-son
+		assertEquals(1, TextStatistics.of("chose", Language.FRENCH).getSyllables());
+		assertEquals(1, TextStatistics.of("choses", Language.FRENCH).getSyllables());
+		assertEquals(2, TextStatistics.of("maison", Language.FRENCH).getSyllables());
+		//German umlauts are vowels: M\u00e4d-chen
+		assertEquals(2, TextStatistics.of("M\u00e4dchen", Language.GERMAN).getSyllables());
+	}
+
+	@Test
+	public void scoresWithEachLanguagesFormula() {
+		TextStatistics statistics = new TextStatistics(2, 20, 30);
+
+		assertEquals(206.835 - 1.015 * 10 - 84.6 * 1.5, statistics.readingEase(Language.ENGLISH), 1e-9);
+		assertEquals(180 - 10 - 58.5 * 1.5, statistics.readingEase(Language.GERMAN), 1e-9);
+		assertEquals(206.84 - 0.60 * 150 - 1.02 * 10, statistics.readingEase(Language.SPANISH), 1e-9);
+		assertEquals(207 - 1.015 * 10 - 73.6 * 1.5, statistics.readingEase(Language.FRENCH), 1e-9);
+		assertEquals(statistics.readingEase(Language.ENGLISH), statistics.readingEase(), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeCounts() {
+		new TextStatistics(-1, 0, 0);
+	}
+}
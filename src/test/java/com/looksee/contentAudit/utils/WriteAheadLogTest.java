@@ -0,0 +1,75 @@
+package com.looksee.contentAudit.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WriteAheadLogTest {
+
+	private Path file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = Files.createTempDirectory("wal-test").resolve("pending.log");
+	}
+
+	@Test
+	public void recoversEntriesNotMarkedDoneInAppendOrder() throws IOException {
+		try (WriteAheadLog log = WriteAheadLog.open(file)) {
+			long first = log.append("first");
+			log.append("second");
+			log.append("third");
+			log.markDone(List.of(first));
+		}
+
+		try (WriteAheadLog log = WriteAheadLog.open(file)) {
+			List<WriteAheadLog.Entry> recovered = log.recovered();
+			assertEquals(2, recovered.size());
+			assertEquals("second", recovered.get(0).getPayload());
+			assertEquals("third", recovered.get(1).getPayload());
+			assertEquals(2, log.outstanding());
+			assertTrue(log.append("fourth") > recovered.get(1).getSeq());
+		}
+	}
+
+	@Test
+	public void ignoresTornLastLine() throws IOException {
+		try (WriteAheadLog log = WriteAheadLog.open(file)) {
+			log.append("complete");
+		}
+		Files.write(file, "P 2 {\"torn".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		try (WriteAheadLog log = WriteAheadLog.open(file)) {
+			assertEquals(1, log.recovered().size());
+			assertEquals("complete", log.recovered().get(0).getPayload());
+		}
+	}
+
+	@Test
+	public void truncatesOnceNothingIsOutstanding() throws IOException {
+		try (WriteAheadLog log = WriteAheadLog.open(file)) {
+			long first = log.append("first");
+			long second = log.append("second");
+			log.markDone(List.of(first, second));
+
+			assertEquals(0, log.outstanding());
+			assertEquals(0, Files.size(file));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsPayloadWithLineBreak() throws IOException {
+		try (WriteAheadLog log = WriteAheadLog.open(file)) {
+			log.append("two\nlines");
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.looksee.contentAudit.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class XPathIndexTest {
+
+	private static XPathIndex index(String... xpaths) {
+		return XPathIndex.of(Arrays.asList(xpaths));
+	}
+
+	@Test
+	public void indexedSiblingsAreNotAncestors() {
+		XPathIndex index = index("/html/body/div[1]", "/html/body/div[10]", "/html/body/div[10]/p[1]", "/html/body/div[1]/p[1]");
+
+		assertFalse(index.isAncestorOrSelf(0, 1));
+		assertFalse(index.isAncestorOrSelf(1, 0));
+		assertFalse(index.isAncestorOrSelf(0, 2));
+		assertTrue(index.isAncestorOrSelf(1, 2));
+		assertTrue(index.isAncestorOrSelf(0, 3));
+	}
+
+	@Test
+	public void stepWithoutPositionIsFirstPosition() {
+		XPathIndex index = index("/html/body/div", "/html/body/div[1]/p", "/html/body/div[10]", "/html/body/divider");
+
+		assertTrue(index.isAncestorOrSelf(0, 1));
+		assertFalse(index.isAncestorOrSelf(0, 2));
+		assertFalse(index.isAncestorOrSelf(0, 3));
+	}
+
+	@Test
+	public void selfIsAncestorOrSelfButNotAncestor() {
+		XPathIndex index = index("/html/body/div[2]", "/html/body/div[2]", "/html/body");
+
+		assertTrue(index.isAncestorOrSelf(0, 1));
+		assertFalse(index.isAncestor(0, 1));
+		assertTrue(index.isAncestor(2, 0));
+		assertFalse(index.isAncestor(0, 2));
+	}
+
+	@Test
+	public void nullXpathsMatchNothing() {
+		XPathIndex index = index(null, "/html/body");
+
+		assertFalse(index.isAncestorOrSelf(0, 1));
+		assertFalse(index.isAncestorOrSelf(1, 0));
+		assertFalse(index.isAncestorOrSelf(0, 0));
+		assertEquals(0, index.depth(0));
+		assertEquals(2, index.depth(1));
+	}
+
+	@Test
+	public void slashesInsidePredicatesDoNotSplitSteps() {
+		List<String> steps = XPathIndex.steps("//div[@href='/a/b']/span");
+
+		assertEquals(Arrays.asList("div[@href='/a/b']", "span[1]"), steps);
+	}
+
+	@Test
+	public void documentOrderPutsAncestorsAndPositionedSiblingsFirst() {
+		XPathIndex index = index("/html/body/p[3]", "/html/body/div[1]/p[1]", "/html/body/h2[2]", "/html/body", null,
+				"/html/body/p[1]", "/html/body/h2[1]", "/html/body/div[1]", "/html/body/p[2]");
+
+		// h2 and p slots keep their first appearance; within each name the positions decide
+		assertArrayEquals(new int[] { 3, 5, 7, 1, 6, 8, 2, 0, 4 }, index.documentOrder());
+	}
+}